@@ -1,14 +1,17 @@
 package org.banking;
 
+import org.banking.api.ApiServer;
 import org.banking.dao.*;
+import org.banking.metrics.MetricsHttpServer;
 import org.banking.model.*;
 import org.banking.service.BankingService;
+import org.banking.service.InterestAccrualJob;
+import org.banking.service.LoginUnavailableException;
+import org.banking.service.RegistrationRules;
 import org.banking.service.TransactionOutcome;
 import org.banking.util.BalanceAlertMonitor;
 
-import java.math.BigDecimal;
 import java.sql.Date;
-import java.util.List;
 import java.util.Optional;
 import java.util.Scanner;
 
@@ -16,21 +19,37 @@ public class Main {
 
     private static final BankingService bankingService;
     private static final Scanner scanner = new Scanner(System.in);
+    private static final int HISTORY_PAGE_SIZE = 20;
+    private static final boolean ALERT_SCAN = Repositories.balancesInAccountsTable();
+    private static final InterestAccrualJob interestJob;
     private static BankingSession currentSession = null;
 
     static {
-        CustomerRepository customerRepository = new CustomerRepositoryImpl();
-        AccountRepository accountRepository = new AccountRepositoryHybrid(); // Hybrid (DB + cache)
-        TransactionRepository transactionRepository = new TransactionRepositoryImpl();
-        bankingService = new BankingService(customerRepository, accountRepository, transactionRepository);
+        Repositories repositories = Repositories.fromConfig();
+        bankingService = new BankingService(repositories.customers(), repositories.accounts(), repositories.transactions());
+        // only the JDBC repositories can commit interest batches with their checkpoints
+        interestJob = repositories.checkpointedPostings()
+                .map(accounts -> new InterestAccrualJob(accounts, repositories.transactions(), InterestAccrualJob.Settings.fromConfig()))
+                .orElse(null);
     }
 
-    public static void main(String[] args) {
+    public static void main(String[] args) throws Exception {
+        // Prometheus scrape endpoint (metrics.http.*); metrics are also on JMX under org.banking
+        MetricsHttpServer.startFromConfig();
+
+        if (args.length > 0 && args[0].equals("--server")) {
+            runServer();
+            return;
+        }
+
         System.out.println("\n--- WELCOME TO THE BANKING APP ---");
 
 
-        // Start automatic balance-alert monitoring
-        BalanceAlertMonitor.start();
+        // Start automatic balance-alert monitoring and nightly interest (both read accounts.balance)
+        if (ALERT_SCAN) {
+            BalanceAlertMonitor.start();
+            if (interestJob != null) interestJob.scheduleDaily();
+        }
 
         while (true) {
             if (currentSession == null) {
@@ -43,6 +62,18 @@ public class Main {
         }
     }
 
+    // HTTP/JSON mode: concurrent clients with token sessions instead of the console loop
+    private static void runServer() throws Exception {
+        ApiServer server = new ApiServer(bankingService, ApiServer.Settings.fromConfig());
+        if (ALERT_SCAN) {
+            BalanceAlertMonitor.start();
+            if (interestJob != null) interestJob.scheduleDaily();
+        }
+        server.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(2), "api-server-shutdown"));
+        System.out.println("✅ API server listening on " + server.getAddress() + " (Ctrl+C to stop)");
+    }
+
     private static void displayMainMenu() {
         System.out.println("\n1. Register");
         System.out.println("2. Login");
@@ -113,7 +144,7 @@ public class Main {
             while (true) {
                 System.out.print("First Name: ");
                 String firstName = scanner.nextLine().trim();
-                if (firstName.matches("[a-zA-Z]+")) {
+                if (RegistrationRules.isValidName(firstName)) {
                     customer.setFirstName(firstName);
                     break;
                 } else System.out.println("❌ First Name must contain only letters.");
@@ -123,7 +154,7 @@ public class Main {
             while (true) {
                 System.out.print("Last Name: ");
                 String lastName = scanner.nextLine().trim();
-                if (lastName.matches("[a-zA-Z]+")) {
+                if (RegistrationRules.isValidName(lastName)) {
                     customer.setLastName(lastName);
                     break;
                 } else System.out.println("❌ Last Name must contain only letters.");
@@ -133,7 +164,7 @@ public class Main {
             while (true) {
                 System.out.print("Email: ");
                 String email = scanner.nextLine().trim().replaceAll("\\s+", "");
-                if (isValidEmail(email)) {
+                if (RegistrationRules.isValidEmail(email)) {
                     customer.setEmail(email);
                     break;
                 } else {
@@ -145,7 +176,7 @@ public class Main {
             while (true) {
                 System.out.print("Phone (10 digits): ");
                 String phone = scanner.nextLine().trim();
-                if (phone.matches("\\d{10}")) {
+                if (RegistrationRules.isValidPhone(phone)) {
                     customer.setPhoneNumber(phone);
                     break;
                 } else System.out.println("❌ Phone number must be exactly 10 digits.");
@@ -169,25 +200,24 @@ public class Main {
             System.out.print("Postal Code: "); customer.setPostalCode(scanner.nextLine().trim());
 
             // Account Type (normalize to what service expects)
-            String type;
+            String normalizedType;
             while (true) {
                 System.out.print("Account Type (SAVINGS/CURRENT): ");
-                type = scanner.nextLine().trim().toUpperCase();
-                if (type.equals("SAVINGS") || type.equals("CURRENT")) break;
+                normalizedType = RegistrationRules.normalizeAccountType(scanner.nextLine());
+                if (normalizedType != null) break;
                 else System.out.println("❌ Invalid type. Enter SAVINGS or CURRENT.");
             }
-            String normalizedType = type.equals("SAVINGS") ? "savings" : "current";
 
             // Initial Deposit
-            BigDecimal deposit;
+            Money deposit;
             while (true) {
                 try {
                     System.out.print("Initial Deposit: ");
-                    deposit = new BigDecimal(scanner.nextLine().trim());
-                    if (deposit.compareTo(BigDecimal.ZERO) >= 0) break;
+                    deposit = Money.parse(scanner.nextLine());
+                    if (deposit.signum() >= 0) break;
                     else System.out.println("❌ Deposit cannot be negative.");
                 } catch (NumberFormatException e) {
-                    System.out.println("❌ Enter a valid number.");
+                    System.out.println("❌ Enter a valid amount (at most 2 decimals).");
                 }
             }
 
@@ -207,7 +237,13 @@ public class Main {
         System.out.print("Password: ");
         String p = scanner.nextLine().trim();
 
-        Optional<BankingSession> session = bankingService.login(u, p);
+        Optional<BankingSession> session;
+        try {
+            session = bankingService.login(u, p);
+        } catch (LoginUnavailableException e) {
+            System.out.println("⚠️ Too many logins in progress, please try again shortly.");
+            return;
+        }
         if (session.isPresent()) {
             currentSession = session.get();
             System.out.println("✅ Login success!");
@@ -215,33 +251,41 @@ public class Main {
     }
 
     private static void deposit() {
-        BigDecimal amt = getPositiveAmount("Enter amount to deposit: ");
-        bankingService.deposit(currentSession.getAccount().getAccountNumber(), amt);
+        Money amt = getPositiveAmount("Enter amount to deposit: ");
+        TransactionOutcome res = bankingService.deposit(currentSession.getAccount().getAccountNumber(), amt);
         refreshSessionAccount();
-        System.out.println("✅ Deposit successful.");
+        switch (res) {
+            case SUCCESSFUL -> System.out.println("✅ Deposit successful.");
+            case ACCOUNT_NOT_FOUND -> System.out.println("❌ Account not found.");
+            default -> System.out.println("❌ Deposit failed. Please try again.");
+        }
     }
 
     private static void withdraw() {
-        BigDecimal amt = getPositiveAmount("Enter amount to withdraw: ");
+        Money amt = getPositiveAmount("Enter amount to withdraw: ");
         TransactionOutcome res = bankingService.withdraw(currentSession.getAccount().getAccountNumber(), amt);
         refreshSessionAccount();
         switch (res) {
             case SUCCESSFUL -> System.out.println("✅ Withdrawal successful.");
             case INSUFFICIENT_BALANCE -> System.out.println("❌ Insufficient balance.");
             case ACCOUNT_NOT_FOUND -> System.out.println("❌ Account not found.");
+            case VELOCITY_LIMIT_EXCEEDED -> System.out.println("❌ Withdrawal limit reached. Please try again later.");
+            case FAILED -> System.out.println("❌ Withdrawal failed. Please try again.");
         }
     }
 
     private static void transfer() {
         System.out.print("Recipient Account No: ");
         String to = scanner.nextLine().trim();
-        BigDecimal amt = getPositiveAmount("Enter amount to transfer: ");
+        Money amt = getPositiveAmount("Enter amount to transfer: ");
         TransactionOutcome res = bankingService.transfer(currentSession.getAccount().getAccountNumber(), to, amt);
         refreshSessionAccount();
         switch (res) {
             case SUCCESSFUL -> System.out.println("✅ Transfer successful.");
             case INSUFFICIENT_BALANCE -> System.out.println("❌ Insufficient balance.");
             case ACCOUNT_NOT_FOUND -> System.out.println("❌ Account not found.");
+            case VELOCITY_LIMIT_EXCEEDED -> System.out.println("❌ Transfer limit reached. Please try again later.");
+            case FAILED -> System.out.println("❌ Transfer failed. Please try again.");
         }
     }
 
@@ -254,23 +298,37 @@ public class Main {
         System.out.println("Account No: " + a.getAccountNumber());
         System.out.println("Balance: " + a.getBalance());
         System.out.println("Minimum Threshold: " + a.getMinBalanceThreshold());
-        BigDecimal available = a.getBalance().subtract(a.getMinBalanceThreshold());
-        System.out.println("Available for Withdraw: " + (available.compareTo(BigDecimal.ZERO) < 0 ? 0 : available));
+        System.out.println("Available for Withdraw: " + a.getAvailableFunds());
     }
 
     private static void showTransactions() {
-        List<Transaction> txns = bankingService.getTransactionHistory(currentSession.getAccount().getAccountNumber());
+        String accNo = currentSession.getAccount().getAccountNumber();
+        TransactionPage.Cursor cursor = null;
         System.out.println("\n--- TRANSACTION HISTORY ---");
-        if (txns.isEmpty()) {
-            System.out.println("No transactions found.");
-        } else {
-            for (Transaction t : txns) {
+        while (true) {
+            TransactionPage page;
+            try {
+                page = bankingService.getTransactionHistoryPage(accNo, cursor, HISTORY_PAGE_SIZE);
+            } catch (DataAccessException e) {
+                System.out.println("❌ Could not load transactions, please try again later.");
+                return;
+            }
+            if (page.items().isEmpty() && cursor == null) {
+                System.out.println("No transactions found.");
+                return;
+            }
+            for (Transaction t : page.items()) {
                 System.out.printf("%s | %s | %s | %s%n",
                         t.getTimestamp(),
                         t.getTransactionType(),
-                        t.getAmount().toPlainString(),
+                        t.getAmount(),
                         t.getDescription());
             }
+            if (!page.hasNext()) return;
+
+            System.out.print("Press Enter for more, or 'q' to stop: ");
+            if (scanner.nextLine().trim().equalsIgnoreCase("q")) return;
+            cursor = page.next();
         }
     }
 
@@ -279,15 +337,15 @@ public class Main {
         System.out.println("✅ Logged out successfully.");
     }
 
-    private static BigDecimal getPositiveAmount(String msg) {
+    private static Money getPositiveAmount(String msg) {
         while (true) {
             try {
                 System.out.print(msg);
-                BigDecimal amt = new BigDecimal(scanner.nextLine().trim());
-                if (amt.compareTo(BigDecimal.ZERO) < 0) System.out.println("❌ Amount must be positive.");
+                Money amt = Money.parse(scanner.nextLine());
+                if (amt.signum() < 0) System.out.println("❌ Amount must be positive.");
                 else return amt;
             } catch (NumberFormatException e) {
-                System.out.println("❌ Enter a valid number.");
+                System.out.println("❌ Enter a valid amount (at most 2 decimals).");
             }
         }
     }
@@ -299,11 +357,4 @@ public class Main {
                 currentSession = new BankingSession(currentSession.getCustomer(), a)
         );
     }
-
-    // improved email validation (no 6-char TLD cap)
-    private static boolean isValidEmail(String s) {
-        if (s == null) return false;
-        s = s.trim();
-        return s.matches("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
-    }
 }
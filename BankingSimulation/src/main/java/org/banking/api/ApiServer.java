@@ -0,0 +1,328 @@
+package org.banking.api;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.banking.dao.DataAccessException;
+import org.banking.dao.TransactionPage;
+import org.banking.model.Account;
+import org.banking.model.BankingSession;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.service.BankingService;
+import org.banking.service.LoginUnavailableException;
+import org.banking.service.TransactionOutcome;
+import org.banking.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP/JSON front end for BankingService on the JDK's built-in HttpServer (Main --server).
+ * Every request runs on its own virtual thread, so a client blocked on a posting, a password
+ * check or a history read parks cheaply instead of holding a platform thread.
+ *
+ * Endpoints (all JSON; everything except login needs "Authorization: Bearer <token>"):
+ *   POST /api/login        {"username","password"}  -> {"token","accountNumber"} (503 while logins are shed)
+ *   POST /api/logout
+ *   GET  /api/account
+ *   POST /api/deposit      {"amount"}
+ *   POST /api/withdraw     {"amount"}
+ *   POST /api/transfer     {"toAccount","amount"}
+ *   GET  /api/transactions ?limit=20&cursor=<next from the previous page>
+ */
+public class ApiServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApiServer.class);
+    private static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    /** Server settings; see the api.* keys in config.properties. */
+    public record Settings(String bindAddress, int port, int backlog, long sessionIdleTimeoutMillis, int maxSessions) {
+        public static Settings fromConfig() {
+            return new Settings(AppConfig.get("api.bindAddress", "127.0.0.1"),
+                    AppConfig.getInt("api.port", 8080),
+                    AppConfig.getInt("api.backlog", 1024),
+                    AppConfig.getLong("api.session.idleTimeoutMinutes", 30) * 60_000,
+                    AppConfig.getInt("api.session.maxSessions", 100_000));
+        }
+    }
+
+    private record Response(int status, Json body) {
+        static Response ok(Json body) {
+            return new Response(200, body);
+        }
+
+        static Response error(int status, String message) {
+            return new Response(status, Json.object().put("error", message));
+        }
+    }
+
+    @FunctionalInterface
+    private interface Route {
+        Response handle(HttpExchange exchange, BankingSession session) throws IOException;
+    }
+
+    private final BankingService bankingService;
+    private final SessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ApiServer(BankingService bankingService, Settings settings) throws IOException {
+        this.bankingService = bankingService;
+        this.sessions = new SessionStore(settings.sessionIdleTimeoutMillis(), settings.maxSessions());
+        this.server = HttpServer.create(new InetSocketAddress(settings.bindAddress(), settings.port()), settings.backlog());
+        this.server.setExecutor(executor);
+
+        route("/api/login", "POST", false, this::login);
+        route("/api/logout", "POST", true, this::logout);
+        route("/api/account", "GET", true, this::account);
+        route("/api/deposit", "POST", true, this::deposit);
+        route("/api/withdraw", "POST", true, this::withdraw);
+        route("/api/transfer", "POST", true, this::transfer);
+        route("/api/transactions", "GET", true, this::transactions);
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    public void start() {
+        server.start();
+        logger.info("✅ API server listening on {}", server.getAddress());
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        sessions.shutdown();
+        logger.info("API server stopped");
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // ----------------- ROUTES -----------------
+
+    private Response login(HttpExchange ex, BankingSession ignored) throws IOException {
+        Map<String, String> body = readJson(ex);
+        String username = required(body, "username");
+        String password = required(body, "password");
+        Optional<BankingSession> session;
+        try {
+            session = bankingService.login(username, password);
+        } catch (LoginUnavailableException e) {
+            return Response.error(503, "Too many logins in progress, try again later");
+        }
+        if (session.isEmpty()) return Response.error(401, "Invalid login");
+
+        Optional<String> token = sessions.create(session.get());
+        if (token.isEmpty()) return Response.error(503, "Too many active sessions");
+        return Response.ok(Json.object()
+                .put("token", token.get())
+                .put("accountNumber", session.get().getAccount().getAccountNumber()));
+    }
+
+    private Response logout(HttpExchange ex, BankingSession session) {
+        sessions.invalidate(bearerToken(ex));
+        return new Response(204, null);
+    }
+
+    private Response account(HttpExchange ex, BankingSession session) {
+        String accNo = session.getAccount().getAccountNumber();
+        Optional<Account> fresh = bankingService.findAccount(accNo);
+        if (fresh.isEmpty()) return Response.error(404, "Account not found");
+
+        Account a = fresh.get();
+        Customer c = session.getCustomer();
+        return Response.ok(Json.object()
+                .put("holder", c.getFirstName() + " " + c.getLastName())
+                .put("accountNumber", a.getAccountNumber())
+                .put("accountType", a.getAccountType())
+                .put("balance", a.getBalance())
+                .put("minBalanceThreshold", a.getMinBalanceThreshold())
+                .put("availableForWithdraw", a.getAvailableFunds()));
+    }
+
+    private Response deposit(HttpExchange ex, BankingSession session) throws IOException {
+        Money amount = amount(readJson(ex));
+        String accNo = session.getAccount().getAccountNumber();
+        return outcome(bankingService.deposit(accNo, amount), accNo);
+    }
+
+    private Response withdraw(HttpExchange ex, BankingSession session) throws IOException {
+        Money amount = amount(readJson(ex));
+        String accNo = session.getAccount().getAccountNumber();
+        return outcome(bankingService.withdraw(accNo, amount), accNo);
+    }
+
+    private Response transfer(HttpExchange ex, BankingSession session) throws IOException {
+        Map<String, String> body = readJson(ex);
+        String to = required(body, "toAccount").trim();
+        Money amount = amount(body);
+        String accNo = session.getAccount().getAccountNumber();
+        if (to.equals(accNo)) return Response.error(400, "Cannot transfer to the same account");
+        return outcome(bankingService.transfer(accNo, to, amount), accNo);
+    }
+
+    private Response transactions(HttpExchange ex, BankingSession session) {
+        Map<String, String> query = query(ex);
+        int limit = query.containsKey("limit") ? parseInt(query.get("limit"), "limit") : 20;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) throw new IllegalArgumentException("limit must be 1.." + MAX_PAGE_SIZE);
+        TransactionPage.Cursor cursor = decodeCursor(query.get("cursor"));
+
+        TransactionPage page = bankingService.getTransactionHistoryPage(session.getAccount().getAccountNumber(), cursor, limit);
+        List<Json> items = new ArrayList<>(page.items().size());
+        for (Transaction t : page.items()) {
+            items.add(Json.object()
+                    .put("transactionId", t.getTransactionId())
+                    .put("timestamp", t.getTimestamp() == null ? null : t.getTimestamp().toInstant().toString())
+                    .put("type", t.getTransactionType())
+                    .put("amount", t.getAmount())
+                    .put("description", t.getDescription()));
+        }
+        return Response.ok(Json.object()
+                .put("items", items)
+                .put("next", page.hasNext() ? encodeCursor(page.next()) : null));
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void route(String path, String method, boolean authenticated, Route route) {
+        server.createContext(path, ex -> {
+            try (ex) {
+                Response response;
+                try {
+                    response = dispatch(ex, path, method, authenticated, route);
+                } catch (IllegalArgumentException e) {
+                    response = Response.error(400, e.getMessage());
+                } catch (DataAccessException e) {
+                    logger.error("❌ {} {} failed", ex.getRequestMethod(), path, e);
+                    response = Response.error(503, "Storage unavailable, try again later");
+                } catch (RuntimeException e) {
+                    logger.error("❌ {} {} failed", ex.getRequestMethod(), path, e);
+                    response = Response.error(500, "Internal error");
+                }
+                send(ex, response);
+            }
+        });
+    }
+
+    private Response dispatch(HttpExchange ex, String path, String method, boolean authenticated, Route route)
+            throws IOException {
+        if (!ex.getRequestURI().getPath().equals(path)) return Response.error(404, "Not found");
+        if (!ex.getRequestMethod().equalsIgnoreCase(method)) {
+            ex.getResponseHeaders().set("Allow", method);
+            return Response.error(405, "Method not allowed");
+        }
+        BankingSession session = null;
+        if (authenticated) {
+            Optional<BankingSession> found = sessions.find(bearerToken(ex));
+            if (found.isEmpty()) return Response.error(401, "Missing or expired session token");
+            session = found.get();
+        }
+        return route.handle(ex, session);
+    }
+
+    private static void send(HttpExchange ex, Response response) throws IOException {
+        if (response.body() == null) {
+            ex.sendResponseHeaders(response.status(), -1);
+            return;
+        }
+        byte[] bytes = response.body().toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(response.status(), bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Response outcome(TransactionOutcome outcome, String accountNumber) {
+        int status = switch (outcome) {
+            case SUCCESSFUL -> 200;
+            case INSUFFICIENT_BALANCE -> 422;
+            case ACCOUNT_NOT_FOUND -> 404;
+            case VELOCITY_LIMIT_EXCEEDED -> 429;
+            case FAILED -> 503;
+        };
+        return new Response(status, Json.object().put("outcome", outcome.name()).put("accountNumber", accountNumber));
+    }
+
+    private static Map<String, String> readJson(HttpExchange ex) throws IOException {
+        try (InputStream in = ex.getRequestBody()) {
+            byte[] bytes = in.readNBytes(MAX_BODY_BYTES + 1);
+            if (bytes.length > MAX_BODY_BYTES) throw new IllegalArgumentException("Request body too large");
+            return Json.parseObject(new String(bytes, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static String required(Map<String, String> body, String field) {
+        String value = body.get(field);
+        if (value == null || value.isBlank()) throw new IllegalArgumentException("Missing field '" + field + "'");
+        return value;
+    }
+
+    private static Money amount(Map<String, String> body) {
+        Money amount;
+        try {
+            amount = Money.parse(required(body, "amount"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("amount must be a number with at most 2 decimals");
+        }
+        if (amount.signum() <= 0) throw new IllegalArgumentException("amount must be positive");
+        return amount;
+    }
+
+    private static String bearerToken(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> out = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null || raw.isEmpty()) return out;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            out.put(key, value);
+        }
+        return out;
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer");
+        }
+    }
+
+    // cursor = "<epoch millis>_<transaction id>", opaque to clients
+    private static String encodeCursor(TransactionPage.Cursor c) {
+        return (c.timestamp() == null ? 0 : c.timestamp().getTime()) + "_" + c.transactionId();
+    }
+
+    private static TransactionPage.Cursor decodeCursor(String value) {
+        if (value == null || value.isEmpty()) return null;
+        int sep = value.indexOf('_');
+        if (sep < 0) throw new IllegalArgumentException("Invalid cursor");
+        try {
+            return new TransactionPage.Cursor(new Timestamp(Long.parseLong(value.substring(0, sep))),
+                    Integer.parseInt(value.substring(sep + 1)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
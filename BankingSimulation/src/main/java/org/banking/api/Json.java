@@ -0,0 +1,196 @@
+package org.banking.api;
+
+import org.banking.model.Money;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the HTTP API, so the app doesn't pull in a JSON library.
+ * - parseObject reads one flat object of string/number/boolean/null values (request bodies)
+ * - Json.object() builds responses; values may be strings, numbers, Money, booleans, null,
+ *   nested Json objects or collections of those
+ */
+public final class Json {
+
+    private final Map<String, Object> fields = new LinkedHashMap<>();
+
+    private Json() {
+    }
+
+    public static Json object() {
+        return new Json();
+    }
+
+    public Json put(String name, Object value) {
+        fields.put(name, value);
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64);
+        write(sb, this);
+        return sb.toString();
+    }
+
+    // ----------------- PARSING -----------------
+
+    /** Parses a flat JSON object; every value comes back as its text (numbers unquoted), null stays null. */
+    public static Map<String, String> parseObject(String text) {
+        Parser p = new Parser(text);
+        Map<String, String> out = new LinkedHashMap<>();
+        p.skipWs();
+        p.expect('{');
+        p.skipWs();
+        if (p.peek() == '}') {
+            p.pos++;
+        } else {
+            while (true) {
+                p.skipWs();
+                String name = p.string();
+                p.skipWs();
+                p.expect(':');
+                p.skipWs();
+                out.put(name, p.scalar());
+                p.skipWs();
+                char c = p.next();
+                if (c == '}') break;
+                if (c != ',') throw p.error("Expected ',' or '}'");
+            }
+        }
+        p.skipWs();
+        if (p.pos != text.length()) throw p.error("Trailing characters");
+        return out;
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private static void write(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("null");
+        } else if (value instanceof Json json) {
+            sb.append('{');
+            boolean first = true;
+            for (Map.Entry<String, Object> e : json.fields.entrySet()) {
+                if (!first) sb.append(',');
+                first = false;
+                quote(sb, e.getKey());
+                sb.append(':');
+                write(sb, e.getValue());
+            }
+            sb.append('}');
+        } else if (value instanceof Collection<?> items) {
+            sb.append('[');
+            boolean first = true;
+            for (Object item : items) {
+                if (!first) sb.append(',');
+                first = false;
+                write(sb, item);
+            }
+            sb.append(']');
+        } else if (value instanceof Money m) {
+            sb.append(m); // plain "12.50", emitted as a JSON number
+        } else if (value instanceof Number || value instanceof Boolean) {
+            sb.append(value);
+        } else {
+            quote(sb, value.toString());
+        }
+    }
+
+    private static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        char peek() {
+            if (pos >= text.length()) throw error("Unexpected end of input");
+            return text.charAt(pos);
+        }
+
+        char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        void expect(char c) {
+            if (next() != c) throw error("Expected '" + c + "'");
+        }
+
+        void skipWs() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+
+        String scalar() {
+            char c = peek();
+            if (c == '"') return string();
+            int start = pos;
+            while (pos < text.length() && ",}] \t\r\n".indexOf(text.charAt(pos)) < 0) pos++;
+            String token = text.substring(start, pos);
+            if (token.equals("null")) return null;
+            if (token.equals("true") || token.equals("false")) return token;
+            if (!token.matches("-?\\d+(\\.\\d+)?([eE][+-]?\\d+)?")) throw error("Unsupported value '" + token + "'");
+            return token;
+        }
+
+        String string() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char e = next();
+                switch (e) {
+                    case '"', '\\', '/' -> sb.append(e);
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        int code = 0;
+                        for (int end = pos + 4; pos < end; pos++) {
+                            int digit = pos < text.length() ? Character.digit(text.charAt(pos), 16) : -1;
+                            if (digit < 0) throw error("Bad unicode escape");
+                            code = code << 4 | digit;
+                        }
+                        sb.append((char) code);
+                    }
+                    default -> throw error("Bad escape '\\" + e + "'");
+                }
+            }
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos);
+        }
+    }
+}
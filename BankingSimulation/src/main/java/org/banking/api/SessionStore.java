@@ -0,0 +1,96 @@
+package org.banking.api;
+
+import org.banking.model.BankingSession;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bearer-token sessions for the HTTP API, replacing Main's single static currentSession.
+ * - Tokens are 256 random bits (URL-safe base64); only the server-side map gives them meaning.
+ * - A session expires after api.session.idleTimeoutMinutes without requests; expired entries are
+ *   rejected on lookup and swept once a minute. maxSessions bounds memory under a login storm.
+ */
+public class SessionStore {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private static final class Entry {
+        final BankingSession session;
+        final AtomicLong lastSeen;
+
+        Entry(BankingSession session, long now) {
+            this.session = session;
+            this.lastSeen = new AtomicLong(now);
+        }
+    }
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+    private final int maxSessions;
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "api-session-sweeper");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public SessionStore(long idleTimeoutMillis, int maxSessions) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.maxSessions = maxSessions;
+        sweeper.scheduleWithFixedDelay(this::sweep, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /** Returns the new token, or empty when maxSessions live sessions already exist. */
+    public Optional<String> create(BankingSession session) {
+        if (sessions.size() >= maxSessions) {
+            sweep();
+            if (sessions.size() >= maxSessions) return Optional.empty();
+        }
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Entry(session, System.currentTimeMillis()));
+        return Optional.of(token);
+    }
+
+    /** Looks the token up and extends its idle timeout. */
+    public Optional<BankingSession> find(String token) {
+        if (token == null) return Optional.empty();
+        Entry e = sessions.get(token);
+        if (e == null) return Optional.empty();
+        long now = System.currentTimeMillis();
+        if (now - e.lastSeen.get() > idleTimeoutMillis) {
+            sessions.remove(token, e);
+            return Optional.empty();
+        }
+        e.lastSeen.set(now);
+        return Optional.of(e.session);
+    }
+
+    public void invalidate(String token) {
+        if (token != null) sessions.remove(token);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    public void shutdown() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweep() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+        for (Iterator<Entry> it = sessions.values().iterator(); it.hasNext(); ) {
+            if (it.next().lastSeen.get() < cutoff) it.remove();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.banking.dao;
+
+import org.banking.util.DatabaseConnection;
+import org.banking.util.SchemaSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.Optional;
+
+/**
+ * Hi/lo account-number allocator.
+ * - Blocks of blockSize numbers are reserved with one atomic UPDATE on account_number_sequence
+ *   (next_value = LAST_INSERT_ID(next_value + blockSize)), so app instances never overlap.
+ * - Numbers inside a block are handed out from memory; only every blockSize-th call hits the DB.
+ * - The sequence row is seeded once from MAX(account_number), the only full scan left.
+ * Numbers from a block that is never used (e.g. on restart) are skipped, leaving gaps.
+ */
+public class AccountNumberAllocator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountNumberAllocator.class);
+
+    private static final String SEQUENCE_NAME = "accounts";
+    private static final long FIRST_ACCOUNT_NUMBER = 1000000001L;
+
+    private final int blockSize;
+    private long next;  // next number to hand out
+    private long limit; // end of the reserved block (exclusive)
+    private boolean schemaReady;
+
+    public AccountNumberAllocator(int blockSize) {
+        if (blockSize <= 0) throw new IllegalArgumentException("blockSize must be > 0");
+        this.blockSize = blockSize;
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Returns the next unused account number, or empty if a new block could not be reserved. */
+    public synchronized Optional<Long> next() {
+        if (next >= limit) {
+            try {
+                reserveBlock();
+            } catch (SQLException e) {
+                logger.error("❌ Error reserving account number block.", e);
+                return Optional.empty();
+            }
+        }
+        return Optional.of(next++);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void reserveBlock() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!schemaReady) {
+                ensureSequence(conn);
+                schemaReady = true;
+            }
+            // LAST_INSERT_ID(expr) is per-connection, so the SELECT sees exactly this UPDATE's value.
+            try (PreparedStatement update = conn.prepareStatement(
+                    "UPDATE account_number_sequence SET next_value = LAST_INSERT_ID(next_value + ?) WHERE name = ?")) {
+                update.setInt(1, blockSize);
+                update.setString(2, SEQUENCE_NAME);
+                if (update.executeUpdate() == 0) throw new SQLException("account_number_sequence row is missing");
+            }
+            try (PreparedStatement select = conn.prepareStatement("SELECT LAST_INSERT_ID()");
+                 ResultSet rs = select.executeQuery()) {
+                rs.next();
+                limit = rs.getLong(1);
+                next = limit - blockSize;
+            }
+        }
+        logger.info("✅ Reserved account numbers {}..{}", next, limit - 1);
+    }
+
+    private static void ensureSequence(Connection conn) throws SQLException {
+        SchemaSupport.ensureTable(conn, """
+            CREATE TABLE IF NOT EXISTS account_number_sequence (
+                name       VARCHAR(64) NOT NULL PRIMARY KEY,
+                next_value BIGINT      NOT NULL
+            )
+            """);
+        // Seeds from existing accounts once; INSERT IGNORE makes concurrent first starts harmless.
+        try (PreparedStatement seed = conn.prepareStatement("""
+                INSERT IGNORE INTO account_number_sequence (name, next_value)
+                SELECT ?, GREATEST(COALESCE(MAX(CAST(account_number AS UNSIGNED)) + 1, ?), ?) FROM accounts
+                """)) {
+            seed.setString(1, SEQUENCE_NAME);
+            seed.setLong(2, FIRST_ACCOUNT_NUMBER);
+            seed.setLong(3, FIRST_ACCOUNT_NUMBER);
+            if (seed.executeUpdate() > 0) logger.info("Seeded account_number_sequence from existing accounts");
+        }
+    }
+}
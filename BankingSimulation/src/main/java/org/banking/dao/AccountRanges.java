@@ -0,0 +1,76 @@
+package org.banking.dao;
+
+import org.banking.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the accounts keyspace into contiguous account_number ranges for batch jobs.
+ * The cut points are saved under the job's name in job_checkpoints, so a resumed run gets the
+ * same ranges even if accounts were added in between; new accounts just land in one of them.
+ */
+public final class AccountRanges {
+
+    /** Accounts with lo < account_number <= hi; null means unbounded on that side. */
+    public record Range(int index, String lo, String hi) {
+
+        /** lo as a bind value: "" sorts before every account number. */
+        public String after() {
+            return lo == null ? "" : lo;
+        }
+    }
+
+    private AccountRanges() {
+    }
+
+    /** The job's saved ranges, or about {@code count} new ones of equal size, saved before they are returned. */
+    public static List<Range> planOrLoad(JobCheckpointRepository checkpoints, String job, int count) throws SQLException {
+        String saved = checkpoints.load(job).orElse(null);
+        List<String> cuts = saved != null ? decode(saved) : cutPoints(count);
+        if (saved == null) checkpoints.save(job, String.join(",", cuts));
+
+        List<Range> ranges = new ArrayList<>(cuts.size() + 1);
+        for (int i = 0; i <= cuts.size(); i++) {
+            ranges.add(new Range(i, i == 0 ? null : cuts.get(i - 1), i == cuts.size() ? null : cuts.get(i)));
+        }
+        return ranges;
+    }
+
+    /** Accounts with after < account_number <= upTo (null: no bound). */
+    public static long countAccounts(String after, String upTo) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM accounts WHERE account_number > ?" + (upTo == null ? "" : " AND account_number <= ?");
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, after == null ? "" : after);
+            if (upTo != null) ps.setString(2, upTo);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // every (n / count)-th account number, read from the primary key in one streamed pass
+    private static List<String> cutPoints(int count) throws SQLException {
+        long total = countAccounts(null, null);
+        long step = Math.max(1, (total + count - 1) / count);
+        List<String> cuts = new ArrayList<>(count);
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT account_number FROM accounts ORDER BY account_number",
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(Integer.MIN_VALUE); // Connector/J: stream rows instead of buffering the result
+            try (ResultSet rs = ps.executeQuery()) {
+                long seen = 0;
+                while (rs.next()) {
+                    if (++seen % step == 0 && seen < total) cuts.add(rs.getString(1));
+                }
+            }
+        }
+        return cuts;
+    }
+
+    private static List<String> decode(String value) {
+        return value.isEmpty() ? List.of() : List.of(value.split(","));
+    }
+}
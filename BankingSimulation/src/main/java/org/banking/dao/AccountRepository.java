@@ -1,13 +1,29 @@
 package org.banking.dao;
 
 import org.banking.model.Account;
-import java.math.BigDecimal;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import java.util.List;
 import java.util.Optional;
 
 public interface AccountRepository {
     void createAccount(Account account);
+    // Creates the account with its opening balance (account.getBalance()) and that deposit's transactions
+    // row as one unit, so a failure leaves neither behind. openingEntry is null when nothing is deposited.
+    PostingResult openAccount(Account account, Transaction openingEntry);
     Optional<Account> findAccountByNumber(String accountNumber);
-    void updateAccountBalance(String accountNumber, BigDecimal newBalance);
+    void updateAccountBalance(String accountNumber, Money newBalance);
     Optional<Long> findLastAccountNumber();
+    Optional<Long> nextAccountNumber(); // allocated from a block reserved in account_number_sequence
     Optional<Account> findAccountByCustomerId(int customerId); // New
-}
\ No newline at end of file
+
+    // Atomic postings: the balance change and its transactions row(s) commit together.
+    // Debits are guarded by the min-balance rule inside the UPDATE itself.
+    PostingResult postDeposit(String accountNumber, Money amount, Transaction entry);
+    PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry);
+    PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                               Transaction debitEntry, Transaction creditEntry);
+
+    // Applies many postings in bounded-size transactions; one result per posting, in order.
+    List<PostingResult> applyPostings(List<Posting> postings);
+}
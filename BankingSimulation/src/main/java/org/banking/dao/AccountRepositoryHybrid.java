@@ -1,67 +1,113 @@
 package org.banking.dao;
 
+import org.banking.metrics.Metrics;
 import org.banking.model.Account;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.banking.util.BoundedCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Hybrid repository:
  * - DB (AccountRepositoryImpl) is the source of truth.
- * - Frequently accessed accounts are cached in-memory (Collections).
+ * - Frequently accessed accounts are cached in a bounded, thread-safe TinyLFU cache
+ *   (cache.account.maxSize), so memory stays flat however many accounts exist.
+ * - A customer-id -> account-number index makes login lookups O(1); it only holds
+ *   entries for cached accounts and is cleaned up on eviction.
  */
 public class AccountRepositoryHybrid implements AccountRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountRepositoryHybrid.class);
+    // one line per cache lookup; sampled via org.banking.log.sample.* in simplelogger.properties
+    private static final Logger lookupLog = LoggerFactory.getLogger(AccountRepositoryHybrid.class.getName() + ".lookups");
 
-    private final AccountRepositoryImpl dbRepo = new AccountRepositoryImpl(); // existing JDBC repo
-    private final Map<String, Account> cache = new HashMap<>();               // collections-based cache
+    private static final Metrics.Counter NUMBER_HITS = lookupCounter("number", "hit");
+    private static final Metrics.Counter NUMBER_MISSES = lookupCounter("number", "miss");
+    private static final Metrics.Counter CUSTOMER_HITS = lookupCounter("customer", "hit");
+    private static final Metrics.Counter CUSTOMER_MISSES = lookupCounter("customer", "miss");
+
+    private final AccountRepository dbRepo;
+    private final BoundedCache<String, Account> cache;
+    private final Map<Integer, String> accountByCustomerId = new ConcurrentHashMap<>();
+
+    public AccountRepositoryHybrid() {
+        this(new AccountRepositoryImpl()); // existing JDBC repo
+    }
+
+    public AccountRepositoryHybrid(AccountRepository dbRepo) {
+        this.dbRepo = dbRepo;
+        this.cache = new BoundedCache<>(AppConfig.getInt("cache.account.maxSize", 100_000),
+                (accountNumber, account) -> accountByCustomerId.remove(account.getCustomerId(), accountNumber));
+        Metrics.gauge("account_cache_size", "Accounts held in the hybrid repository cache", cache::size);
+        Metrics.functionCounter("account_cache_evictions_total", "Accounts evicted from the hybrid repository cache",
+                () -> cache.stats().evictions());
+    }
 
     @Override
     public void createAccount(Account account) {
         dbRepo.createAccount(account);
-        cache.put(account.getAccountNumber(), account);
-        logger.info("Account cached in memory: {}", account.getAccountNumber());
+        if (cacheAccount(account)) {
+            logger.info("Account cached in memory: {}", account.getAccountNumber());
+        }
+    }
+
+    @Override
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        PostingResult result = dbRepo.openAccount(account, openingEntry);
+        if (result.isApplied() && cacheAccount(account)) {
+            logger.info("Account cached in memory: {}", account.getAccountNumber());
+        }
+        return result;
     }
 
     @Override
     public Optional<Account> findAccountByNumber(String accountNumber) {
         Account hit = cache.get(accountNumber);
         if (hit != null) {
-            logger.info("Cache HIT for account {}", accountNumber);
+            NUMBER_HITS.increment();
+            lookupLog.info("Cache HIT for account {}", accountNumber);
             return Optional.of(hit);
         }
-        logger.info("Cache MISS for account {}, loading from DB…", accountNumber);
+        NUMBER_MISSES.increment();
+        lookupLog.info("Cache MISS for account {}, loading from DB…", accountNumber);
         Optional<Account> dbAcc = dbRepo.findAccountByNumber(accountNumber);
-        dbAcc.ifPresent(a -> cache.put(accountNumber, a));
+        dbAcc.ifPresent(this::cacheAccount);
         return dbAcc;
     }
 
     @Override
     public Optional<Account> findAccountByCustomerId(int customerId) {
-        for (Account a : cache.values()) {
-            if (a.getCustomerId() == customerId) {
-                logger.info("Cache HIT for customer {}", customerId);
-                return Optional.of(a);
+        String accountNumber = accountByCustomerId.get(customerId);
+        if (accountNumber != null) {
+            Account hit = cache.get(accountNumber);
+            if (hit != null && hit.getCustomerId() == customerId) {
+                CUSTOMER_HITS.increment();
+                lookupLog.info("Cache HIT for customer {}", customerId);
+                return Optional.of(hit);
             }
+            accountByCustomerId.remove(customerId, accountNumber); // stale index entry
         }
-        logger.info("Cache MISS for customer {}, loading from DB…", customerId);
+        CUSTOMER_MISSES.increment();
+        lookupLog.info("Cache MISS for customer {}, loading from DB…", customerId);
         Optional<Account> dbAcc = dbRepo.findAccountByCustomerId(customerId);
-        dbAcc.ifPresent(a -> cache.put(a.getAccountNumber(), a));
+        dbAcc.ifPresent(this::cacheAccount);
         return dbAcc;
     }
 
     @Override
-    public void updateAccountBalance(String accountNumber, BigDecimal newBalance) {
+    public void updateAccountBalance(String accountNumber, Money newBalance) {
         dbRepo.updateAccountBalance(accountNumber, newBalance);
-        Account cached = cache.get(accountNumber);
+        Account cached = cache.peek(accountNumber);
         if (cached != null) {
             cached.setBalance(newBalance);
-            logger.info("Cache updated for {}", accountNumber);
+            lookupLog.info("Cache updated for {}", accountNumber);
         }
     }
 
@@ -69,4 +115,92 @@ public class AccountRepositoryHybrid implements AccountRepository {
     public Optional<Long> findLastAccountNumber() {
         return dbRepo.findLastAccountNumber();
     }
+
+    @Override
+    public Optional<Long> nextAccountNumber() {
+        return dbRepo.nextAccountNumber();
+    }
+
+    @Override
+    public PostingResult postDeposit(String accountNumber, Money amount, Transaction entry) {
+        PostingResult result = dbRepo.postDeposit(accountNumber, amount, entry);
+        if (result.isApplied()) refreshCachedBalance(accountNumber, result.creditBalance());
+        return result;
+    }
+
+    @Override
+    public PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry) {
+        PostingResult result = dbRepo.postWithdrawal(accountNumber, amount, entry);
+        refreshCachedBalance(accountNumber, result.debitBalance()); // also corrects a stale cache on rejection
+        return result;
+    }
+
+    @Override
+    public PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                                      Transaction debitEntry, Transaction creditEntry) {
+        PostingResult result = dbRepo.postTransfer(fromAccount, toAccount, amount, debitEntry, creditEntry);
+        refreshCachedBalance(fromAccount, result.debitBalance());
+        refreshCachedBalance(toAccount, result.creditBalance());
+        return result;
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        return refreshCachedBalances(postings, dbRepo.applyPostings(postings));
+    }
+
+    /**
+     * Checkpointed postings through this cache; present when the backing repository has them (the JDBC one).
+     * Batch jobs post without BankingService's account stripes, so their committed balance could land in the
+     * cache after a newer one from a concurrent posting. Their accounts are evicted instead and reload from the DB.
+     */
+    public Optional<CheckpointedPostings> checkpointedPostings() {
+        if (!(dbRepo instanceof CheckpointedPostings db)) return Optional.empty();
+        return Optional.of((postings, checkpoint) -> evictPosted(postings, db.applyPostings(postings, checkpoint)));
+    }
+
+    public BoundedCache.Stats getCacheStats() {
+        return cache.stats();
+    }
+
+    private List<PostingResult> refreshCachedBalances(List<Posting> postings, List<PostingResult> results) {
+        // results are in list order, so the last applied posting per account leaves its final balance
+        for (int i = 0; i < results.size(); i++) {
+            PostingResult result = results.get(i);
+            if (!result.isApplied()) continue;
+            Posting p = postings.get(i);
+            if (p.debitAccount() != null) refreshCachedBalance(p.debitAccount(), result.debitBalance());
+            if (p.creditAccount() != null) refreshCachedBalance(p.creditAccount(), result.creditBalance());
+        }
+        return results;
+    }
+
+    private List<PostingResult> evictPosted(List<Posting> postings, List<PostingResult> results) {
+        for (int i = 0; i < results.size(); i++) {
+            if (!results.get(i).isApplied()) continue;
+            Posting p = postings.get(i);
+            if (p.debitAccount() != null) cache.remove(p.debitAccount());
+            if (p.creditAccount() != null) cache.remove(p.creditAccount());
+        }
+        return results;
+    }
+
+    private void refreshCachedBalance(String accountNumber, Money committedBalance) {
+        if (committedBalance == null) return;
+        Account cached = cache.peek(accountNumber);
+        if (cached != null) cached.setBalance(committedBalance);
+    }
+
+    private boolean cacheAccount(Account account) {
+        boolean admitted = cache.put(account.getAccountNumber(), account);
+        if (admitted) {
+            accountByCustomerId.put(account.getCustomerId(), account.getAccountNumber());
+        }
+        return admitted;
+    }
+
+    private static Metrics.Counter lookupCounter(String lookup, String result) {
+        return Metrics.counter("account_cache_lookups_total", "Hybrid repository cache lookups by key and result",
+                "lookup", lookup, "result", result);
+    }
 }
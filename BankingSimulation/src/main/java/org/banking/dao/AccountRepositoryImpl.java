@@ -1,31 +1,38 @@
 package org.banking.dao;
 
 import org.banking.model.Account;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
 import org.banking.util.DatabaseConnection;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
 
-public class AccountRepositoryImpl implements AccountRepository {
+public class AccountRepositoryImpl implements AccountRepository, CheckpointedPostings {
 
     private static final Logger logger = LoggerFactory.getLogger(AccountRepositoryImpl.class);
+    // per-query lines; sampled via org.banking.log.sample.* in simplelogger.properties
+    private static final Logger queryLog = LoggerFactory.getLogger(AccountRepositoryImpl.class.getName() + ".queries");
 
-    @Override
-    public void createAccount(Account account) {
-        String sql = "INSERT INTO accounts (account_number, customer_id, account_type, balance, min_balance_threshold) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+    // postings per JDBC transaction in applyPostings (bounds lock time and undo size)
+    private static final int BATCH_CHUNK_SIZE = AppConfig.getInt("db.batch.chunkSize", 500);
+    private static final JobCheckpointRepository CHECKPOINTS = new JobCheckpointRepository();
 
-            pstmt.setString(1, account.getAccountNumber());
-            pstmt.setInt(2, account.getCustomerId());
-            pstmt.setString(3, account.getAccountType());
-            pstmt.setBigDecimal(4, account.getBalance());
-            pstmt.setBigDecimal(5, account.getMinBalanceThreshold());
-            pstmt.executeUpdate();
+    private static final AccountNumberAllocator accountNumbers =
+            new AccountNumberAllocator(AppConfig.getInt("account.number.blockSize", 100));
 
+    @Override
+    public void createAccount(Account account) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            insertAccount(conn, account);
             logger.info("✅ Account created successfully for Customer ID: {}", account.getCustomerId());
 
         } catch (SQLException e) {
@@ -33,6 +40,26 @@ public class AccountRepositoryImpl implements AccountRepository {
         }
     }
 
+    @Override
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertAccount(conn, account);
+                if (openingEntry != null) TransactionRepositoryImpl.insertTransactions(conn, List.of(openingEntry));
+                conn.commit();
+                logger.info("✅ Account created successfully for Customer ID: {}", account.getCustomerId());
+                return PostingResult.applied(null, account.getBalance());
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error while opening account for Customer ID: {}", account.getCustomerId(), e);
+            return PostingResult.failed();
+        }
+    }
+
     @Override
     public Optional<Account> findAccountByNumber(String accountNumber) {
         String sql = "SELECT * FROM accounts WHERE account_number = ?";
@@ -42,7 +69,7 @@ public class AccountRepositoryImpl implements AccountRepository {
             pstmt.setString(1, accountNumber);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    logger.info("✅ Account found for Account Number: {}", accountNumber);
+                    queryLog.info("✅ Account found for Account Number: {}", accountNumber);
                     return Optional.of(mapRowToAccount(rs));
                 }
             }
@@ -55,6 +82,11 @@ public class AccountRepositoryImpl implements AccountRepository {
         return Optional.empty();
     }
 
+    @Override
+    public Optional<Long> nextAccountNumber() {
+        return accountNumbers.next();
+    }
+
     @Override
     public Optional<Account> findAccountByCustomerId(int customerId) {
         String sql = "SELECT * FROM accounts WHERE customer_id = ?";
@@ -64,7 +96,7 @@ public class AccountRepositoryImpl implements AccountRepository {
             pstmt.setInt(1, customerId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    logger.info("✅ Account found for Customer ID: {}", customerId);
+                    queryLog.info("✅ Account found for Customer ID: {}", customerId);
                     return Optional.of(mapRowToAccount(rs));
                 }
             }
@@ -78,17 +110,17 @@ public class AccountRepositoryImpl implements AccountRepository {
     }
 
     @Override
-    public void updateAccountBalance(String accountNumber, BigDecimal newBalance) {
+    public void updateAccountBalance(String accountNumber, Money newBalance) {
         String sql = "UPDATE accounts SET balance = ? WHERE account_number = ?";
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
-            pstmt.setBigDecimal(1, newBalance);
+            MoneyColumns.set(pstmt, 1, newBalance);
             pstmt.setString(2, accountNumber);
             int rowsUpdated = pstmt.executeUpdate();
 
             if (rowsUpdated > 0) {
-                logger.info("✅ Account balance updated successfully for Account Number: {}", accountNumber);
+                queryLog.info("✅ Account balance updated successfully for Account Number: {}", accountNumber);
             } else {
                 logger.warn("⚠️ No account found for Account Number: {}", accountNumber);
             }
@@ -121,6 +153,288 @@ public class AccountRepositoryImpl implements AccountRepository {
         return Optional.empty();
     }
 
+    // ----------------- ATOMIC POSTINGS -----------------
+    // Each posting is one JDBC transaction: UPDATE(s) + multi-row INSERT into transactions + balance read-back.
+
+    private static final String CREDIT_SQL =
+            "UPDATE accounts SET balance = balance + ? WHERE account_number = ?";
+    private static final String GUARDED_DEBIT_SQL =
+            "UPDATE accounts SET balance = balance - ? WHERE account_number = ? AND balance - ? >= min_balance_threshold";
+
+    @Override
+    public PostingResult postDeposit(String accountNumber, Money amount, Transaction entry) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (credit(conn, accountNumber, amount) == 0) {
+                    conn.rollback();
+                    logger.warn("⚠️ No account found for Account Number: {}", accountNumber);
+                    return PostingResult.notFound();
+                }
+                TransactionRepositoryImpl.insertTransactions(conn, List.of(entry));
+                Money newBalance = readBalance(conn, accountNumber);
+                conn.commit();
+                queryLog.info("✅ Deposit of {} posted to Account Number: {}", amount, accountNumber);
+                return PostingResult.applied(null, newBalance);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error posting deposit for Account Number: {}", accountNumber, e);
+            return PostingResult.failed();
+        }
+    }
+
+    @Override
+    public PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                if (guardedDebit(conn, accountNumber, amount) == 0) {
+                    PostingResult rejected = rejectedDebit(conn, accountNumber);
+                    conn.rollback();
+                    return rejected;
+                }
+                TransactionRepositoryImpl.insertTransactions(conn, List.of(entry));
+                Money newBalance = readBalance(conn, accountNumber);
+                conn.commit();
+                queryLog.info("✅ Withdrawal of {} posted to Account Number: {}", amount, accountNumber);
+                return PostingResult.applied(newBalance, null);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error posting withdrawal for Account Number: {}", accountNumber, e);
+            return PostingResult.failed();
+        }
+    }
+
+    @Override
+    public PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                                      Transaction debitEntry, Transaction creditEntry) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // Touch rows in account-number order so opposing transfers can't deadlock on row locks.
+                boolean debitFirst = fromAccount.compareTo(toAccount) <= 0;
+                if (debitFirst && guardedDebit(conn, fromAccount, amount) == 0) {
+                    PostingResult rejected = rejectedDebit(conn, fromAccount);
+                    conn.rollback();
+                    return rejected;
+                }
+                if (credit(conn, toAccount, amount) == 0) {
+                    conn.rollback();
+                    logger.warn("⚠️ No account found for Account Number: {}", toAccount);
+                    return PostingResult.notFound();
+                }
+                if (!debitFirst && guardedDebit(conn, fromAccount, amount) == 0) {
+                    PostingResult rejected = rejectedDebit(conn, fromAccount);
+                    conn.rollback();
+                    return rejected;
+                }
+                TransactionRepositoryImpl.insertTransactions(conn, List.of(debitEntry, creditEntry));
+
+                Money fromBalance = null;
+                Money toBalance = null;
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "SELECT account_number, balance FROM accounts WHERE account_number IN (?, ?)")) {
+                    pstmt.setString(1, fromAccount);
+                    pstmt.setString(2, toAccount);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            String acc = rs.getString(1);
+                            if (acc.equals(fromAccount)) fromBalance = MoneyColumns.get(rs, 2);
+                            if (acc.equals(toAccount)) toBalance = MoneyColumns.get(rs, 2);
+                        }
+                    }
+                }
+                conn.commit();
+                queryLog.info("✅ Transfer of {} posted: {} → {}", amount, fromAccount, toAccount);
+                return PostingResult.applied(fromBalance, toBalance);
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error posting transfer {} → {}", fromAccount, toAccount, e);
+            return PostingResult.failed();
+        }
+    }
+
+    private static void insertAccount(Connection conn, Account account) throws SQLException {
+        String sql = "INSERT INTO accounts (account_number, customer_id, account_type, balance, min_balance_threshold) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, account.getAccountNumber());
+            pstmt.setInt(2, account.getCustomerId());
+            pstmt.setString(3, account.getAccountType());
+            MoneyColumns.set(pstmt, 4, account.getBalance());
+            MoneyColumns.set(pstmt, 5, account.getMinBalanceThreshold());
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static int credit(Connection conn, String accountNumber, Money amount) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(CREDIT_SQL)) {
+            MoneyColumns.set(pstmt, 1, amount);
+            pstmt.setString(2, accountNumber);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static int guardedDebit(Connection conn, String accountNumber, Money amount) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(GUARDED_DEBIT_SQL)) {
+            MoneyColumns.set(pstmt, 1, amount);
+            pstmt.setString(2, accountNumber);
+            MoneyColumns.set(pstmt, 3, amount);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    // Only runs on the rejected path: tells "missing account" apart from "min-balance rule".
+    private PostingResult rejectedDebit(Connection conn, String accountNumber) throws SQLException {
+        Money current = readBalance(conn, accountNumber);
+        if (current == null) {
+            logger.warn("⚠️ No account found for Account Number: {}", accountNumber);
+            return PostingResult.notFound();
+        }
+        logger.warn("⚠️ Debit rejected by min-balance rule for Account Number: {}", accountNumber);
+        return PostingResult.insufficientFunds(current);
+    }
+
+    private static Money readBalance(Connection conn, String accountNumber) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT balance FROM accounts WHERE account_number = ?")) {
+            pstmt.setString(1, accountNumber);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? MoneyColumns.get(rs, 1) : null;
+            }
+        }
+    }
+
+    // ----------------- BATCH POSTINGS -----------------
+    // Postings are applied in chunks of BATCH_CHUNK_SIZE, one JDBC transaction per chunk:
+    // lock the chunk's accounts (SELECT ... FOR UPDATE in account-number order), evaluate the
+    // min-balance rule in memory in list order, then write all balances with one UPDATE batch and
+    // all transactions rows with one INSERT batch (rewritten to multi-row INSERTs by the driver).
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        for (int from = 0; from < postings.size(); from += BATCH_CHUNK_SIZE) {
+            List<Posting> chunk = postings.subList(from, Math.min(postings.size(), from + BATCH_CHUNK_SIZE));
+            results.addAll(applyChunk(chunk, null));
+        }
+        return results;
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings, JobCheckpointRepository.Checkpoint checkpoint) {
+        return applyChunk(postings, checkpoint);
+    }
+
+    private List<PostingResult> applyChunk(List<Posting> chunk, JobCheckpointRepository.Checkpoint checkpoint) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, LockedAccount> accounts = lockAccounts(conn, chunk);
+
+                List<PostingResult> results = new ArrayList<>(chunk.size());
+                List<Transaction> entries = new ArrayList<>();
+                for (Posting p : chunk) {
+                    PostingResult result = evaluate(p, accounts);
+                    if (result.isApplied()) entries.addAll(p.entries());
+                    results.add(result);
+                }
+
+                try (PreparedStatement pstmt = conn.prepareStatement(
+                        "UPDATE accounts SET balance = ? WHERE account_number = ?")) {
+                    for (LockedAccount a : accounts.values()) {
+                        if (!a.dirty) continue;
+                        MoneyColumns.set(pstmt, 1, Money.ofMinor(a.balance));
+                        pstmt.setString(2, a.accountNumber);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                TransactionRepositoryImpl.insertTransactions(conn, entries);
+                if (checkpoint != null) CHECKPOINTS.save(conn, checkpoint.jobName(), checkpoint.value());
+                conn.commit();
+
+                logger.info("✅ Batch of {} postings committed ({} applied)", chunk.size(), entries.size());
+                return results;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error applying batch of {} postings, chunk rolled back", chunk.size(), e);
+            List<PostingResult> failed = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) failed.add(PostingResult.failed());
+            return failed;
+        }
+    }
+
+    private static Map<String, LockedAccount> lockAccounts(Connection conn, List<Posting> chunk) throws SQLException {
+        TreeSet<String> numbers = new TreeSet<>();
+        for (Posting p : chunk) {
+            if (p.debitAccount() != null) numbers.add(p.debitAccount());
+            if (p.creditAccount() != null) numbers.add(p.creditAccount());
+        }
+        Map<String, LockedAccount> accounts = new HashMap<>(numbers.size() * 2);
+        if (numbers.isEmpty()) return accounts;
+
+        String sql = "SELECT account_number, balance, min_balance_threshold FROM accounts WHERE account_number IN ("
+                + "?, ".repeat(numbers.size() - 1) + "?) ORDER BY account_number FOR UPDATE";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String n : numbers) pstmt.setString(i++, n);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    String n = rs.getString(1);
+                    accounts.put(n, new LockedAccount(n, MoneyColumns.get(rs, 2), MoneyColumns.get(rs, 3)));
+                }
+            }
+        }
+        return accounts;
+    }
+
+    // Same rules as the single postings, applied to the locked in-memory balances.
+    private static PostingResult evaluate(Posting p, Map<String, LockedAccount> accounts) {
+        LockedAccount debit = p.debitAccount() == null ? null : accounts.get(p.debitAccount());
+        LockedAccount credit = p.creditAccount() == null ? null : accounts.get(p.creditAccount());
+        if ((p.debitAccount() != null && debit == null) || (p.creditAccount() != null && credit == null)) {
+            return PostingResult.notFound();
+        }
+        long amount = p.amount().minorUnits();
+        if (debit != null && Math.subtractExact(debit.balance, amount) < debit.minBalance) {
+            return PostingResult.insufficientFunds(Money.ofMinor(debit.balance));
+        }
+        if (debit != null) debit.apply(-amount);
+        if (credit != null) credit.apply(amount);
+        return PostingResult.applied(debit == null ? null : Money.ofMinor(debit.balance),
+                credit == null ? null : Money.ofMinor(credit.balance));
+    }
+
+    // balances in minor units while the chunk is evaluated
+    private static final class LockedAccount {
+        final String accountNumber;
+        final long minBalance;
+        long balance;
+        boolean dirty;
+
+        LockedAccount(String accountNumber, Money balance, Money minBalance) {
+            this.accountNumber = accountNumber;
+            this.balance = balance.minorUnits();
+            this.minBalance = minBalance.minorUnits();
+        }
+
+        void apply(long delta) {
+            balance = Math.addExact(balance, delta);
+            dirty = true;
+        }
+    }
+
     // 🔹 Helper Method
     private Account mapRowToAccount(ResultSet rs) throws SQLException {
         Account account = new Account();
@@ -128,8 +442,8 @@ public class AccountRepositoryImpl implements AccountRepository {
         account.setCustomerId(rs.getInt("customer_id"));
         account.setAccountType(rs.getString("account_type"));
         account.setStatus(rs.getString("status"));
-        account.setBalance(rs.getBigDecimal("balance"));
-        account.setMinBalanceThreshold(rs.getBigDecimal("min_balance_threshold"));
+        account.setBalance(MoneyColumns.get(rs, "balance"));
+        account.setMinBalanceThreshold(MoneyColumns.get(rs, "min_balance_threshold"));
         return account;
     }
 }
@@ -0,0 +1,584 @@
+package org.banking.dao;
+
+import org.banking.metrics.Metrics;
+import org.banking.model.Account;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.banking.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Event-sourced account repository (storage.engine=ledger).
+ * - The transactions table is the source of truth. A balance is the sum of its account's credit
+ *   and debit rows, kept as an in-memory projection. accounts.balance is not maintained; the
+ *   accounts table only holds account metadata.
+ * - A posting checks the min-balance rule against the projection and inserts its rows in one JDBC
+ *   transaction under the account stripe lock(s). Memory is updated only after the commit; when the
+ *   commit fails, the affected accounts are re-read from the log, since it may have landed anyway.
+ * - Every storage.ledger.snapshotIntervalSeconds, and on shutdown, the projection is written to a
+ *   LedgerSnapshot together with the highest transaction_id it includes.
+ * - Startup loads the newest snapshot and replays the transactions after it with LedgerReplay, in
+ *   parallel id-range partitions aggregated by MySQL.
+ * This process must be the only writer of the transactions table: rows inserted by anyone else
+ * are only picked up by the next startup's replay.
+ */
+public class AccountRepositoryLedger implements AccountRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountRepositoryLedger.class);
+
+    private static final Metrics.Timer SNAPSHOT_TIME = Metrics.timer("ledger_snapshot_duration_seconds",
+            "Time to copy and write one ledger projection snapshot");
+
+    // postings per JDBC transaction in applyPostings, as in AccountRepositoryImpl
+    private static final int BATCH_CHUNK_SIZE = AppConfig.getInt("db.batch.chunkSize", 500);
+
+    /** Ledger settings; see the storage.ledger.* keys in config.properties. */
+    public record Settings(Path snapshotDir, long snapshotIntervalSeconds, int snapshotsRetained,
+                           int replayPartitions, int lockStripes) {
+        public static Settings fromConfig() {
+            // each replay partition holds a pooled connection for its whole scan; leave one for everyone else
+            int poolSize = AppConfig.getInt("db.pool.maxSize", 10);
+            return new Settings(Paths.get(AppConfig.get("storage.ledger.snapshotDir", "ledger_snapshots")),
+                    AppConfig.getLong("storage.ledger.snapshotIntervalSeconds", 300),
+                    Math.max(1, AppConfig.getInt("storage.ledger.snapshotsRetained", 2)),
+                    Math.max(1, Math.min(poolSize - 1, AppConfig.getInt("storage.ledger.replayPartitions", 8))),
+                    AppConfig.getInt("service.lock.stripes", 256));
+        }
+    }
+
+    private static volatile AccountRepositoryLedger shared;
+
+    private final Settings settings;
+    private final AccountRepositoryImpl metadata = new AccountRepositoryImpl(); // account numbers and lookups
+    private final Map<String, LedgerAccount> accounts = new ConcurrentHashMap<>();
+    private final Map<Integer, String> accountByCustomerId = new ConcurrentHashMap<>();
+    // highest transaction_id whose balance effect is in the projection
+    private final AtomicLong appliedThrough = new AtomicLong();
+
+    // ReentrantLocks rather than monitors: postings do JDBC I/O under them, possibly on virtual threads
+    private final ReentrantLock[] stripes;
+    // postings share it; a snapshot takes it exclusively while it copies the balances
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final ReentrantLock snapshotLock = new ReentrantLock();
+    private volatile ScheduledExecutorService snapshotter; // started by open() once the projection is built
+
+    /** How a ledger write ended; LANDED means it reported an error but its rows are in the log. */
+    private enum CommitOutcome { COMMITTED, LANDED, FAILED }
+
+    /** Process-wide projection built from config.properties; a shutdown hook writes its last snapshot. */
+    public static AccountRepositoryLedger shared() {
+        AccountRepositoryLedger ledger = shared;
+        if (ledger == null) {
+            synchronized (AccountRepositoryLedger.class) {
+                ledger = shared;
+                if (ledger == null) {
+                    ledger = open(Settings.fromConfig());
+                    AccountRepositoryLedger opened = ledger;
+                    Runtime.getRuntime().addShutdownHook(new Thread(opened::close, "ledger-shutdown"));
+                    shared = ledger;
+                }
+            }
+        }
+        return ledger;
+    }
+
+    /** Rebuilds the projection from the newest snapshot plus the log, then starts periodic snapshots. */
+    public static AccountRepositoryLedger open(Settings settings) {
+        AccountRepositoryLedger ledger = new AccountRepositoryLedger(settings);
+        try {
+            ledger.recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ledger snapshots from " + settings.snapshotDir(), e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot rebuild the ledger projection from the transactions table", e);
+        }
+
+        Metrics.gauge("ledger_accounts", "Accounts in the ledger projection", ledger.accounts::size);
+        Metrics.gauge("ledger_applied_transaction_id", "Highest transaction_id included in the ledger projection",
+                ledger.appliedThrough::get);
+
+        if (settings.snapshotIntervalSeconds() > 0) {
+            ScheduledExecutorService snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "ledger-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            snapshotter.scheduleWithFixedDelay(ledger::snapshotQuietly, settings.snapshotIntervalSeconds(),
+                    settings.snapshotIntervalSeconds(), TimeUnit.SECONDS);
+            ledger.snapshotter = snapshotter;
+        }
+        return ledger;
+    }
+
+    private AccountRepositoryLedger(Settings settings) {
+        this.settings = settings;
+        int n = Integer.highestOneBit(Math.max(1, settings.lockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) stripes[i] = new ReentrantLock();
+    }
+
+    // ----------------- ACCOUNTS -----------------
+
+    @Override
+    public void createAccount(Account account) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            insertAccountRow(conn, account);
+        } catch (SQLException e) {
+            logger.error("❌ Error while creating account for Customer ID: {}", account.getCustomerId(), e);
+            return;
+        }
+        // not while a snapshot is copying the accounts: it must see all of them or none of this one
+        checkpointLock.readLock().lock();
+        try {
+            project(account, 0);
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        logger.info("✅ Account created successfully for Customer ID: {}", account.getCustomerId());
+
+        // a balance handed in here becomes an opening event, so the log still adds up
+        Money opening = account.getBalance();
+        if (opening != null && opening.signum() != 0) {
+            updateAccountBalance(account.getAccountNumber(), opening);
+        }
+    }
+
+    /** The account row and its opening DEPOSIT row commit together; the balance is projected from the latter. */
+    @Override
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        long opening = openingEntry == null ? 0 : minorUnits(account.getBalance());
+        // held across the commit too, so a snapshot whose watermark covers the deposit also lists the account
+        checkpointLock.readLock().lock();
+        try {
+            try (Connection conn = DatabaseConnection.getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    insertAccountRow(conn, account);
+                    if (openingEntry != null) TransactionRepositoryImpl.insertTransactions(conn, List.of(openingEntry));
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                logger.error("❌ Error while opening account for Customer ID: {}", account.getCustomerId(), e);
+                return PostingResult.failed();
+            }
+            project(account, opening);
+            if (openingEntry != null) appliedThrough.accumulateAndGet(openingEntry.getTransactionId(), Math::max);
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+        logger.info("✅ Account created successfully for Customer ID: {}", account.getCustomerId());
+        return PostingResult.applied(null, Money.ofMinor(opening));
+    }
+
+    @Override
+    public Optional<Account> findAccountByNumber(String accountNumber) {
+        LedgerAccount a = accounts.get(accountNumber);
+        return a == null ? Optional.empty() : Optional.of(a.toAccount());
+    }
+
+    @Override
+    public Optional<Account> findAccountByCustomerId(int customerId) {
+        String accountNumber = accountByCustomerId.get(customerId);
+        return accountNumber == null ? Optional.empty() : findAccountByNumber(accountNumber);
+    }
+
+    /** Balances are derived, so this appends a correcting DEPOSIT or WITHDRAWAL row for the difference. */
+    @Override
+    public void updateAccountBalance(String accountNumber, Money newBalance) {
+        LedgerAccount a = accounts.get(accountNumber);
+        if (a == null) {
+            logger.warn("⚠️ No account found for Account Number: {}", accountNumber);
+            return;
+        }
+        ReentrantLock stripe = stripes[stripeIndex(accountNumber)];
+        checkpointLock.readLock().lock();
+        stripe.lock();
+        try {
+            long delta = Math.subtractExact(newBalance.minorUnits(), a.balance);
+            if (delta == 0) return;
+            Money amount = Money.ofMinor(Math.abs(delta));
+            Transaction entry = new Transaction(accountNumber, delta > 0 ? "DEPOSIT" : "WITHDRAWAL", amount,
+                    new Timestamp(System.currentTimeMillis()), "Balance adjustment");
+            if (commit(List.of(entry)) == CommitOutcome.COMMITTED) a.balance = newBalance.minorUnits();
+        } finally {
+            stripe.unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Optional<Long> findLastAccountNumber() {
+        return metadata.findLastAccountNumber();
+    }
+
+    @Override
+    public Optional<Long> nextAccountNumber() {
+        return metadata.nextAccountNumber();
+    }
+
+    // ----------------- POSTINGS -----------------
+
+    @Override
+    public PostingResult postDeposit(String accountNumber, Money amount, Transaction entry) {
+        return applyChunk(List.of(Posting.deposit(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry) {
+        return applyChunk(List.of(Posting.withdrawal(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                                      Transaction debitEntry, Transaction creditEntry) {
+        return applyChunk(List.of(Posting.transfer(fromAccount, toAccount, amount, debitEntry, creditEntry))).get(0);
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        for (int from = 0; from < postings.size(); from += BATCH_CHUNK_SIZE) {
+            results.addAll(applyChunk(postings.subList(from, Math.min(postings.size(), from + BATCH_CHUNK_SIZE))));
+        }
+        return results;
+    }
+
+    // Evaluates the chunk against working copies of the balances, inserts the applied postings' rows
+    // in one JDBC transaction and publishes the new balances only once that has committed.
+    private List<PostingResult> applyChunk(List<Posting> chunk) {
+        int[] locked = stripesOf(chunk);
+        checkpointLock.readLock().lock();
+        for (int s : locked) stripes[s].lock();
+        try {
+            Map<LedgerAccount, long[]> working = new HashMap<>();
+            List<PostingResult> results = new ArrayList<>(chunk.size());
+            List<Transaction> entries = new ArrayList<>();
+            for (Posting p : chunk) {
+                PostingResult result = evaluate(p, working);
+                if (result.isApplied()) entries.addAll(p.entries());
+                results.add(result);
+            }
+            if (entries.isEmpty()) return results;
+
+            switch (commit(entries)) {
+                case COMMITTED -> {
+                    for (Map.Entry<LedgerAccount, long[]> e : working.entrySet()) e.getKey().balance = e.getValue()[0];
+                }
+                case LANDED -> {
+                    // the balances were already re-read from the log
+                }
+                case FAILED -> {
+                    List<PostingResult> failed = new ArrayList<>(chunk.size());
+                    for (int i = 0; i < chunk.size(); i++) failed.add(PostingResult.failed());
+                    return failed;
+                }
+            }
+            return results;
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) stripes[locked[i]].unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    private PostingResult evaluate(Posting p, Map<LedgerAccount, long[]> working) {
+        LedgerAccount debit = p.debitAccount() == null ? null : accounts.get(p.debitAccount());
+        LedgerAccount credit = p.creditAccount() == null ? null : accounts.get(p.creditAccount());
+        if ((p.debitAccount() != null && debit == null) || (p.creditAccount() != null && credit == null)) {
+            logger.warn("⚠️ No account found for posting {} → {}", p.debitAccount(), p.creditAccount());
+            return PostingResult.notFound();
+        }
+        long amount = p.amount().minorUnits();
+        long[] debitBalance = debit == null ? null : working.computeIfAbsent(debit, a -> new long[]{a.balance});
+        long[] creditBalance = credit == null ? null : working.computeIfAbsent(credit, a -> new long[]{a.balance});
+        if (debit != null && Math.subtractExact(debitBalance[0], amount) < debit.minBalance) {
+            logger.warn("⚠️ Debit rejected by min-balance rule for Account Number: {}", debit.accountNumber);
+            return PostingResult.insufficientFunds(Money.ofMinor(debitBalance[0]));
+        }
+        if (debit != null) debitBalance[0] = Math.subtractExact(debitBalance[0], amount);
+        if (credit != null) creditBalance[0] = Math.addExact(creditBalance[0], amount);
+        return PostingResult.applied(debit == null ? null : Money.ofMinor(debitBalance[0]),
+                credit == null ? null : Money.ofMinor(creditBalance[0]));
+    }
+
+    // caller holds the stripes of every account in entries
+    private CommitOutcome commit(List<Transaction> entries) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                TransactionRepositoryImpl.insertTransactions(conn, entries);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error writing {} ledger rows; re-reading the affected accounts", entries.size(), e);
+            return reconcile(entries);
+        }
+        long maxId = 0;
+        for (Transaction t : entries) maxId = Math.max(maxId, t.getTransactionId());
+        appliedThrough.accumulateAndGet(maxId, Math::max);
+        return CommitOutcome.COMMITTED;
+    }
+
+    // A failed commit may still have reached MySQL (e.g. the connection dropped on COMMIT), so instead of
+    // guessing, the affected balances are rebuilt from their full history up to the log's current end.
+    // This process is the only writer and holds their stripes, so nothing else moves them meanwhile.
+    private CommitOutcome reconcile(List<Transaction> entries) {
+        Set<String> affected = new LinkedHashSet<>();
+        for (Transaction t : entries) affected.add(t.getAccountNumber());
+        try {
+            long upTo = LedgerReplay.maxTransactionId();
+            Map<String, LedgerReplay.Delta> history = LedgerReplay.replayAccounts(new ArrayList<>(affected), upTo);
+            for (String accountNumber : affected) {
+                LedgerAccount a = accounts.get(accountNumber);
+                LedgerReplay.Delta d = history.get(accountNumber);
+                if (a != null) a.balance = d == null ? 0 : d.minorUnits;
+            }
+            appliedThrough.accumulateAndGet(upTo, Math::max);
+            boolean landed = landed(entries);
+            logger.warn("⚠️ {} ledger rows {}; {} accounts re-read from the log", entries.size(),
+                    landed ? "were committed despite the error" : "were not written", affected.size());
+            return landed ? CommitOutcome.LANDED : CommitOutcome.FAILED;
+        } catch (SQLException e) {
+            logger.error("❌ Could not re-read accounts {}; the next startup's replay settles them", affected, e);
+            return CommitOutcome.FAILED;
+        }
+    }
+
+    // the rows commit together, so the last one's presence decides; ids are only known once the insert ran
+    private static boolean landed(List<Transaction> entries) throws SQLException {
+        int lastId = entries.get(entries.size() - 1).getTransactionId();
+        if (lastId <= 0) return false;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM transactions WHERE transaction_id = ?")) {
+            pstmt.setInt(1, lastId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    // ----------------- SNAPSHOTS & RECOVERY -----------------
+
+    /** Writes the projection to a new snapshot file. */
+    public void snapshot() throws IOException {
+        snapshotLock.lock(); // the scheduler and the shutdown hook may overlap
+        try {
+            long started = System.nanoTime();
+            LedgerSnapshot image;
+            // with no posting in flight every committed row up to appliedThrough is in the balances
+            checkpointLock.writeLock().lock();
+            try {
+                List<String> numbers = new ArrayList<>(accounts.size());
+                long[] balances = new long[accounts.size()];
+                for (LedgerAccount a : accounts.values()) {
+                    if (numbers.size() == balances.length) balances = Arrays.copyOf(balances, balances.length * 2 + 16);
+                    balances[numbers.size()] = a.balance;
+                    numbers.add(a.accountNumber);
+                }
+                image = new LedgerSnapshot(appliedThrough.get(), numbers.toArray(new String[0]),
+                        Arrays.copyOf(balances, numbers.size()));
+            } finally {
+                checkpointLock.writeLock().unlock();
+            }
+            long bytes = image.writeTo(settings.snapshotDir(), settings.snapshotsRetained());
+            SNAPSHOT_TIME.recordSince(started);
+            logger.info("✅ Ledger snapshot written at transaction {} ({} accounts, {} KB)",
+                    image.watermark, image.accountNumbers.length, bytes / 1024);
+        } finally {
+            snapshotLock.unlock();
+        }
+    }
+
+    public void close() {
+        if (snapshotter != null) snapshotter.shutdownNow();
+        snapshotQuietly();
+    }
+
+    private void recover() throws IOException, SQLException {
+        long started = System.nanoTime();
+        LedgerSnapshot snapshot = LedgerSnapshot.loadLatest(settings.snapshotDir());
+        Map<String, Long> snapshotBalances = new HashMap<>(snapshot.accountNumbers.length * 2);
+        for (int i = 0; i < snapshot.accountNumbers.length; i++) {
+            snapshotBalances.put(snapshot.accountNumbers[i], snapshot.balances[i]);
+        }
+
+        // account metadata; accounts.balance is only read to report drift on the first start without a snapshot
+        Map<String, Long> storedBalances = new HashMap<>();
+        boolean firstStart = snapshot == LedgerSnapshot.EMPTY;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT account_number, customer_id, account_type, status, balance, min_balance_threshold FROM accounts");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                LedgerAccount a = new LedgerAccount(rs.getString(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                        minorUnits(MoneyColumns.get(rs, 6)));
+                Long balance = snapshotBalances.get(a.accountNumber);
+                a.balance = balance == null ? 0 : balance;
+                accounts.put(a.accountNumber, a);
+                accountByCustomerId.put(a.customerId, a.accountNumber);
+                if (firstStart) storedBalances.put(a.accountNumber, minorUnits(MoneyColumns.get(rs, 5)));
+            }
+        }
+
+        // An account the snapshot doesn't list may still have rows at or below its watermark (e.g. one
+        // written before account creation was fenced off from snapshots); rebuild it from its whole history.
+        if (!firstStart) {
+            List<String> unlisted = new ArrayList<>();
+            for (String accountNumber : accounts.keySet()) {
+                if (!snapshotBalances.containsKey(accountNumber)) unlisted.add(accountNumber);
+            }
+            Map<String, LedgerReplay.Delta> history = LedgerReplay.replayAccounts(unlisted, snapshot.watermark);
+            for (Map.Entry<String, LedgerReplay.Delta> e : history.entrySet()) {
+                accounts.get(e.getKey()).balance = e.getValue().minorUnits;
+            }
+            if (!history.isEmpty()) {
+                logger.warn("⚠️ {} accounts with transactions up to snapshot {} were missing from it; replayed in full",
+                        history.size(), snapshot.watermark);
+            }
+        }
+
+        long upTo = LedgerReplay.maxTransactionId();
+        Map<String, LedgerReplay.Delta> tail = LedgerReplay.replay(snapshot.watermark, upTo, settings.replayPartitions());
+        long events = 0, unknownTypes = 0, orphans = 0;
+        for (Map.Entry<String, LedgerReplay.Delta> e : tail.entrySet()) {
+            LedgerReplay.Delta d = e.getValue();
+            events += d.events;
+            unknownTypes += d.unknownTypes;
+            LedgerAccount a = accounts.get(e.getKey());
+            if (a == null) {
+                orphans += d.events;
+                continue;
+            }
+            a.balance = Math.addExact(a.balance, d.minorUnits);
+        }
+        appliedThrough.set(Math.max(snapshot.watermark, upTo));
+
+        logger.info("✅ Ledger projection ready: {} accounts, snapshot at transaction {}, {} later transactions replayed in {} ms",
+                accounts.size(), snapshot.watermark, events, (System.nanoTime() - started) / 1_000_000);
+        if (unknownTypes > 0) {
+            logger.warn("⚠️ {} transactions have a type that is neither credit {} nor debit {} and were ignored",
+                    unknownTypes, TransactionTypes.CREDIT_TYPES, TransactionTypes.DEBIT_TYPES);
+        }
+        if (orphans > 0) logger.warn("⚠️ {} transactions belong to no known account and were ignored", orphans);
+        if (firstStart) reportDrift(storedBalances);
+        if (events > 0) snapshotQuietly(); // so the next start replays from here
+    }
+
+    // the log wins; this only tells the operator how far accounts.balance had drifted from it
+    private void reportDrift(Map<String, Long> storedBalances) {
+        int drifted = 0;
+        for (LedgerAccount a : accounts.values()) {
+            Long stored = storedBalances.get(a.accountNumber);
+            if (stored != null && stored != a.balance) {
+                if (drifted++ < 10) {
+                    logger.warn("⚠️ Account {}: accounts.balance {} but transactions add up to {}",
+                            a.accountNumber, Money.ofMinor(stored), Money.ofMinor(a.balance));
+                }
+            }
+        }
+        if (drifted > 0) logger.warn("⚠️ {} accounts had drifted from their transactions; using the transactions", drifted);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Ledger snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    // distinct stripe indexes of every account in the chunk, ascending (the lock order, as in StripedLocks)
+    private int[] stripesOf(List<Posting> chunk) {
+        TreeSet<Integer> indexes = new TreeSet<>();
+        for (Posting p : chunk) {
+            if (p.debitAccount() != null) indexes.add(stripeIndex(p.debitAccount()));
+            if (p.creditAccount() != null) indexes.add(stripeIndex(p.creditAccount()));
+        }
+        int[] out = new int[indexes.size()];
+        int i = 0;
+        for (int s : indexes) out[i++] = s;
+        return out;
+    }
+
+    private int stripeIndex(String accountNumber) {
+        int h = accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    private static void insertAccountRow(Connection conn, Account account) throws SQLException {
+        String sql = "INSERT INTO accounts (account_number, customer_id, account_type, balance, min_balance_threshold) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, account.getAccountNumber());
+            pstmt.setInt(2, account.getCustomerId());
+            pstmt.setString(3, account.getAccountType());
+            MoneyColumns.set(pstmt, 4, Money.ZERO); // not maintained in ledger mode
+            MoneyColumns.set(pstmt, 5, account.getMinBalanceThreshold());
+            pstmt.executeUpdate();
+        }
+    }
+
+    // caller holds checkpointLock's read lock
+    private void project(Account account, long balance) {
+        LedgerAccount created = new LedgerAccount(account.getAccountNumber(), account.getCustomerId(),
+                account.getAccountType(), account.getStatus(), minorUnits(account.getMinBalanceThreshold()));
+        created.balance = balance;
+        accounts.put(created.accountNumber, created);
+        accountByCustomerId.put(created.customerId, created.accountNumber);
+    }
+
+    private static long minorUnits(Money amount) {
+        return amount == null ? 0 : amount.minorUnits();
+    }
+
+    // one projected account; balance is written under its stripe lock and read without it
+    private static final class LedgerAccount {
+        final String accountNumber;
+        final int customerId;
+        final String accountType;
+        final String status;
+        final long minBalance;
+        volatile long balance;
+
+        LedgerAccount(String accountNumber, int customerId, String accountType, String status, long minBalance) {
+            this.accountNumber = accountNumber;
+            this.customerId = customerId;
+            this.accountType = accountType;
+            this.status = status;
+            this.minBalance = minBalance;
+        }
+
+        Account toAccount() {
+            Account a = new Account();
+            a.setAccountNumber(accountNumber);
+            a.setCustomerId(customerId);
+            a.setAccountType(accountType);
+            a.setStatus(status);
+            a.setBalance(Money.ofMinor(balance));
+            a.setMinBalanceThreshold(Money.ofMinor(minBalance));
+            return a;
+        }
+    }
+}
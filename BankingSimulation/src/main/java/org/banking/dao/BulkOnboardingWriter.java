@@ -0,0 +1,112 @@
+package org.banking.dao;
+
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Transaction;
+import org.banking.util.DatabaseConnection;
+
+import java.sql.*;
+import java.util.*;
+
+/**
+ * JDBC side of bulk onboarding: writes customers, their accounts and opening-deposit rows.
+ * A chunk is one transaction of three JDBC batches, one per table, which the driver sends as
+ * multi-row INSERTs (rewriteBatchedStatements, set by ConnectionPool). The generated customer ids
+ * come back from the customers batch in row order and are copied onto the accounts before they are
+ * inserted.
+ */
+public class BulkOnboardingWriter {
+
+    /** One customer with the account to open; openingEntry is null when there is no opening deposit. */
+    public record NewAccount(Customer customer, Account account, Transaction openingEntry) {
+    }
+
+    private static final String CUSTOMER_SQL = """
+            INSERT INTO customers
+            (username, password_hash, first_name, last_name, date_of_birth, email, phone_number, address, city, state, postal_code)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+    private static final String ACCOUNT_SQL =
+            "INSERT INTO accounts (account_number, customer_id, account_type, balance, min_balance_threshold) VALUES (?, ?, ?, ?, ?)";
+
+    /** Inserts the whole chunk in one transaction, or nothing if any row fails. */
+    public void writeChunk(List<NewAccount> rows) throws SQLException {
+        if (rows.isEmpty()) return;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                insertCustomers(conn, rows);
+                insertAccounts(conn, rows);
+                List<Transaction> entries = new ArrayList<>(rows.size());
+                for (NewAccount row : rows) {
+                    if (row.openingEntry() != null) entries.add(row.openingEntry());
+                }
+                TransactionRepositoryImpl.insertTransactions(conn, entries);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /** The usernames from the list that are already taken (compared the way the column collates them). */
+    public Set<String> existingUsernames(Collection<String> usernames) throws SQLException {
+        Set<String> taken = new HashSet<>();
+        if (usernames.isEmpty()) return taken;
+        String sql = "SELECT username FROM customers WHERE username IN (" + "?, ".repeat(usernames.size() - 1) + "?)";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int i = 1;
+            for (String u : usernames) ps.setString(i++, u);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) taken.add(rs.getString(1).toLowerCase(Locale.ROOT));
+            }
+        }
+        return taken;
+    }
+
+    private static void insertCustomers(Connection conn, List<NewAccount> rows) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(CUSTOMER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            for (NewAccount row : rows) {
+                Customer c = row.customer();
+                ps.setString(1, c.getUsername());
+                ps.setString(2, c.getPasswordHash());
+                ps.setString(3, c.getFirstName());
+                ps.setString(4, c.getLastName());
+                ps.setDate(5, c.getDateOfBirth());
+                ps.setString(6, c.getEmail());
+                ps.setString(7, c.getPhoneNumber());
+                ps.setString(8, c.getAddress());
+                ps.setString(9, c.getCity());
+                ps.setString(10, c.getState());
+                ps.setString(11, c.getPostalCode());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                for (NewAccount row : rows) {
+                    if (!keys.next()) throw new SQLException("Fewer generated customer ids than rows inserted");
+                    int id = keys.getInt(1);
+                    row.customer().setCustomerId(id);
+                    row.account().setCustomerId(id);
+                }
+            }
+        }
+    }
+
+    private static void insertAccounts(Connection conn, List<NewAccount> rows) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(ACCOUNT_SQL)) {
+            for (NewAccount row : rows) {
+                Account a = row.account();
+                ps.setString(1, a.getAccountNumber());
+                ps.setInt(2, a.getCustomerId());
+                ps.setString(3, a.getAccountType());
+                MoneyColumns.set(ps, 4, a.getBalance());
+                MoneyColumns.set(ps, 5, a.getMinBalanceThreshold());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.banking.dao;
+
+import java.util.List;
+
+/**
+ * Account repositories that can commit postings together with a job checkpoint: the JDBC ones
+ * (AccountRepositoryImpl and AccountRepositoryHybrid over it), whose postings and job_checkpoints
+ * rows live in the same database. Restartable batch jobs such as InterestAccrualJob take this type.
+ */
+public interface CheckpointedPostings {
+
+    // Applies all postings in ONE transaction that also saves the job checkpoint, so a restarted batch
+    // job finds both or neither. Keep the list to one batch; any FAILED result means nothing was saved.
+    List<PostingResult> applyPostings(List<Posting> postings, JobCheckpointRepository.Checkpoint checkpoint);
+}
@@ -9,4 +9,6 @@ public interface CustomerRepository {
     Optional<Customer> findCustomerByUsername(String username);
     Optional<Customer> findCustomerByEmail(String email);
     Optional<Customer> findCustomerByPhoneNumber(String phoneNumber);
+    boolean updatePasswordHash(int customerId, String passwordHash); // rehash-on-login upgrades
+    boolean deleteCustomer(int customerId); // undoes a registration that could not open its account
 }
\ No newline at end of file
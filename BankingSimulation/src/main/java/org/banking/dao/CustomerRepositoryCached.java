@@ -0,0 +1,199 @@
+package org.banking.dao;
+
+import org.banking.model.Customer;
+import org.banking.util.AppConfig;
+import org.banking.util.BoundedCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Caching decorator for any CustomerRepository.
+ * - Customers are held in a bounded cache keyed by id (cache.customer.maxSize) and expire
+ *   after cache.customer.ttlSeconds.
+ * - username / email / phone indexes point at the id and are cleaned up whenever an entry
+ *   is evicted or expires, so every lookup path stays consistent with the primary cache.
+ * - Only hits are cached: a "not found" always goes to the delegate, so registration
+ *   checks (isUsernameTaken...) never see a stale negative.
+ */
+public class CustomerRepositoryCached implements CustomerRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomerRepositoryCached.class);
+
+    /** Point-in-time hit/miss counters per lookup path. */
+    public record Stats(long size, long idHits, long idMisses, long usernameHits, long usernameMisses,
+                        long emailHits, long emailMisses, long phoneHits, long phoneMisses, long expirations) {
+        public double hitRate() {
+            long hits = idHits + usernameHits + emailHits + phoneHits;
+            long total = hits + idMisses + usernameMisses + emailMisses + phoneMisses;
+            return total == 0 ? 0.0 : (double) hits / total;
+        }
+    }
+
+    private record Entry(Customer customer, long expiresAtNanos) {
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    private final CustomerRepository delegate;
+    private final long ttlNanos;
+    private final BoundedCache<Integer, Entry> byId;
+    private final Map<String, Integer> idByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Integer> idByPhone = new ConcurrentHashMap<>();
+
+    private final LongAdder idHits = new LongAdder(), idMisses = new LongAdder();
+    private final LongAdder usernameHits = new LongAdder(), usernameMisses = new LongAdder();
+    private final LongAdder emailHits = new LongAdder(), emailMisses = new LongAdder();
+    private final LongAdder phoneHits = new LongAdder(), phoneMisses = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public CustomerRepositoryCached(CustomerRepository delegate) {
+        this(delegate,
+                AppConfig.getInt("cache.customer.maxSize", 100_000),
+                AppConfig.getLong("cache.customer.ttlSeconds", 300));
+    }
+
+    public CustomerRepositoryCached(CustomerRepository delegate, int maxSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.byId = new BoundedCache<>(maxSize, (id, entry) -> unindex(id, entry.customer()));
+    }
+
+    @Override
+    public int createCustomer(Customer customer) {
+        int customerId = delegate.createCustomer(customer);
+        if (customerId != 0) {
+            customer.setCustomerId(customerId);
+            cache(customer);
+        }
+        return customerId;
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(int customerId) {
+        Customer hit = lookup(customerId);
+        if (hit != null) {
+            idHits.increment();
+            return Optional.of(hit);
+        }
+        idMisses.increment();
+        return load(() -> delegate.findCustomerById(customerId));
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByUsername(String username) {
+        return findBySecondaryKey(username, idByUsername, Customer::getUsername, usernameHits, usernameMisses,
+                () -> delegate.findCustomerByUsername(username));
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return findBySecondaryKey(email, idByEmail, Customer::getEmail, emailHits, emailMisses,
+                () -> delegate.findCustomerByEmail(email));
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByPhoneNumber(String phoneNumber) {
+        return findBySecondaryKey(phoneNumber, idByPhone, Customer::getPhoneNumber, phoneHits, phoneMisses,
+                () -> delegate.findCustomerByPhoneNumber(phoneNumber));
+    }
+
+    @Override
+    public boolean updatePasswordHash(int customerId, String passwordHash) {
+        boolean updated = delegate.updatePasswordHash(customerId, passwordHash);
+        if (updated) invalidate(customerId); // next lookup reloads the stored hash
+        return updated;
+    }
+
+    @Override
+    public boolean deleteCustomer(int customerId) {
+        boolean deleted = delegate.deleteCustomer(customerId);
+        invalidate(customerId);
+        return deleted;
+    }
+
+    /** Drops a customer from every index, e.g. after an out-of-band update. */
+    public void invalidate(int customerId) {
+        byId.remove(customerId);
+    }
+
+    public Stats getStats() {
+        return new Stats(byId.size(),
+                idHits.sum(), idMisses.sum(),
+                usernameHits.sum(), usernameMisses.sum(),
+                emailHits.sum(), emailMisses.sum(),
+                phoneHits.sum(), phoneMisses.sum(),
+                expirations.sum());
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private Optional<Customer> findBySecondaryKey(String key, Map<String, Integer> index,
+                                                  Function<Customer, String> keyOf,
+                                                  LongAdder hits, LongAdder misses,
+                                                  Supplier<Optional<Customer>> loader) {
+        if (key != null) {
+            Integer id = index.get(key);
+            if (id != null) {
+                Customer hit = lookup(id);
+                if (hit != null && key.equals(keyOf.apply(hit))) {
+                    hits.increment();
+                    return Optional.of(hit);
+                }
+                index.remove(key, id); // stale index entry
+            }
+        }
+        misses.increment();
+        return load(loader);
+    }
+
+    /** Returns the cached, unexpired customer for the id, or null. */
+    private Customer lookup(int customerId) {
+        Entry entry = byId.get(customerId);
+        if (entry == null) return null;
+        if (entry.isExpired(System.nanoTime())) {
+            if (byId.remove(customerId, entry)) expirations.increment();
+            return null;
+        }
+        return entry.customer();
+    }
+
+    private Optional<Customer> load(Supplier<Optional<Customer>> loader) {
+        Optional<Customer> loaded = loader.get();
+        loaded.ifPresent(this::cache);
+        return loaded;
+    }
+
+    private void cache(Customer customer) {
+        int id = customer.getCustomerId();
+        Entry entry = new Entry(customer, System.nanoTime() + ttlNanos);
+        // Drop the old entry first so indexes of changed username/email/phone are cleared.
+        Entry previous = byId.peek(id);
+        if (previous != null) byId.remove(id, previous);
+        if (!byId.put(id, entry)) return;
+
+        index(idByUsername, customer.getUsername(), id);
+        index(idByEmail, customer.getEmail(), id);
+        index(idByPhone, customer.getPhoneNumber(), id);
+        logger.debug("Customer {} cached", id);
+    }
+
+    private void unindex(int id, Customer customer) {
+        if (customer.getUsername() != null) idByUsername.remove(customer.getUsername(), id);
+        if (customer.getEmail() != null) idByEmail.remove(customer.getEmail(), id);
+        if (customer.getPhoneNumber() != null) idByPhone.remove(customer.getPhoneNumber(), id);
+    }
+
+    private static void index(Map<String, Integer> index, String key, int id) {
+        if (key != null) index.put(key, id);
+    }
+}
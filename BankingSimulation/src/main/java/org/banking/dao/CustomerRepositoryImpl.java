@@ -11,6 +11,8 @@ import java.util.Optional;
 public class CustomerRepositoryImpl implements CustomerRepository {
 
     private static final Logger logger = LoggerFactory.getLogger(CustomerRepositoryImpl.class);
+    // per-query lines; sampled via org.banking.log.sample.* in simplelogger.properties
+    private static final Logger queryLog = LoggerFactory.getLogger(CustomerRepositoryImpl.class.getName() + ".queries");
 
     @Override
     public int createCustomer(Customer customer) {
@@ -61,7 +63,7 @@ public class CustomerRepositoryImpl implements CustomerRepository {
             pstmt.setInt(1, customerId);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    logger.info("🔍 Customer found with ID={}", customerId);
+                    queryLog.info("🔍 Customer found with ID={}", customerId);
                     return Optional.of(mapRowToCustomer(rs));
                 }
             }
@@ -87,6 +89,41 @@ public class CustomerRepositoryImpl implements CustomerRepository {
         return findCustomerByField("phone_number", phoneNumber);
     }
 
+    @Override
+    public boolean updatePasswordHash(int customerId, String passwordHash) {
+        String sql = "UPDATE customers SET password_hash = ? WHERE customer_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setString(1, passwordHash);
+            pstmt.setInt(2, customerId);
+            boolean updated = pstmt.executeUpdate() > 0;
+            if (updated) logger.info("✅ Password hash upgraded for Customer ID: {}", customerId);
+            return updated;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error updating password hash for Customer ID: {}", customerId, e);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteCustomer(int customerId) {
+        String sql = "DELETE FROM customers WHERE customer_id = ?";
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, customerId);
+            boolean deleted = pstmt.executeUpdate() > 0;
+            if (deleted) logger.info("✅ Customer ID {} deleted", customerId);
+            return deleted;
+
+        } catch (SQLException e) {
+            logger.error("❌ Error deleting Customer ID: {}", customerId, e);
+            return false;
+        }
+    }
+
     private Optional<Customer> findCustomerByField(String fieldName, String value) {
         String sql = "SELECT * FROM customers WHERE " + fieldName + " = ?";
         try (Connection conn = DatabaseConnection.getConnection();
@@ -95,7 +132,7 @@ public class CustomerRepositoryImpl implements CustomerRepository {
             pstmt.setString(1, value);
             try (ResultSet rs = pstmt.executeQuery()) {
                 if (rs.next()) {
-                    logger.info("🔍 Customer found by {}={}", fieldName, value);
+                    queryLog.info("🔍 Customer found by {}={}", fieldName, value);
                     return Optional.of(mapRowToCustomer(rs));
                 }
             }
@@ -0,0 +1,14 @@
+package org.banking.dao;
+
+/**
+ * A repository read that could not be answered because the storage failed (e.g. a SQLException).
+ * Thrown instead of returning an empty result, which callers could not tell apart from "no rows".
+ */
+public class DataAccessException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DataAccessException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
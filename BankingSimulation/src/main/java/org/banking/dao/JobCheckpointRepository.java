@@ -0,0 +1,107 @@
+package org.banking.dao;
+
+import org.banking.util.DatabaseConnection;
+import org.banking.util.SchemaSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.*;
+import java.util.Optional;
+
+/**
+ * Named checkpoints for background jobs (job_checkpoints table).
+ * The Connection overloads let a job save its checkpoint in the same transaction as its work;
+ * they skip the CREATE TABLE check (DDL would commit the caller's transaction), so call
+ * ensureSchema() or one of the other methods first.
+ */
+public class JobCheckpointRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobCheckpointRepository.class);
+
+    private static final String DDL = """
+            CREATE TABLE IF NOT EXISTS job_checkpoints (
+                job_name         VARCHAR(128)  NOT NULL PRIMARY KEY,
+                checkpoint_value VARCHAR(4096) NOT NULL,
+                updated_at       TIMESTAMP(3)  NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)
+            )
+            """;
+
+    private static volatile boolean schemaReady;
+
+    /** A checkpoint to save in the same transaction as the work it records (see AccountRepository.applyPostings). */
+    public record Checkpoint(String jobName, String value) {
+    }
+
+    public void ensureSchema() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            ensureSchema(conn);
+        } catch (SQLException e) {
+            logger.error("❌ Error creating job_checkpoints table", e);
+        }
+    }
+
+    public Optional<String> load(String jobName) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            ensureSchema(conn);
+            return load(conn, jobName);
+        } catch (SQLException e) {
+            logger.error("❌ Error loading checkpoint for job {}", jobName, e);
+            return Optional.empty();
+        }
+    }
+
+    public Optional<String> load(Connection conn, String jobName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT checkpoint_value FROM job_checkpoints WHERE job_name = ?")) {
+            ps.setString(1, jobName);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? Optional.of(rs.getString(1)) : Optional.empty();
+            }
+        }
+    }
+
+    public void save(String jobName, String value) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            ensureSchema(conn);
+            save(conn, jobName, value);
+        } catch (SQLException e) {
+            logger.error("❌ Error saving checkpoint for job {}", jobName, e);
+        }
+    }
+
+    public void save(Connection conn, String jobName, String value) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("""
+                INSERT INTO job_checkpoints (job_name, checkpoint_value) VALUES (?, ?)
+                ON DUPLICATE KEY UPDATE checkpoint_value = VALUES(checkpoint_value)
+                """)) {
+            ps.setString(1, jobName);
+            ps.setString(2, value);
+            ps.executeUpdate();
+        }
+    }
+
+    public void delete(String jobName) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            ensureSchema(conn);
+            try (PreparedStatement ps = conn.prepareStatement("DELETE FROM job_checkpoints WHERE job_name = ?")) {
+                ps.setString(1, jobName);
+                ps.executeUpdate();
+            }
+        } catch (SQLException e) {
+            logger.error("❌ Error deleting checkpoint for job {}", jobName, e);
+        }
+    }
+
+    public void delete(Connection conn, String jobName) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("DELETE FROM job_checkpoints WHERE job_name = ?")) {
+            ps.setString(1, jobName);
+            ps.executeUpdate();
+        }
+    }
+
+    private static void ensureSchema(Connection conn) throws SQLException {
+        if (schemaReady) return;
+        SchemaSupport.ensureTable(conn, DDL);
+        schemaReady = true;
+    }
+}
@@ -0,0 +1,164 @@
+package org.banking.dao;
+
+import org.banking.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the transactions log into per-account balance deltas.
+ * The id range is cut into contiguous partitions that run concurrently, each on its own pooled
+ * connection. A partition is one primary-key range scan that MySQL aggregates per account
+ * (GROUP BY account_number), so only one row per touched account crosses the wire, not one per
+ * event. Sums commute, so the partial results merge in any order.
+ */
+final class LedgerReplay {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerReplay.class);
+
+    // below this many ids per partition the extra round trips cost more than they save
+    private static final long MIN_PARTITION_SPAN = 50_000;
+
+    private static final String AGGREGATE_SQL = """
+            SELECT account_number,
+                   SUM(%1$s),
+                   COUNT(*),
+                   SUM(CASE WHEN %2$s THEN 1 ELSE 0 END)
+            FROM transactions
+            WHERE transaction_id > ? AND transaction_id <= ?
+            GROUP BY account_number
+            """.formatted(TransactionTypes.signedAmountSql("transaction_type", "amount"),
+                    TransactionTypes.unknownTypeSql("transaction_type"));
+
+    // whole history up to an id for named accounts; %s is the IN list's placeholders
+    private static final String ACCOUNTS_SQL = """
+            SELECT account_number, SUM(%1$s), COUNT(*), SUM(CASE WHEN %2$s THEN 1 ELSE 0 END)
+            FROM transactions
+            WHERE transaction_id <= ? AND account_number IN (%%s)
+            GROUP BY account_number
+            """.formatted(TransactionTypes.signedAmountSql("transaction_type", "amount"),
+                    TransactionTypes.unknownTypeSql("transaction_type"));
+    private static final int ACCOUNTS_PER_QUERY = 500;
+
+    /** Net movement of one account over the replayed range. */
+    static final class Delta {
+        long minorUnits;
+        long events;
+        long unknownTypes;
+
+        void add(long minorUnits, long events, long unknownTypes) {
+            this.minorUnits = Math.addExact(this.minorUnits, minorUnits);
+            this.events += events;
+            this.unknownTypes += unknownTypes;
+        }
+    }
+
+    private LedgerReplay() {
+    }
+
+    /** Highest transaction_id in the log, 0 when it is empty. */
+    static long maxTransactionId() throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COALESCE(MAX(transaction_id), 0) FROM transactions");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /** Per-account deltas of all transactions with afterId < transaction_id <= upToId. */
+    static Map<String, Delta> replay(long afterId, long upToId, int maxPartitions) throws SQLException {
+        long span = upToId - afterId;
+        if (span <= 0) return new HashMap<>();
+        int partitions = (int) Math.max(1, Math.min(maxPartitions, span / MIN_PARTITION_SPAN));
+        if (partitions == 1) return aggregate(afterId, upToId);
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(partitions, r -> {
+            Thread t = new Thread(r, "ledger-replay-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<Map<String, Delta>>> parts = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                long from = afterId + span * i / partitions;
+                long to = afterId + span * (i + 1) / partitions;
+                parts.add(pool.submit(() -> aggregate(from, to)));
+            }
+            Map<String, Delta> merged = null;
+            for (Future<Map<String, Delta>> part : parts) {
+                Map<String, Delta> deltas = part.get();
+                if (merged == null) {
+                    merged = deltas;
+                    continue;
+                }
+                for (Map.Entry<String, Delta> e : deltas.entrySet()) {
+                    Delta d = e.getValue();
+                    merged.computeIfAbsent(e.getKey(), k -> new Delta()).add(d.minorUnits, d.events, d.unknownTypes);
+                }
+            }
+            logger.info("Ledger replay of ids ({}, {}] ran in {} partitions", afterId, upToId, partitions);
+            return merged;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ledger replay interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof SQLException sql) throw sql;
+            throw new SQLException("Ledger replay failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /** Per-account deltas of the given accounts' transactions with transaction_id <= upToId. */
+    static Map<String, Delta> replayAccounts(List<String> accountNumbers, long upToId) throws SQLException {
+        Map<String, Delta> deltas = new HashMap<>();
+        if (accountNumbers.isEmpty() || upToId <= 0) return deltas;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            for (int from = 0; from < accountNumbers.size(); from += ACCOUNTS_PER_QUERY) {
+                List<String> part = accountNumbers.subList(from, Math.min(accountNumbers.size(), from + ACCOUNTS_PER_QUERY));
+                String sql = ACCOUNTS_SQL.formatted("?, ".repeat(part.size() - 1) + "?");
+                try (PreparedStatement ps = conn.prepareStatement(sql)) {
+                    ps.setLong(1, upToId);
+                    for (int i = 0; i < part.size(); i++) ps.setString(i + 2, part.get(i));
+                    try (ResultSet rs = ps.executeQuery()) {
+                        while (rs.next()) {
+                            long minorUnits = MoneyColumns.get(rs, 2).minorUnits();
+                            deltas.computeIfAbsent(rs.getString(1), k -> new Delta()).add(minorUnits, rs.getLong(3), rs.getLong(4));
+                        }
+                    }
+                }
+            }
+        }
+        return deltas;
+    }
+
+    private static Map<String, Delta> aggregate(long afterId, long upToId) throws SQLException {
+        Map<String, Delta> deltas = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(AGGREGATE_SQL)) {
+            ps.setLong(1, afterId);
+            ps.setLong(2, upToId);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long minorUnits = MoneyColumns.get(rs, 2).minorUnits();
+                    deltas.computeIfAbsent(rs.getString(1), k -> new Delta()).add(minorUnits, rs.getLong(3), rs.getLong(4));
+                }
+            }
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,134 @@
+package org.banking.dao;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Checkpoint of the ledger projection: every account's balance (in minor units) as of one
+ * transaction_id, the watermark. Recovery loads the newest readable snapshot and replays
+ * transactions with a higher id.
+ * Files are ledger-<watermark>.snap under storage.ledger.snapshotDir, written to a temp file,
+ * fsynced and renamed into place, and end with a CRC32 so a torn file is skipped for the previous one.
+ */
+final class LedgerSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(LedgerSnapshot.class);
+
+    private static final int MAGIC = 0x4C454447; // "LEDG"
+    private static final int VERSION = 1;
+    private static final String PREFIX = "ledger-";
+    private static final String SUFFIX = ".snap";
+
+    static final LedgerSnapshot EMPTY = new LedgerSnapshot(0, new String[0], new long[0]);
+
+    final long watermark;
+    final String[] accountNumbers;
+    final long[] balances;
+
+    LedgerSnapshot(long watermark, String[] accountNumbers, long[] balances) {
+        this.watermark = watermark;
+        this.accountNumbers = accountNumbers;
+        this.balances = balances;
+    }
+
+    // ----------------- WRITE -----------------
+
+    /** Writes this snapshot into dir and deletes all but the newest {@code retain} snapshots; returns the file size. */
+    long writeTo(Path dir, int retain) throws IOException {
+        Files.createDirectories(dir);
+        Path target = dir.resolve(PREFIX + watermark + SUFFIX);
+        Path tmp = dir.resolve(PREFIX + watermark + SUFFIX + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile())) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(file, 1 << 16), new CRC32());
+            DataOutputStream out = new DataOutputStream(checked);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(watermark);
+            out.writeInt(accountNumbers.length);
+            for (int i = 0; i < accountNumbers.length; i++) {
+                out.writeUTF(accountNumbers[i]);
+                out.writeLong(balances[i]);
+            }
+            out.flush();
+            long crc = checked.getChecksum().getValue();
+            out.writeLong(crc);
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        List<Path> all = list(dir);
+        for (int i = retain; i < all.size(); i++) Files.deleteIfExists(all.get(i));
+        return Files.size(target);
+    }
+
+    // ----------------- READ -----------------
+
+    /** The newest snapshot in dir that reads back cleanly, or EMPTY (watermark 0) when there is none. */
+    static LedgerSnapshot loadLatest(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return EMPTY;
+        for (Path file : list(dir)) {
+            try {
+                return read(file);
+            } catch (IOException e) {
+                logger.warn("⚠️ Skipping unreadable ledger snapshot {}: {}", file.getFileName(), e.getMessage());
+            }
+        }
+        return EMPTY;
+    }
+
+    private static LedgerSnapshot read(Path file) throws IOException {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), new CRC32())) {
+            DataInputStream in = new DataInputStream(checked);
+            if (in.readInt() != MAGIC) throw new IOException("not a ledger snapshot");
+            int version = in.readInt();
+            if (version != VERSION) throw new IOException("unsupported snapshot version " + version);
+            long watermark = in.readLong();
+            int count = in.readInt();
+            String[] numbers = new String[count];
+            long[] balances = new long[count];
+            for (int i = 0; i < count; i++) {
+                numbers[i] = in.readUTF();
+                balances[i] = in.readLong();
+            }
+            long expected = checked.getChecksum().getValue();
+            if (in.readLong() != expected) throw new IOException("checksum mismatch");
+            return new LedgerSnapshot(watermark, numbers, balances);
+        }
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    // snapshot files, newest (highest watermark) first
+    private static List<Path> list(Path dir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+            for (Path p : stream) {
+                if (watermarkOf(p) >= 0) files.add(p);
+            }
+        }
+        files.sort((a, b) -> Long.compare(watermarkOf(b), watermarkOf(a)));
+        return files;
+    }
+
+    private static long watermarkOf(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
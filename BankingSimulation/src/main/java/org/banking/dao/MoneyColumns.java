@@ -0,0 +1,36 @@
+package org.banking.dao;
+
+import org.banking.model.Money;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+/**
+ * The JDBC boundary for Money: DECIMAL(…,2) columns are read and bound here and nowhere else.
+ * SQL NULL maps to a null Money.
+ */
+public final class MoneyColumns {
+
+    private MoneyColumns() {
+    }
+
+    public static Money get(ResultSet rs, String column) throws SQLException {
+        return toMoney(rs.getBigDecimal(column));
+    }
+
+    public static Money get(ResultSet rs, int column) throws SQLException {
+        return toMoney(rs.getBigDecimal(column));
+    }
+
+    public static void set(PreparedStatement ps, int index, Money value) throws SQLException {
+        if (value == null) ps.setNull(index, Types.DECIMAL);
+        else ps.setBigDecimal(index, value.toBigDecimal());
+    }
+
+    private static Money toMoney(BigDecimal value) {
+        return value == null ? null : Money.of(value);
+    }
+}
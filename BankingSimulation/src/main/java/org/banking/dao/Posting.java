@@ -0,0 +1,29 @@
+package org.banking.dao;
+
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+
+import java.util.List;
+
+/**
+ * One balance movement for AccountRepository.applyPostings.
+ * - deposit    : creditAccount only
+ * - withdrawal : debitAccount only (guarded by the min-balance rule)
+ * - transfer   : both accounts
+ * entries are the transactions rows written when the posting is applied.
+ */
+public record Posting(String debitAccount, String creditAccount, Money amount, List<Transaction> entries) {
+
+    public static Posting deposit(String accountNumber, Money amount, Transaction entry) {
+        return new Posting(null, accountNumber, amount, List.of(entry));
+    }
+
+    public static Posting withdrawal(String accountNumber, Money amount, Transaction entry) {
+        return new Posting(accountNumber, null, amount, List.of(entry));
+    }
+
+    public static Posting transfer(String fromAccount, String toAccount, Money amount,
+                                   Transaction debitEntry, Transaction creditEntry) {
+        return new Posting(fromAccount, toAccount, amount, List.of(debitEntry, creditEntry));
+    }
+}
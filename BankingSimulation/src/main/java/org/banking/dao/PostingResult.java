@@ -0,0 +1,40 @@
+package org.banking.dao;
+
+import org.banking.model.Money;
+
+/**
+ * Outcome of an atomic balance posting.
+ * - APPLIED            : balances hold the committed post-posting values
+ * - INSUFFICIENT_FUNDS : debit would break the min-balance rule; debitBalance is the current balance
+ * - ACCOUNT_NOT_FOUND  : one of the accounts does not exist
+ * - FAILED             : database error, nothing was committed
+ */
+public record PostingResult(Status status, Money debitBalance, Money creditBalance) {
+
+    public enum Status {
+        APPLIED,
+        INSUFFICIENT_FUNDS,
+        ACCOUNT_NOT_FOUND,
+        FAILED
+    }
+
+    public static PostingResult applied(Money debitBalance, Money creditBalance) {
+        return new PostingResult(Status.APPLIED, debitBalance, creditBalance);
+    }
+
+    public static PostingResult insufficientFunds(Money currentBalance) {
+        return new PostingResult(Status.INSUFFICIENT_FUNDS, currentBalance, null);
+    }
+
+    public static PostingResult notFound() {
+        return new PostingResult(Status.ACCOUNT_NOT_FOUND, null, null);
+    }
+
+    public static PostingResult failed() {
+        return new PostingResult(Status.FAILED, null, null);
+    }
+
+    public boolean isApplied() {
+        return status == Status.APPLIED;
+    }
+}
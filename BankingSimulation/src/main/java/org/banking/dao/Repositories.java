@@ -0,0 +1,56 @@
+package org.banking.dao;
+
+import org.banking.dao.embedded.EmbeddedAccountRepository;
+import org.banking.dao.embedded.EmbeddedCustomerRepository;
+import org.banking.dao.embedded.EmbeddedTransactionRepository;
+import org.banking.util.AppConfig;
+
+import java.util.Optional;
+
+/**
+ * The repository set for the engine chosen by storage.engine in config.properties.
+ * - mysql    : JDBC repositories behind the customer and account caches, and the recent-history window
+ * - embedded : the file-backed engine; everything is already in memory, so no caches on top
+ * - ledger   : MySQL with the transactions table as the source of truth and balances projected in
+ *              memory (AccountRepositoryLedger)
+ */
+public record Repositories(CustomerRepository customers, AccountRepository accounts, TransactionRepository transactions) {
+
+    public static boolean embeddedEngine() {
+        return "embedded".equalsIgnoreCase(AppConfig.get("storage.engine", "mysql"));
+    }
+
+    public static boolean ledgerEngine() {
+        return "ledger".equalsIgnoreCase(AppConfig.get("storage.engine", "mysql"));
+    }
+
+    /** Whether accounts.balance is kept current, which BalanceAlertMonitor's scan relies on. */
+    public static boolean balancesInAccountsTable() {
+        return !embeddedEngine() && !ledgerEngine();
+    }
+
+    /** The account repository's checkpointed postings (mysql engine only), for restartable batch jobs. */
+    public Optional<CheckpointedPostings> checkpointedPostings() {
+        return switch (accounts) {
+            case AccountRepositoryHybrid hybrid -> hybrid.checkpointedPostings();
+            case CheckpointedPostings jdbc -> Optional.of(jdbc);
+            default -> Optional.empty();
+        };
+    }
+
+    public static Repositories fromConfig() {
+        if (embeddedEngine()) {
+            return new Repositories(new EmbeddedCustomerRepository(), new EmbeddedAccountRepository(),
+                    new EmbeddedTransactionRepository());
+        }
+        TransactionRepositoryImpl.ensureSchema(); // history index, before the first read
+        if (ledgerEngine()) {
+            return new Repositories(new CustomerRepositoryCached(new CustomerRepositoryImpl()),
+                    AccountRepositoryLedger.shared(), // projection of the transactions table
+                    new TransactionRepositoryWindowed(new TransactionRepositoryImpl()));
+        }
+        return new Repositories(new CustomerRepositoryCached(new CustomerRepositoryImpl()), // DB + multi-key cache
+                new AccountRepositoryHybrid(), // Hybrid (DB + cache)
+                new TransactionRepositoryWindowed(new TransactionRepositoryImpl())); // recent rows in memory
+    }
+}
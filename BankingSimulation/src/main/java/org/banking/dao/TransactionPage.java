@@ -0,0 +1,24 @@
+package org.banking.dao;
+
+import org.banking.model.Transaction;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * One page of an account's history, newest first.
+ * next is the keyset cursor for the following page, or null on the last page.
+ */
+public record TransactionPage(List<Transaction> items, Cursor next) {
+
+    /** Position after the last row of a page: (timestamp, transaction_id) of that row. */
+    public record Cursor(Timestamp timestamp, int transactionId) {
+        public static Cursor after(Transaction t) {
+            return new Cursor(t.getTimestamp(), t.getTransactionId());
+        }
+    }
+
+    public boolean hasNext() {
+        return next != null;
+    }
+}
@@ -3,10 +3,25 @@ package org.banking.dao;
 import org.banking.model.Transaction;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+// Reads throw DataAccessException when the storage fails, so a failure never looks like an empty history.
 public interface TransactionRepository {
 
     void saveTransaction(Transaction transaction);
 
     List<Transaction> getTransactionsForAccount(String accountNumber);
+
+    // Newest first, keyset-paginated on (timestamp, transaction_id); pass null for the first page.
+    TransactionPage getTransactionPage(String accountNumber, TransactionPage.Cursor after, int pageSize);
+
+    // Rows with transaction_id > afterTransactionId, oldest first (delta sync).
+    List<Transaction> getTransactionsSince(String accountNumber, int afterTransactionId, int limit);
+
+    // Streams the whole history, newest first, without materializing it; returns the row count.
+    long forEachTransaction(String accountNumber, Consumer<Transaction> consumer);
+
+    // Rows AccountRepository postings already inserted (ids set); lets caching decorators see them.
+    default void transactionsPosted(List<Transaction> entries) {
+    }
 }
@@ -2,35 +2,40 @@ package org.banking.dao;
 
 import org.banking.model.Transaction;
 import org.banking.util.DatabaseConnection;
+import org.banking.util.SchemaSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class TransactionRepositoryImpl implements TransactionRepository {
 
-    private final Connection conn;
+    private static final Logger logger = LoggerFactory.getLogger(TransactionRepositoryImpl.class);
 
-    public TransactionRepositoryImpl() {
-        try {
-            this.conn = DatabaseConnection.getConnection();
+    private static final String COLUMNS = "transaction_id, account_number, transaction_type, amount, timestamp, description";
+
+    /**
+     * Creates the index the history reads walk, (account_number, timestamp, transaction_id), so pages
+     * need no filesort or offset scan. Idempotent; run once at startup, not from a request.
+     */
+    public static void ensureSchema() {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            SchemaSupport.ensureIndex(conn, "transactions", "idx_transactions_acct_ts_id",
+                    "account_number, timestamp, transaction_id");
         } catch (SQLException e) {
-            throw new RuntimeException("Database connection failed: " + e.getMessage());
+            logger.error("❌ Error creating the transactions history index", e);
         }
     }
 
     @Override
     public void saveTransaction(Transaction transaction) {
-        String sql = "INSERT INTO transactions (account_number, transaction_type, amount, timestamp, description) VALUES (?, ?, ?, ?, ?)";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, transaction.getAccountNumber());
-            stmt.setString(2, transaction.getTransactionType());
-            stmt.setBigDecimal(3, transaction.getAmount());
-            stmt.setTimestamp(4, transaction.getTimestamp());
-            stmt.setString(5, transaction.getDescription());
-            stmt.executeUpdate();
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            insertTransactions(conn, List.of(transaction));
         } catch (SQLException e) {
-            e.printStackTrace();
+            logger.error("❌ Error saving transaction for Account Number: {}", transaction.getAccountNumber(), e);
         }
     }
 
@@ -38,22 +43,139 @@ public class TransactionRepositoryImpl implements TransactionRepository {
     public List<Transaction> getTransactionsForAccount(String accountNumber) {
         List<Transaction> list = new ArrayList<>();
         String sql = "SELECT transaction_id, account_number, transaction_type, amount, timestamp, description FROM transactions WHERE account_number = ? ORDER BY timestamp DESC";
-        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw readFailed(accountNumber, e);
+        }
+        return list;
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(String accountNumber, TransactionPage.Cursor after, int pageSize) {
+        // keyset predicate: rows strictly older than the cursor row, ties on timestamp broken by id
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE account_number = ?"
+                + (after == null ? "" : " AND (timestamp < ? OR (timestamp = ? AND transaction_id < ?))")
+                + " ORDER BY timestamp DESC, transaction_id DESC LIMIT ?";
+        List<Transaction> items = new ArrayList<>(pageSize);
+        boolean more = false;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int p = 1;
+            stmt.setString(p++, accountNumber);
+            if (after != null) {
+                stmt.setTimestamp(p++, after.timestamp());
+                stmt.setTimestamp(p++, after.timestamp());
+                stmt.setInt(p++, after.transactionId());
+            }
+            stmt.setInt(p, pageSize + 1); // one extra row tells us whether a next page exists
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (items.size() == pageSize) {
+                        more = true;
+                        break;
+                    }
+                    items.add(mapRow(rs));
+                }
+            }
+        } catch (SQLException e) {
+            throw readFailed(accountNumber, e);
+        }
+        TransactionPage.Cursor next = more ? TransactionPage.Cursor.after(items.get(items.size() - 1)) : null;
+        return new TransactionPage(items, next);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsSince(String accountNumber, int afterTransactionId, int limit) {
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE account_number = ? AND transaction_id > ?"
+                + " ORDER BY transaction_id LIMIT ?";
+        List<Transaction> list = new ArrayList<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, accountNumber);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                Transaction t = new Transaction();
-                t.setTransactionId(rs.getInt("transaction_id"));
-                t.setAccountNumber(rs.getString("account_number"));
-                t.setTransactionType(rs.getString("transaction_type"));
-                t.setAmount(rs.getBigDecimal("amount"));
-                t.setTimestamp(rs.getTimestamp("timestamp"));
-                t.setDescription(rs.getString("description"));
-                list.add(t);
+            stmt.setInt(2, afterTransactionId);
+            stmt.setInt(3, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    list.add(mapRow(rs));
+                }
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw readFailed(accountNumber, e);
         }
         return list;
     }
+
+    @Override
+    public long forEachTransaction(String accountNumber, Consumer<Transaction> consumer) {
+        String sql = "SELECT " + COLUMNS + " FROM transactions WHERE account_number = ?"
+                + " ORDER BY timestamp DESC, transaction_id DESC";
+        long count = 0;
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            // MySQL Connector/J streams rows one at a time for a forward-only statement with
+            // fetch size Integer.MIN_VALUE, instead of buffering the whole result in memory.
+            // The connection is busy until the result set is closed, so keep the consumer short.
+            stmt.setFetchSize(Integer.MIN_VALUE);
+            stmt.setString(1, accountNumber);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    consumer.accept(mapRow(rs));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            throw readFailed(accountNumber, e);
+        }
+        return count;
+    }
+
+    private static Transaction mapRow(ResultSet rs) throws SQLException {
+        Transaction t = new Transaction();
+        t.setTransactionId(rs.getInt("transaction_id"));
+        t.setAccountNumber(rs.getString("account_number"));
+        t.setTransactionType(rs.getString("transaction_type"));
+        t.setAmount(MoneyColumns.get(rs, "amount"));
+        t.setTimestamp(rs.getTimestamp("timestamp"));
+        t.setDescription(rs.getString("description"));
+        return t;
+    }
+
+    private static DataAccessException readFailed(String accountNumber, SQLException e) {
+        logger.error("❌ Error reading transactions for Account Number: {}", accountNumber, e);
+        return new DataAccessException("Cannot read transactions of account " + accountNumber, e);
+    }
+
+    /**
+     * Inserts the rows as one JDBC batch on the caller's connection (so it can share the caller's
+     * transaction) and copies the generated transaction ids back onto the objects. With
+     * rewriteBatchedStatements (set by ConnectionPool) the driver sends it as multi-row INSERTs.
+     */
+    static void insertTransactions(Connection conn, List<Transaction> transactions) throws SQLException {
+        if (transactions.isEmpty()) return;
+        String sql = "INSERT INTO transactions (account_number, transaction_type, amount, timestamp, description) VALUES (?, ?, ?, ?, ?)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            for (Transaction t : transactions) {
+                stmt.setString(1, t.getAccountNumber());
+                stmt.setString(2, t.getTransactionType());
+                MoneyColumns.set(stmt, 3, t.getAmount());
+                stmt.setTimestamp(4, t.getTimestamp());
+                stmt.setString(5, t.getDescription());
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (Transaction t : transactions) {
+                    if (!keys.next()) break;
+                    t.setTransactionId(keys.getInt(1));
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package org.banking.dao;
+
+import org.banking.metrics.Metrics;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.banking.util.BoundedCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Decorator that keeps each active account's newest transactions in memory.
+ * - Every account read through it gets a window of its newest cache.history.windowSize rows,
+ *   loaded from the delegate on first use. Windows live in a bounded TinyLFU cache of
+ *   cache.history.maxAccounts accounts.
+ * - New rows are written through: saveTransaction, and transactionsPosted for rows written by
+ *   AccountRepository postings, push them onto an already-cached window.
+ * - History pages that fall inside a window are served from it. Older pages, and reads the window
+ *   can't answer exactly, go to the delegate.
+ * A window that sees a row out of order is dropped and reloaded on the next read, not patched.
+ */
+public class TransactionRepositoryWindowed implements TransactionRepository {
+
+    private static final Metrics.Counter WINDOW_HITS = readCounter("hit");
+    private static final Metrics.Counter WINDOW_MISSES = readCounter("miss");
+
+    private final TransactionRepository delegate;
+    private final int windowSize;
+    private final BoundedCache<String, Window> windows;
+    // serializes creating an account's window, so concurrent first reads don't install two
+    private final ReentrantLock[] creationLocks = new ReentrantLock[64];
+
+    public TransactionRepositoryWindowed(TransactionRepository delegate) {
+        this(delegate, AppConfig.getInt("cache.history.windowSize", 50),
+                AppConfig.getInt("cache.history.maxAccounts", 10_000));
+    }
+
+    public TransactionRepositoryWindowed(TransactionRepository delegate, int windowSize, int maxAccounts) {
+        this.delegate = delegate;
+        this.windowSize = Math.max(1, windowSize);
+        this.windows = new BoundedCache<>(maxAccounts);
+        for (int i = 0; i < creationLocks.length; i++) creationLocks[i] = new ReentrantLock();
+        Metrics.gauge("transaction_window_accounts", "Accounts with a recent-transactions window in memory", windows::size);
+    }
+
+    // ----------------- WRITES -----------------
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        delegate.saveTransaction(transaction);
+        push(transaction);
+    }
+
+    @Override
+    public void transactionsPosted(List<Transaction> entries) {
+        delegate.transactionsPosted(entries);
+        for (Transaction t : entries) push(t);
+    }
+
+    // ----------------- READS -----------------
+
+    @Override
+    public TransactionPage getTransactionPage(String accountNumber, TransactionPage.Cursor after, int pageSize) {
+        Window window = windowFor(accountNumber);
+        TransactionPage page = window == null ? null : window.page(after, pageSize);
+        if (page != null) {
+            WINDOW_HITS.increment();
+            return page;
+        }
+        WINDOW_MISSES.increment();
+        return delegate.getTransactionPage(accountNumber, after, pageSize);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        Window window = windowFor(accountNumber);
+        List<Transaction> all = window == null ? null : window.allIfComplete();
+        if (all != null) {
+            WINDOW_HITS.increment();
+            return all;
+        }
+        WINDOW_MISSES.increment();
+        return delegate.getTransactionsForAccount(accountNumber);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsSince(String accountNumber, int afterTransactionId, int limit) {
+        return delegate.getTransactionsSince(accountNumber, afterTransactionId, limit);
+    }
+
+    @Override
+    public long forEachTransaction(String accountNumber, Consumer<Transaction> consumer) {
+        return delegate.forEachTransaction(accountNumber, consumer);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void push(Transaction t) {
+        if (t.getAccountNumber() == null) return;
+        Window window = windows.peek(t.getAccountNumber());
+        if (window == null) return;
+        // no id means the insert failed (saveTransaction only logs it): drop the window rather than guess
+        if (t.getTransactionId() <= 0 || !window.push(t)) windows.remove(t.getAccountNumber(), window);
+    }
+
+    // The cached window, or a new one installed first and filled second under its own lock: a row
+    // committed before the fill is in the delegate's answer, a row committed after it is pushed.
+    private Window windowFor(String accountNumber) {
+        Window window = windows.get(accountNumber);
+        if (window != null) return window;
+
+        ReentrantLock creation = creationLocks[(accountNumber.hashCode() & 0x7fffffff) % creationLocks.length];
+        creation.lock();
+        try {
+            window = windows.peek(accountNumber);
+            if (window != null) return window;
+            window = new Window(windowSize);
+            window.lock.lock();
+            try {
+                if (!windows.put(accountNumber, window)) return null; // admission said no: read through
+                TransactionPage newest;
+                try {
+                    newest = delegate.getTransactionPage(accountNumber, null, windowSize);
+                } catch (RuntimeException e) {
+                    windows.remove(accountNumber, window); // never leave an unfilled window behind
+                    throw e;
+                }
+                if (newest.items().isEmpty()) {
+                    // no history yet: not worth a window
+                    windows.remove(accountNumber, window);
+                    return null;
+                }
+                window.fill(newest.items(), !newest.hasNext());
+                return window;
+            } finally {
+                window.lock.unlock();
+            }
+        } finally {
+            creation.unlock();
+        }
+    }
+
+    private static Metrics.Counter readCounter(String result) {
+        return Metrics.counter("transaction_window_reads_total",
+                "History reads by whether the recent-transactions window could answer them", "result", result);
+    }
+
+    /**
+     * Ring buffer of an account's newest rows, ordered like history pages: (timestamp, id) descending.
+     * complete means it holds the account's entire history.
+     */
+    private static final class Window {
+        final ReentrantLock lock = new ReentrantLock();
+        private final Transaction[] ring;
+        private int newest = -1; // ring index of the newest row
+        private int size;
+        private boolean complete;
+
+        Window(int capacity) {
+            this.ring = new Transaction[capacity];
+        }
+
+        void fill(List<Transaction> newestFirst, boolean wholeHistory) {
+            for (int i = newestFirst.size() - 1; i >= 0; i--) append(newestFirst.get(i));
+            complete = wholeHistory;
+        }
+
+        /** Adds a row written after the fill; false when it can't be placed and the window must go. */
+        boolean push(Transaction t) {
+            lock.lock();
+            try {
+                if (size == 0 || isNewer(t, get(0))) {
+                    append(t);
+                    return true;
+                }
+                for (int i = 0; i < size; i++) {
+                    if (get(i).getTransactionId() == t.getTransactionId()) return true; // already loaded by the fill
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /** The page after the cursor, or null when the window can't tell it exactly. */
+        TransactionPage page(TransactionPage.Cursor after, int pageSize) {
+            lock.lock();
+            try {
+                int start = 0;
+                if (after != null) {
+                    while (start < size && !isOlderThan(get(start), after)) start++;
+                }
+                int available = size - start;
+                if (available <= pageSize && !complete) return null; // can't see whether more rows follow
+                int n = Math.min(pageSize, available);
+                List<Transaction> items = new ArrayList<>(n);
+                for (int i = start; i < start + n; i++) items.add(get(i));
+                TransactionPage.Cursor next = available > pageSize ? TransactionPage.Cursor.after(items.get(n - 1)) : null;
+                return new TransactionPage(items, next);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        List<Transaction> allIfComplete() {
+            lock.lock();
+            try {
+                if (!complete) return null;
+                List<Transaction> all = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) all.add(get(i));
+                return all;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // i = 0 is the newest row
+        private Transaction get(int i) {
+            return ring[Math.floorMod(newest - i, ring.length)];
+        }
+
+        private void append(Transaction t) {
+            newest = (newest + 1) % ring.length;
+            ring[newest] = t;
+            if (size < ring.length) {
+                size++;
+            } else {
+                complete = false; // the oldest row just fell out
+            }
+        }
+
+        private static boolean isNewer(Transaction t, Transaction than) {
+            int byTime = t.getTimestamp().compareTo(than.getTimestamp());
+            return byTime > 0 || (byTime == 0 && t.getTransactionId() > than.getTransactionId());
+        }
+
+        private static boolean isOlderThan(Transaction t, TransactionPage.Cursor cursor) {
+            int byTime = t.getTimestamp().compareTo(cursor.timestamp());
+            return byTime < 0 || (byTime == 0 && t.getTransactionId() < cursor.transactionId());
+        }
+    }
+}
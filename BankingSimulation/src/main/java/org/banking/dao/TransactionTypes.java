@@ -0,0 +1,44 @@
+package org.banking.dao;
+
+import java.util.List;
+
+/**
+ * Direction of each transaction_type. Anything that rebuilds a balance from the transactions table
+ * (ledger replay, statements) goes through here, so a new type must be listed to count.
+ */
+public final class TransactionTypes {
+
+    public static final List<String> CREDIT_TYPES = List.of("DEPOSIT", "TRANSFER_IN", "INTEREST");
+    public static final List<String> DEBIT_TYPES = List.of("WITHDRAWAL", "TRANSFER_OUT");
+
+    private TransactionTypes() {
+    }
+
+    public static boolean isCredit(String type) {
+        return CREDIT_TYPES.contains(type);
+    }
+
+    public static boolean isDebit(String type) {
+        return DEBIT_TYPES.contains(type);
+    }
+
+    /** SQL expression for the amount signed by direction (0 for unknown types), e.g. inside SUM(...). */
+    public static String signedAmountSql(String typeColumn, String amountColumn) {
+        return "CASE WHEN " + typeColumn + " IN (" + quoted(CREDIT_TYPES) + ") THEN " + amountColumn
+                + " WHEN " + typeColumn + " IN (" + quoted(DEBIT_TYPES) + ") THEN -" + amountColumn + " ELSE 0 END";
+    }
+
+    /** SQL condition that is true for types in neither list. */
+    public static String unknownTypeSql(String typeColumn) {
+        return typeColumn + " NOT IN (" + quoted(CREDIT_TYPES) + ", " + quoted(DEBIT_TYPES) + ")";
+    }
+
+    private static String quoted(List<String> types) {
+        StringBuilder sb = new StringBuilder();
+        for (String t : types) {
+            if (sb.length() > 0) sb.append(", ");
+            sb.append('\'').append(t).append('\'');
+        }
+        return sb.toString();
+    }
+}
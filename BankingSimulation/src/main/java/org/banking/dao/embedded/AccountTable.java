@@ -0,0 +1,181 @@
+package org.banking.dao.embedded;
+
+import org.banking.model.Account;
+import org.banking.model.Money;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Fixed-width account records in a memory-mapped file (accounts.tbl), one 128-byte slot per account.
+ * - The file is mapped in 1 MiB chunks that are added as the table grows; slots never move.
+ * - Balances are stored as long minor units (2 decimals) and accessed with acquire/release
+ *   semantics, so lock-free readers never see a torn value.
+ * - The table is a working store, not the durable copy: it is rebuilt from the latest snapshot
+ *   plus the journal on every start (see EmbeddedStore).
+ *
+ * Slot layout (offsets in bytes):
+ *   0 used flag | 1 number length | 2..21 account number | 24 customer id |
+ *   28 type length | 29..44 account type | 45 status length | 46..61 status |
+ *   64 balance (long) | 72 min balance threshold (long) | 80..127 reserved
+ */
+final class AccountTable implements Closeable {
+
+    static final int RECORD_SIZE = 128;
+    private static final int CHUNK_RECORDS = 8192; // 1 MiB per mapping
+    private static final long CHUNK_BYTES = (long) CHUNK_RECORDS * RECORD_SIZE;
+
+    private static final int USED = 0, NUMBER = 1, CUSTOMER_ID = 24, TYPE = 28, STATUS = 45, BALANCE = 64, MIN_BALANCE = 72;
+    private static final int NUMBER_MAX = 20, TYPE_MAX = 16, STATUS_MAX = 16;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private final FileChannel channel;
+    private final List<MappedByteBuffer> chunks = new CopyOnWriteArrayList<>(); // appended rarely, read on every access
+    private volatile int size;
+
+    /** Opens (and empties) the table file; contents are reloaded by the caller. */
+    AccountTable(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // ----------------- SLOTS -----------------
+
+    /** Reserves the next slot and writes the account into it. */
+    int insert(Account account) throws IOException {
+        int slot = allocate();
+        write(slot, account);
+        return slot;
+    }
+
+    void write(int slot, Account account) {
+        MappedByteBuffer buf = chunk(slot);
+        int base = offset(slot);
+        buf.put(base + USED, (byte) 1);
+        putString(buf, base + NUMBER, account.getAccountNumber(), NUMBER_MAX);
+        buf.putInt(base + CUSTOMER_ID, account.getCustomerId());
+        putString(buf, base + TYPE, account.getAccountType(), TYPE_MAX);
+        putString(buf, base + STATUS, account.getStatus(), STATUS_MAX);
+        setMinBalance(slot, minorUnits(account.getMinBalanceThreshold()));
+        setBalance(slot, minorUnits(account.getBalance()));
+    }
+
+    Account read(int slot) {
+        MappedByteBuffer buf = chunk(slot);
+        int base = offset(slot);
+        Account account = new Account();
+        account.setAccountNumber(getString(buf, base + NUMBER));
+        account.setCustomerId(buf.getInt(base + CUSTOMER_ID));
+        account.setAccountType(getString(buf, base + TYPE));
+        account.setStatus(getString(buf, base + STATUS));
+        account.setBalance(Money.ofMinor(balance(slot)));
+        account.setMinBalanceThreshold(Money.ofMinor(minBalance(slot)));
+        return account;
+    }
+
+    long balance(int slot) {
+        return (long) LONGS.getAcquire(chunk(slot), offset(slot) + BALANCE);
+    }
+
+    void setBalance(int slot, long cents) {
+        LONGS.setRelease(chunk(slot), offset(slot) + BALANCE, cents);
+    }
+
+    long minBalance(int slot) {
+        return (long) LONGS.getAcquire(chunk(slot), offset(slot) + MIN_BALANCE);
+    }
+
+    private void setMinBalance(int slot, long cents) {
+        LONGS.setRelease(chunk(slot), offset(slot) + MIN_BALANCE, cents);
+    }
+
+    int size() {
+        return size;
+    }
+
+    // ----------------- SNAPSHOT I/O -----------------
+
+    /** Writes every used slot as raw records; concurrent balance updates are fixed up by journal replay. */
+    void writeTo(DataOutputStream out) throws IOException {
+        int count = size;
+        out.writeInt(count);
+        byte[] record = new byte[RECORD_SIZE];
+        for (int slot = 0; slot < count; slot++) {
+            chunk(slot).get(offset(slot), record);
+            out.write(record);
+        }
+    }
+
+    /** Loads records written by writeTo into an empty table; returns the loaded account numbers in slot order. */
+    List<String> readFrom(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> numbers = new ArrayList<>(count);
+        byte[] record = new byte[RECORD_SIZE];
+        for (int i = 0; i < count; i++) {
+            in.readFully(record);
+            if (record[USED] == 0) continue; // slot was reserved but not yet written when the snapshot ran
+            int slot = allocate();
+            chunk(slot).put(offset(slot), record);
+            numbers.add(getString(chunk(slot), offset(slot) + NUMBER));
+        }
+        return numbers;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (MappedByteBuffer chunk : chunks) chunk.force();
+        channel.close();
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    // Slots are published to readers only through EmbeddedStore's indexes, after they are written.
+    private synchronized int allocate() throws IOException {
+        int slot = size;
+        if (slot / CHUNK_RECORDS >= chunks.size()) {
+            chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, chunks.size() * CHUNK_BYTES, CHUNK_BYTES));
+        }
+        size = slot + 1;
+        return slot;
+    }
+
+    private MappedByteBuffer chunk(int slot) {
+        return chunks.get(slot / CHUNK_RECORDS);
+    }
+
+    private static int offset(int slot) {
+        return (slot % CHUNK_RECORDS) * RECORD_SIZE;
+    }
+
+    private static void putString(MappedByteBuffer buf, int at, String value, int max) {
+        byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > max) throw new IllegalArgumentException("Value too long for account table: " + value);
+        buf.put(at, (byte) bytes.length);
+        buf.put(at + 1, bytes);
+    }
+
+    private static String getString(MappedByteBuffer buf, int at) {
+        byte[] bytes = new byte[buf.get(at)];
+        buf.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** Slots store Money's minor units directly; an unset amount is stored as 0. */
+    static long minorUnits(Money amount) {
+        return amount == null ? 0 : amount.minorUnits();
+    }
+}
@@ -0,0 +1,84 @@
+package org.banking.dao.embedded;
+
+import org.banking.dao.AccountRepository;
+import org.banking.dao.Posting;
+import org.banking.dao.PostingResult;
+import org.banking.model.Account;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * AccountRepository over the embedded store: balances live in the mapped account table,
+ * postings are journaled together with their transaction rows.
+ */
+public class EmbeddedAccountRepository implements AccountRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedAccountRepository() {
+        this(EmbeddedStore.shared());
+    }
+
+    public EmbeddedAccountRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        store.saveAccount(account);
+    }
+
+    @Override
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        return store.openAccount(account, openingEntry);
+    }
+
+    @Override
+    public Optional<Account> findAccountByNumber(String accountNumber) {
+        return store.findAccount(accountNumber);
+    }
+
+    @Override
+    public void updateAccountBalance(String accountNumber, Money newBalance) {
+        store.setBalance(accountNumber, newBalance);
+    }
+
+    @Override
+    public Optional<Long> findLastAccountNumber() {
+        return store.lastAccountNumber();
+    }
+
+    @Override
+    public Optional<Long> nextAccountNumber() {
+        return Optional.of(store.nextAccountNumber());
+    }
+
+    @Override
+    public Optional<Account> findAccountByCustomerId(int customerId) {
+        return store.findAccountByCustomer(customerId);
+    }
+
+    @Override
+    public PostingResult postDeposit(String accountNumber, Money amount, Transaction entry) {
+        return store.applyPostings(List.of(Posting.deposit(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry) {
+        return store.applyPostings(List.of(Posting.withdrawal(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                                      Transaction debitEntry, Transaction creditEntry) {
+        return store.applyPostings(List.of(Posting.transfer(fromAccount, toAccount, amount, debitEntry, creditEntry))).get(0);
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        return store.applyPostings(postings);
+    }
+}
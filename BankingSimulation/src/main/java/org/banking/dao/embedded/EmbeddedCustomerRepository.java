@@ -0,0 +1,55 @@
+package org.banking.dao.embedded;
+
+import org.banking.dao.CustomerRepository;
+import org.banking.model.Customer;
+
+import java.util.Optional;
+
+/** CustomerRepository over the embedded store; every customer is held in memory and journaled on change. */
+public class EmbeddedCustomerRepository implements CustomerRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedCustomerRepository() {
+        this(EmbeddedStore.shared());
+    }
+
+    public EmbeddedCustomerRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public int createCustomer(Customer customer) {
+        return store.createCustomer(customer);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(int customerId) {
+        return store.findCustomer(customerId);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByUsername(String username) {
+        return store.findCustomerByUsername(username);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return store.findCustomerByEmail(email);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByPhoneNumber(String phoneNumber) {
+        return store.findCustomerByPhone(phoneNumber);
+    }
+
+    @Override
+    public boolean updatePasswordHash(int customerId, String passwordHash) {
+        return store.updatePasswordHash(customerId, passwordHash);
+    }
+
+    @Override
+    public boolean deleteCustomer(int customerId) {
+        return store.deleteCustomer(customerId);
+    }
+}
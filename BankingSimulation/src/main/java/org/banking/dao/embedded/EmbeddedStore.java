@@ -0,0 +1,956 @@
+package org.banking.dao.embedded;
+
+import org.banking.dao.Posting;
+import org.banking.dao.PostingResult;
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Embedded, file-backed storage engine behind the Embedded*Repository classes (storage.engine=embedded).
+ * Files under storage.embedded.dir:
+ * - accounts.tbl : memory-mapped fixed-width account table (AccountTable), rebuilt on start
+ * - journal.log  : append-only redo journal with group commit (Journal); it is also the transaction
+ *                  history, each account keeps the journal positions of its transactions
+ * - snapshot.dat : periodic image of all in-memory state plus the journal position it covers, so
+ *                  recovery = load snapshot + replay the journal tail
+ *
+ * Writes take the account stripe lock(s), build the journal record from the new absolute balances,
+ * append it and wait for it to be durable before updating memory, so readers only ever see durable
+ * state and a failed append or fsync changes nothing. Writers on other stripes append meanwhile and
+ * share the same fsync; a batch of postings checks each one against its own running balances and
+ * waits once, for its last record.
+ */
+public final class EmbeddedStore implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedStore.class);
+
+    private static final byte CUSTOMER = 1, ACCOUNT = 2, POSTING = 3, OPENING = 4, CUSTOMER_REMOVED = 5;
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long FIRST_ACCOUNT_NUMBER = 1000000001L;
+
+    /** Engine settings; see the storage.embedded.* keys in config.properties. */
+    public record Settings(Path dir, boolean fsync, long snapshotIntervalSeconds, int journalQueueCapacity,
+                           int lockStripes) {
+        public static Settings fromConfig() {
+            return new Settings(Paths.get(AppConfig.get("storage.embedded.dir", "bank_data")),
+                    AppConfig.getBoolean("storage.embedded.fsync", true),
+                    AppConfig.getLong("storage.embedded.snapshotIntervalSeconds", 300),
+                    AppConfig.getInt("storage.embedded.journalQueueCapacity", 8192),
+                    AppConfig.getInt("service.lock.stripes", 256));
+        }
+    }
+
+    private static volatile EmbeddedStore shared;
+
+    private final Settings settings;
+    private final AccountTable table;
+    private final Journal journal;
+
+    private final Map<String, Integer> slotByNumber = new ConcurrentHashMap<>();
+    private final Map<Integer, Integer> slotByCustomer = new ConcurrentHashMap<>();
+    private final Map<Integer, Customer> customers = new ConcurrentHashMap<>();
+    private final Map<String, Integer> customerByUsername = new ConcurrentHashMap<>();
+    private final Map<String, Integer> customerByEmail = new ConcurrentHashMap<>();
+    private final Map<String, Integer> customerByPhone = new ConcurrentHashMap<>();
+    private final Map<String, History> histories = new ConcurrentHashMap<>();
+
+    private final AtomicInteger customerIds = new AtomicInteger();
+    private final AtomicInteger transactionIds = new AtomicInteger();
+    private final AtomicLong accountNumbers = new AtomicLong(FIRST_ACCOUNT_NUMBER);
+
+    // ReentrantLocks rather than monitors: callers may be virtual threads, which must not block while pinned
+    private final ReentrantLock[] stripes;
+    private final ReentrantLock customerLock = new ReentrantLock();
+    // postings share it; a snapshot takes it exclusively while it copies state and reads the journal end
+    private final ReentrantReadWriteLock checkpointLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService snapshotter;
+    private volatile boolean closed;
+
+    /** Process-wide instance opened from config.properties and closed by a shutdown hook. */
+    public static EmbeddedStore shared() {
+        EmbeddedStore store = shared;
+        if (store == null) {
+            synchronized (EmbeddedStore.class) {
+                store = shared;
+                if (store == null) {
+                    try {
+                        store = open(Settings.fromConfig());
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Cannot open embedded store", e);
+                    }
+                    EmbeddedStore opened = store;
+                    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                        try {
+                            opened.close();
+                        } catch (IOException e) {
+                            logger.error("❌ Error closing embedded store", e);
+                        }
+                    }, "embedded-store-shutdown"));
+                    shared = store;
+                }
+            }
+        }
+        return store;
+    }
+
+    public static EmbeddedStore open(Settings settings) throws IOException {
+        return new EmbeddedStore(settings);
+    }
+
+    private EmbeddedStore(Settings settings) throws IOException {
+        this.settings = settings;
+        Files.createDirectories(settings.dir());
+        int n = Integer.highestOneBit(Math.max(1, settings.lockStripes() - 1)) << 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) stripes[i] = new ReentrantLock();
+
+        long started = System.nanoTime();
+        this.table = new AccountTable(settings.dir().resolve("accounts.tbl"));
+        long lsn = loadSnapshot();
+        long[] replayed = new long[1];
+        this.journal = new Journal(settings.dir().resolve("journal.log"), lsn, settings.fsync(),
+                settings.journalQueueCapacity(), 1024, (position, payload) -> {
+                    redo(position, payload);
+                    replayed[0]++;
+                });
+        logger.info("✅ Embedded store opened from {}: {} accounts, {} customers, {} journal records replayed in {} ms",
+                settings.dir(), table.size(), customers.size(), replayed[0], (System.nanoTime() - started) / 1_000_000);
+
+        if (settings.snapshotIntervalSeconds() > 0) {
+            snapshotter = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "embedded-snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+            snapshotter.scheduleWithFixedDelay(this::snapshotQuietly, settings.snapshotIntervalSeconds(),
+                    settings.snapshotIntervalSeconds(), TimeUnit.SECONDS);
+        } else {
+            snapshotter = null;
+        }
+    }
+
+    // ----------------- CUSTOMERS -----------------
+
+    /** Returns the new customer id, or 0 when the username, email or phone number is taken. */
+    public int createCustomer(Customer customer) {
+        Customer stored = copy(customer);
+        // customer writes are rare next to postings, so they hold the one customer lock until durable
+        customerLock.lock();
+        try {
+            if (taken(customerByUsername, customer.getUsername()) || taken(customerByEmail, customer.getEmail())
+                    || taken(customerByPhone, customer.getPhoneNumber())) {
+                logger.warn("⚠️ Customer not created: username, email or phone number already registered");
+                return 0;
+            }
+            stored.setCustomerId(customerIds.get() + 1);
+            if (!appendCustomer(stored)) return 0;
+            customerIds.incrementAndGet();
+            return stored.getCustomerId();
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    public boolean updatePasswordHash(int customerId, String passwordHash) {
+        customerLock.lock();
+        try {
+            Customer current = customers.get(customerId);
+            if (current == null) return false;
+            Customer updated = copy(current);
+            updated.setPasswordHash(passwordHash);
+            return appendCustomer(updated);
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    /** Removes the customer and frees its username, email and phone number; the id is not reused. */
+    public boolean deleteCustomer(int customerId) {
+        customerLock.lock();
+        try {
+            return customers.containsKey(customerId) && appendCustomerRemoval(customerId);
+        } finally {
+            customerLock.unlock();
+        }
+    }
+
+    public Optional<Customer> findCustomer(int customerId) {
+        return Optional.ofNullable(customers.get(customerId)).map(EmbeddedStore::copy);
+    }
+
+    public Optional<Customer> findCustomerByUsername(String username) {
+        return findBy(customerByUsername, username);
+    }
+
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return findBy(customerByEmail, email);
+    }
+
+    public Optional<Customer> findCustomerByPhone(String phoneNumber) {
+        return findBy(customerByPhone, phoneNumber);
+    }
+
+    // ----------------- ACCOUNTS -----------------
+
+    public long nextAccountNumber() {
+        return accountNumbers.getAndIncrement();
+    }
+
+    public Optional<Long> lastAccountNumber() {
+        long last = accountNumbers.get() - 1;
+        return last < FIRST_ACCOUNT_NUMBER ? Optional.empty() : Optional.of(last);
+    }
+
+    /** Inserts the account, or overwrites the stored one with the same number. */
+    public boolean saveAccount(Account account) {
+        Account stored = copy(account);
+        if (stored.getStatus() == null) stored.setStatus("ACTIVE");
+        if (stored.getBalance() == null) stored.setBalance(Money.ZERO);
+        if (stored.getMinBalanceThreshold() == null) stored.setMinBalanceThreshold(Money.ZERO);
+        ReentrantLock lock = stripe(stored.getAccountNumber());
+        checkpointLock.readLock().lock();
+        lock.lock();
+        try {
+            journal.awaitDurable(journal.append(encodeAccount(stored)));
+            applyAccount(stored);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Error saving account {}: {}", stored.getAccountNumber(), e.getMessage(), e);
+            return false;
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    /** Inserts a new account and its opening deposit row (null for none) as one journal record. */
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        Account stored = copy(account);
+        if (stored.getStatus() == null) stored.setStatus("ACTIVE");
+        if (openingEntry == null || stored.getBalance() == null) stored.setBalance(Money.ZERO);
+        if (stored.getMinBalanceThreshold() == null) stored.setMinBalanceThreshold(Money.ZERO);
+        ReentrantLock lock = stripe(stored.getAccountNumber());
+        checkpointLock.readLock().lock();
+        lock.lock();
+        try {
+            List<Transaction> entries = new ArrayList<>(1);
+            if (openingEntry != null) {
+                Transaction entry = copy(openingEntry);
+                entry.setTransactionId(transactionIds.incrementAndGet());
+                entries.add(entry);
+            }
+            long position = journal.append(encodeOpening(stored, entries));
+            journal.awaitDurable(position);
+            applyAccount(stored);
+            index(position, entries);
+            if (openingEntry != null) openingEntry.setTransactionId(entries.get(0).getTransactionId());
+            return PostingResult.applied(null, stored.getBalance());
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Error opening account {}: {}", stored.getAccountNumber(), e.getMessage(), e);
+            return PostingResult.failed();
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    public Optional<Account> findAccount(String accountNumber) {
+        Integer slot = slotByNumber.get(accountNumber);
+        return slot == null ? Optional.empty() : Optional.of(table.read(slot));
+    }
+
+    public Optional<Account> findAccountByCustomer(int customerId) {
+        Integer slot = slotByCustomer.get(customerId);
+        return slot == null ? Optional.empty() : Optional.of(table.read(slot));
+    }
+
+    public boolean setBalance(String accountNumber, Money newBalance) {
+        Integer slot = slotByNumber.get(accountNumber);
+        if (slot == null) return false;
+        ReentrantLock lock = stripe(accountNumber);
+        checkpointLock.readLock().lock();
+        lock.lock();
+        try {
+            Account account = table.read(slot);
+            account.setBalance(newBalance);
+            journal.awaitDurable(journal.append(encodeAccount(account)));
+            table.setBalance(slot, newBalance.minorUnits());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Error updating balance of {}: {}", accountNumber, e.getMessage(), e);
+            return false;
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    // ----------------- POSTINGS -----------------
+
+    /**
+     * Applies each posting atomically (balances + history). The batch's stripes stay locked until its
+     * last record is durable and memory is updated, so callers pass bounded chunks, as BankingService does.
+     */
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        ReentrantLock[] locks = stripesOf(postings);
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        checkpointLock.readLock().lock();
+        for (ReentrantLock lock : locks) lock.lock();
+        try {
+            Map<Integer, Long> balances = new HashMap<>(); // slot -> balance after the batch's postings so far
+            List<Staged> staged = new ArrayList<>(postings.size());
+            for (Posting p : postings) results.add(stage(p, balances, staged));
+            if (staged.isEmpty()) return results;
+
+            try {
+                journal.awaitDurable(staged.get(staged.size() - 1).position());
+            } catch (IOException e) {
+                logger.error("❌ Postings are not durable: {}", e.getMessage());
+                for (int i = 0; i < results.size(); i++) {
+                    if (results.get(i).isApplied()) results.set(i, PostingResult.failed());
+                }
+                return results;
+            }
+            for (Map.Entry<Integer, Long> b : balances.entrySet()) table.setBalance(b.getKey(), b.getValue());
+            for (Staged s : staged) {
+                index(s.position(), s.entries());
+                List<Transaction> callerEntries = s.posting().entries();
+                for (int i = 0; i < callerEntries.size(); i++) {
+                    callerEntries.get(i).setTransactionId(s.entries().get(i).getTransactionId());
+                }
+            }
+            return results;
+        } finally {
+            for (int i = locks.length - 1; i >= 0; i--) locks[i].unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    /** Journals a transaction row that is not tied to a balance change (e.g. the opening deposit). */
+    public boolean saveTransaction(Transaction transaction) {
+        ReentrantLock lock = stripe(transaction.getAccountNumber());
+        checkpointLock.readLock().lock();
+        lock.lock();
+        try {
+            Transaction stored = copy(transaction);
+            stored.setTransactionId(transactionIds.incrementAndGet());
+            List<Transaction> entries = List.of(stored);
+            long position = journal.append(encodePosting(List.of(), entries));
+            journal.awaitDurable(position);
+            index(position, entries);
+            transaction.setTransactionId(stored.getTransactionId());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Error saving transaction for {}: {}", transaction.getAccountNumber(), e.getMessage(), e);
+            return false;
+        } finally {
+            lock.unlock();
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    // ----------------- HISTORY -----------------
+
+    /** Newest first, keyset on transaction id; ids grow in posting order within an account. */
+    public List<Transaction> history(String accountNumber, int beforeTransactionId, int limit) {
+        History h = histories.get(accountNumber);
+        if (h == null) return List.of();
+        long[] refs = h.newestFirstBefore(beforeTransactionId, limit);
+        List<Transaction> items = new ArrayList<>(refs.length);
+        for (long ref : refs) items.add(load(ref));
+        return items;
+    }
+
+    /** Oldest first, transaction id greater than afterTransactionId. */
+    public List<Transaction> historySince(String accountNumber, int afterTransactionId, int limit) {
+        History h = histories.get(accountNumber);
+        if (h == null) return List.of();
+        long[] refs = h.oldestFirstAfter(afterTransactionId, limit);
+        List<Transaction> items = new ArrayList<>(refs.length);
+        for (long ref : refs) items.add(load(ref));
+        return items;
+    }
+
+    public long forEachTransaction(String accountNumber, Consumer<Transaction> consumer) {
+        History h = histories.get(accountNumber);
+        if (h == null) return 0;
+        long[] refs = h.newestFirstBefore(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        for (long ref : refs) consumer.accept(load(ref));
+        return refs.length;
+    }
+
+    // ----------------- SNAPSHOTS -----------------
+
+    /**
+     * Writes snapshot.dat atomically; the journal is never trimmed, only the replay start moves. The image
+     * is streamed to the temp file under the checkpoint write lock (writers publish only durable records
+     * while holding the read lock, so it is never ahead of the journal); the fsync happens after release.
+     */
+    public void snapshot() throws IOException {
+        Path tmp = settings.dir().resolve("snapshot.dat.tmp");
+        long lsn;
+        long size;
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16))) {
+            checkpointLock.writeLock().lock();
+            try {
+                lsn = journal.endPosition();
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeLong(lsn);
+                out.writeInt(customerIds.get());
+                out.writeInt(transactionIds.get());
+                out.writeLong(accountNumbers.get());
+                table.writeTo(out);
+                out.writeInt(customers.size());
+                for (Customer c : customers.values()) writeCustomer(out, c);
+                out.writeInt(histories.size());
+                for (Map.Entry<String, History> e : histories.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    e.getValue().writeTo(out);
+                }
+                out.flush();
+            } finally {
+                checkpointLock.writeLock().unlock();
+            }
+            ch.force(true);
+            size = ch.size();
+        }
+        Files.move(tmp, settings.dir().resolve("snapshot.dat"), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        logger.info("✅ Embedded snapshot written at journal position {} ({} KB)", lsn, size / 1024);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        if (snapshotter != null) snapshotter.shutdownNow();
+        snapshotQuietly();
+        journal.close();
+        table.close();
+    }
+
+    // ----------------- RECOVERY -----------------
+
+    private long loadSnapshot() throws IOException {
+        Path file = settings.dir().resolve("snapshot.dat");
+        if (!Files.exists(file)) return 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION) throw new IOException("Unsupported snapshot version " + version);
+            long lsn = in.readLong();
+            customerIds.set(in.readInt());
+            transactionIds.set(in.readInt());
+            accountNumbers.set(in.readLong());
+            List<String> numbers = table.readFrom(in);
+            for (int slot = 0; slot < numbers.size(); slot++) {
+                slotByNumber.put(numbers.get(slot), slot);
+                slotByCustomer.put(table.read(slot).getCustomerId(), slot);
+            }
+            int customerCount = in.readInt();
+            for (int i = 0; i < customerCount; i++) indexCustomer(readCustomer(in));
+            int historyCount = in.readInt();
+            for (int i = 0; i < historyCount; i++) histories.put(in.readUTF(), History.readFrom(in));
+            return lsn;
+        }
+    }
+
+    /** Re-applies one journal record; every record carries absolute state, so replaying twice is harmless. */
+    private void redo(long position, ByteBuffer payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array(),
+                payload.arrayOffset() + payload.position(), payload.remaining()));
+        switch (in.readByte()) {
+            case CUSTOMER -> {
+                Customer c = readCustomer(in);
+                indexCustomer(c);
+                customerIds.accumulateAndGet(c.getCustomerId(), Math::max);
+            }
+            case CUSTOMER_REMOVED -> {
+                int customerId = in.readInt();
+                unindexCustomer(customerId);
+                customerIds.accumulateAndGet(customerId, Math::max);
+            }
+            case ACCOUNT -> applyAccount(readAccount(in));
+            case POSTING -> redoPosting(position, in);
+            case OPENING -> {
+                applyAccount(readAccount(in));
+                redoPosting(position, in);
+            }
+            default -> throw new IOException("Unknown journal record at " + position);
+        }
+    }
+
+    private void redoPosting(long position, DataInputStream in) throws IOException {
+        int balances = in.readInt();
+        for (int i = 0; i < balances; i++) {
+            String number = in.readUTF();
+            long cents = in.readLong();
+            Integer slot = slotByNumber.get(number);
+            if (slot != null) table.setBalance(slot, cents);
+        }
+        int count = in.readInt();
+        List<Transaction> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) entries.add(readTransaction(in));
+        index(position, entries);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    /** A posting whose record is in the journal but not yet in memory. */
+    private record Staged(long position, Posting posting, List<Transaction> entries) {
+    }
+
+    // Checks the posting against the batch's running balances and journals it; memory is updated by the caller.
+    private PostingResult stage(Posting p, Map<Integer, Long> balances, List<Staged> staged) {
+        Integer debitSlot = p.debitAccount() == null ? null : slotByNumber.get(p.debitAccount());
+        Integer creditSlot = p.creditAccount() == null ? null : slotByNumber.get(p.creditAccount());
+        if ((p.debitAccount() != null && debitSlot == null) || (p.creditAccount() != null && creditSlot == null)) {
+            return PostingResult.notFound();
+        }
+
+        long amount = p.amount().minorUnits();
+        long debitBalance = 0, creditBalance = 0;
+        List<Object[]> records = new ArrayList<>(2);
+        if (debitSlot != null) {
+            long current = balanceOf(debitSlot, balances);
+            if (current - amount < table.minBalance(debitSlot)) {
+                return PostingResult.insufficientFunds(Money.ofMinor(current));
+            }
+            debitBalance = current - amount;
+            records.add(new Object[]{p.debitAccount(), debitBalance});
+        }
+        if (creditSlot != null) {
+            // a self-transfer credits the already-debited balance
+            creditBalance = (creditSlot.equals(debitSlot) ? debitBalance : balanceOf(creditSlot, balances)) + amount;
+            records.add(new Object[]{p.creditAccount(), creditBalance});
+        }
+
+        List<Transaction> entries = new ArrayList<>(p.entries().size());
+        for (Transaction t : p.entries()) {
+            Transaction stored = copy(t);
+            stored.setTransactionId(transactionIds.incrementAndGet());
+            entries.add(stored);
+        }
+        long position;
+        try {
+            position = journal.append(encodePosting(records, entries));
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Posting failed: {}", e.getMessage(), e);
+            return PostingResult.failed();
+        }
+
+        if (debitSlot != null) balances.put(debitSlot, debitBalance);
+        if (creditSlot != null) balances.put(creditSlot, creditBalance);
+        staged.add(new Staged(position, p, entries));
+        return PostingResult.applied(debitSlot == null ? null : Money.ofMinor(debitBalance),
+                creditSlot == null ? null : Money.ofMinor(creditBalance));
+    }
+
+    private long balanceOf(int slot, Map<Integer, Long> balances) {
+        Long staged = balances.get(slot);
+        return staged != null ? staged : table.balance(slot);
+    }
+
+    // Every stripe the postings touch, in ascending index order as StripedLocks takes them.
+    private ReentrantLock[] stripesOf(List<Posting> postings) {
+        return postings.stream()
+                .flatMap(p -> Stream.of(p.debitAccount(), p.creditAccount()))
+                .filter(Objects::nonNull)
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .mapToObj(i -> stripes[i])
+                .toArray(ReentrantLock[]::new);
+    }
+
+    /** Journals the customer and, once the record is durable, updates the indexes; false on failure. */
+    private boolean appendCustomer(Customer customer) {
+        checkpointLock.readLock().lock();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(CUSTOMER);
+                writeCustomer(out, customer);
+            }
+            journal.awaitDurable(journal.append(bytes.toByteArray()));
+            indexCustomer(customer);
+            return true;
+        } catch (IOException e) {
+            logger.error("❌ Error saving customer {}: {}", customer.getUsername(), e.getMessage(), e);
+            return false;
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    private boolean appendCustomerRemoval(int customerId) {
+        checkpointLock.readLock().lock();
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(8);
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                out.writeByte(CUSTOMER_REMOVED);
+                out.writeInt(customerId);
+            }
+            journal.awaitDurable(journal.append(bytes.toByteArray()));
+            unindexCustomer(customerId);
+            return true;
+        } catch (IOException e) {
+            logger.error("❌ Error removing customer {}: {}", customerId, e.getMessage(), e);
+            return false;
+        } finally {
+            checkpointLock.readLock().unlock();
+        }
+    }
+
+    private void indexCustomer(Customer c) {
+        customers.put(c.getCustomerId(), c);
+        if (c.getUsername() != null) customerByUsername.put(c.getUsername(), c.getCustomerId());
+        if (c.getEmail() != null) customerByEmail.put(c.getEmail(), c.getCustomerId());
+        if (c.getPhoneNumber() != null) customerByPhone.put(c.getPhoneNumber(), c.getCustomerId());
+    }
+
+    private void unindexCustomer(int customerId) {
+        Customer c = customers.remove(customerId);
+        if (c == null) return;
+        if (c.getUsername() != null) customerByUsername.remove(c.getUsername(), customerId);
+        if (c.getEmail() != null) customerByEmail.remove(c.getEmail(), customerId);
+        if (c.getPhoneNumber() != null) customerByPhone.remove(c.getPhoneNumber(), customerId);
+    }
+
+    private Optional<Customer> findBy(Map<String, Integer> index, String key) {
+        if (key == null) return Optional.empty();
+        Integer id = index.get(key);
+        return id == null ? Optional.empty() : findCustomer(id);
+    }
+
+    private static boolean taken(Map<String, Integer> index, String key) {
+        return key != null && index.containsKey(key);
+    }
+
+    private void applyAccount(Account account) throws IOException {
+        Integer slot = slotByNumber.get(account.getAccountNumber());
+        if (slot == null) {
+            slot = table.insert(account);
+            slotByNumber.put(account.getAccountNumber(), slot);
+        } else {
+            table.write(slot, account);
+        }
+        slotByCustomer.put(account.getCustomerId(), slot);
+        try {
+            accountNumbers.accumulateAndGet(Long.parseLong(account.getAccountNumber()) + 1, Math::max);
+        } catch (NumberFormatException ignored) {
+            // non-numeric numbers are allowed, they just don't move the sequence
+        }
+    }
+
+    private void index(long position, List<Transaction> entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            Transaction t = entries.get(i);
+            histories.computeIfAbsent(t.getAccountNumber(), k -> new History()).add(t.getTransactionId(), History.ref(position, i));
+            transactionIds.accumulateAndGet(t.getTransactionId(), Math::max);
+        }
+    }
+
+    private Transaction load(long ref) {
+        try {
+            ByteBuffer payload = journal.read(History.position(ref));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array(),
+                    payload.arrayOffset() + payload.position(), payload.remaining()));
+            if (in.readByte() == OPENING) readAccount(in); // else POSTING
+            int balances = in.readInt();
+            for (int i = 0; i < balances; i++) {
+                in.readUTF();
+                in.readLong();
+            }
+            in.readInt();
+            Transaction t = null;
+            for (int i = 0; i <= History.ordinal(ref); i++) t = readTransaction(in);
+            return t;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read transaction from journal", e);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.error("❌ Embedded snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private ReentrantLock stripe(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+
+    private int stripeIndex(String accountNumber) {
+        int h = accountNumber == null ? 0 : accountNumber.hashCode();
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    // ----------------- RECORD CODEC -----------------
+
+    private static byte[] encodeAccount(Account a) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(ACCOUNT);
+            writeAccount(out, a);
+        }
+        return bytes.toByteArray();
+    }
+
+    // an ACCOUNT body followed by a POSTING body, so the account and its opening deposit land or vanish together
+    private static byte[] encodeOpening(Account a, List<Transaction> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(160 + 96 * entries.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(OPENING);
+            writeAccount(out, a);
+            writePosting(out, List.of(), entries);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeAccount(DataOutputStream out, Account a) throws IOException {
+        out.writeUTF(a.getAccountNumber());
+        out.writeInt(a.getCustomerId());
+        writeNullable(out, a.getAccountType());
+        writeNullable(out, a.getStatus());
+        out.writeLong(AccountTable.minorUnits(a.getBalance()));
+        out.writeLong(AccountTable.minorUnits(a.getMinBalanceThreshold()));
+    }
+
+    private static Account readAccount(DataInputStream in) throws IOException {
+        Account a = new Account();
+        a.setAccountNumber(in.readUTF());
+        a.setCustomerId(in.readInt());
+        a.setAccountType(readNullable(in));
+        a.setStatus(readNullable(in));
+        a.setBalance(Money.ofMinor(in.readLong()));
+        a.setMinBalanceThreshold(Money.ofMinor(in.readLong()));
+        return a;
+    }
+
+    private static byte[] encodePosting(List<Object[]> balances, List<Transaction> entries) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + 96 * entries.size());
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(POSTING);
+            writePosting(out, balances, entries);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writePosting(DataOutputStream out, List<Object[]> balances, List<Transaction> entries) throws IOException {
+        out.writeInt(balances.size());
+        for (Object[] b : balances) {
+            out.writeUTF((String) b[0]);
+            out.writeLong((Long) b[1]);
+        }
+        out.writeInt(entries.size());
+        for (Transaction t : entries) {
+            out.writeInt(t.getTransactionId());
+            writeNullable(out, t.getAccountNumber());
+            writeNullable(out, t.getTransactionType());
+            writeNullable(out, t.getAmount() == null ? null : t.getAmount().toString());
+            out.writeLong(t.getTimestamp() == null ? Long.MIN_VALUE : t.getTimestamp().getTime());
+            writeNullable(out, t.getDescription());
+        }
+    }
+
+    private static Transaction readTransaction(DataInputStream in) throws IOException {
+        Transaction t = new Transaction();
+        t.setTransactionId(in.readInt());
+        t.setAccountNumber(readNullable(in));
+        t.setTransactionType(readNullable(in));
+        String amount = readNullable(in);
+        t.setAmount(amount == null ? null : Money.of(new BigDecimal(amount))); // lenient: older records may lack trailing zeros
+        long ts = in.readLong();
+        t.setTimestamp(ts == Long.MIN_VALUE ? null : new Timestamp(ts));
+        t.setDescription(readNullable(in));
+        return t;
+    }
+
+    private static void writeCustomer(DataOutputStream out, Customer c) throws IOException {
+        out.writeInt(c.getCustomerId());
+        writeNullable(out, c.getUsername());
+        writeNullable(out, c.getPasswordHash());
+        writeNullable(out, c.getFirstName());
+        writeNullable(out, c.getLastName());
+        out.writeLong(c.getDateOfBirth() == null ? Long.MIN_VALUE : c.getDateOfBirth().getTime());
+        writeNullable(out, c.getEmail());
+        writeNullable(out, c.getPhoneNumber());
+        writeNullable(out, c.getAddress());
+        writeNullable(out, c.getCity());
+        writeNullable(out, c.getState());
+        writeNullable(out, c.getPostalCode());
+    }
+
+    private static Customer readCustomer(DataInputStream in) throws IOException {
+        Customer c = new Customer();
+        c.setCustomerId(in.readInt());
+        c.setUsername(readNullable(in));
+        c.setPasswordHash(readNullable(in));
+        c.setFirstName(readNullable(in));
+        c.setLastName(readNullable(in));
+        long dob = in.readLong();
+        c.setDateOfBirth(dob == Long.MIN_VALUE ? null : new Date(dob));
+        c.setEmail(readNullable(in));
+        c.setPhoneNumber(readNullable(in));
+        c.setAddress(readNullable(in));
+        c.setCity(readNullable(in));
+        c.setState(readNullable(in));
+        c.setPostalCode(readNullable(in));
+        return c;
+    }
+
+    private static void writeNullable(DataOutputStream out, String s) throws IOException {
+        out.writeBoolean(s != null);
+        if (s != null) out.writeUTF(s);
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static Customer copy(Customer c) {
+        Customer r = new Customer();
+        r.setCustomerId(c.getCustomerId());
+        r.setUsername(c.getUsername());
+        r.setPasswordHash(c.getPasswordHash());
+        r.setFirstName(c.getFirstName());
+        r.setLastName(c.getLastName());
+        r.setDateOfBirth(c.getDateOfBirth());
+        r.setEmail(c.getEmail());
+        r.setPhoneNumber(c.getPhoneNumber());
+        r.setAddress(c.getAddress());
+        r.setCity(c.getCity());
+        r.setState(c.getState());
+        r.setPostalCode(c.getPostalCode());
+        return r;
+    }
+
+    private static Account copy(Account a) {
+        Account r = new Account();
+        r.setAccountNumber(a.getAccountNumber());
+        r.setCustomerId(a.getCustomerId());
+        r.setAccountType(a.getAccountType());
+        r.setStatus(a.getStatus());
+        r.setBalance(a.getBalance());
+        r.setMinBalanceThreshold(a.getMinBalanceThreshold());
+        return r;
+    }
+
+    private static Transaction copy(Transaction t) {
+        Transaction r = new Transaction(t.getAccountNumber(), t.getTransactionType(), t.getAmount(),
+                t.getTimestamp(), t.getDescription());
+        r.setTransactionId(t.getTransactionId());
+        return r;
+    }
+
+    /**
+     * One account's transactions in id order: ids[i] and refs[i] = journal position << 8 | entry ordinal.
+     * Appends happen under the account's stripe lock; readers copy a range under the monitor.
+     */
+    private static final class History {
+        private int size;
+        private int[] ids = new int[8];
+        private long[] refs = new long[8];
+
+        static long ref(long position, int ordinal) {
+            return position << 8 | ordinal;
+        }
+
+        static long position(long ref) {
+            return ref >>> 8;
+        }
+
+        static int ordinal(long ref) {
+            return (int) (ref & 0xFF);
+        }
+
+        synchronized void add(int id, long ref) {
+            if (size > 0 && ids[size - 1] >= id) return; // already indexed (journal replay overlap)
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                refs = Arrays.copyOf(refs, size * 2);
+            }
+            ids[size] = id;
+            refs[size] = ref;
+            size++;
+        }
+
+        synchronized long[] newestFirstBefore(int beforeId, int limit) {
+            int end = lowerBound(beforeId); // first index with id >= beforeId
+            int n = Math.min(limit, end);
+            long[] out = new long[n];
+            for (int i = 0; i < n; i++) out[i] = refs[end - 1 - i];
+            return out;
+        }
+
+        synchronized long[] oldestFirstAfter(int afterId, int limit) {
+            int start = lowerBound(afterId == Integer.MAX_VALUE ? afterId : afterId + 1);
+            int n = Math.min(limit, size - start);
+            return Arrays.copyOfRange(refs, start, start + n);
+        }
+
+        synchronized void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeInt(ids[i]);
+                out.writeLong(refs[i]);
+            }
+        }
+
+        static History readFrom(DataInputStream in) throws IOException {
+            History h = new History();
+            int n = in.readInt();
+            h.ids = new int[Math.max(8, n)];
+            h.refs = new long[Math.max(8, n)];
+            for (int i = 0; i < n; i++) {
+                h.ids[i] = in.readInt();
+                h.refs[i] = in.readLong();
+            }
+            h.size = n;
+            return h;
+        }
+
+        private int lowerBound(int id) {
+            int lo = 0, hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (ids[mid] < id) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+}
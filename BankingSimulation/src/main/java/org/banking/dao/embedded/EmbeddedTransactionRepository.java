@@ -0,0 +1,54 @@
+package org.banking.dao.embedded;
+
+import org.banking.dao.TransactionPage;
+import org.banking.dao.TransactionRepository;
+import org.banking.model.Transaction;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * TransactionRepository over the embedded store. Rows are read back from the journal;
+ * pages are keyed on transaction id, which grows in posting order within an account.
+ */
+public class EmbeddedTransactionRepository implements TransactionRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedTransactionRepository() {
+        this(EmbeddedStore.shared());
+    }
+
+    public EmbeddedTransactionRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        store.saveTransaction(transaction);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        return store.history(accountNumber, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(String accountNumber, TransactionPage.Cursor after, int pageSize) {
+        int before = after == null ? Integer.MAX_VALUE : after.transactionId();
+        List<Transaction> rows = store.history(accountNumber, before, pageSize + 1); // one extra row tells us whether a next page exists
+        if (rows.size() <= pageSize) return new TransactionPage(rows, null);
+        List<Transaction> items = rows.subList(0, pageSize);
+        return new TransactionPage(items, TransactionPage.Cursor.after(items.get(pageSize - 1)));
+    }
+
+    @Override
+    public List<Transaction> getTransactionsSince(String accountNumber, int afterTransactionId, int limit) {
+        return store.historySince(accountNumber, afterTransactionId, limit);
+    }
+
+    @Override
+    public long forEachTransaction(String accountNumber, Consumer<Transaction> consumer) {
+        return store.forEachTransaction(accountNumber, consumer);
+    }
+}
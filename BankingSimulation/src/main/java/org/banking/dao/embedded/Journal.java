@@ -0,0 +1,262 @@
+package org.banking.dao.embedded;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only journal (journal.log) with group commit.
+ * - Frames are [int payload length][int CRC32C][payload]; a record's position is its file offset.
+ * - append() only assigns the position and queues the frame. One writer thread drains the queue,
+ *   writes the whole batch with a single write and (with fsync on) a single force(), then wakes
+ *   every caller waiting in awaitDurable() for a position inside that batch.
+ * - On open, frames are scanned from a given position and a torn or corrupt tail is truncated.
+ */
+final class Journal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(Journal.class);
+    private static final int HEADER = 8;
+
+    /** Receives each intact record during recovery. */
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(long position, ByteBuffer payload) throws IOException;
+    }
+
+    private record Frame(long position, ByteBuffer bytes) {
+    }
+
+    private final FileChannel channel;
+    private final boolean fsync;
+    private final int maxBatch;
+    private final BlockingQueue<Frame> queue;
+    private final Thread writer;
+
+    private final ReentrantLock progressLock = new ReentrantLock();
+    private final Condition progressed = progressLock.newCondition();
+    private volatile long writtenPosition;  // everything below is in the file
+    private volatile long durablePosition;  // everything below survived force() (== written when fsync is off)
+    private volatile IOException failure;
+    private volatile boolean running = true;
+
+    private final ReentrantLock appendLock = new ReentrantLock(); // not a monitor: appenders may be virtual threads
+    private long nextPosition; // guarded by appendLock
+
+    /** Opens the journal, replays records from replayFrom through the handler and starts the writer. */
+    Journal(Path file, long replayFrom, boolean fsync, int queueCapacity, int maxBatch, RecordHandler replay)
+            throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.fsync = fsync;
+        this.maxBatch = maxBatch;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        long end = scan(replayFrom, replay);
+        if (end < channel.size()) {
+            logger.warn("⚠️ Truncating journal tail at {} ({} bytes discarded)", end, channel.size() - end);
+            channel.truncate(end);
+            channel.force(true);
+        }
+        this.nextPosition = end;
+        this.writtenPosition = end;
+        this.durablePosition = end;
+
+        this.writer = new Thread(this::runLoop, "embedded-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Queues a record and returns its position; blocks only when the writer is queueCapacity frames behind. */
+    long append(byte[] payload) throws IOException {
+        IOException failed = failure;
+        if (failed != null) throw new IOException("Journal is unavailable after a write failure", failed);
+
+        ByteBuffer frame = ByteBuffer.allocate(HEADER + payload.length);
+        CRC32C crc = new CRC32C();
+        crc.update(payload);
+        frame.putInt(payload.length).putInt((int) crc.getValue()).put(payload).flip();
+
+        int size = frame.remaining();
+        appendLock.lock();
+        try {
+            long position = nextPosition;
+            queue.put(new Frame(position, frame));
+            nextPosition += size;
+            return position;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while queueing journal record", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Position the next record will get; every record below it has been queued. */
+    long endPosition() {
+        appendLock.lock();
+        try {
+            return nextPosition;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until the record at position is durable (written, and forced when fsync is on). An interrupt
+     * does not cut the wait short: the record is already queued and lands either way, so the answer must
+     * say whether it did; the interrupt status is restored on return.
+     */
+    void awaitDurable(long position) throws IOException {
+        awaitProgress(position, true);
+    }
+
+    /** Reads the payload of the record at position, waiting for the writer if it is still queued. */
+    ByteBuffer read(long position) throws IOException {
+        awaitProgress(position, false);
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        readFully(header, position);
+        ByteBuffer payload = ByteBuffer.allocate(header.flip().getInt());
+        readFully(payload, position + HEADER);
+        return payload.flip();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!running) return;
+        long end = endPosition();
+        try {
+            awaitDurable(end - 1);
+        } catch (IOException e) {
+            logger.warn("Journal closed with unflushed records", e);
+        }
+        running = false;
+        writer.interrupt();
+        channel.force(true);
+        channel.close();
+    }
+
+    // ----------------- WRITER -----------------
+
+    private void runLoop() {
+        List<Frame> batch = new ArrayList<>(maxBatch);
+        while (running) {
+            try {
+                Frame first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                if (!running) break;
+            } catch (IOException e) {
+                logger.error("❌ Journal write failed; embedded store is now read-only", e);
+                failure = e;
+                signal();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Frame> batch) throws IOException {
+        long start = batch.get(0).position();
+        ByteBuffer[] buffers = new ByteBuffer[batch.size()];
+        long end = start;
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = batch.get(i).bytes();
+            end += buffers[i].remaining();
+        }
+
+        channel.position(start);
+        while (hasRemaining(buffers)) channel.write(buffers);
+        writtenPosition = end;
+        if (fsync) channel.force(false);
+        durablePosition = end;
+        signal();
+    }
+
+    // ----------------- RECOVERY -----------------
+
+    private long scan(long from, RecordHandler handler) throws IOException {
+        long size = channel.size();
+        long position = from;
+        ByteBuffer header = ByteBuffer.allocate(HEADER);
+        while (position + HEADER <= size) {
+            header.clear();
+            readFully(header, position);
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length < 0 || position + HEADER + length > size) break; // torn write
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, position + HEADER);
+            CRC32C crc = new CRC32C();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) break; // corrupt tail
+
+            handler.accept(position, payload.flip());
+            position += HEADER + length;
+        }
+        return position;
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void awaitProgress(long position, boolean durable) throws IOException {
+        if ((durable ? durablePosition : writtenPosition) > position) return;
+        boolean interrupted = false;
+        progressLock.lock();
+        try {
+            while ((durable ? durablePosition : writtenPosition) <= position) {
+                if (failure != null) throw new IOException("Journal write failed", failure);
+                if (!running) throw new IOException("Journal is closed");
+                try {
+                    progressed.await(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            progressLock.unlock();
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    private void signal() {
+        progressLock.lock();
+        try {
+            progressed.signalAll();
+        } finally {
+            progressLock.unlock();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0) throw new IOException("Unexpected end of journal at " + position);
+        }
+    }
+
+    private static boolean hasRemaining(ByteBuffer[] buffers) {
+        for (ByteBuffer b : buffers) if (b.hasRemaining()) return true;
+        return false;
+    }
+}
@@ -0,0 +1,206 @@
+package org.banking.logging;
+
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+import org.slf4j.spi.LocationAwareLogger;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous log sink behind every AsyncLogger.
+ * - Callers hand an unformatted event to a lock-free RingBuffer and return; message formatting,
+ *   stack traces and the write to stderr/file all happen on the single "async-log-writer" thread.
+ * - The writer drains up to batchSize events into one buffer and writes + flushes once per batch.
+ *   With the ring empty it parks until a caller's offer finds it idle and unparks it.
+ * - When the ring is full the overflow policy decides: DROP loses the event, BLOCK waits (spin,
+ *   then park) for space, SAMPLE keeps 1 in overflowSampleRate below-WARN events once the ring is
+ *   half full and never drops WARN/ERROR. Lost events are reported as one WARN line per batch.
+ * - A shutdown hook drains the ring; events logged after that are written synchronously.
+ * Arguments are formatted on the writer thread, so log immutable values (the codebase logs
+ * strings, numbers and Money amounts), not objects that are about to change.
+ */
+final class AsyncLogSink {
+
+    private static final int SPINS_BEFORE_PARK = 100;
+
+    /** One log call, captured as-is on the caller's thread. */
+    record LogEvent(long timeMillis, int level, String loggerName, String threadName,
+                    String template, Object[] args, Throwable throwable) {
+    }
+
+    private final LogConfig config;
+    private final RingBuffer<LogEvent> ring;
+    private final int sampleThreshold;
+    private final PrintStream out;
+    private final long startMillis = System.currentTimeMillis();
+    private final LongAdder lost = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+    private volatile boolean synchronous;
+    private volatile boolean writerIdle; // set by the writer before its last emptiness check, then it parks
+
+    AsyncLogSink(LogConfig config) {
+        this.config = config;
+        this.ring = new RingBuffer<>(config.bufferSize);
+        this.sampleThreshold = ring.capacity() / 2;
+        this.out = config.openTarget();
+        this.writer = new Thread(this::runLoop, "async-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, "async-log-shutdown"));
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    void publish(LogEvent event) {
+        if (synchronous) {
+            writeDirect(event);
+            return;
+        }
+        boolean droppable = event.level() < LocationAwareLogger.WARN_INT;
+        if (config.overflow == LogConfig.Overflow.SAMPLE && droppable && ring.size() >= sampleThreshold
+                && ThreadLocalRandom.current().nextInt(config.overflowSampleRate) != 0) {
+            lost.increment();
+            return;
+        }
+        if (ring.offer(event)) {
+            wakeWriter();
+            return;
+        }
+        if (config.overflow == LogConfig.Overflow.DROP || (config.overflow == LogConfig.Overflow.SAMPLE && droppable)) {
+            lost.increment();
+            return;
+        }
+        awaitSpace(event);
+    }
+
+    // ----------------- WRITER -----------------
+
+    private void runLoop() {
+        StringBuilder batch = new StringBuilder(16 * 1024);
+        while (running) {
+            int drained = drain(batch);
+            reportLost(batch);
+            if (batch.length() > 0) write(batch);
+            if (drained == 0) awaitEvents();
+        }
+    }
+
+    // The idle flag is written before the ring is checked here and read after offer() advances the ring's
+    // tail, both volatile, so either this check sees the event or the caller sees the flag and unparks.
+    private void awaitEvents() {
+        writerIdle = true;
+        if (ring.size() == 0 && running) LockSupport.park(this);
+        writerIdle = false;
+    }
+
+    private void wakeWriter() {
+        if (writerIdle) LockSupport.unpark(writer);
+    }
+
+    private int drain(StringBuilder batch) {
+        int n = 0;
+        LogEvent event;
+        while (n < config.batchSize && (event = ring.poll()) != null) {
+            format(event, batch);
+            n++;
+        }
+        return n;
+    }
+
+    private void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronous = true;
+        if (writer.isAlive()) return; // stuck on a blocked stream; the ring has a single consumer
+        StringBuilder rest = new StringBuilder();
+        while (drain(rest) > 0) {
+            write(rest);
+        }
+        reportLost(rest);
+        if (rest.length() > 0) write(rest);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void awaitSpace(LogEvent event) {
+        int spins = 0;
+        while (!ring.offer(event)) {
+            if (synchronous) {
+                writeDirect(event);
+                return;
+            }
+            if (++spins < SPINS_BEFORE_PARK) Thread.onSpinWait();
+            else LockSupport.parkNanos(50_000);
+        }
+        wakeWriter(); // it may have drained the full ring and parked while we waited
+    }
+
+    private void writeDirect(LogEvent event) {
+        StringBuilder sb = new StringBuilder(256);
+        format(event, sb);
+        write(sb);
+    }
+
+    private void write(StringBuilder text) {
+        out.print(text);
+        out.flush();
+        text.setLength(0);
+    }
+
+    private void reportLost(StringBuilder batch) {
+        long n = lost.sumThenReset();
+        if (n == 0) return;
+        format(new LogEvent(System.currentTimeMillis(), LocationAwareLogger.WARN_INT, "AsyncLogSink",
+                config.showThreadName ? Thread.currentThread().getName() : null, "⚠️ {} log events dropped: log buffer full (overflow={})",
+                new Object[]{n, config.overflow.name().toLowerCase()}, null), batch);
+    }
+
+    private void format(LogEvent e, StringBuilder sb) {
+        if (config.showDateTime) {
+            if (config.dateTimeFormat != null) {
+                config.dateTimeFormat.formatTo(Instant.ofEpochMilli(e.timeMillis()), sb);
+            } else {
+                sb.append(e.timeMillis() - startMillis);
+            }
+            sb.append(' ');
+        }
+        if (e.threadName() != null) sb.append('[').append(e.threadName()).append("] ");
+        if (config.levelInBrackets) sb.append('[');
+        sb.append(levelName(e.level()));
+        if (config.levelInBrackets) sb.append(']');
+        sb.append(' ');
+        if (e.loggerName() != null) sb.append(e.loggerName()).append(" - ");
+
+        FormattingTuple tuple = MessageFormatter.arrayFormat(e.template(), e.args());
+        sb.append(tuple.getMessage()).append(System.lineSeparator());
+        Throwable t = e.throwable() != null ? e.throwable() : tuple.getThrowable();
+        if (t != null) {
+            StringWriter trace = new StringWriter();
+            t.printStackTrace(new PrintWriter(trace));
+            sb.append(trace);
+        }
+    }
+
+    private static String levelName(int level) {
+        return switch (level) {
+            case LocationAwareLogger.TRACE_INT -> "TRACE";
+            case LocationAwareLogger.DEBUG_INT -> "DEBUG";
+            case LocationAwareLogger.INFO_INT -> "INFO";
+            case LocationAwareLogger.WARN_INT -> "WARN";
+            default -> "ERROR";
+        };
+    }
+}
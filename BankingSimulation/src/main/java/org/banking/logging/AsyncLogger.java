@@ -0,0 +1,209 @@
+package org.banking.logging;
+
+import org.slf4j.helpers.MarkerIgnoringBase;
+import org.slf4j.spi.LocationAwareLogger;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * SLF4J logger that hands events to the shared AsyncLogSink.
+ * The level and sampling rate are resolved once when the logger is created, so a disabled call
+ * costs one int comparison (no argument array is built) and an enabled one a sampling draw plus a
+ * lock-free enqueue.
+ */
+final class AsyncLogger extends MarkerIgnoringBase {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AsyncLogSink sink;
+    private final String displayName; // null when logger names are turned off
+    private final boolean captureThread;
+    private final int level;
+    private final int sampleRate; // keep 1 in sampleRate below-WARN events
+
+    AsyncLogger(String name, LogConfig config, AsyncLogSink sink) {
+        this.name = name;
+        this.sink = sink;
+        this.displayName = config.showShortLogName ? name.substring(name.lastIndexOf('.') + 1)
+                : config.showLogName ? name : null;
+        this.captureThread = config.showThreadName;
+        this.level = config.levelFor(name);
+        this.sampleRate = config.sampleRateFor(name);
+    }
+
+    // ----------------- LEVEL CHECKS -----------------
+
+    @Override
+    public boolean isTraceEnabled() {
+        return level <= LocationAwareLogger.TRACE_INT;
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return level <= LocationAwareLogger.DEBUG_INT;
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return level <= LocationAwareLogger.INFO_INT;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return level <= LocationAwareLogger.WARN_INT;
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return level <= LocationAwareLogger.ERROR_INT;
+    }
+
+    // ----------------- TRACE -----------------
+
+    @Override
+    public void trace(String msg) {
+        if (enabled(LocationAwareLogger.TRACE_INT)) publish(LocationAwareLogger.TRACE_INT, msg, null, null);
+    }
+
+    @Override
+    public void trace(String format, Object arg) {
+        if (enabled(LocationAwareLogger.TRACE_INT)) publish(LocationAwareLogger.TRACE_INT, format, new Object[]{arg}, null);
+    }
+
+    @Override
+    public void trace(String format, Object arg1, Object arg2) {
+        if (enabled(LocationAwareLogger.TRACE_INT)) publish(LocationAwareLogger.TRACE_INT, format, new Object[]{arg1, arg2}, null);
+    }
+
+    @Override
+    public void trace(String format, Object... arguments) {
+        if (enabled(LocationAwareLogger.TRACE_INT)) publish(LocationAwareLogger.TRACE_INT, format, arguments, null);
+    }
+
+    @Override
+    public void trace(String msg, Throwable t) {
+        if (enabled(LocationAwareLogger.TRACE_INT)) publish(LocationAwareLogger.TRACE_INT, msg, null, t);
+    }
+
+    // ----------------- DEBUG -----------------
+
+    @Override
+    public void debug(String msg) {
+        if (enabled(LocationAwareLogger.DEBUG_INT)) publish(LocationAwareLogger.DEBUG_INT, msg, null, null);
+    }
+
+    @Override
+    public void debug(String format, Object arg) {
+        if (enabled(LocationAwareLogger.DEBUG_INT)) publish(LocationAwareLogger.DEBUG_INT, format, new Object[]{arg}, null);
+    }
+
+    @Override
+    public void debug(String format, Object arg1, Object arg2) {
+        if (enabled(LocationAwareLogger.DEBUG_INT)) publish(LocationAwareLogger.DEBUG_INT, format, new Object[]{arg1, arg2}, null);
+    }
+
+    @Override
+    public void debug(String format, Object... arguments) {
+        if (enabled(LocationAwareLogger.DEBUG_INT)) publish(LocationAwareLogger.DEBUG_INT, format, arguments, null);
+    }
+
+    @Override
+    public void debug(String msg, Throwable t) {
+        if (enabled(LocationAwareLogger.DEBUG_INT)) publish(LocationAwareLogger.DEBUG_INT, msg, null, t);
+    }
+
+    // ----------------- INFO -----------------
+
+    @Override
+    public void info(String msg) {
+        if (enabled(LocationAwareLogger.INFO_INT)) publish(LocationAwareLogger.INFO_INT, msg, null, null);
+    }
+
+    @Override
+    public void info(String format, Object arg) {
+        if (enabled(LocationAwareLogger.INFO_INT)) publish(LocationAwareLogger.INFO_INT, format, new Object[]{arg}, null);
+    }
+
+    @Override
+    public void info(String format, Object arg1, Object arg2) {
+        if (enabled(LocationAwareLogger.INFO_INT)) publish(LocationAwareLogger.INFO_INT, format, new Object[]{arg1, arg2}, null);
+    }
+
+    @Override
+    public void info(String format, Object... arguments) {
+        if (enabled(LocationAwareLogger.INFO_INT)) publish(LocationAwareLogger.INFO_INT, format, arguments, null);
+    }
+
+    @Override
+    public void info(String msg, Throwable t) {
+        if (enabled(LocationAwareLogger.INFO_INT)) publish(LocationAwareLogger.INFO_INT, msg, null, t);
+    }
+
+    // ----------------- WARN -----------------
+
+    @Override
+    public void warn(String msg) {
+        if (enabled(LocationAwareLogger.WARN_INT)) publish(LocationAwareLogger.WARN_INT, msg, null, null);
+    }
+
+    @Override
+    public void warn(String format, Object arg) {
+        if (enabled(LocationAwareLogger.WARN_INT)) publish(LocationAwareLogger.WARN_INT, format, new Object[]{arg}, null);
+    }
+
+    @Override
+    public void warn(String format, Object arg1, Object arg2) {
+        if (enabled(LocationAwareLogger.WARN_INT)) publish(LocationAwareLogger.WARN_INT, format, new Object[]{arg1, arg2}, null);
+    }
+
+    @Override
+    public void warn(String format, Object... arguments) {
+        if (enabled(LocationAwareLogger.WARN_INT)) publish(LocationAwareLogger.WARN_INT, format, arguments, null);
+    }
+
+    @Override
+    public void warn(String msg, Throwable t) {
+        if (enabled(LocationAwareLogger.WARN_INT)) publish(LocationAwareLogger.WARN_INT, msg, null, t);
+    }
+
+    // ----------------- ERROR -----------------
+
+    @Override
+    public void error(String msg) {
+        if (enabled(LocationAwareLogger.ERROR_INT)) publish(LocationAwareLogger.ERROR_INT, msg, null, null);
+    }
+
+    @Override
+    public void error(String format, Object arg) {
+        if (enabled(LocationAwareLogger.ERROR_INT)) publish(LocationAwareLogger.ERROR_INT, format, new Object[]{arg}, null);
+    }
+
+    @Override
+    public void error(String format, Object arg1, Object arg2) {
+        if (enabled(LocationAwareLogger.ERROR_INT)) publish(LocationAwareLogger.ERROR_INT, format, new Object[]{arg1, arg2}, null);
+    }
+
+    @Override
+    public void error(String format, Object... arguments) {
+        if (enabled(LocationAwareLogger.ERROR_INT)) publish(LocationAwareLogger.ERROR_INT, format, arguments, null);
+    }
+
+    @Override
+    public void error(String msg, Throwable t) {
+        if (enabled(LocationAwareLogger.ERROR_INT)) publish(LocationAwareLogger.ERROR_INT, msg, null, t);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    // checked before the overloads build their argument arrays, so a dropped event allocates nothing
+    private boolean enabled(int eventLevel) {
+        if (eventLevel < level) return false;
+        return sampleRate <= 1 || eventLevel >= LocationAwareLogger.WARN_INT
+                || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    private void publish(int eventLevel, String template, Object[] args, Throwable t) {
+        sink.publish(new AsyncLogSink.LogEvent(System.currentTimeMillis(), eventLevel, displayName,
+                captureThread ? Thread.currentThread().getName() : null, template, args, t));
+    }
+}
@@ -0,0 +1,24 @@
+package org.banking.logging;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.Logger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * SLF4J logger factory for the async sink (bound through org.slf4j.impl.StaticLoggerBinder).
+ * Configuration is read once from simplelogger.properties; see LogConfig for the keys.
+ */
+public class AsyncLoggerFactory implements ILoggerFactory {
+
+    private final ConcurrentMap<String, Logger> loggers = new ConcurrentHashMap<>();
+    private final LogConfig config = new LogConfig();
+    private final AsyncLogSink sink = new AsyncLogSink(config);
+
+    @Override
+    public Logger getLogger(String name) {
+        Logger logger = loggers.get(name);
+        return logger != null ? logger : loggers.computeIfAbsent(name, n -> new AsyncLogger(n, config, sink));
+    }
+}
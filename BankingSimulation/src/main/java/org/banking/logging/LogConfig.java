@@ -0,0 +1,123 @@
+package org.banking.logging;
+
+import org.slf4j.spi.LocationAwareLogger;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Logging settings from simplelogger.properties on the classpath (system properties win).
+ * The org.slf4j.simpleLogger.* keys keep their slf4j-simple meaning; org.banking.log.* keys
+ * configure the async sink and per-category sampling:
+ *   org.banking.log.bufferSize         events the ring buffer holds (rounded up to a power of two)
+ *   org.banking.log.batchSize          events written per write/flush
+ *   org.banking.log.overflow           drop | block | sample, when the buffer fills up
+ *   org.banking.log.overflowSampleRate under "sample", keep 1 in N below-WARN events once half full
+ *   org.banking.log.sample.<logger>    keep 1 in N below-WARN events of that logger and its children
+ */
+final class LogConfig {
+
+    private static final String SIMPLE = "org.slf4j.simpleLogger.";
+    private static final String OWN = "org.banking.log.";
+
+    enum Overflow { DROP, BLOCK, SAMPLE }
+
+    private final Properties props = new Properties();
+
+    final int defaultLevel;
+    final boolean showDateTime;
+    final DateTimeFormatter dateTimeFormat; // null: millis since start, as slf4j-simple does
+    final boolean showThreadName;
+    final boolean showLogName;
+    final boolean showShortLogName;
+    final boolean levelInBrackets;
+    final String logFile;
+    final int bufferSize;
+    final int batchSize;
+    final Overflow overflow;
+    final int overflowSampleRate;
+
+    LogConfig() {
+        try (InputStream in = LogConfig.class.getClassLoader().getResourceAsStream("simplelogger.properties")) {
+            if (in != null) props.load(in);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not read simplelogger.properties: " + e);
+        }
+        defaultLevel = parseLevel(get(SIMPLE + "defaultLogLevel", "info"), LocationAwareLogger.INFO_INT);
+        showDateTime = Boolean.parseBoolean(get(SIMPLE + "showDateTime", "false"));
+        String pattern = get(SIMPLE + "dateTimeFormat", null);
+        dateTimeFormat = pattern == null ? null : DateTimeFormatter.ofPattern(pattern).withZone(ZoneId.systemDefault());
+        showThreadName = Boolean.parseBoolean(get(SIMPLE + "showThreadName", "true"));
+        showLogName = Boolean.parseBoolean(get(SIMPLE + "showLogName", "true"));
+        showShortLogName = Boolean.parseBoolean(get(SIMPLE + "showShortLogName", "false"));
+        levelInBrackets = Boolean.parseBoolean(get(SIMPLE + "levelInBrackets", "false"));
+        logFile = get(SIMPLE + "logFile", "System.err");
+        bufferSize = Integer.parseInt(get(OWN + "bufferSize", "8192"));
+        batchSize = Integer.parseInt(get(OWN + "batchSize", "256"));
+        overflow = Overflow.valueOf(get(OWN + "overflow", "sample").toUpperCase(Locale.ROOT));
+        overflowSampleRate = Math.max(1, Integer.parseInt(get(OWN + "overflowSampleRate", "10")));
+    }
+
+    /** Level for a logger: the most specific org.slf4j.simpleLogger.log.<prefix> entry, else the default. */
+    int levelFor(String loggerName) {
+        String value = mostSpecific(SIMPLE + "log.", loggerName);
+        return value == null ? defaultLevel : parseLevel(value, defaultLevel);
+    }
+
+    /** 1-in-N sampling rate for a logger's below-WARN events; 1 means every event is kept. */
+    int sampleRateFor(String loggerName) {
+        String value = mostSpecific(OWN + "sample.", loggerName);
+        return value == null ? 1 : Math.max(1, Integer.parseInt(value.trim()));
+    }
+
+    PrintStream openTarget() {
+        return switch (logFile) {
+            case "System.err" -> System.err;
+            case "System.out" -> System.out;
+            default -> {
+                try {
+                    yield new PrintStream(new FileOutputStream(logFile, true), false);
+                } catch (IOException e) {
+                    System.err.println("⚠️ Could not open log file " + logFile + ", logging to stderr: " + e);
+                    yield System.err;
+                }
+            }
+        };
+    }
+
+    private String get(String key, String def) {
+        String sys = System.getProperty(key);
+        if (sys != null) return sys;
+        String value = props.getProperty(key);
+        return value == null ? def : value.trim();
+    }
+
+    private String mostSpecific(String prefix, String loggerName) {
+        String name = loggerName;
+        while (true) {
+            String value = get(prefix + name, null);
+            if (value != null) return value;
+            int dot = name.lastIndexOf('.');
+            if (dot < 0) return null;
+            name = name.substring(0, dot);
+        }
+    }
+
+    private static int parseLevel(String value, int def) {
+        return switch (value.trim().toLowerCase(Locale.ROOT)) {
+            case "trace" -> LocationAwareLogger.TRACE_INT;
+            case "debug" -> LocationAwareLogger.DEBUG_INT;
+            case "info" -> LocationAwareLogger.INFO_INT;
+            case "warn" -> LocationAwareLogger.WARN_INT;
+            case "error" -> LocationAwareLogger.ERROR_INT;
+            case "off" -> LocationAwareLogger.ERROR_INT + 10;
+            default -> def;
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package org.banking.logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free multi-producer / single-consumer queue (Vyukov's sequence-per-slot ring).
+ * - offer() claims a slot with one CAS on the tail and publishes it with a release store of the
+ *   slot's sequence; it never blocks and returns false when the ring is full.
+ * - poll() must only be called from one thread (the log writer).
+ */
+final class RingBuffer<E> {
+
+    private final int mask;
+    private final Object[] items;            // plain slots: published and consumed through sequences
+    private final AtomicLongArray sequences; // slot i is free for producer position p when it holds p,
+                                             // and readable for consumer position p when it holds p + 1
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;              // written by the consumer only
+
+    RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.items = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) sequences.set(i, i);
+    }
+
+    boolean offer(E item) {
+        long pos = tail.get();
+        while (true) {
+            int slot = (int) (pos & mask);
+            long diff = sequences.getAcquire(slot) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    items[slot] = item;
+                    sequences.setRelease(slot, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // the consumer hasn't freed this slot yet: full
+            } else {
+                pos = tail.get(); // another producer took it
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    E poll() {
+        long pos = head;
+        int slot = (int) (pos & mask);
+        if (sequences.getAcquire(slot) != pos + 1) return null;
+        E item = (E) items[slot];
+        items[slot] = null;
+        sequences.setRelease(slot, pos + mask + 1);
+        head = pos + 1;
+        return item;
+    }
+
+    /** Approximate number of queued items. */
+    int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+}
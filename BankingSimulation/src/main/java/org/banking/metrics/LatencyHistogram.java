@@ -0,0 +1,110 @@
+package org.banking.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent log-linear latency histogram in the style of HdrHistogram.
+ * - Values below 128 get exact buckets; above that every power of two is split into 64 linear
+ *   sub-buckets, so any recorded value is reported within 1/64 (~1.6%) of its true value.
+ * - Covers 0..Long.MAX_VALUE (nanoseconds: far beyond any real latency) in 3,712 fixed counters.
+ * - record() is allocation-free and lock-free; percentiles are computed from a Snapshot.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int SUB_COUNT = 1 << SUB_BITS;      // 128 exact buckets for small values
+    private static final int HALF = SUB_COUNT >> 1;          // 64 sub-buckets per power of two above that
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /** Records one value (normally nanoseconds); negative values count as 0. */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(index(v));
+        total.add(v);
+        long m = max.get();
+        while (v > m && !max.compareAndSet(m, v)) m = max.get();
+    }
+
+    /** Copies the counters; the copy can be queried without affecting recording threads. */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, total.sum(), max.get());
+    }
+
+    /** Point-in-time copy of a histogram. */
+    public static final class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        private Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long sum() {
+            return sum;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        public double mean() {
+            return count == 0 ? 0 : (double) sum / count;
+        }
+
+        /** Smallest bucket upper bound with at least p (0..1) of the recorded values at or below it. */
+        public long percentile(double p) {
+            if (count == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) return Math.min(highestEquivalent(i), max);
+            }
+            return max;
+        }
+
+        /** Number of recorded values that are at most value (bucket resolution). */
+        public long countAtOrBelow(long value) {
+            int last = index(Math.max(0, value));
+            long n = 0;
+            for (int i = 0; i <= last; i++) n += counts[i];
+            return n;
+        }
+    }
+
+    static int index(long v) {
+        if (v < SUB_COUNT) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1); // >= 1
+        int sub = (int) (v >>> shift) - HALF;                            // 0..63
+        return SUB_COUNT + (shift - 1) * HALF + sub;
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < SUB_COUNT) return index;
+        int shift = (index - SUB_COUNT) / HALF + 1;
+        long sub = (index - SUB_COUNT) % HALF + HALF;
+        long upper = ((sub + 1) << shift) - 1;
+        return upper < 0 ? Long.MAX_VALUE : upper;
+    }
+}
@@ -0,0 +1,191 @@
+package org.banking.metrics;
+
+import org.banking.util.AppConfig;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Process-wide metric registry, exported by MetricsHttpServer (Prometheus text) and over JMX.
+ * - Metrics are created once, normally into static final fields, and identified by name plus
+ *   label pairs ("op", "deposit"). Asking again for the same name and labels returns the same instance.
+ * - Recording is allocation-free: Counter is a LongAdder and Timer a LatencyHistogram, so call
+ *   sites on the posting path pay a few uncontended atomic adds and nothing else.
+ * - Components that already keep their own stats (pool, dispatcher) register gauges or function
+ *   counters that are read only when someone scrapes.
+ */
+public final class Metrics {
+
+    private static final boolean JMX_ENABLED = AppConfig.getBoolean("metrics.jmx.enabled", true);
+    private static final Map<String, Metric> registry = new LinkedHashMap<>(); // guarded by Metrics.class
+
+    private Metrics() {
+    }
+
+    /** Prometheus metric types used by the exporters. */
+    enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String exposition;
+
+        Type(String exposition) {
+            this.exposition = exposition;
+        }
+    }
+
+    /** Common view of every registered metric; labels are alternating name/value pairs. */
+    abstract static sealed class Metric permits Counter, Timer, Gauge, FunctionCounter {
+        final String name;
+        final String help;
+        final String[] labels;
+
+        Metric(String name, String help, String[] labels) {
+            this.name = name;
+            this.help = help;
+            this.labels = labels;
+        }
+
+        abstract Type type();
+    }
+
+    /** Monotonic count of events. */
+    public static final class Counter extends Metric {
+        private final LongAdder adder = new LongAdder();
+
+        private Counter(String name, String help, String[] labels) {
+            super(name, help, labels);
+        }
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long n) {
+            adder.add(n);
+        }
+
+        public long count() {
+            return adder.sum();
+        }
+
+        @Override
+        Type type() {
+            return Type.COUNTER;
+        }
+    }
+
+    /** Latency distribution in nanoseconds; exported in seconds as a summary. */
+    public static final class Timer extends Metric {
+        private final LatencyHistogram histogram = new LatencyHistogram();
+
+        private Timer(String name, String help, String[] labels) {
+            super(name, help, labels);
+        }
+
+        public void record(long nanos) {
+            histogram.record(nanos);
+        }
+
+        /** Records the time since startNanos, a value taken from System.nanoTime(). */
+        public void recordSince(long startNanos) {
+            histogram.record(System.nanoTime() - startNanos);
+        }
+
+        public LatencyHistogram.Snapshot snapshot() {
+            return histogram.snapshot();
+        }
+
+        @Override
+        Type type() {
+            return Type.SUMMARY;
+        }
+    }
+
+    static final class Gauge extends Metric {
+        final DoubleSupplier value;
+
+        private Gauge(String name, String help, String[] labels, DoubleSupplier value) {
+            super(name, help, labels);
+            this.value = value;
+        }
+
+        @Override
+        Type type() {
+            return Type.GAUGE;
+        }
+    }
+
+    static final class FunctionCounter extends Metric {
+        final LongSupplier value;
+
+        private FunctionCounter(String name, String help, String[] labels, LongSupplier value) {
+            super(name, help, labels);
+            this.value = value;
+        }
+
+        @Override
+        Type type() {
+            return Type.COUNTER;
+        }
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    public static Counter counter(String name, String help, String... labels) {
+        return register(new Counter(name, help, labels), Counter.class, false);
+    }
+
+    public static Timer timer(String name, String help, String... labels) {
+        return register(new Timer(name, help, labels), Timer.class, false);
+    }
+
+    /** Registers a value sampled at scrape time; a later registration with the same name and labels replaces it. */
+    public static void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        register(new Gauge(name, help, labels, value), Gauge.class, true);
+    }
+
+    /** Like gauge(), for a monotonic count the caller already maintains (e.g. a LongAdder in a Stats record). */
+    public static void functionCounter(String name, String help, LongSupplier value, String... labels) {
+        register(new FunctionCounter(name, help, labels, value), FunctionCounter.class, true);
+    }
+
+    /** Current registry contents in registration order. */
+    static synchronized List<Metric> all() {
+        return new ArrayList<>(registry.values());
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private static synchronized <M extends Metric> M register(M metric, Class<M> kind, boolean replace) {
+        if (metric.labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs: " + metric.name);
+        }
+        String key = key(metric.name, metric.labels);
+        Metric existing = registry.get(key);
+        if (existing != null && !replace) {
+            if (!kind.isInstance(existing)) {
+                throw new IllegalArgumentException("Metric " + key + " is already registered as " + existing.type());
+            }
+            return kind.cast(existing);
+        }
+        for (Metric m : registry.values()) {
+            if (m.name.equals(metric.name) && m.type() != metric.type()) {
+                throw new IllegalArgumentException("Metric " + metric.name + " is already registered as " + m.type());
+            }
+        }
+        registry.put(key, metric);
+        if (JMX_ENABLED) MetricsJmx.register(metric, existing != null);
+        return metric;
+    }
+
+    private static String key(String name, String[] labels) {
+        StringBuilder sb = new StringBuilder(name);
+        for (int i = 0; i < labels.length; i += 2) sb.append('|').append(labels[i]).append('=').append(labels[i + 1]);
+        return sb.toString();
+    }
+}
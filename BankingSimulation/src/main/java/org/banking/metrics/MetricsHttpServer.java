@@ -0,0 +1,99 @@
+package org.banking.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.banking.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves GET /metrics in Prometheus text format on a local port (metrics.http.* keys).
+ * Scrapes run on one daemon thread, so a misbehaving scraper can't take CPU from the app.
+ */
+public class MetricsHttpServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    /** Server settings; see the metrics.http.* keys in config.properties. */
+    public record Settings(boolean enabled, String bindAddress, int port) {
+        public static Settings fromConfig() {
+            return new Settings(AppConfig.getBoolean("metrics.http.enabled", true),
+                    AppConfig.get("metrics.http.bindAddress", "127.0.0.1"),
+                    AppConfig.getInt("metrics.http.port", 9404));
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "metrics-http");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public MetricsHttpServer(Settings settings) throws IOException {
+        this.server = HttpServer.create(new InetSocketAddress(settings.bindAddress(), settings.port()), 16);
+        this.server.setExecutor(executor);
+        this.server.createContext("/metrics", this::handle);
+    }
+
+    /** Starts the endpoint if metrics.http.enabled; a port clash is logged rather than failing the app. */
+    public static MetricsHttpServer startFromConfig() {
+        Settings settings = Settings.fromConfig();
+        if (!settings.enabled()) return null;
+        try {
+            MetricsHttpServer server = new MetricsHttpServer(settings);
+            server.start();
+            return server;
+        } catch (IOException e) {
+            logger.warn("⚠️ Metrics endpoint not started on {}:{}", settings.bindAddress(), settings.port(), e);
+            return null;
+        }
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    public void start() {
+        server.start();
+        logger.info("✅ Metrics endpoint at http://{}:{}/metrics",
+                server.getAddress().getHostString(), server.getAddress().getPort());
+    }
+
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void handle(HttpExchange ex) throws IOException {
+        try (ex) {
+            if (!"GET".equals(ex.getRequestMethod()) && !"HEAD".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = PrometheusFormat.scrape().getBytes(StandardCharsets.UTF_8);
+            ex.getResponseHeaders().set("Content-Type", PrometheusFormat.CONTENT_TYPE);
+            if ("HEAD".equals(ex.getRequestMethod())) {
+                ex.sendResponseHeaders(200, -1);
+                return;
+            }
+            ex.sendResponseHeaders(200, body.length);
+            try (OutputStream os = ex.getResponseBody()) {
+                os.write(body);
+            }
+        } catch (RuntimeException e) {
+            logger.error("❌ Metrics scrape failed", e);
+        }
+    }
+}
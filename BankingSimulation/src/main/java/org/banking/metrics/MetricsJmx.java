@@ -0,0 +1,119 @@
+package org.banking.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Hashtable;
+
+/**
+ * Publishes each registered metric as an MXBean on the platform MBeanServer, e.g.
+ * org.banking:type=Metrics,name=banking_operation_seconds,op=deposit (browse with jconsole/VisualVM).
+ * Attribute values are computed when read; nothing here runs on the recording path.
+ */
+final class MetricsJmx {
+
+    private static final Logger logger = LoggerFactory.getLogger(MetricsJmx.class);
+    private static final String DOMAIN = "org.banking";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private MetricsJmx() {
+    }
+
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    public interface GaugeMXBean {
+        double getValue();
+    }
+
+    public interface TimerMXBean {
+        long getCount();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP99Millis();
+
+        double getP999Millis();
+
+        double getMaxMillis();
+    }
+
+    /** Registers the metric's MXBean; replace unregisters a previous bean with the same name first. */
+    static void register(Metrics.Metric metric, boolean replace) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = objectName(metric);
+            if (replace && server.isRegistered(name)) server.unregisterMBean(name);
+            server.registerMBean(bean(metric), name);
+        } catch (JMException e) {
+            logger.warn("⚠️ Could not register JMX bean for metric {}", metric.name, e);
+        }
+    }
+
+    private static Object bean(Metrics.Metric metric) {
+        return switch (metric) {
+            case Metrics.Counter c -> (CounterMXBean) c::count;
+            case Metrics.FunctionCounter f -> (CounterMXBean) f.value::getAsLong;
+            case Metrics.Gauge g -> (GaugeMXBean) g.value::getAsDouble;
+            case Metrics.Timer t -> new TimerBean(t);
+        };
+    }
+
+    private static ObjectName objectName(Metrics.Metric metric) throws JMException {
+        Hashtable<String, String> props = new Hashtable<>();
+        props.put("type", "Metrics");
+        props.put("name", metric.name);
+        for (int i = 0; i < metric.labels.length; i += 2) {
+            props.put(metric.labels[i], quoteIfNeeded(metric.labels[i + 1]));
+        }
+        return new ObjectName(DOMAIN, props);
+    }
+
+    private static String quoteIfNeeded(String value) {
+        for (char c : value.toCharArray()) {
+            if (c == ',' || c == '=' || c == ':' || c == '"' || c == '*' || c == '?' || c == '\n') {
+                return ObjectName.quote(value);
+            }
+        }
+        return value;
+    }
+
+    private record TimerBean(Metrics.Timer timer) implements TimerMXBean {
+        @Override
+        public long getCount() {
+            return timer.snapshot().count();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            return timer.snapshot().mean() / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return timer.snapshot().percentile(0.50) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return timer.snapshot().percentile(0.99) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getP999Millis() {
+            return timer.snapshot().percentile(0.999) / NANOS_PER_MILLI;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return timer.snapshot().max() / NANOS_PER_MILLI;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.banking.metrics;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Renders the registry in the Prometheus text exposition format (version 0.0.4).
+ * Timers become summaries in seconds with 0.5/0.9/0.99/0.999 quantiles over the process
+ * lifetime, plus a separate <name>_max gauge.
+ */
+public final class PrometheusFormat {
+
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private PrometheusFormat() {
+    }
+
+    public static String scrape() {
+        Map<String, List<Metrics.Metric>> families = new LinkedHashMap<>();
+        for (Metrics.Metric m : Metrics.all()) {
+            families.computeIfAbsent(m.name, k -> new ArrayList<>()).add(m);
+        }
+
+        StringBuilder out = new StringBuilder(8192);
+        for (List<Metrics.Metric> family : families.values()) {
+            Metrics.Metric first = family.get(0);
+            header(out, first.name, first.help, first.type().exposition);
+            for (Metrics.Metric m : family) {
+                switch (m) {
+                    case Metrics.Counter c -> sample(out, m.name, m.labels, null, c.count());
+                    case Metrics.FunctionCounter f -> sample(out, m.name, m.labels, null, f.value.getAsLong());
+                    case Metrics.Gauge g -> sample(out, m.name, m.labels, null, g.value.getAsDouble());
+                    case Metrics.Timer t -> summary(out, t);
+                }
+            }
+            if (first instanceof Metrics.Timer) {
+                header(out, first.name + "_max", "Largest observed value of " + first.name, "gauge");
+                for (Metrics.Metric m : family) {
+                    sample(out, m.name + "_max", m.labels, null, ((Metrics.Timer) m).snapshot().max() / NANOS_PER_SECOND);
+                }
+            }
+        }
+        return out.toString();
+    }
+
+    private static void summary(StringBuilder out, Metrics.Timer timer) {
+        LatencyHistogram.Snapshot s = timer.snapshot();
+        for (double q : QUANTILES) {
+            sample(out, timer.name, timer.labels, String.valueOf(q), s.percentile(q) / NANOS_PER_SECOND);
+        }
+        sample(out, timer.name + "_sum", timer.labels, null, s.sum() / NANOS_PER_SECOND);
+        sample(out, timer.name + "_count", timer.labels, null, s.count());
+    }
+
+    private static void header(StringBuilder out, String name, String help, String type) {
+        out.append("# HELP ").append(name).append(' ').append(help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder out, String name, String[] labels, String quantile, double value) {
+        out.append(name);
+        if (labels.length > 0 || quantile != null) {
+            out.append('{');
+            for (int i = 0; i < labels.length; i += 2) {
+                if (i > 0) out.append(',');
+                out.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+            }
+            if (quantile != null) {
+                if (labels.length > 0) out.append(',');
+                out.append("quantile=\"").append(quantile).append('"');
+            }
+            out.append('}');
+        }
+        out.append(' ');
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            out.append((long) value);
+        } else if (Double.isNaN(value)) {
+            out.append("NaN");
+        } else {
+            out.append(value);
+        }
+        out.append('\n');
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
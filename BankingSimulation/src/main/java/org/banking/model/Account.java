@@ -1,14 +1,12 @@
 package org.banking.model;
 
-import java.math.BigDecimal;
-
 public class Account {
     private String accountNumber;
     private int customerId;
     private String accountType;
     private String status;
-    private BigDecimal balance;
-    private BigDecimal minBalanceThreshold; // New field
+    private Money balance;
+    private Money minBalanceThreshold; // New field
 
     // --- Getters and Setters ---
     public String getAccountNumber() {
@@ -43,30 +41,35 @@ public class Account {
         this.status = status;
     }
 
-    public BigDecimal getBalance() {
+    public Money getBalance() {
         return balance;
     }
 
-    public void setBalance(BigDecimal balance) {
+    public void setBalance(Money balance) {
         this.balance = balance;
     }
 
-    public BigDecimal getMinBalanceThreshold() {
+    public Money getMinBalanceThreshold() {
         return minBalanceThreshold;
     }
 
-    public void setMinBalanceThreshold(BigDecimal minBalanceThreshold) {
+    public void setMinBalanceThreshold(Money minBalanceThreshold) {
         this.minBalanceThreshold = minBalanceThreshold;
     }
 
+    // What can be withdrawn without going below the threshold (never negative)
+    public Money getAvailableFunds() {
+        return Money.max(Money.ZERO, balance.subtract(minBalanceThreshold));
+    }
+
     @Override
     public String toString() {
         return "Account Details: {" +
                 "Number='" + accountNumber + '\'' +
                 ", Type='" + accountType + '\'' +
                 ", Status='" + status + '\'' +
-                ", Balance=" + String.format("%.2f", balance) +
-                ", MinThreshold=" + String.format("%.2f", minBalanceThreshold) +
+                ", Balance=" + balance +
+                ", MinThreshold=" + minBalanceThreshold +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package org.banking.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a long count of minor units (cents): 12.34 is Money.ofMinor(1234).
+ * - Arithmetic is exact and overflow-checked (ArithmeticException), with no BigDecimal in between.
+ * - Balances are DECIMAL(…,2) in MySQL; of(BigDecimal)/toBigDecimal() are for the JDBC boundary only.
+ * - parse() accepts user input with at most 2 decimals; toString() prints the plain form ("-0.50").
+ */
+public record Money(long minorUnits) implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0);
+
+    private static final long MINOR_PER_MAJOR = 100;
+
+    public static Money ofMinor(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Money(minorUnits);
+    }
+
+    /** Whole currency units, e.g. of(500) is 500.00. */
+    public static Money of(long majorUnits) {
+        return ofMinor(Math.multiplyExact(majorUnits, MINOR_PER_MAJOR));
+    }
+
+    /** From a DECIMAL column (or any BigDecimal); extra decimals are rounded half-up like MySQL does. */
+    public static Money of(BigDecimal amount) {
+        BigDecimal scaled = amount.scale() == SCALE ? amount : amount.setScale(SCALE, RoundingMode.HALF_UP);
+        return ofMinor(scaled.unscaledValue().longValueExact());
+    }
+
+    /** Parses "12", "12.5" or "-12.50"; rejects anything else, including a third decimal. */
+    public static Money parse(String text) {
+        String s = text.trim();
+        int dot = s.indexOf('.');
+        String whole = dot < 0 ? s : s.substring(0, dot);
+        String fraction = dot < 0 ? "" : s.substring(dot + 1);
+        if (fraction.length() > SCALE) throw new NumberFormatException("more than " + SCALE + " decimals: " + text);
+        boolean negative = whole.startsWith("-");
+        String digits = negative || whole.startsWith("+") ? whole.substring(1) : whole;
+        if ((digits.isEmpty() && fraction.isEmpty()) || !allDigits(digits) || !allDigits(fraction)) {
+            throw new NumberFormatException("not an amount: " + text);
+        }
+        try {
+            long major = digits.isEmpty() ? 0 : Long.parseLong(digits);
+            long minor = fraction.isEmpty() ? 0 : Long.parseLong(fraction) * (fraction.length() == 1 ? 10 : 1);
+            long units = Math.addExact(Math.multiplyExact(major, MINOR_PER_MAJOR), minor);
+            return ofMinor(negative ? -units : units);
+        } catch (ArithmeticException | NumberFormatException e) { // digits are validated: only overflow gets here
+            throw new NumberFormatException("amount out of range: " + text);
+        }
+    }
+
+    // ----------------- ARITHMETIC -----------------
+
+    public Money add(Money other) {
+        return ofMinor(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Money subtract(Money other) {
+        return ofMinor(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public Money negate() {
+        return ofMinor(Math.negateExact(minorUnits));
+    }
+
+    public int signum() {
+        return Long.signum(minorUnits);
+    }
+
+    public boolean isLessThan(Money other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public static Money max(Money a, Money b) {
+        return a.minorUnits >= b.minorUnits ? a : b;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    // ----------------- CONVERSION -----------------
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public String toString() {
+        long major = minorUnits / MINOR_PER_MAJOR;
+        long minor = Math.abs(minorUnits % MINOR_PER_MAJOR);
+        StringBuilder sb = new StringBuilder(24);
+        if (minorUnits < 0 && major == 0) sb.append('-');
+        sb.append(major).append('.');
+        if (minor < 10) sb.append('0');
+        return sb.append(minor).toString();
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private static boolean allDigits(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') return false;
+        }
+        return true;
+    }
+}
@@ -1,6 +1,5 @@
 package org.banking.model;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
 
 public class Transaction {
@@ -8,12 +7,12 @@ public class Transaction {
     private int transactionId; // Optional, auto-generated by DB
     private String accountNumber;
     private String transactionType;
-    private BigDecimal amount;
+    private Money amount;
     private Timestamp timestamp;
     private String description;
 
     // Constructor
-    public Transaction(String accountNumber, String transactionType, BigDecimal amount, Timestamp timestamp, String description) {
+    public Transaction(String accountNumber, String transactionType, Money amount, Timestamp timestamp, String description) {
         this.accountNumber = accountNumber;
         this.transactionType = transactionType;
         this.amount = amount;
@@ -34,8 +33,8 @@ public class Transaction {
     public String getTransactionType() { return transactionType; }
     public void setTransactionType(String transactionType) { this.transactionType = transactionType; }
 
-    public BigDecimal getAmount() { return amount; }
-    public void setAmount(BigDecimal amount) { this.amount = amount; }
+    public Money getAmount() { return amount; }
+    public void setAmount(Money amount) { this.amount = amount; }
 
     public Timestamp getTimestamp() { return timestamp; }
     public void setTimestamp(Timestamp timestamp) { this.timestamp = timestamp; }
@@ -0,0 +1,442 @@
+package org.banking.report;
+
+import org.banking.dao.AccountRanges;
+import org.banking.dao.AccountRanges.Range;
+import org.banking.dao.JobCheckpointRepository;
+import org.banking.dao.MoneyColumns;
+import org.banking.dao.Repositories;
+import org.banking.dao.TransactionTypes;
+import org.banking.metrics.Metrics;
+import org.banking.model.Money;
+import org.banking.util.AppConfig;
+import org.banking.util.DatabaseConnection;
+import org.banking.util.SchemaSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.*;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Month-end statements and the auditors' transaction export, built from the transactions table.
+ * - Accounts are cut into contiguous account_number ranges that run in parallel on a ForkJoinPool.
+ * - A range is one forward-only, row-streaming query: its accounts, each with the opening balance
+ *   (the log summed up to the period start) and the period's rows, ordered by account. Accounts are
+ *   finished as the cursor moves past them, so memory stays flat whatever the table size.
+ * - Every account gets <dir>/<yyyy-MM>/<account>.txt. Each range appends its rows to a part CSV,
+ *   and the parts are concatenated into <dir>/transactions-<yyyy-MM>.csv once all ranges are done.
+ * - Progress is kept in job_checkpoints: the range cut points once, then per range the last finished
+ *   account and the part file's length at that point. Rerunning an unfinished month truncates each
+ *   part to its checkpoint and continues after that account. A finished month clears its checkpoints.
+ *
+ * Usage: StatementExportJob [yyyy-MM]   (default: last month)
+ */
+public class StatementExportJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementExportJob.class);
+
+    private static final String JOB_PREFIX = "statement-export-";
+    private static final String CSV_HEADER = "transaction_id,account_number,timestamp,transaction_type,amount,balance_after,description";
+    private static final String RULE = "-".repeat(100);
+
+    // period rows of the accounts in (?, ?], each with its account's opening balance; an account
+    // without period rows still comes back once (NULL transaction_id), so it gets a statement too
+    private static final String RANGE_SQL = """
+            SELECT a.account_number, a.account_type, c.first_name, c.last_name,
+                   COALESCE(o.opening, 0) AS opening,
+                   t.transaction_id, t.transaction_type, t.amount, t.timestamp, t.description
+            FROM accounts a
+            LEFT JOIN customers c ON c.customer_id = a.customer_id
+            LEFT JOIN (SELECT account_number, SUM(%1$s) AS opening
+                       FROM transactions
+                       WHERE timestamp < ? AND account_number > ? %2$s
+                       GROUP BY account_number) o ON o.account_number = a.account_number
+            LEFT JOIN transactions t ON t.account_number = a.account_number AND t.timestamp >= ? AND t.timestamp < ?
+            WHERE a.account_number > ? %3$s
+            ORDER BY a.account_number, t.timestamp, t.transaction_id
+            """;
+
+    public record Settings(Path dir, int parallelism, int rangesPerThread, int checkpointEveryAccounts,
+                           int progressIntervalSeconds) {
+        public static Settings fromConfig() {
+            // each running range holds its streaming connection plus one for checkpoint writes
+            int connections = Math.max(1, (AppConfig.getInt("db.pool.maxSize", 10) - 1) / 2);
+            return new Settings(
+                    Paths.get(AppConfig.get("report.statements.dir", AppConfig.get("report.dir", "bank_reports") + "/statements")),
+                    Math.max(1, Math.min(AppConfig.getInt("report.statements.parallelism", 4), connections)),
+                    Math.max(1, AppConfig.getInt("report.statements.rangesPerThread", 4)),
+                    Math.max(1, AppConfig.getInt("report.statements.checkpointEveryAccounts", 1000)),
+                    Math.max(1, AppConfig.getInt("report.statements.progressIntervalSeconds", 10)));
+        }
+    }
+
+    /** Where a range stands: resume after this account, with the part file cut back to this length. */
+    private record RangeCheckpoint(String afterAccount, long partBytes, boolean done) {
+        static RangeCheckpoint parse(String value) {
+            int sep = value.lastIndexOf('|');
+            String account = value.substring(0, sep);
+            long bytes = Long.parseLong(value.substring(sep + 1));
+            return "done".equals(account) ? new RangeCheckpoint(null, bytes, true) : new RangeCheckpoint(account, bytes, false);
+        }
+
+        String format() {
+            return (done ? "done" : afterAccount) + "|" + partBytes;
+        }
+    }
+
+    private record Totals(long accounts, long transactions) {
+        Totals plus(Totals other) {
+            return new Totals(accounts + other.accounts, transactions + other.transactions);
+        }
+    }
+
+    private final Settings settings;
+    private final JobCheckpointRepository checkpoints = new JobCheckpointRepository();
+    private final AtomicLong accountsDone = new AtomicLong();
+    private final AtomicLong transactionsDone = new AtomicLong();
+
+    public StatementExportJob(Settings settings) {
+        this.settings = settings;
+        Metrics.functionCounter("statement_export_accounts_total", "Accounts written by StatementExportJob", accountsDone::get);
+        Metrics.functionCounter("statement_export_transactions_total", "Transactions exported by StatementExportJob", transactionsDone::get);
+    }
+
+    public static void main(String[] args) {
+        if (Repositories.embeddedEngine()) {
+            System.out.println("❌ Statement export reads the MySQL transactions table; storage.engine=embedded is not supported.");
+            System.exit(1);
+        }
+        YearMonth month = args.length > 0 ? YearMonth.parse(args[0]) : YearMonth.now().minusMonths(1);
+        boolean ok = new StatementExportJob(Settings.fromConfig()).run(month);
+        System.exit(ok ? 0 : 1);
+    }
+
+    /** Exports the month, resuming from its checkpoints if an earlier run stopped part-way; false on failure. */
+    public boolean run(YearMonth month) {
+        long started = System.nanoTime();
+        String job = JOB_PREFIX + month;
+        Path monthDir = settings.dir().resolve(month.toString());
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "statement-export-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        ForkJoinPool pool = new ForkJoinPool(settings.parallelism());
+        try {
+            Files.createDirectories(monthDir);
+            List<Range> ranges = plan(job);
+            long total = AccountRanges.countAccounts(null, null);
+            long remaining = 0;
+            for (Range range : ranges) {
+                RangeCheckpoint checkpoint = loadCheckpoint(job, range);
+                if (!checkpoint.done()) remaining += AccountRanges.countAccounts(checkpoint.afterAccount(), range.hi());
+            }
+            long resumedAt = total - remaining;
+            logger.info("Statement export {}: {} accounts in {} ranges on {} threads{}", month, total, ranges.size(),
+                    settings.parallelism(), resumedAt > 0 ? ", resuming after " + resumedAt + " done" : "");
+
+            progress.scheduleAtFixedRate(() -> logProgress(month, resumedAt, total, started),
+                    settings.progressIntervalSeconds(), settings.progressIntervalSeconds(), TimeUnit.SECONDS);
+
+            Totals totals = pool.invoke(new RangeTask(ranges, 0, ranges.size(), job, monthDir, from, to));
+            Path export = consolidate(month, monthDir, ranges);
+
+            for (Range range : ranges) checkpoints.delete(rangeJob(job, range));
+            checkpoints.delete(job);
+            logger.info("✅ Statement export {} done in {}s: {} statements, {} transactions → {}", month,
+                    (System.nanoTime() - started) / 1_000_000_000, totals.accounts(), totals.transactions(), export);
+            return true;
+        } catch (Exception e) {
+            logger.error("❌ Statement export {} failed; rerun to resume from the last checkpoint", month, e);
+            return false;
+        } finally {
+            progress.shutdownNow();
+            pool.shutdownNow();
+        }
+    }
+
+    // ----------------- PLANNING -----------------
+
+    private List<Range> plan(String job) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            checkpoints.ensureSchema();
+            SchemaSupport.ensureIndex(conn, "transactions", "idx_transactions_acct_ts_id",
+                    "account_number, timestamp, transaction_id");
+        }
+        return AccountRanges.planOrLoad(checkpoints, job, settings.parallelism() * settings.rangesPerThread());
+    }
+
+    // ----------------- RANGE EXPORT -----------------
+
+    /** Splits the ranges in halves down to one range per task, and adds up what they wrote. */
+    @SuppressWarnings("serial") // Serializable only through ForkJoinTask; tasks never leave this process
+    private final class RangeTask extends RecursiveTask<Totals> {
+        private final List<Range> ranges;
+        private final int from, to;
+        private final String job;
+        private final Path monthDir;
+        private final Timestamp periodStart, periodEnd;
+
+        RangeTask(List<Range> ranges, int from, int to, String job, Path monthDir, Timestamp periodStart, Timestamp periodEnd) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+            this.job = job;
+            this.monthDir = monthDir;
+            this.periodStart = periodStart;
+            this.periodEnd = periodEnd;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from == 1) {
+                try {
+                    return exportRange(ranges.get(from), job, monthDir, periodStart, periodEnd);
+                } catch (SQLException e) {
+                    throw new CompletionException(e);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(ranges, from, mid, job, monthDir, periodStart, periodEnd);
+            RangeTask right = new RangeTask(ranges, mid, to, job, monthDir, periodStart, periodEnd);
+            invokeAll(left, right);
+            return left.join().plus(right.join());
+        }
+    }
+
+    private Totals exportRange(Range range, String job, Path monthDir, Timestamp periodStart, Timestamp periodEnd)
+            throws SQLException, IOException {
+        RangeCheckpoint checkpoint = loadCheckpoint(job, range);
+        if (checkpoint.done()) return new Totals(0, 0);
+
+        Path part = partFile(monthDir, range);
+        if (!Files.exists(part) || Files.size(part) < checkpoint.partBytes()) {
+            // the part is gone or shorter than checkpointed: redo the whole range
+            if (checkpoint.partBytes() > 0) logger.warn("⚠️ Export part {} is missing data; restarting its range", part.getFileName());
+            checkpoint = new RangeCheckpoint(range.lo(), 0, false);
+        }
+
+        String upTo = range.hi() == null ? "" : "AND account_number <= ?";
+        String sql = RANGE_SQL.formatted(TransactionTypes.signedAmountSql("transaction_type", "amount"),
+                upTo, range.hi() == null ? "" : "AND a.account_number <= ?");
+        String after = checkpoint.afterAccount() == null ? "" : checkpoint.afterAccount();
+
+        long accounts = 0, transactions = 0;
+        try (FileOutputStream partOut = new FileOutputStream(part.toFile(), true)) {
+            partOut.getChannel().truncate(checkpoint.partBytes());
+            Writer csv = new BufferedWriter(new OutputStreamWriter(partOut, StandardCharsets.UTF_8), 1 << 16);
+
+            try (Connection conn = DatabaseConnection.getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                // Connector/J streams a forward-only result set with fetch size Integer.MIN_VALUE row by row
+                ps.setFetchSize(Integer.MIN_VALUE);
+                int p = 1;
+                ps.setTimestamp(p++, periodStart);
+                ps.setString(p++, after);
+                if (range.hi() != null) ps.setString(p++, range.hi());
+                ps.setTimestamp(p++, periodStart);
+                ps.setTimestamp(p++, periodEnd);
+                ps.setString(p++, after);
+                if (range.hi() != null) ps.setString(p, range.hi());
+
+                try (ResultSet rs = ps.executeQuery()) {
+                    AccountStatement statement = null;
+                    int sinceCheckpoint = 0;
+                    while (rs.next()) {
+                        String accountNumber = rs.getString("account_number");
+                        if (statement == null || !statement.accountNumber.equals(accountNumber)) {
+                            if (statement != null) {
+                                statement.close();
+                                accounts++;
+                                accountsDone.incrementAndGet();
+                                if (++sinceCheckpoint == settings.checkpointEveryAccounts()) {
+                                    saveCheckpoint(job, range, csv, partOut, statement.accountNumber, false);
+                                    sinceCheckpoint = 0;
+                                }
+                            }
+                            statement = new AccountStatement(monthDir, accountNumber, holderName(rs), rs.getString("account_type"),
+                                    MoneyColumns.get(rs, "opening"), periodStart, periodEnd);
+                        }
+                        int transactionId = rs.getInt("transaction_id");
+                        if (rs.wasNull()) continue; // no period rows: opening balance only
+
+                        String type = rs.getString("transaction_type");
+                        Money amount = MoneyColumns.get(rs, "amount");
+                        Timestamp timestamp = rs.getTimestamp("timestamp");
+                        String description = rs.getString("description");
+                        Money balance = statement.add(timestamp, type, amount, description);
+                        writeCsvRow(csv, transactionId, accountNumber, timestamp, type, amount, balance, description);
+                        transactions++;
+                        transactionsDone.incrementAndGet();
+                    }
+                    if (statement != null) {
+                        statement.close();
+                        accounts++;
+                        accountsDone.incrementAndGet();
+                    }
+                }
+            }
+            saveCheckpoint(job, range, csv, partOut, null, true);
+        }
+        return new Totals(accounts, transactions);
+    }
+
+    // the part is flushed and fsynced first, so a checkpoint never points past what is on disk
+    private void saveCheckpoint(String job, Range range, Writer csv, FileOutputStream partOut, String lastAccount,
+                                boolean done) throws IOException {
+        csv.flush();
+        partOut.getFD().sync();
+        RangeCheckpoint checkpoint = new RangeCheckpoint(lastAccount, partOut.getChannel().size(), done);
+        checkpoints.save(rangeJob(job, range), checkpoint.format());
+    }
+
+    private RangeCheckpoint loadCheckpoint(String job, Range range) {
+        return checkpoints.load(rangeJob(job, range))
+                .map(RangeCheckpoint::parse)
+                .orElse(new RangeCheckpoint(range.lo(), 0, false));
+    }
+
+    // ----------------- OUTPUT -----------------
+
+    /** One account's statement file, written as its rows stream past. */
+    private static final class AccountStatement {
+        final String accountNumber;
+        private final PrintWriter out;
+        private Money balance;
+        private Money credits = Money.ZERO;
+        private Money debits = Money.ZERO;
+        private int rows;
+
+        AccountStatement(Path monthDir, String accountNumber, String holder, String accountType, Money opening,
+                  Timestamp periodStart, Timestamp periodEnd) throws IOException {
+            this.accountNumber = accountNumber;
+            this.balance = opening;
+            this.out = new PrintWriter(Files.newBufferedWriter(monthDir.resolve(accountNumber + ".txt"), StandardCharsets.UTF_8));
+            out.println("========== MONTHLY STATEMENT ==========");
+            out.printf("Holder Name : %s%n", holder);
+            out.printf("Account No  : %s%n", accountNumber);
+            out.printf("Account Type: %s%n", accountType);
+            out.printf("Period      : %s to %s%n", periodStart.toLocalDateTime().toLocalDate(),
+                    periodEnd.toLocalDateTime().toLocalDate().minusDays(1));
+            out.printf("Opening     : %s%n", opening);
+            out.println(RULE);
+            out.printf("%-23s | %-15s | %12s | %12s | %s%n", "Timestamp", "Type", "Amount", "Balance", "Description");
+            out.println(RULE);
+        }
+
+        /** Appends one row and returns the balance after it. */
+        Money add(Timestamp timestamp, String type, Money amount, String description) {
+            if (TransactionTypes.isCredit(type)) {
+                balance = balance.add(amount);
+                credits = credits.add(amount);
+            } else if (TransactionTypes.isDebit(type)) {
+                balance = balance.subtract(amount);
+                debits = debits.add(amount);
+            }
+            out.printf("%-23s | %-15s | %12s | %12s | %s%n", timestamp, type, amount, balance,
+                    description == null ? "" : description);
+            rows++;
+            return balance;
+        }
+
+        void close() throws IOException {
+            if (rows == 0) out.println("No transactions in this period.");
+            out.println(RULE);
+            out.printf("Credits     : %s%n", credits);
+            out.printf("Debits      : %s%n", debits);
+            out.printf("Closing     : %s%n", balance);
+            out.println("=======================================");
+            out.close();
+            if (out.checkError()) throw new IOException("Could not write statement for " + accountNumber);
+        }
+    }
+
+    private static void writeCsvRow(Writer csv, int transactionId, String accountNumber, Timestamp timestamp, String type,
+                                    Money amount, Money balance, String description) throws IOException {
+        csv.write(Integer.toString(transactionId));
+        csv.write(',');
+        csv.write(accountNumber);
+        csv.write(',');
+        csv.write(timestamp.toString());
+        csv.write(',');
+        csv.write(csvField(type));
+        csv.write(',');
+        csv.write(amount.toString());
+        csv.write(',');
+        csv.write(balance.toString());
+        csv.write(',');
+        csv.write(csvField(description));
+        csv.write('\n');
+    }
+
+    // RFC 4180: quote fields containing a comma, quote or line break, doubling inner quotes
+    private static String csvField(String value) {
+        if (value == null) return "";
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    // header plus the parts in range order, copied stream to stream, then renamed into place
+    private Path consolidate(YearMonth month, Path monthDir, List<Range> ranges) throws IOException {
+        Path export = settings.dir().resolve("transactions-" + month + ".csv");
+        Path tmp = settings.dir().resolve("transactions-" + month + ".csv.tmp");
+        try (FileOutputStream file = new FileOutputStream(tmp.toFile())) {
+            OutputStream out = new BufferedOutputStream(file, 1 << 16);
+            out.write((CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+            for (Range range : ranges) {
+                Path part = partFile(monthDir, range);
+                if (Files.exists(part)) Files.copy(part, out);
+            }
+            out.flush();
+            file.getFD().sync();
+        }
+        Files.move(tmp, export, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (Range range : ranges) Files.deleteIfExists(partFile(monthDir, range));
+        return export;
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void logProgress(YearMonth month, long resumedAt, long total, long started) {
+        long done = resumedAt + accountsDone.get();
+        double seconds = (System.nanoTime() - started) / 1e9;
+        double rate = accountsDone.get() / Math.max(seconds, 1e-9);
+        long etaSeconds = rate > 0 ? (long) ((total - done) / rate) : -1;
+        logger.info("Statement export {}: {}/{} accounts ({}%), {} transactions, {}", month, done, total,
+                total == 0 ? 100 : done * 100 / total, transactionsDone.get(),
+                etaSeconds < 0 ? "starting" : "about " + etaSeconds + "s left");
+    }
+
+    private static String holderName(ResultSet rs) throws SQLException {
+        String first = rs.getString("first_name");
+        String last = rs.getString("last_name");
+        return first == null && last == null ? "(unknown)" : (first == null ? "" : first) + " " + (last == null ? "" : last);
+    }
+
+    private static String rangeJob(String job, Range range) {
+        return job + "#" + range.index();
+    }
+
+    private static Path partFile(Path monthDir, Range range) {
+        return monthDir.resolve("export.part-%03d.csv".formatted(range.index()));
+    }
+}
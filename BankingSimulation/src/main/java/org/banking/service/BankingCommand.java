@@ -0,0 +1,15 @@
+package org.banking.service;
+
+import org.banking.model.Money;
+
+/**
+ * One instruction for BankingService.applyBatch.
+ */
+public sealed interface BankingCommand {
+
+    record Deposit(String accountNumber, Money amount) implements BankingCommand { }
+
+    record Withdraw(String accountNumber, Money amount) implements BankingCommand { }
+
+    record Transfer(String fromAccount, String toAccount, Money amount) implements BankingCommand { }
+}
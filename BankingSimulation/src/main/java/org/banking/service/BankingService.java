@@ -2,42 +2,105 @@ package org.banking.service;
 
 import org.banking.dao.AccountRepository;
 import org.banking.dao.CustomerRepository;
+import org.banking.dao.Posting;
+import org.banking.dao.PostingResult;
+import org.banking.dao.TransactionPage;
 import org.banking.dao.TransactionRepository;
+import org.banking.dao.TransactionTypes;
+import org.banking.metrics.Metrics;
 import org.banking.model.Account;
 import org.banking.model.BankingSession;
 import org.banking.model.Customer;
+import org.banking.model.Money;
 import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
 import org.banking.util.EmailService;
 import org.banking.util.ReportGenerator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.math.BigDecimal;
 import java.sql.Timestamp;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 public class BankingService {
 
     private static final Logger log = LoggerFactory.getLogger(BankingService.class);
+    private static final int BATCH_CHUNK_SIZE = Math.max(1, AppConfig.getInt("db.batch.chunkSize", 500));
+
+    // latency and outcome counts per operation, shared by every instance (exported by org.banking.metrics)
+    private static final OperationMetrics DEPOSIT_METRICS = OperationMetrics.posting("deposit");
+    private static final OperationMetrics WITHDRAW_METRICS = OperationMetrics.posting("withdraw");
+    private static final OperationMetrics TRANSFER_METRICS = OperationMetrics.posting("transfer");
+    private static final OperationMetrics BATCH_METRICS = OperationMetrics.posting("batch");
+    private static final OperationMetrics LOGIN_METRICS = OperationMetrics.timed("login");
+    private static final OperationMetrics REGISTER_METRICS = OperationMetrics.timed("register");
+    private static final OperationMetrics HISTORY_METRICS = OperationMetrics.timed("history");
+    private static final Metrics.Counter LOGINS_OK = loginCounter("success");
+    private static final Metrics.Counter LOGINS_REJECTED = loginCounter("rejected");
+    private static final Metrics.Counter LOGINS_UNAVAILABLE = loginCounter("unavailable");
 
     private final CustomerRepository customerRepo;
     private final AccountRepository accountRepo;
     private final TransactionRepository transactionRepo;
+    // serializes postings per account inside this JVM (see StripedLocks)
+    private final StripedLocks accountLocks = new StripedLocks();
+    // key stretching runs here, off the caller's thread and capped in parallelism
+    private final PasswordVerifier passwordVerifier = new PasswordVerifier();
+    // source of transaction timestamps; simulations pass a VirtualClock
+    private final Clock clock;
+    // per-account debit limits, checked in memory before withdrawals and transfers post
+    private final VelocityLimiter velocity;
 
     public BankingService(CustomerRepository customerRepo,
                           AccountRepository accountRepo,
                           TransactionRepository transactionRepo) {
+        this(customerRepo, accountRepo, transactionRepo, Clock.systemDefaultZone());
+    }
+
+    public BankingService(CustomerRepository customerRepo,
+                          AccountRepository accountRepo,
+                          TransactionRepository transactionRepo,
+                          Clock clock) {
         this.customerRepo = customerRepo;
         this.accountRepo = accountRepo;
         this.transactionRepo = transactionRepo;
+        this.clock = clock;
+        this.velocity = new VelocityLimiter(VelocityLimiter.Settings.fromConfig(), clock::millis);
     }
 
+    /** Empty for unknown users and wrong passwords; throws LoginUnavailableException when the verifier is saturated. */
     public Optional<BankingSession> login(String username, String password) {
+        long started = System.nanoTime();
+        try {
+            Optional<BankingSession> session = loginInternal(username, password);
+            (session.isPresent() ? LOGINS_OK : LOGINS_REJECTED).increment();
+            return session;
+        } catch (LoginUnavailableException e) {
+            LOGINS_UNAVAILABLE.increment();
+            throw e;
+        } finally {
+            LOGIN_METRICS.record(started);
+        }
+    }
+
+    private Optional<BankingSession> loginInternal(String username, String password) {
         Optional<Customer> customerOpt = customerRepo.findCustomerByUsername(username);
         if (customerOpt.isPresent()) {
             Customer customer = customerOpt.get();
-            if (PasswordHasher.checkPassword(password, customer.getPasswordHash())) {
+            PasswordVerifier.Verification verification = passwordVerifier.verify(password, customer.getPasswordHash());
+            if (verification.overloaded()) throw new LoginUnavailableException("Password verifier is saturated");
+            if (verification.matched()) {
+                if (verification.rehashed() != null
+                        && customerRepo.updatePasswordHash(customer.getCustomerId(), verification.rehashed())) {
+                    customer.setPasswordHash(verification.rehashed());
+                }
                 Optional<Account> accountOpt = accountRepo.findAccountByCustomerId(customer.getCustomerId());
                 if (accountOpt.isPresent()) {
                     return Optional.of(new BankingSession(customer, accountOpt.get()));
@@ -48,31 +111,45 @@ public class BankingService {
     }
 
     public Account registerNewCustomerAndOpenAccount(Customer customer, String accountType,
-                                                     BigDecimal initialDeposit) {
+                                                     Money initialDeposit) {
+        long started = System.nanoTime();
+        try {
+            return registerInternal(customer, accountType, initialDeposit);
+        } finally {
+            REGISTER_METRICS.record(started);
+        }
+    }
+
+    private Account registerInternal(Customer customer, String accountType, Money initialDeposit) {
+        Optional<Long> nextAccNo = accountRepo.nextAccountNumber();
+        if (nextAccNo.isEmpty()) return null;
+
         customer.setPasswordHash(PasswordHasher.hashPassword(customer.getPasswordHash()));
         int customerId = customerRepo.createCustomer(customer);
         if (customerId == 0) return null;
 
-        long nextAccNo = accountRepo.findLastAccountNumber().map(n -> n + 1).orElse(1000000001L);
         Account account = new Account();
-        account.setAccountNumber(String.valueOf(nextAccNo));
+        account.setAccountNumber(String.valueOf(nextAccNo.get()));
         account.setCustomerId(customerId);
         account.setAccountType(accountType);
         account.setBalance(initialDeposit);
 
-        BigDecimal minBalanceThreshold;
-        switch (accountType.toLowerCase()) {
-            case "savings" -> minBalanceThreshold = BigDecimal.valueOf(500);
-            case "current" -> minBalanceThreshold = BigDecimal.valueOf(1000);
-            default -> minBalanceThreshold = BigDecimal.valueOf(500);
+        account.setMinBalanceThreshold(RegistrationRules.minBalanceThreshold(accountType));
+
+        // Account, balance and the deposit's transactions row commit together, so the ledger engine can
+        // rebuild it from the log; if that fails the customer goes too, so the registration can be retried
+        Transaction openingEntry = initialDeposit.signum() == 0 ? null
+                : new Transaction(account.getAccountNumber(), "DEPOSIT", initialDeposit, now(), "Initial deposit");
+        PostingResult opening = accountRepo.openAccount(account, openingEntry);
+        if (!opening.isApplied()) {
+            log.error("❌ Opening account {} failed: {}", account.getAccountNumber(), opening.status());
+            if (!customerRepo.deleteCustomer(customerId)) {
+                log.error("❌ Customer ID {} left without an account; remove it before retrying", customerId);
+            }
+            return null;
         }
-        account.setMinBalanceThreshold(minBalanceThreshold);
-
-        accountRepo.createAccount(account);
-
-        // DB log
-        transactionRepo.saveTransaction(new Transaction(account.getAccountNumber(),
-                "DEPOSIT", initialDeposit, new Timestamp(System.currentTimeMillis()), "Initial deposit"));
+        if (openingEntry != null) transactionRepo.transactionsPosted(List.of(openingEntry));
+        account.setBalance(opening.creditBalance());
 
         // Text/file reports
         String holderName = holderName(account.getCustomerId());
@@ -82,55 +159,161 @@ public class BankingService {
         return account;
     }
 
-    public void deposit(String accountNumber, BigDecimal amount) {
-        accountRepo.findAccountByNumber(accountNumber).ifPresent(account -> {
-            BigDecimal newBalance = account.getBalance().add(amount);
-            accountRepo.updateAccountBalance(accountNumber, newBalance);
+    public TransactionOutcome deposit(String accountNumber, Money amount) {
+        long started = System.nanoTime();
+        return DEPOSIT_METRICS.record(started, accountLocks.withLock(accountNumber, () -> depositLocked(accountNumber, amount)));
+    }
+
+    public TransactionOutcome withdraw(String accountNumber, Money amount) {
+        long started = System.nanoTime();
+        return WITHDRAW_METRICS.record(started, accountLocks.withLock(accountNumber, () -> withdrawLocked(accountNumber, amount)));
+    }
 
-            transactionRepo.saveTransaction(new Transaction(accountNumber,
-                    "DEPOSIT", amount, new Timestamp(System.currentTimeMillis()), "Deposit"));
+    public TransactionOutcome transfer(String fromAccount, String toAccount, Money amount) {
+        long started = System.nanoTime();
+        return TRANSFER_METRICS.record(started,
+                accountLocks.withLocks(fromAccount, toAccount, () -> transferLocked(fromAccount, toAccount, amount)));
+    }
 
-            String holderName = holderName(account.getCustomerId());
-            ReportGenerator.logTransaction(accountNumber, "DEPOSIT", amount, newBalance);
-            ReportGenerator.generateAccountSummary(holderName, accountNumber, newBalance);
+    /**
+     * Applies many commands with batched JDBC writes (see AccountRepository.applyPostings), one
+     * chunk of db.batch.chunkSize at a time, and returns one outcome per command, in order. Commands are evaluated in list order, so a later
+     * command sees the balances left by earlier ones. Debits over a velocity limit are refused
+     * before the batch is written. Per-command emails are skipped; accounts left below their
+     * threshold are picked up by BalanceAlertMonitor.
+     */
+    public List<TransactionOutcome> applyBatch(List<BankingCommand> commands) {
+        long started = System.nanoTime();
+        Timestamp now = now();
+        TransactionOutcome[] outcomes = new TransactionOutcome[commands.size()];
+        List<Posting> postings = new ArrayList<>(commands.size());
+        List<Integer> postedCommands = new ArrayList<>(commands.size()); // command index of each posting
+        for (int c = 0; c < commands.size(); c++) {
+            BankingCommand command = commands.get(c);
+            String debited = debitedAccount(command);
+            if (debited != null && velocity.tryAcquire(debited, amountOf(command).minorUnits(), now.getTime()) != null) {
+                outcomes[c] = TransactionOutcome.VELOCITY_LIMIT_EXCEEDED;
+                continue;
+            }
+            postedCommands.add(c);
+            postings.add(switch (command) {
+                case BankingCommand.Deposit d -> Posting.deposit(d.accountNumber(), d.amount(),
+                        new Transaction(d.accountNumber(), "DEPOSIT", d.amount(), now, "Deposit"));
+                case BankingCommand.Withdraw w -> Posting.withdrawal(w.accountNumber(), w.amount(),
+                        new Transaction(w.accountNumber(), "WITHDRAWAL", w.amount(), now, "Withdrawal"));
+                case BankingCommand.Transfer t -> Posting.transfer(t.fromAccount(), t.toAccount(), t.amount(),
+                        new Transaction(t.fromAccount(), "TRANSFER_OUT", t.amount(), now, "Transfer to " + t.toAccount()),
+                        new Transaction(t.toAccount(), "TRANSFER_IN", t.amount(), now, "Transfer from " + t.fromAccount()));
+            });
+        }
 
-            // If still below threshold after deposit, warn
-            if (newBalance.compareTo(account.getMinBalanceThreshold()) < 0) {
-                triggerLowBalanceAlerts(account, newBalance);
+        // each chunk under its accounts' stripes, as single postings are, so cached balances are refreshed
+        // in commit order; between chunks the stripes are free for interactive postings
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        for (int from = 0; from < postings.size(); from += BATCH_CHUNK_SIZE) {
+            List<Posting> chunk = postings.subList(from, Math.min(postings.size(), from + BATCH_CHUNK_SIZE));
+            results.addAll(accountLocks.withLocks(accountsOf(chunk), () -> accountRepo.applyPostings(chunk)));
+        }
+
+        List<Transaction> posted = new ArrayList<>(results.size());
+        Map<String, Money> finalBalances = new LinkedHashMap<>();
+        for (int i = 0; i < results.size(); i++) {
+            PostingResult result = results.get(i);
+            BankingCommand command = commands.get(postedCommands.get(i));
+            outcomes[postedCommands.get(i)] = toOutcome(result);
+            if (!result.isApplied()) {
+                String debited = debitedAccount(command);
+                if (debited != null) velocity.release(debited, amountOf(command).minorUnits(), now.getTime());
+                continue;
             }
-        });
+
+            Posting p = postings.get(i);
+            posted.addAll(p.entries());
+            for (Transaction t : p.entries()) {
+                Money balance = TransactionTypes.isDebit(t.getTransactionType()) ? result.debitBalance() : result.creditBalance();
+                ReportGenerator.logTransaction(t.getAccountNumber(), t.getTransactionType(), t.getAmount(), balance);
+                finalBalances.put(t.getAccountNumber(), balance);
+            }
+        }
+        transactionRepo.transactionsPosted(posted);
+        finalBalances.forEach((accNo, balance) -> accountRepo.findAccountByNumber(accNo).ifPresent(a ->
+                ReportGenerator.generateAccountSummary(holderName(a.getCustomerId()), accNo, balance)));
+
+        List<TransactionOutcome> outcomeList = List.of(outcomes);
+        if (log.isInfoEnabled()) {
+            log.info("Batch of {} commands applied: {} successful", commands.size(),
+                    outcomeList.stream().filter(o -> o == TransactionOutcome.SUCCESSFUL).count());
+        }
+        BATCH_METRICS.record(started, outcomeList);
+        return outcomeList;
+    }
+
+    public PasswordVerifier.Stats getPasswordVerifierStats() {
+        return passwordVerifier.getStats();
     }
 
-    public TransactionOutcome withdraw(String accountNumber, BigDecimal amount) {
+    public StripedLocks.Stats getLockStats() {
+        return accountLocks.getStats();
+    }
+
+    // ----------------- LOCKED POSTINGS -----------------
+
+    // each runs with the account stripe(s) already held by the caller
+    private TransactionOutcome depositLocked(String accountNumber, Money amount) {
         Optional<Account> accountOpt = accountRepo.findAccountByNumber(accountNumber);
         if (accountOpt.isEmpty()) return TransactionOutcome.ACCOUNT_NOT_FOUND;
 
         Account account = accountOpt.get();
-        BigDecimal availableFunds = account.getBalance().subtract(account.getMinBalanceThreshold());
-        if (amount.compareTo(availableFunds) > 0) {
-            // Notify for denied attempt due to min-balance policy
-            notifyInsufficientBalanceAttempt(account, amount);
-            return TransactionOutcome.INSUFFICIENT_BALANCE;
+        Transaction entry = new Transaction(accountNumber, "DEPOSIT", amount, now(), "Deposit");
+        PostingResult result = accountRepo.postDeposit(accountNumber, amount, entry);
+        if (!result.isApplied()) return toOutcome(result);
+        transactionRepo.transactionsPosted(List.of(entry));
+
+        Money newBalance = result.creditBalance();
+        String holderName = holderName(account.getCustomerId());
+        ReportGenerator.logTransaction(accountNumber, "DEPOSIT", amount, newBalance);
+        ReportGenerator.generateAccountSummary(holderName, accountNumber, newBalance);
+
+        // If still below threshold after deposit, warn
+        if (newBalance.isLessThan(account.getMinBalanceThreshold())) {
+            triggerLowBalanceAlerts(account, newBalance);
         }
+        return TransactionOutcome.SUCCESSFUL;
+    }
 
-        BigDecimal newBalance = account.getBalance().subtract(amount);
-        accountRepo.updateAccountBalance(accountNumber, newBalance);
+    private TransactionOutcome withdrawLocked(String accountNumber, Money amount) {
+        Optional<Account> accountOpt = accountRepo.findAccountByNumber(accountNumber);
+        if (accountOpt.isEmpty()) return TransactionOutcome.ACCOUNT_NOT_FOUND;
 
-        transactionRepo.saveTransaction(new Transaction(accountNumber,
-                "WITHDRAWAL", amount, new Timestamp(System.currentTimeMillis()), "Withdrawal"));
+        // The min-balance rule is enforced by the guarded UPDATE, against the committed balance.
+        Account account = accountOpt.get();
+        Timestamp now = now();
+        if (!admitDebit(accountNumber, amount, now)) return TransactionOutcome.VELOCITY_LIMIT_EXCEEDED;
+        Transaction entry = new Transaction(accountNumber, "WITHDRAWAL", amount, now, "Withdrawal");
+        PostingResult result = accountRepo.postWithdrawal(accountNumber, amount, entry);
+        if (result.status() == PostingResult.Status.INSUFFICIENT_FUNDS) {
+            // Notify for denied attempt due to min-balance policy
+            notifyInsufficientBalanceAttempt(account, result.debitBalance(), amount);
+        }
+        if (!result.isApplied()) {
+            velocity.release(accountNumber, amount.minorUnits(), now.getTime());
+            return toOutcome(result);
+        }
+        transactionRepo.transactionsPosted(List.of(entry));
 
+        Money newBalance = result.debitBalance();
         String holderName = holderName(account.getCustomerId());
         ReportGenerator.logTransaction(accountNumber, "WITHDRAWAL", amount, newBalance);
         ReportGenerator.generateAccountSummary(holderName, accountNumber, newBalance);
 
-        if (newBalance.compareTo(account.getMinBalanceThreshold()) < 0) {
+        if (newBalance.isLessThan(account.getMinBalanceThreshold())) {
             triggerLowBalanceAlerts(account, newBalance);
         }
 
         return TransactionOutcome.SUCCESSFUL;
     }
 
-    public TransactionOutcome transfer(String fromAccount, String toAccount, BigDecimal amount) {
+    private TransactionOutcome transferLocked(String fromAccount, String toAccount, Money amount) {
         Optional<Account> fromOpt = accountRepo.findAccountByNumber(fromAccount);
         Optional<Account> toOpt = accountRepo.findAccountByNumber(toAccount);
         if (fromOpt.isEmpty() || toOpt.isEmpty()) return TransactionOutcome.ACCOUNT_NOT_FOUND;
@@ -138,25 +321,23 @@ public class BankingService {
         Account from = fromOpt.get();
         Account to = toOpt.get();
 
-        BigDecimal availableFunds = from.getBalance().subtract(from.getMinBalanceThreshold());
-        if (amount.compareTo(availableFunds) > 0) {
+        Timestamp now = now();
+        if (!admitDebit(fromAccount, amount, now)) return TransactionOutcome.VELOCITY_LIMIT_EXCEEDED;
+        Transaction debitEntry = new Transaction(fromAccount, "TRANSFER_OUT", amount, now, "Transfer to " + toAccount);
+        Transaction creditEntry = new Transaction(toAccount, "TRANSFER_IN", amount, now, "Transfer from " + fromAccount);
+        PostingResult result = accountRepo.postTransfer(fromAccount, toAccount, amount, debitEntry, creditEntry);
+        if (result.status() == PostingResult.Status.INSUFFICIENT_FUNDS) {
             // Notify for denied attempt
-            notifyInsufficientBalanceAttempt(from, amount);
-            return TransactionOutcome.INSUFFICIENT_BALANCE;
+            notifyInsufficientBalanceAttempt(from, result.debitBalance(), amount);
         }
+        if (!result.isApplied()) {
+            velocity.release(fromAccount, amount.minorUnits(), now.getTime());
+            return toOutcome(result);
+        }
+        transactionRepo.transactionsPosted(List.of(debitEntry, creditEntry));
 
-        BigDecimal fromNewBalance = from.getBalance().subtract(amount);
-        BigDecimal toNewBalance   = to.getBalance().add(amount);
-
-        accountRepo.updateAccountBalance(fromAccount, fromNewBalance);
-        accountRepo.updateAccountBalance(toAccount, toNewBalance);
-
-        transactionRepo.saveTransaction(new Transaction(fromAccount,
-                "TRANSFER_OUT", amount, new Timestamp(System.currentTimeMillis()),
-                "Transfer to " + toAccount));
-        transactionRepo.saveTransaction(new Transaction(toAccount,
-                "TRANSFER_IN", amount, new Timestamp(System.currentTimeMillis()),
-                "Transfer from " + fromAccount));
+        Money fromNewBalance = result.debitBalance();
+        Money toNewBalance   = result.creditBalance();
 
         String fromName = holderName(from.getCustomerId());
         String toName   = holderName(to.getCustomerId());
@@ -166,7 +347,7 @@ public class BankingService {
         ReportGenerator.generateAccountSummary(fromName, fromAccount, fromNewBalance);
         ReportGenerator.generateAccountSummary(toName, toAccount, toNewBalance);
 
-        if (fromNewBalance.compareTo(from.getMinBalanceThreshold()) < 0) {
+        if (fromNewBalance.isLessThan(from.getMinBalanceThreshold())) {
             triggerLowBalanceAlerts(from, fromNewBalance);
         }
 
@@ -177,6 +358,13 @@ public class BankingService {
         return transactionRepo.getTransactionsForAccount(accountNumber);
     }
 
+    public TransactionPage getTransactionHistoryPage(String accountNumber, TransactionPage.Cursor after, int pageSize) {
+        long started = System.nanoTime();
+        TransactionPage page = transactionRepo.getTransactionPage(accountNumber, after, pageSize);
+        HISTORY_METRICS.record(started);
+        return page;
+    }
+
     public boolean isUsernameTaken(String username) {
         return customerRepo.findCustomerByUsername(username).isPresent();
     }
@@ -195,8 +383,8 @@ public class BankingService {
 
     // ----------------- PRIVATE HELPERS -----------------
 
-    private void triggerLowBalanceAlerts(Account account, BigDecimal newBalance) {
-        BigDecimal thr = account.getMinBalanceThreshold();
+    private void triggerLowBalanceAlerts(Account account, Money newBalance) {
+        Money thr = account.getMinBalanceThreshold();
         String accNo = account.getAccountNumber();
         String holderName = holderName(account.getCustomerId());
 
@@ -210,16 +398,15 @@ public class BankingService {
         });
     }
 
-    private void notifyInsufficientBalanceAttempt(Account account, BigDecimal amount) {
+    private void notifyInsufficientBalanceAttempt(Account account, Money bal, Money amount) {
         String accNo = account.getAccountNumber();
-        BigDecimal bal = account.getBalance();
-        BigDecimal thr = account.getMinBalanceThreshold();
+        Money thr = account.getMinBalanceThreshold();
         String holderName = holderName(account.getCustomerId());
 
         // visible console note (and your existing logs will capture it)
         System.out.printf(
                 "\n!!! INSUFFICIENT FUNDS ATTEMPT !!!\nAccount: %s\nHolder: %s\nTried: %s\nBalance: %s | Threshold: %s\n\n",
-                accNo, holderName, amount.toPlainString(), bal.toPlainString(), thr.toPlainString()
+                accNo, holderName, amount, bal, thr
         );
 
         // email polite denial notice
@@ -229,6 +416,56 @@ public class BankingService {
         });
     }
 
+    private static Metrics.Counter loginCounter(String result) {
+        return Metrics.counter("banking_logins_total", "Login attempts by result", "result", result);
+    }
+
+    private Timestamp now() {
+        return new Timestamp(clock.millis());
+    }
+
+    // Counts the debit against the account's velocity limits; false (nothing counted) if it would exceed one.
+    private boolean admitDebit(String accountNumber, Money amount, Timestamp now) {
+        VelocityLimiter.Limit exceeded = velocity.tryAcquire(accountNumber, amount.minorUnits(), now.getTime());
+        if (exceeded == null) return true;
+        log.warn("VELOCITY: acc={} tried={} limit={} → refused", accountNumber, amount, exceeded);
+        return false;
+    }
+
+    private static Set<String> accountsOf(List<Posting> postings) {
+        Set<String> accounts = new HashSet<>();
+        for (Posting p : postings) {
+            if (p.debitAccount() != null) accounts.add(p.debitAccount());
+            if (p.creditAccount() != null) accounts.add(p.creditAccount());
+        }
+        return accounts;
+    }
+
+    private static String debitedAccount(BankingCommand command) {
+        return switch (command) {
+            case BankingCommand.Deposit d -> null;
+            case BankingCommand.Withdraw w -> w.accountNumber();
+            case BankingCommand.Transfer t -> t.fromAccount();
+        };
+    }
+
+    private static Money amountOf(BankingCommand command) {
+        return switch (command) {
+            case BankingCommand.Deposit d -> d.amount();
+            case BankingCommand.Withdraw w -> w.amount();
+            case BankingCommand.Transfer t -> t.amount();
+        };
+    }
+
+    private static TransactionOutcome toOutcome(PostingResult result) {
+        return switch (result.status()) {
+            case APPLIED -> TransactionOutcome.SUCCESSFUL;
+            case INSUFFICIENT_FUNDS -> TransactionOutcome.INSUFFICIENT_BALANCE;
+            case ACCOUNT_NOT_FOUND -> TransactionOutcome.ACCOUNT_NOT_FOUND;
+            case FAILED -> TransactionOutcome.FAILED;
+        };
+    }
+
     private String holderName(int customerId) {
         return customerRepo.findCustomerById(customerId)
                 .map(c -> c.getFirstName() + " " + c.getLastName())
@@ -0,0 +1,445 @@
+package org.banking.service;
+
+import org.banking.dao.AccountNumberAllocator;
+import org.banking.dao.BulkOnboardingWriter;
+import org.banking.dao.BulkOnboardingWriter.NewAccount;
+import org.banking.dao.Repositories;
+import org.banking.metrics.Metrics;
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Date;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk onboarding of customers with an account and opening balance each, from a CSV file.
+ * 1. the calling thread reads records and cuts them into chunks of onboarding.chunkSize
+ * 2. onboarding.workers threads validate each chunk (the console's RegistrationRules) and hash the
+ *    passwords, at most onboarding.maxInFlightChunks chunks ahead of the writer
+ * 3. one writer thread takes the chunks in file order. It rejects usernames that are taken or
+ *    repeated in the file, numbers the accounts from blocks of chunkSize (AccountNumberAllocator),
+ *    and writes customers, accounts and opening deposits as one transaction of batched multi-row
+ *    INSERTs (BulkOnboardingWriter). If the chunk fails, its rows are retried one by one so that
+ *    only the bad ones are rejected.
+ * Rejected records go to the reject file with their line number and reason, ready to fix and reload.
+ * Unlike registerNewCustomerAndOpenAccount it writes no report files or account summaries.
+ *
+ * CSV header (any order; address, city, state, postal_code optional):
+ *   username,password,first_name,last_name,email,phone,date_of_birth,address,city,state,postal_code,account_type,opening_balance
+ * Usage: BulkOnboardingLoader customers.csv [rejects.csv]   (default: customers.csv.rejects.csv)
+ */
+public class BulkOnboardingLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkOnboardingLoader.class);
+
+    private static final List<String> REQUIRED = List.of("username", "password", "first_name", "last_name", "email",
+            "phone", "date_of_birth", "account_type", "opening_balance");
+    private static final List<String> OPTIONAL = List.of("address", "city", "state", "postal_code");
+
+    private static final Metrics.Counter ROWS_LOADED = rowCounter("loaded");
+    private static final Metrics.Counter ROWS_REJECTED = rowCounter("rejected");
+
+    /** Loader settings; see the onboarding.* keys in config.properties. */
+    public record Settings(int chunkSize, int workers, int maxInFlightChunks, int passwordIterations,
+                           int progressIntervalSeconds) {
+        public static Settings fromConfig() {
+            int workers = Math.max(1, AppConfig.getInt("onboarding.workers", Runtime.getRuntime().availableProcessors()));
+            return new Settings(
+                    Math.max(1, AppConfig.getInt("onboarding.chunkSize", 500)),
+                    workers,
+                    Math.max(1, AppConfig.getInt("onboarding.maxInFlightChunks", workers * 2)),
+                    Math.max(1, AppConfig.getInt("onboarding.passwordIterations",
+                            AppConfig.getInt("security.password.iterations", 210_000))),
+                    Math.max(1, AppConfig.getInt("onboarding.progressIntervalSeconds", 10)));
+        }
+    }
+
+    public record Summary(long read, long loaded, long rejected, double seconds) {
+        public double rowsPerSecond() {
+            return seconds <= 0 ? 0 : read / seconds;
+        }
+    }
+
+    /** One CSV record: where it starts in the file, its fields and its original text. */
+    private record Record(long line, List<String> fields, String text) {
+    }
+
+    /** A record that passed validation, with its password already hashed. */
+    private record ValidRow(Record record, Customer customer, String accountType, Money opening) {
+    }
+
+    private record Reject(Record record, String reason) {
+    }
+
+    private record ValidatedChunk(List<ValidRow> valid, List<Reject> rejects) {
+    }
+
+    private static final Future<ValidatedChunk> END = CompletableFuture.completedFuture(null);
+
+    private final Settings settings;
+    private final BulkOnboardingWriter writer = new BulkOnboardingWriter();
+    private final AccountNumberAllocator accountNumbers;
+    private final AtomicLong read = new AtomicLong();
+    private final AtomicLong loaded = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile Exception aborted;
+
+    public BulkOnboardingLoader(Settings settings) {
+        this.settings = settings;
+        this.accountNumbers = new AccountNumberAllocator(settings.chunkSize());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.out.println("Usage: BulkOnboardingLoader customers.csv [rejects.csv]");
+            System.exit(2);
+        }
+        if (Repositories.embeddedEngine()) {
+            System.out.println("❌ Bulk onboarding writes the MySQL tables; storage.engine=embedded is not supported.");
+            System.exit(1);
+        }
+        if (Repositories.ledgerEngine()) {
+            System.out.println("⚠️ Ledger engine: stop the app while loading; it picks up the new rows on its next start.");
+        }
+        Path input = Paths.get(args[0]);
+        Path rejects = Paths.get(args.length > 1 ? args[1] : args[0] + ".rejects.csv");
+        Summary summary = new BulkOnboardingLoader(Settings.fromConfig()).load(input, rejects);
+        System.out.printf("%s %d records in %.1fs (%.0f/s): %d loaded, %d rejected%s%n",
+                summary.rejected() == 0 ? "✅" : "⚠️", summary.read(), summary.seconds(), summary.rowsPerSecond(),
+                summary.loaded(), summary.rejected(), summary.rejected() == 0 ? "" : " (see " + rejects + ")");
+        System.exit(summary.loaded() + summary.rejected() == summary.read() ? 0 : 1);
+    }
+
+    /** Loads the file; throws if it can't be read or the load had to stop (what was committed stays). */
+    public Summary load(Path input, Path rejectFile) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(settings.workers(), r -> {
+            Thread t = new Thread(r, "onboarding-worker-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "onboarding-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        BlockingQueue<Future<ValidatedChunk>> inFlight = new ArrayBlockingQueue<>(settings.maxInFlightChunks());
+
+        try (BufferedReader in = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+             BufferedWriter rejects = Files.newBufferedWriter(rejectFile, StandardCharsets.UTF_8)) {
+            rejects.write("line,reason,record\n");
+            LineCounter lines = new LineCounter(in);
+            Record header = readRecord(lines);
+            if (header == null) throw new IOException(input + " is empty");
+            Map<String, Integer> columns = columns(header);
+
+            Thread writerThread = new Thread(() -> writeLoop(inFlight, rejects), "onboarding-writer");
+            writerThread.start();
+            progress.scheduleAtFixedRate(() -> logger.info("Onboarding: {} read, {} loaded, {} rejected ({}/s)",
+                            read.get(), loaded.get(), rejected.get(), (long) (read.get() / seconds(started))),
+                    settings.progressIntervalSeconds(), settings.progressIntervalSeconds(), TimeUnit.SECONDS);
+
+            try {
+                List<Record> chunk = new ArrayList<>(settings.chunkSize());
+                Record record;
+                while (aborted == null && (record = readRecord(lines)) != null) {
+                    chunk.add(record);
+                    read.incrementAndGet();
+                    if (chunk.size() == settings.chunkSize()) {
+                        List<Record> batch = chunk;
+                        inFlight.put(workers.submit(() -> validate(batch, columns)));
+                        chunk = new ArrayList<>(settings.chunkSize());
+                    }
+                }
+                if (!chunk.isEmpty() && aborted == null) {
+                    List<Record> batch = chunk;
+                    inFlight.put(workers.submit(() -> validate(batch, columns)));
+                }
+            } finally {
+                inFlight.put(END);
+                writerThread.join();
+            }
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+
+        Summary summary = new Summary(read.get(), loaded.get(), rejected.get(), seconds(started));
+        if (aborted != null) throw new IOException("Onboarding stopped after " + summary.loaded() + " loaded rows", aborted);
+        logger.info("✅ Onboarding of {} done: {} loaded, {} rejected in {}s", input, summary.loaded(), summary.rejected(),
+                (long) summary.seconds());
+        return summary;
+    }
+
+    // ----------------- VALIDATION (worker threads) -----------------
+
+    private ValidatedChunk validate(List<Record> records, Map<String, Integer> columns) {
+        List<ValidRow> valid = new ArrayList<>(records.size());
+        List<Reject> rejects = new ArrayList<>();
+        for (Record r : records) {
+            String problem = null;
+            try {
+                problem = validateRow(r, columns, valid);
+            } catch (RuntimeException e) {
+                problem = "unreadable record: " + e.getMessage();
+            }
+            if (problem != null) rejects.add(new Reject(r, problem));
+        }
+        return new ValidatedChunk(valid, rejects);
+    }
+
+    // adds the row to valid and returns null, or returns why it was rejected
+    private String validateRow(Record r, Map<String, Integer> columns, List<ValidRow> valid) {
+        if (r.fields().size() != columns.size()) {
+            return "expected " + columns.size() + " fields, found " + r.fields().size();
+        }
+        String username = field(r, columns, "username");
+        String password = field(r, columns, "password");
+        if (username.isEmpty()) return "username is empty";
+        if (password.isEmpty()) return "password is empty";
+
+        Customer c = new Customer();
+        c.setUsername(username);
+        c.setFirstName(field(r, columns, "first_name"));
+        c.setLastName(field(r, columns, "last_name"));
+        c.setEmail(field(r, columns, "email").replaceAll("\\s+", ""));
+        c.setPhoneNumber(field(r, columns, "phone"));
+        c.setAddress(field(r, columns, "address"));
+        c.setCity(field(r, columns, "city"));
+        c.setState(field(r, columns, "state"));
+        c.setPostalCode(field(r, columns, "postal_code"));
+        if (!RegistrationRules.isValidName(c.getFirstName())) return "first_name must contain only letters";
+        if (!RegistrationRules.isValidName(c.getLastName())) return "last_name must contain only letters";
+        if (!RegistrationRules.isValidEmail(c.getEmail())) return "invalid email";
+        if (!RegistrationRules.isValidPhone(c.getPhoneNumber())) return "phone must be exactly 10 digits";
+        try {
+            c.setDateOfBirth(Date.valueOf(field(r, columns, "date_of_birth")));
+        } catch (IllegalArgumentException e) {
+            return "date_of_birth must be YYYY-MM-DD";
+        }
+
+        String accountType = RegistrationRules.normalizeAccountType(field(r, columns, "account_type"));
+        if (accountType == null) return "account_type must be SAVINGS or CURRENT";
+        Money opening;
+        try {
+            opening = Money.parse(field(r, columns, "opening_balance"));
+        } catch (NumberFormatException e) {
+            return "opening_balance must be an amount with at most 2 decimals";
+        }
+        if (opening.signum() < 0) return "opening_balance cannot be negative";
+
+        c.setPasswordHash(PasswordHasher.hashPassword(password, settings.passwordIterations()));
+        valid.add(new ValidRow(r, c, accountType, opening));
+        return null;
+    }
+
+    // ----------------- WRITING (writer thread, file order) -----------------
+
+    private void writeLoop(BlockingQueue<Future<ValidatedChunk>> inFlight, BufferedWriter rejects) {
+        Set<String> usernames = new HashSet<>(); // loaded by this run, lower-cased
+        while (true) {
+            Future<ValidatedChunk> next;
+            try {
+                next = inFlight.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                aborted = e;
+                return;
+            }
+            if (next == END) return;
+            if (aborted != null) continue; // drain so the reader never blocks on a full queue
+
+            try {
+                ValidatedChunk chunk = next.get();
+                for (Reject r : chunk.rejects()) reject(rejects, r);
+                writeChunk(chunk.valid(), usernames, rejects);
+                rejects.flush();
+            } catch (Exception e) {
+                logger.error("❌ Onboarding stopped", e);
+                aborted = e;
+            }
+        }
+    }
+
+    private void writeChunk(List<ValidRow> rows, Set<String> usernames, BufferedWriter rejects)
+            throws SQLException, IOException {
+        List<String> names = new ArrayList<>(rows.size());
+        for (ValidRow row : rows) names.add(row.customer().getUsername());
+        Set<String> taken = writer.existingUsernames(names);
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<NewAccount> accounts = new ArrayList<>(rows.size());
+        List<ValidRow> accepted = new ArrayList<>(rows.size());
+        for (ValidRow row : rows) {
+            String key = row.customer().getUsername().toLowerCase(Locale.ROOT);
+            if (taken.contains(key)) {
+                reject(rejects, new Reject(row.record(), "username already exists"));
+                continue;
+            }
+            if (!usernames.add(key)) {
+                reject(rejects, new Reject(row.record(), "username repeated earlier in the file"));
+                continue;
+            }
+            accounts.add(newAccount(row, now));
+            accepted.add(row);
+        }
+
+        try {
+            writer.writeChunk(accounts);
+            loaded.addAndGet(accounts.size());
+            ROWS_LOADED.add(accounts.size());
+        } catch (SQLException chunkError) {
+            // isolate the bad rows: one transaction each
+            logger.warn("⚠️ Chunk of {} rows failed ({}); retrying row by row", accounts.size(), chunkError.getMessage());
+            for (int i = 0; i < accounts.size(); i++) {
+                try {
+                    writer.writeChunk(List.of(accounts.get(i)));
+                    loaded.incrementAndGet();
+                    ROWS_LOADED.increment();
+                } catch (SQLException e) {
+                    usernames.remove(accepted.get(i).customer().getUsername().toLowerCase(Locale.ROOT));
+                    reject(rejects, new Reject(accepted.get(i).record(), "database error: " + e.getMessage()));
+                }
+            }
+        }
+    }
+
+    private NewAccount newAccount(ValidRow row, Timestamp now) throws SQLException {
+        String accountNumber = String.valueOf(accountNumbers.next()
+                .orElseThrow(() -> new SQLException("Could not reserve account numbers")));
+        Account account = new Account();
+        account.setAccountNumber(accountNumber);
+        account.setAccountType(row.accountType());
+        account.setBalance(row.opening());
+        account.setMinBalanceThreshold(RegistrationRules.minBalanceThreshold(row.accountType()));
+        // as registration does, the opening balance also gets its DEPOSIT row (balances rebuild from the log)
+        Transaction opening = row.opening().signum() > 0
+                ? new Transaction(accountNumber, "DEPOSIT", row.opening(), now, "Initial deposit")
+                : null;
+        return new NewAccount(row.customer(), account, opening);
+    }
+
+    private void reject(BufferedWriter out, Reject r) throws IOException {
+        out.write(Long.toString(r.record().line()));
+        out.write(',');
+        out.write(csvField(r.reason()));
+        out.write(',');
+        out.write(csvField(r.record().text()));
+        out.write('\n');
+        rejected.incrementAndGet();
+        ROWS_REJECTED.increment();
+    }
+
+    // ----------------- CSV -----------------
+
+    /** BufferedReader that counts the lines it has handed out. */
+    private static final class LineCounter {
+        private final BufferedReader in;
+        private long line;
+
+        LineCounter(BufferedReader in) {
+            this.in = in;
+        }
+
+        String next() throws IOException {
+            String s = in.readLine();
+            if (s != null) line++;
+            return s;
+        }
+    }
+
+    // RFC 4180 record: comma-separated, fields in double quotes may hold commas, "" and line breaks
+    private static Record readRecord(LineCounter in) throws IOException {
+        String line = in.next();
+        while (line != null && line.isBlank()) line = in.next();
+        if (line == null) return null;
+        long start = in.line;
+
+        StringBuilder text = new StringBuilder(line);
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) break;
+                line = in.next(); // the quoted field continues on the next line
+                if (line == null) throw new IOException("unterminated quoted field in record starting at line " + start);
+                field.append('\n');
+                text.append('\n').append(line);
+                i = 0;
+                continue;
+            }
+            char ch = line.charAt(i++);
+            if (quoted) {
+                if (ch != '"') {
+                    field.append(ch);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(ch);
+            }
+        }
+        fields.add(field.toString().trim());
+        return new Record(start, fields, text.toString());
+    }
+
+    private static Map<String, Integer> columns(Record header) throws IOException {
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.fields().size(); i++) {
+            String name = header.fields().get(i).toLowerCase(Locale.ROOT);
+            if (!REQUIRED.contains(name) && !OPTIONAL.contains(name)) throw new IOException("Unknown column: " + name);
+            if (columns.put(name, i) != null) throw new IOException("Duplicate column: " + name);
+        }
+        for (String name : REQUIRED) {
+            if (!columns.containsKey(name)) throw new IOException("Missing column: " + name);
+        }
+        return columns;
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private static String field(Record r, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        return index == null ? "" : r.fields().get(index);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) return "";
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+
+    private static double seconds(long startedNanos) {
+        return Math.max(1e-9, (System.nanoTime() - startedNanos) / 1e9);
+    }
+
+    private static Metrics.Counter rowCounter(String result) {
+        return Metrics.counter("onboarding_rows_total", "Records processed by BulkOnboardingLoader", "result", result);
+    }
+}
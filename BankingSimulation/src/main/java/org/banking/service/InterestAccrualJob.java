@@ -0,0 +1,348 @@
+package org.banking.service;
+
+import org.banking.dao.AccountRanges;
+import org.banking.dao.AccountRanges.Range;
+import org.banking.dao.CheckpointedPostings;
+import org.banking.dao.JobCheckpointRepository;
+import org.banking.dao.MoneyColumns;
+import org.banking.dao.Posting;
+import org.banking.dao.PostingResult;
+import org.banking.dao.Repositories;
+import org.banking.dao.TransactionRepository;
+import org.banking.metrics.Metrics;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.util.AppConfig;
+import org.banking.util.DatabaseConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Daily interest accrual for savings accounts.
+ * - A day's interest is balance × interest.savings.annualRatePercent / 100 / 365, rounded half-even
+ *   to the cent and posted as an INTEREST credit. Balances of zero or less, and amounts that round
+ *   to zero, get nothing.
+ * - The accounts keyspace is cut into account_number ranges (AccountRanges) that interest.workers
+ *   threads take in turn. A worker reads its range in keyset batches of interest.batchSize and posts
+ *   each batch with CheckpointedPostings.applyPostings(postings, checkpoint): the balance updates, the
+ *   INTEREST rows and the range's checkpoint (the batch's last account) commit in one transaction,
+ *   so a rerun after a crash continues after the checkpoint and never credits an account twice.
+ * - The last fully accrued day is kept in job_checkpoints too, saved in the same transaction that
+ *   clears the day's range checkpoints. A run accrues every day after it, up to yesterday, so a
+ *   missed night is caught up (on the balance at run time), not skipped.
+ * Balances are read from the accounts table, so this needs the mysql engine's JDBC repository.
+ *
+ * Usage: InterestAccrualJob [yyyy-MM-dd]   (accrue pending days through this date; default yesterday)
+ */
+public class InterestAccrualJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private static final String JOB_NAME = "interest-accrual";
+    private static final String DONE = "done";
+    private static final long PPM = 1_000_000;
+    private static final int DAYS_PER_YEAR = 365;
+
+    private static final AtomicLong ACCOUNTS_SCANNED = new AtomicLong();
+    private static final AtomicLong ACCOUNTS_CREDITED = new AtomicLong();
+
+    static {
+        Metrics.functionCounter("interest_accrual_accounts_total", "Savings accounts handled by InterestAccrualJob",
+                ACCOUNTS_SCANNED::get, "result", "scanned");
+        Metrics.functionCounter("interest_accrual_accounts_total", "Savings accounts handled by InterestAccrualJob",
+                ACCOUNTS_CREDITED::get, "result", "credited");
+    }
+
+    /** Interest settings; see the interest.* keys in config.properties. */
+    public record Settings(boolean enabled, long annualRatePpm, LocalTime runAt, int workers, int rangesPerWorker,
+                           int batchSize, int maxCatchUpDays, int progressIntervalSeconds) {
+        public static Settings fromConfig() {
+            // a worker uses one pooled connection at a time; leave one for the rest of the app
+            int connections = Math.max(1, AppConfig.getInt("db.pool.maxSize", 10) - 1);
+            BigDecimal percent = new BigDecimal(AppConfig.get("interest.savings.annualRatePercent", "3.5"));
+            return new Settings(
+                    AppConfig.getBoolean("interest.enabled", true),
+                    percent.movePointRight(4).longValue(), // percent → parts per million
+                    LocalTime.parse(AppConfig.get("interest.runAt", "01:30")),
+                    Math.max(1, Math.min(AppConfig.getInt("interest.workers", 4), connections)),
+                    Math.max(1, AppConfig.getInt("interest.rangesPerWorker", 4)),
+                    Math.max(1, AppConfig.getInt("interest.batchSize", 500)),
+                    Math.max(1, AppConfig.getInt("interest.maxCatchUpDays", 7)),
+                    Math.max(1, AppConfig.getInt("interest.progressIntervalSeconds", 10)));
+        }
+    }
+
+    private record Candidate(String accountNumber, Money balance) {
+    }
+
+    private final CheckpointedPostings accountRepo;
+    private final TransactionRepository transactionRepo;
+    private final Settings settings;
+    private final JobCheckpointRepository checkpoints = new JobCheckpointRepository();
+    private final ReentrantLock runLock = new ReentrantLock(); // the schedule and a manual run must not overlap
+    private ScheduledExecutorService scheduler;
+
+    public InterestAccrualJob(CheckpointedPostings accountRepo, TransactionRepository transactionRepo, Settings settings) {
+        this.accountRepo = accountRepo;
+        this.transactionRepo = transactionRepo;
+        this.settings = settings;
+    }
+
+    public static void main(String[] args) {
+        LocalDate through = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now().minusDays(1);
+        Repositories repositories = Repositories.fromConfig();
+        Optional<CheckpointedPostings> accounts = repositories.checkpointedPostings();
+        if (accounts.isEmpty()) {
+            System.out.println("❌ Interest accrual reads balances from the accounts table; it needs storage.engine=mysql.");
+            System.exit(1);
+            return;
+        }
+        InterestAccrualJob job = new InterestAccrualJob(accounts.get(), repositories.transactions(), Settings.fromConfig());
+        System.exit(job.runPending(through) ? 0 : 1);
+    }
+
+    // ----------------- SCHEDULING -----------------
+
+    /** Runs the job every day at interest.runAt (local time), for the days up to yesterday. */
+    public void scheduleDaily() {
+        if (!settings.enabled()) {
+            logger.info("Interest accrual is disabled (interest.enabled=false)");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "interest-accrual-scheduler");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduleNext();
+        logger.info("Interest accrual scheduled daily at {} ({}% a year on savings)", settings.runAt(),
+                BigDecimal.valueOf(settings.annualRatePpm(), 4).stripTrailingZeros().toPlainString());
+    }
+
+    public void stop() {
+        if (scheduler != null) scheduler.shutdownNow();
+    }
+
+    private void scheduleNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(settings.runAt());
+        if (!next.isAfter(now)) next = next.plusDays(1);
+        scheduler.schedule(() -> {
+            try {
+                runPending(LocalDate.now().minusDays(1));
+            } finally {
+                scheduleNext();
+            }
+        }, Duration.between(now, next).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // ----------------- RUN -----------------
+
+    /**
+     * Accrues every day after the last completed one through {@code through}, oldest first, at most
+     * interest.maxCatchUpDays of them. Stops at the first day that fails; false if one did.
+     */
+    public boolean runPending(LocalDate through) {
+        if (!runLock.tryLock()) {
+            logger.warn("⚠️ Interest accrual is already running");
+            return false;
+        }
+        try {
+            checkpoints.ensureSchema();
+            LocalDate last = checkpoints.load(JOB_NAME).map(LocalDate::parse).orElse(through.minusDays(1));
+            LocalDate first = last.plusDays(1);
+            LocalDate earliest = through.minusDays(settings.maxCatchUpDays() - 1);
+            if (first.isBefore(earliest)) {
+                logger.warn("⚠️ Interest accrual is {} days behind; accruing only {} to {} (interest.maxCatchUpDays)",
+                        ChronoUnit.DAYS.between(first, through) + 1, earliest, through);
+                first = earliest;
+            }
+            if (first.isAfter(through)) {
+                logger.info("Interest already accrued through {}", last);
+                return true;
+            }
+            for (LocalDate day = first; !day.isAfter(through); day = day.plusDays(1)) {
+                if (!accrue(day)) return false;
+            }
+            return true;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private boolean accrue(LocalDate day) {
+        long started = System.nanoTime();
+        String job = JOB_NAME + "-" + day;
+        AtomicLong scanned = new AtomicLong();
+        AtomicLong credited = new AtomicLong();
+        AtomicLong creditedMinor = new AtomicLong();
+        AtomicInteger rangesDone = new AtomicInteger();
+
+        AtomicInteger threadIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(settings.workers(), r -> {
+            Thread t = new Thread(r, "interest-accrual-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "interest-accrual-progress");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Range> ranges = AccountRanges.planOrLoad(checkpoints, job, settings.workers() * settings.rangesPerWorker());
+            logger.info("Accruing interest for {}: {} ranges on {} workers", day, ranges.size(), settings.workers());
+            progress.scheduleAtFixedRate(() -> logger.info("Interest {}: {} accounts scanned ({}/s), {} credited, {}/{} ranges done",
+                            day, scanned.get(), rate(scanned.get(), started), credited.get(), rangesDone.get(), ranges.size()),
+                    settings.progressIntervalSeconds(), settings.progressIntervalSeconds(), TimeUnit.SECONDS);
+
+            List<Future<?>> futures = new ArrayList<>(ranges.size());
+            for (Range range : ranges) {
+                futures.add(workers.submit(() -> {
+                    accrueRange(day, job, range, scanned, credited, creditedMinor);
+                    rangesDone.incrementAndGet();
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) f.get();
+
+            finishDay(day, job, ranges);
+            logger.info("✅ Interest for {} accrued in {}s: {} accounts scanned ({}/s), {} credited, {} in total", day,
+                    (System.nanoTime() - started) / 1_000_000_000, scanned.get(), rate(scanned.get(), started),
+                    credited.get(), Money.ofMinor(creditedMinor.get()));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error("❌ Interest accrual for {} interrupted; the next run resumes it", day);
+            return false;
+        } catch (SQLException | ExecutionException e) {
+            logger.error("❌ Interest accrual for {} failed; the next run resumes from its checkpoints", day,
+                    e instanceof ExecutionException ? e.getCause() : e);
+            return false;
+        } finally {
+            progress.shutdownNow();
+            workers.shutdownNow();
+        }
+    }
+
+    private void accrueRange(LocalDate day, String job, Range range, AtomicLong scanned, AtomicLong credited,
+                             AtomicLong creditedMinor) throws SQLException {
+        String rangeJob = rangeJob(job, range);
+        String after = checkpoints.load(rangeJob).orElse(range.after());
+        if (DONE.equals(after)) return;
+
+        String description = "Interest for " + day;
+        while (true) {
+            List<Candidate> batch = readBatch(after, range.hi());
+            if (batch.isEmpty()) {
+                checkpoints.save(rangeJob, DONE);
+                return;
+            }
+            after = batch.get(batch.size() - 1).accountNumber();
+
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            List<Posting> postings = new ArrayList<>(batch.size());
+            for (Candidate c : batch) {
+                Money interest = dailyInterest(c.balance());
+                if (interest.signum() <= 0) continue;
+                postings.add(Posting.deposit(c.accountNumber(), interest,
+                        new Transaction(c.accountNumber(), "INTEREST", interest, now, description)));
+            }
+
+            if (postings.isEmpty()) {
+                checkpoints.save(rangeJob, after);
+            } else {
+                List<PostingResult> results = accountRepo.applyPostings(postings,
+                        new JobCheckpointRepository.Checkpoint(rangeJob, after));
+                List<Transaction> posted = new ArrayList<>(postings.size());
+                for (int i = 0; i < results.size(); i++) {
+                    PostingResult result = results.get(i);
+                    if (result.status() == PostingResult.Status.FAILED) {
+                        throw new SQLException("Interest batch ending at account " + after + " was rolled back");
+                    }
+                    if (!result.isApplied()) continue;
+                    Posting p = postings.get(i);
+                    posted.addAll(p.entries());
+                    creditedMinor.addAndGet(p.amount().minorUnits());
+                }
+                transactionRepo.transactionsPosted(posted);
+                credited.addAndGet(posted.size());
+                ACCOUNTS_CREDITED.addAndGet(posted.size());
+            }
+            scanned.addAndGet(batch.size());
+            ACCOUNTS_SCANNED.addAndGet(batch.size());
+        }
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    // Records the day as done and clears its range checkpoints in one transaction. Were the day saved
+    // after the cleanup, a crash in between would make the next run plan the day afresh and credit it twice.
+    private void finishDay(LocalDate day, String job, List<Range> ranges) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                checkpoints.save(conn, JOB_NAME, day.toString());
+                for (Range range : ranges) checkpoints.delete(conn, rangeJob(job, range));
+                checkpoints.delete(conn, job);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // the next savings accounts with a positive balance after {@code after}, in key order
+    private List<Candidate> readBatch(String after, String upTo) throws SQLException {
+        String sql = "SELECT account_number, balance FROM accounts WHERE account_number > ?"
+                + (upTo == null ? "" : " AND account_number <= ?")
+                + " AND account_type = 'savings' AND balance > 0 ORDER BY account_number LIMIT ?";
+        List<Candidate> batch = new ArrayList<>(settings.batchSize());
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int p = 1;
+            ps.setString(p++, after);
+            if (upTo != null) ps.setString(p++, upTo);
+            ps.setInt(p, settings.batchSize());
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) batch.add(new Candidate(rs.getString(1), MoneyColumns.get(rs, 2)));
+            }
+        }
+        return batch;
+    }
+
+    // balance × rate / 365 in minor units, rounded half-even
+    private Money dailyInterest(Money balance) {
+        long numerator = Math.multiplyExact(balance.minorUnits(), settings.annualRatePpm());
+        long denominator = PPM * DAYS_PER_YEAR;
+        long quotient = numerator / denominator;
+        long twiceRemainder = 2 * (numerator % denominator);
+        if (twiceRemainder > denominator || (twiceRemainder == denominator && (quotient & 1) == 1)) quotient++;
+        return Money.ofMinor(quotient);
+    }
+
+    private static long rate(long count, long startedNanos) {
+        double seconds = (System.nanoTime() - startedNanos) / 1e9;
+        return seconds <= 0 ? 0 : (long) (count / seconds);
+    }
+
+    private static String rangeJob(String job, Range range) {
+        return job + "#" + range.index();
+    }
+}
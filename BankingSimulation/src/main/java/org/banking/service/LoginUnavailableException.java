@@ -0,0 +1,15 @@
+package org.banking.service;
+
+/**
+ * A login that could not be checked because the password verifier is saturated (its queue is full or
+ * the check timed out). The password was not found wrong, so callers should ask the user to retry
+ * rather than report invalid credentials.
+ */
+public class LoginUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public LoginUnavailableException(String message) {
+        super(message);
+    }
+}
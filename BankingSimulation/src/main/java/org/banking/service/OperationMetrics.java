@@ -0,0 +1,50 @@
+package org.banking.service;
+
+import org.banking.metrics.Metrics;
+
+import java.util.List;
+
+/**
+ * Latency timer and per-outcome counters for one BankingService operation.
+ * Built once per operation into static fields, so recording never allocates.
+ */
+final class OperationMetrics {
+
+    private final Metrics.Timer latency;
+    private final Metrics.Counter[] outcomes; // by TransactionOutcome ordinal; empty unless the op posts
+
+    private OperationMetrics(String op, boolean posting) {
+        this.latency = Metrics.timer("banking_operation_duration_seconds",
+                "BankingService call latency, including time spent waiting for account locks", "op", op);
+        this.outcomes = new Metrics.Counter[posting ? TransactionOutcome.values().length : 0];
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] = Metrics.counter("banking_operations_total", "Completed BankingService postings by outcome",
+                    "op", op, "outcome", TransactionOutcome.values()[i].name().toLowerCase());
+        }
+    }
+
+    /** Timer plus one counter per TransactionOutcome. */
+    static OperationMetrics posting(String op) {
+        return new OperationMetrics(op, true);
+    }
+
+    /** Timer only, for operations that don't produce a TransactionOutcome. */
+    static OperationMetrics timed(String op) {
+        return new OperationMetrics(op, false);
+    }
+
+    TransactionOutcome record(long startNanos, TransactionOutcome outcome) {
+        latency.recordSince(startNanos);
+        outcomes[outcome.ordinal()].increment();
+        return outcome;
+    }
+
+    void record(long startNanos, List<TransactionOutcome> batch) {
+        latency.recordSince(startNanos);
+        for (TransactionOutcome o : batch) outcomes[o.ordinal()].increment();
+    }
+
+    void record(long startNanos) {
+        latency.recordSince(startNanos);
+    }
+}
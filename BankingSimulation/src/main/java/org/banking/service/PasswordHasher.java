@@ -1,15 +1,92 @@
 package org.banking.service;
 
+import org.banking.util.AppConfig;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-// import java.security.SecureRandom;
+import java.security.SecureRandom;
 import java.util.Base64;
 
-// Simple password hashing utility
+// Password hashing utility
+// New hashes are salted PBKDF2-HMAC-SHA256 in a versioned string:
+//   $pbkdf2-sha256$v1$<iterations>$<base64 salt>$<base64 hash>
+// Legacy hashes (bare Base64 SHA-256, no salt) still verify; needsRehash() flags them for upgrade.
 public class PasswordHasher {
 
-    // Hashes a password using SHA-256
+    private static final String PREFIX = "$pbkdf2-sha256$v1$";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    // Cost for new hashes; pick it per deployment with the benchmarks module's PasswordVerifierBenchmark.
+    private static final int ITERATIONS = AppConfig.getInt("security.password.iterations", 210_000);
+
+    // Hashes a password with a fresh salt at the configured cost
     public static String hashPassword(String password) {
+        return hashPassword(password, ITERATIONS);
+    }
+
+    public static String hashPassword(String password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = pbkdf2(password, salt, iterations);
+        Base64.Encoder b64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + b64.encodeToString(salt) + "$" + b64.encodeToString(hash);
+    }
+
+    // Checks if a plain text password matches a stored hash (either format)
+    public static boolean checkPassword(String plainPassword, String hashedPassword) {
+        if (hashedPassword == null) return false;
+        if (!hashedPassword.startsWith(PREFIX)) {
+            byte[] legacy = legacySha256(plainPassword).getBytes(StandardCharsets.US_ASCII);
+            return MessageDigest.isEqual(legacy, hashedPassword.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        String[] parts = hashedPassword.substring(PREFIX.length()).split("\\$");
+        if (parts.length != 3) return false;
+        try {
+            int iterations = Integer.parseInt(parts[0]);
+            Base64.Decoder b64 = Base64.getDecoder();
+            byte[] salt = b64.decode(parts[1]);
+            byte[] expected = b64.decode(parts[2]);
+            return MessageDigest.isEqual(expected, pbkdf2(plainPassword, salt, iterations));
+        } catch (IllegalArgumentException e) {
+            return false; // malformed hash string
+        }
+    }
+
+    // True for legacy hashes and for hashes made with a different cost than the configured one
+    public static boolean needsRehash(String hashedPassword) {
+        return needsRehash(hashedPassword, ITERATIONS);
+    }
+
+    public static boolean needsRehash(String hashedPassword, int iterations) {
+        if (hashedPassword == null || !hashedPassword.startsWith(PREFIX)) return true;
+        String rest = hashedPassword.substring(PREFIX.length());
+        int end = rest.indexOf('$');
+        return end < 0 || !rest.substring(0, end).equals(String.valueOf(iterations));
+    }
+
+    public static int configuredIterations() {
+        return ITERATIONS;
+    }
+
+    private static byte[] pbkdf2(String password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Could not hash password", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+
+    private static String legacySha256(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hashedBytes = md.digest(password.getBytes());
@@ -18,10 +95,4 @@ public class PasswordHasher {
             throw new RuntimeException("Could not hash password", e);
         }
     }
-
-    // Checks if a plain text password matches a stored hash
-    public static boolean checkPassword(String plainPassword, String hashedPassword) {
-        String hashOfPlainPassword = hashPassword(plainPassword);
-        return hashOfPlainPassword.equals(hashedPassword);
-    }
 }
\ No newline at end of file
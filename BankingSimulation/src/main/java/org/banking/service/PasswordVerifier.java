@@ -0,0 +1,115 @@
+package org.banking.service;
+
+import org.banking.util.AppConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs password verification (and rehashing) on a small, bounded thread pool.
+ * - security.password.verifyThreads caps how many cores key stretching can use at once,
+ *   so a login storm can't starve deposits/transfers of CPU.
+ * - Work beyond the queue (security.password.queueCapacity) is rejected straight away and the
+ *   login fails fast instead of piling up; callers wait at most security.password.verifyTimeoutMs.
+ *   Either way the result is OVERLOADED, not a mismatch, so the caller can say "try again later".
+ */
+public class PasswordVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordVerifier.class);
+
+    /**
+     * matched: password was correct; rehashed: new hash to store, or null if the stored one is current;
+     * overloaded: the verifier was saturated and the password was not checked at all.
+     */
+    public record Verification(boolean matched, String rehashed, boolean overloaded) {
+        static final Verification REJECTED = new Verification(false, null, false);
+        static final Verification OVERLOADED = new Verification(false, null, true);
+    }
+
+    /** Point-in-time verifier metrics. */
+    public record Stats(int threads, int queued, long verified, long rehashed, long rejected, long timedOut) {
+        @Override
+        public String toString() {
+            return String.format("PasswordVerifier{threads=%d, queued=%d, verified=%d, rehashed=%d, rejected=%d, timedOut=%d}",
+                    threads, queued, verified, rehashed, rejected, timedOut);
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final int targetIterations; // cost that outdated hashes are upgraded to
+
+    private final LongAdder verified = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public PasswordVerifier() {
+        this(AppConfig.getInt("security.password.verifyThreads", Math.max(1, Runtime.getRuntime().availableProcessors() / 2)),
+                AppConfig.getInt("security.password.queueCapacity", 64),
+                AppConfig.getLong("security.password.verifyTimeoutMs", 5000),
+                PasswordHasher.configuredIterations());
+    }
+
+    public PasswordVerifier(int threads, int queueCapacity, long timeoutMillis, int targetIterations) {
+        AtomicInteger seq = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread t = new Thread(r, "password-verifier-" + seq.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeoutMillis;
+        this.targetIterations = targetIterations;
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Verifies the password and, when it matches an outdated hash, computes the upgraded one. */
+    public Verification verify(String plainPassword, String storedHash) {
+        Future<Verification> future;
+        try {
+            future = executor.submit(() -> {
+                if (!PasswordHasher.checkPassword(plainPassword, storedHash)) return Verification.REJECTED;
+                String upgraded = PasswordHasher.needsRehash(storedHash, targetIterations)
+                        ? PasswordHasher.hashPassword(plainPassword, targetIterations) : null;
+                return new Verification(true, upgraded, false);
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            logger.warn("⚠️ Password verification rejected: verifier queue is full");
+            return Verification.OVERLOADED;
+        }
+
+        try {
+            Verification result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            verified.increment();
+            if (result.rehashed() != null) rehashed.increment();
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            logger.warn("⚠️ Password verification timed out after {}ms", timeoutMillis);
+            return Verification.OVERLOADED;
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            return Verification.OVERLOADED;
+        } catch (ExecutionException e) {
+            logger.error("❌ Password verification failed", e.getCause());
+        }
+        return Verification.REJECTED;
+    }
+
+    public Stats getStats() {
+        return new Stats(executor.getMaximumPoolSize(), executor.getQueue().size(),
+                verified.sum(), rehashed.sum(), rejected.sum(), timedOut.sum());
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
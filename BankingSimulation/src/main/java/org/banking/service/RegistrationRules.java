@@ -0,0 +1,45 @@
+package org.banking.service;
+
+import org.banking.model.Money;
+
+import java.util.regex.Pattern;
+
+/**
+ * Field rules for opening a customer and account, shared by the console registration and the bulk loader.
+ */
+public final class RegistrationRules {
+
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z]+");
+    // improved email validation (no 6-char TLD cap)
+    private static final Pattern EMAIL = Pattern.compile("^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+    private static final Pattern PHONE = Pattern.compile("\\d{10}");
+
+    private RegistrationRules() {
+    }
+
+    public static boolean isValidName(String s) {
+        return s != null && NAME.matcher(s).matches();
+    }
+
+    public static boolean isValidEmail(String s) {
+        return s != null && EMAIL.matcher(s.trim()).matches();
+    }
+
+    public static boolean isValidPhone(String s) {
+        return s != null && PHONE.matcher(s).matches();
+    }
+
+    /** "savings" or "current" for those names in any case, otherwise null. */
+    public static String normalizeAccountType(String s) {
+        if (s == null) return null;
+        return switch (s.trim().toUpperCase()) {
+            case "SAVINGS" -> "savings";
+            case "CURRENT" -> "current";
+            default -> null;
+        };
+    }
+
+    public static Money minBalanceThreshold(String accountType) {
+        return "current".equalsIgnoreCase(accountType) ? Money.of(1000) : Money.of(500);
+    }
+}
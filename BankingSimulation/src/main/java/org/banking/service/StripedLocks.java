@@ -0,0 +1,135 @@
+package org.banking.service;
+
+import org.banking.util.AppConfig;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-process locks keyed by account number, striped over a fixed array of ReentrantLocks
+ * (service.lock.stripes, rounded up to a power of two).
+ * - Operations on the same account serialize; operations on different stripes run in parallel.
+ * - Two-account operations and batches take their stripes in ascending stripe order, so concurrent
+ *   A->B and B->A transfers can't deadlock. Accounts sharing a stripe take it once.
+ * - Every acquisition first tries tryLock(); a failure counts as contention and the wait is timed.
+ */
+public class StripedLocks {
+
+    /** Point-in-time lock metrics. */
+    public record Stats(int stripes, long acquisitions, long contended, double avgWaitMillis, double maxWaitMillis) {
+        public double contentionRate() {
+            return acquisitions == 0 ? 0.0 : (double) contended / acquisitions;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Locks{stripes=%d, acquisitions=%d, contended=%d (%.2f%%), avgWait=%.3fms, maxWait=%.3fms}",
+                    stripes, acquisitions, contended, contentionRate() * 100, avgWaitMillis, maxWaitMillis);
+        }
+    }
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder contended = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public StripedLocks() {
+        this(AppConfig.getInt("service.lock.stripes", 256));
+    }
+
+    public StripedLocks(int stripeCount) {
+        if (stripeCount <= 0) throw new IllegalArgumentException("stripeCount must be > 0");
+        int n = stripeCount == 1 ? 1 : Integer.highestOneBit(stripeCount - 1) << 1;
+        this.stripes = new ReentrantLock[n];
+        for (int i = 0; i < n; i++) stripes[i] = new ReentrantLock();
+        this.mask = n - 1;
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Runs the action while holding the stripe for the account. */
+    public <T> T withLock(String accountNumber, Supplier<T> action) {
+        ReentrantLock lock = stripes[stripeOf(accountNumber)];
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Runs the action while holding the stripes for both accounts, taken in canonical order. */
+    public <T> T withLocks(String firstAccount, String secondAccount, Supplier<T> action) {
+        int a = stripeOf(firstAccount);
+        int b = stripeOf(secondAccount);
+        if (a == b) return withLock(firstAccount, action);
+
+        ReentrantLock low = stripes[Math.min(a, b)];
+        ReentrantLock high = stripes[Math.max(a, b)];
+        acquire(low);
+        try {
+            acquire(high);
+            try {
+                return action.get();
+            } finally {
+                high.unlock();
+            }
+        } finally {
+            low.unlock();
+        }
+    }
+
+    /**
+     * Runs the action while holding the stripes of all the accounts, taken once each in ascending
+     * order (the same order as withLocks, so it can't deadlock with single postings). Every stripe is
+     * held until the action returns, so pass one bounded chunk at a time, not a whole batch.
+     */
+    public <T> T withLocks(Collection<String> accountNumbers, Supplier<T> action) {
+        int[] indexes = accountNumbers.stream().mapToInt(this::stripeOf).sorted().distinct().toArray();
+        int held = 0;
+        try {
+            for (int s : indexes) {
+                acquire(stripes[s]);
+                held++;
+            }
+            return action.get();
+        } finally {
+            for (int i = held - 1; i >= 0; i--) stripes[indexes[i]].unlock();
+        }
+    }
+
+    public Stats getStats() {
+        long acquired = acquisitions.sum();
+        long waited = contended.sum();
+        double avgWait = waited == 0 ? 0.0 : waitNanos.sum() / (double) waited / 1_000_000.0;
+        return new Stats(stripes.length, acquired, waited, avgWait, maxWaitNanos.get() / 1_000_000.0);
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private void acquire(ReentrantLock lock) {
+        acquisitions.increment();
+        if (lock.tryLock()) return;
+
+        long start = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - start;
+        contended.increment();
+        waitNanos.add(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+    }
+
+    private int stripeOf(String accountNumber) {
+        int h = accountNumber.hashCode();
+        h ^= (h >>> 16);
+        h *= 0x45d9f3b;
+        h ^= (h >>> 16);
+        return h & mask;
+    }
+}
@@ -3,5 +3,7 @@ package org.banking.service;
 public enum TransactionOutcome {
     SUCCESSFUL,
     INSUFFICIENT_BALANCE, // This will now mean "would go below min balance"
-    ACCOUNT_NOT_FOUND
-}
\ No newline at end of file
+    ACCOUNT_NOT_FOUND,
+    VELOCITY_LIMIT_EXCEEDED, // refused before posting: too many debits or too much debited recently (VelocityLimiter)
+    FAILED // database error; nothing was committed
+}
@@ -0,0 +1,293 @@
+package org.banking.service;
+
+import org.banking.metrics.Metrics;
+import org.banking.model.Money;
+import org.banking.util.AppConfig;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-account debit velocity limits (velocity.* in config.properties), checked in memory before a
+ * withdrawal or transfer is posted.
+ * - A limit caps the number of debits or their total amount within a sliding window, e.g.
+ *   count:20/1m or amount:10000/1d. A debit is admitted only if it keeps every limit.
+ * - Each account has one AtomicLongArray holding a ring of velocity.bucketsPerWindow time buckets per
+ *   limit. A slot packs its bucket's epoch with the bucket total, so the CAS that adds to a slot also
+ *   resets it when it belongs to an older bucket. Nothing locks, and nothing allocates after an
+ *   account's first debit.
+ * - The window slides one bucket at a time: it is the current bucket plus the bucketsPerWindow - 1
+ *   before it, so a debit stops counting between window - window/bucketsPerWindow and window later.
+ * - tryAcquire adds first and checks after, undoing its adds when a limit is exceeded. Two racing
+ *   debits may both be refused, but never both admitted past a limit.
+ * - An account whose last debit is older than the longest window holds only expired buckets. The
+ *   sweeper drops those every velocity.sweepIntervalSeconds, so memory follows recently active accounts.
+ */
+public class VelocityLimiter {
+
+    private static final int EPOCH_BITS = 24;
+    private static final int VALUE_BITS = 64 - EPOCH_BITS;
+    private static final long EPOCH_MASK = (1L << EPOCH_BITS) - 1;
+    private static final long VALUE_MASK = (1L << VALUE_BITS) - 1; // bucket totals saturate here
+
+    private static final Metrics.Counter ADMITTED = checkCounter("admitted");
+    private static final Metrics.Counter LIMITED = checkCounter("limited");
+
+    /** One limit: at most max debits (COUNT) or minor units (AMOUNT) per window. */
+    public record Limit(Kind kind, long max, long windowMillis, String spec) {
+        public enum Kind { COUNT, AMOUNT }
+
+        /** Parses "count:20/1m" or "amount:10000.00/1d"; windows take s, m, h or d. */
+        public static Limit parse(String spec) {
+            String s = spec.trim();
+            int colon = s.indexOf(':');
+            int slash = s.indexOf('/');
+            if (colon < 0 || slash < colon) throw new IllegalArgumentException("Velocity limit must be kind:max/window: " + spec);
+            Kind kind = Kind.valueOf(s.substring(0, colon).trim().toUpperCase());
+            String max = s.substring(colon + 1, slash).trim();
+            long maxValue = kind == Kind.COUNT ? Long.parseLong(max) : Money.parse(max).minorUnits();
+            if (maxValue <= 0) throw new IllegalArgumentException("Velocity limit must be positive: " + spec);
+            return new Limit(kind, maxValue, parseWindow(s.substring(slash + 1).trim(), spec), s);
+        }
+
+        private static long parseWindow(String w, String spec) {
+            if (w.length() < 2) throw new IllegalArgumentException("Velocity window must look like 30s, 1m, 1h or 1d: " + spec);
+            long n = Long.parseLong(w.substring(0, w.length() - 1));
+            long unit = switch (w.charAt(w.length() - 1)) {
+                case 's' -> 1000L;
+                case 'm' -> 60_000L;
+                case 'h' -> 3_600_000L;
+                case 'd' -> 86_400_000L;
+                default -> throw new IllegalArgumentException("Velocity window must end in s, m, h or d: " + spec);
+            };
+            if (n <= 0) throw new IllegalArgumentException("Velocity window must be positive: " + spec);
+            return n * unit;
+        }
+
+        @Override
+        public String toString() {
+            return spec;
+        }
+    }
+
+    /** Limiter settings; see the velocity.* keys in config.properties. */
+    public record Settings(boolean enabled, List<Limit> limits, int bucketsPerWindow, int sweepIntervalSeconds) {
+        public static Settings fromConfig() {
+            List<Limit> limits = new ArrayList<>();
+            for (String spec : AppConfig.get("velocity.limits", "").split(",")) {
+                if (!spec.isBlank()) limits.add(Limit.parse(spec));
+            }
+            return new Settings(
+                    AppConfig.getBoolean("velocity.enabled", false) && !limits.isEmpty(),
+                    List.copyOf(limits),
+                    Math.max(1, AppConfig.getInt("velocity.bucketsPerWindow", 12)),
+                    Math.max(1, AppConfig.getInt("velocity.sweepIntervalSeconds", 60)));
+        }
+    }
+
+    private final boolean enabled;
+    private final Limit[] limits;
+    private final long[] bucketMillis; // per limit
+    private final int[] offsets;       // per limit: first slot in an account's array
+    private final int buckets;
+    private final int slotsPerAccount;
+    private final long longestWindowMillis;
+    private final LongSupplier clock;
+    private final Map<String, AccountCounters> accounts = new ConcurrentHashMap<>();
+
+    public VelocityLimiter(Settings settings, LongSupplier clockMillis) {
+        this.enabled = settings.enabled();
+        this.limits = settings.limits().toArray(new Limit[0]);
+        this.buckets = settings.bucketsPerWindow();
+        this.bucketMillis = new long[limits.length];
+        this.offsets = new int[limits.length];
+        long longest = 0;
+        for (int i = 0; i < limits.length; i++) {
+            bucketMillis[i] = Math.max(1, limits[i].windowMillis() / buckets);
+            offsets[i] = i * buckets;
+            longest = Math.max(longest, limits[i].windowMillis());
+        }
+        this.slotsPerAccount = limits.length * buckets;
+        this.longestWindowMillis = longest;
+        this.clock = clockMillis;
+
+        if (enabled) {
+            ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "velocity-sweeper");
+                t.setDaemon(true);
+                return t;
+            });
+            sweeper.scheduleWithFixedDelay(this::sweep, settings.sweepIntervalSeconds(), settings.sweepIntervalSeconds(),
+                    TimeUnit.SECONDS);
+            Metrics.gauge("velocity_tracked_accounts", "Accounts with debits inside a velocity window", accounts::size);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /**
+     * Counts a debit of amountMinor against the account at nowMillis. Returns null when it is admitted,
+     * or the first limit it would exceed, in which case nothing is counted.
+     */
+    public Limit tryAcquire(String accountNumber, long amountMinor, long nowMillis) {
+        if (!enabled) return null;
+        AccountCounters counters = enter(accountNumber);
+        try {
+            counters.touch(nowMillis);
+            for (int i = 0; i < limits.length; i++) {
+                long epoch = nowMillis / bucketMillis[i];
+                long total = add(counters.slots, i, epoch, delta(i, amountMinor));
+                if (total > limits[i].max()) {
+                    for (int j = i; j >= 0; j--) subtract(counters.slots, j, nowMillis / bucketMillis[j], delta(j, amountMinor));
+                    LIMITED.increment();
+                    return limits[i];
+                }
+            }
+            ADMITTED.increment();
+            return null;
+        } finally {
+            counters.exit();
+        }
+    }
+
+    /** Takes back an admitted debit that was not posted; pass the tryAcquire arguments. */
+    public void release(String accountNumber, long amountMinor, long acquiredAtMillis) {
+        if (!enabled) return;
+        AccountCounters counters = accounts.get(accountNumber);
+        if (counters == null || !counters.enter()) return; // swept: its buckets had expired anyway
+        try {
+            for (int i = 0; i < limits.length; i++) {
+                subtract(counters.slots, i, acquiredAtMillis / bucketMillis[i], delta(i, amountMinor));
+            }
+        } finally {
+            counters.exit();
+        }
+    }
+
+    /** Accounts currently tracked (debited within the longest window, until the next sweep). */
+    public int trackedAccounts() {
+        return accounts.size();
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private AccountCounters enter(String accountNumber) {
+        while (true) {
+            AccountCounters counters = accounts.get(accountNumber);
+            if (counters == null) counters = accounts.computeIfAbsent(accountNumber, k -> new AccountCounters(slotsPerAccount));
+            if (counters.enter()) return counters;
+            Thread.onSpinWait(); // being swept: it leaves the map or comes back to life in a moment
+        }
+    }
+
+    private long delta(int limit, long amountMinor) {
+        return limits[limit].kind() == Limit.Kind.COUNT ? 1 : amountMinor;
+    }
+
+    // Adds to the current bucket (resetting it if it still holds an older bucket) and returns the window total.
+    private long add(AtomicLongArray slots, int limit, long epoch, long delta) {
+        int index = offsets[limit] + (int) (epoch % buckets);
+        long stamp = epoch & EPOCH_MASK;
+        while (true) {
+            long slot = slots.get(index);
+            long base = (slot >>> VALUE_BITS) == stamp ? slot & VALUE_MASK : 0;
+            long updated = (stamp << VALUE_BITS) | Math.min(VALUE_MASK, base + delta);
+            if (slots.compareAndSet(index, slot, updated)) break;
+        }
+        return windowTotal(slots, limit, epoch);
+    }
+
+    // Takes delta back out of the given bucket, unless the bucket has since been recycled.
+    private void subtract(AtomicLongArray slots, int limit, long epoch, long delta) {
+        int index = offsets[limit] + (int) (epoch % buckets);
+        long stamp = epoch & EPOCH_MASK;
+        while (true) {
+            long slot = slots.get(index);
+            if ((slot >>> VALUE_BITS) != stamp) return;
+            long updated = (stamp << VALUE_BITS) | Math.max(0, (slot & VALUE_MASK) - delta);
+            if (slots.compareAndSet(index, slot, updated)) return;
+        }
+    }
+
+    private long windowTotal(AtomicLongArray slots, int limit, long epoch) {
+        long current = epoch & EPOCH_MASK;
+        long total = 0;
+        for (int i = offsets[limit], end = i + buckets; i < end; i++) {
+            long slot = slots.get(i);
+            long age = (current - (slot >>> VALUE_BITS)) & EPOCH_MASK;
+            if (age < buckets) total += slot & VALUE_MASK;
+        }
+        return total;
+    }
+
+    // Drops accounts whose last debit is older than every window, i.e. whose buckets are all expired.
+    // Package-private so tests can race it against tryAcquire instead of waiting for the scheduler.
+    void sweep() {
+        long now = clock.getAsLong();
+        for (Map.Entry<String, AccountCounters> e : accounts.entrySet()) {
+            AccountCounters counters = e.getValue();
+            if (!counters.idleAt(now, longestWindowMillis) || !counters.retire()) continue;
+            if (counters.idleAt(now, longestWindowMillis)) {
+                accounts.remove(e.getKey(), counters); // stays retired: late callers go back to the map
+            } else {
+                counters.revive();
+            }
+        }
+    }
+
+    private static Metrics.Counter checkCounter(String result) {
+        return Metrics.counter("velocity_checks_total", "Debits checked against velocity limits", "result", result);
+    }
+
+    /** One account's bucket rings, all limits in one array. */
+    private static final class AccountCounters {
+        final AtomicLongArray slots;
+        // callers inside tryAcquire/release; -1 while the sweeper is retiring it
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile long lastDebitMillis;
+
+        AccountCounters(int slots) {
+            this.slots = new AtomicLongArray(slots);
+        }
+
+        boolean enter() {
+            while (true) {
+                int n = users.get();
+                if (n < 0) return false;
+                if (users.compareAndSet(n, n + 1)) return true;
+            }
+        }
+
+        void exit() {
+            users.decrementAndGet();
+        }
+
+        void touch(long nowMillis) {
+            if (nowMillis > lastDebitMillis) lastDebitMillis = nowMillis;
+        }
+
+        boolean idleAt(long nowMillis, long longestWindowMillis) {
+            return nowMillis - lastDebitMillis > longestWindowMillis;
+        }
+
+        boolean retire() {
+            return users.compareAndSet(0, -1);
+        }
+
+        void revive() {
+            users.set(0);
+        }
+    }
+}
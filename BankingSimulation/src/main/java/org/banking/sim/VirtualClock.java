@@ -0,0 +1,67 @@
+package org.banking.sim;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Clock whose time runs speed times faster than wall time from a chosen origin, and can also be
+ * moved forward explicitly. Lets a short simulation produce transaction timestamps spread over
+ * days or months without sleeping.
+ */
+public final class VirtualClock extends Clock {
+
+    private final Instant origin;
+    private final double speed;
+    private final long startNanos;
+    private final AtomicLong offsetNanos;
+    private final ZoneId zone;
+
+    public VirtualClock(Instant origin, double speed) {
+        this(origin, speed, System.nanoTime(), new AtomicLong(), ZoneId.systemDefault());
+    }
+
+    private VirtualClock(Instant origin, double speed, long startNanos, AtomicLong offsetNanos, ZoneId zone) {
+        if (speed < 0) throw new IllegalArgumentException("speed must be >= 0");
+        this.origin = origin;
+        this.speed = speed;
+        this.startNanos = startNanos;
+        this.offsetNanos = offsetNanos;
+        this.zone = zone;
+    }
+
+    /** Jumps virtual time forward, e.g. to the next business day. */
+    public void advance(Duration amount) {
+        if (amount.isNegative()) throw new IllegalArgumentException("Virtual time cannot go backwards");
+        offsetNanos.addAndGet(amount.toNanos());
+    }
+
+    /** Virtual time elapsed since the origin. */
+    public Duration elapsed() {
+        return Duration.between(origin, instant());
+    }
+
+    @Override
+    public Instant instant() {
+        long virtualNanos = (long) ((System.nanoTime() - startNanos) * speed) + offsetNanos.get();
+        return origin.plusNanos(virtualNanos);
+    }
+
+    @Override
+    public long millis() {
+        return instant().toEpochMilli();
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /** Same virtual timeline, different zone (shares the offset with this clock). */
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return new VirtualClock(origin, speed, startNanos, offsetNanos, zone);
+    }
+}
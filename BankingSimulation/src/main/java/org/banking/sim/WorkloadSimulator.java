@@ -0,0 +1,240 @@
+package org.banking.sim;
+
+import org.banking.dao.DataAccessException;
+import org.banking.dao.Repositories;
+import org.banking.metrics.LatencyHistogram;
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.service.BankingService;
+import org.banking.service.TransactionOutcome;
+import org.banking.util.ReportGenerator;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Load generator for BankingService against the storage engine in config.properties.
+ * 1. registers `customers` synthetic customers through registerNewCustomerAndOpenAccount
+ * 2. runs `workers` concurrent workers (virtual threads) for warmupSeconds, then measures for
+ *    durationSeconds; each worker picks an operation from `mix` and accounts by Zipf popularity
+ * 3. prints throughput, outcome counts and p50/p99/p999/max latency per operation
+ *
+ * Usage: WorkloadSimulator [key=value ...]
+ *   customers=1000 workers=32 warmupSeconds=5 durationSeconds=30
+ *   mix=deposit:40,withdraw:25,transfer:25,history:10  zipf=1.0  seed=42
+ *   clockSpeed=1440 (virtual seconds per real second; 1440 = one virtual day per real minute)
+ *   maxAmount=500  historyPageSize=20
+ * Set mail.enabled=false for runs; denied withdrawals would otherwise queue emails.
+ */
+public class WorkloadSimulator {
+
+    enum Op { REGISTER, DEPOSIT, WITHDRAW, TRANSFER, HISTORY }
+
+    private static final Money OPENING_BALANCE = Money.of(100_000);
+
+    /** Latency and outcomes of one operation type. */
+    private static final class OpStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final Map<TransactionOutcome, LongAdder> outcomes = new EnumMap<>(TransactionOutcome.class);
+
+        OpStats() {
+            for (TransactionOutcome o : TransactionOutcome.values()) outcomes.put(o, new LongAdder());
+        }
+
+        void record(long nanos, TransactionOutcome outcome) {
+            latency.record(nanos);
+            outcomes.get(outcome).increment();
+        }
+    }
+
+    private final Map<String, String> options;
+    private final Map<Op, OpStats> stats = new EnumMap<>(Op.class);
+    private final Op[] mixTable = new Op[100];
+    private final VirtualClock clock;
+    private final BankingService service;
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public WorkloadSimulator(Map<String, String> options) {
+        this.options = options;
+        for (Op op : Op.values()) stats.put(op, new OpStats());
+        parseMix(option("mix", "deposit:40,withdraw:25,transfer:25,history:10"));
+        this.clock = new VirtualClock(Instant.now(), Double.parseDouble(option("clockSpeed", "1440")));
+        Repositories repositories = Repositories.fromConfig();
+        this.service = new BankingService(repositories.customers(), repositories.accounts(), repositories.transactions(), clock);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got " + arg);
+            options.put(arg.substring(0, eq), arg.substring(eq + 1));
+        }
+        new WorkloadSimulator(options).run();
+        ReportGenerator.shutdown();
+        System.exit(0);
+    }
+
+    public void run() throws InterruptedException {
+        int customers = Integer.parseInt(option("customers", "1000"));
+        int workers = Integer.parseInt(option("workers", "32"));
+        long warmupMillis = Long.parseLong(option("warmupSeconds", "5")) * 1000;
+        long durationMillis = Long.parseLong(option("durationSeconds", "30")) * 1000;
+        long seed = Long.parseLong(option("seed", "42"));
+        int maxAmount = Integer.parseInt(option("maxAmount", "500"));
+        int pageSize = Integer.parseInt(option("historyPageSize", "20"));
+        double zipf = Double.parseDouble(option("zipf", "1.0"));
+
+        System.out.printf("--- WORKLOAD SIMULATION (customers=%d, workers=%d, zipf=%.2f, mix=%s) ---%n",
+                customers, workers, zipf, option("mix", "deposit:40,withdraw:25,transfer:25,history:10"));
+
+        // 1. customers (registration is measured on its own: it is dominated by password hashing)
+        long setupStart = System.nanoTime();
+        String[] accounts = register(customers, workers, seed);
+        double setupSeconds = (System.nanoTime() - setupStart) / 1e9;
+        if (accounts.length == 0) {
+            System.out.println("❌ No accounts could be created; check the storage configuration.");
+            return;
+        }
+        System.out.printf("Registered %d customers in %.1fs%n", accounts.length, setupSeconds);
+
+        // 2. warm-up (not recorded), then the measured window
+        ZipfSampler popularity = new ZipfSampler(accounts.length, zipf, seed);
+        List<Thread> threads = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            SplittableRandom random = new SplittableRandom(seed * 31 + w);
+            threads.add(Thread.ofVirtual().name("sim-worker-" + w).start(() -> {
+                while (running) step(random, accounts, popularity, maxAmount, pageSize);
+            }));
+        }
+        Thread.sleep(warmupMillis);
+        Instant virtualStart = clock.instant();
+        recording = true;
+        long start = System.nanoTime();
+        Thread.sleep(durationMillis);
+        recording = false;
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Instant virtualEnd = clock.instant();
+        running = false;
+        for (Thread t : threads) t.join();
+
+        // 3. report
+        System.out.printf("Measured %.1fs of wall time (%s of virtual time)%n", seconds,
+                Duration.between(virtualStart, virtualEnd).withNanos(0));
+        System.out.printf("%-9s %9s %10s %9s %9s %9s %9s %9s   %s%n",
+                "op", "count", "ops/sec", "mean ms", "p50 ms", "p99 ms", "p999 ms", "max ms", "outcomes");
+        for (Op op : Op.values()) {
+            LatencyHistogram.Snapshot s = stats.get(op).latency.snapshot();
+            if (s.count() == 0) continue;
+            double rate = s.count() / (op == Op.REGISTER ? setupSeconds : seconds);
+            System.out.printf("%-9s %9d %10.1f %9.3f %9.3f %9.3f %9.3f %9.3f   %s%n", op.name().toLowerCase(),
+                    s.count(), rate, s.mean() / 1e6, s.percentile(0.50) / 1e6, s.percentile(0.99) / 1e6,
+                    s.percentile(0.999) / 1e6, s.max() / 1e6, outcomes(stats.get(op)));
+        }
+    }
+
+    private String[] register(int customers, int workers, long seed) throws InterruptedException {
+        String run = Long.toString(System.currentTimeMillis() / 1000 % 100000);
+        String[] numbers = new String[customers];
+        AtomicInteger nextIndex = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(workers);
+        for (int w = 0; w < workers; w++) {
+            Thread.ofVirtual().name("sim-register-" + w).start(() -> {
+                try {
+                    for (int i = nextIndex.getAndIncrement(); i < customers; i = nextIndex.getAndIncrement()) {
+                        numbers[i] = registerOne(run, i);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        return Arrays.stream(numbers).filter(Objects::nonNull).toArray(String[]::new);
+    }
+
+    private String registerOne(String run, int i) {
+        Customer c = new Customer();
+        c.setUsername("sim" + run + "_" + i);
+        c.setPasswordHash("sim-password-" + i); // hashed by the service
+        c.setFirstName("Sim");
+        c.setLastName("Customer" + i);
+        c.setEmail("sim" + run + "." + i + "@sim.invalid");
+        c.setPhoneNumber(String.format("%05d%05d", Long.parseLong(run), i % 100000));
+        long t0 = System.nanoTime();
+        Account account = service.registerNewCustomerAndOpenAccount(c, "savings", OPENING_BALANCE);
+        stats.get(Op.REGISTER).record(System.nanoTime() - t0,
+                account == null ? TransactionOutcome.FAILED : TransactionOutcome.SUCCESSFUL);
+        return account == null ? null : account.getAccountNumber();
+    }
+
+    private void step(SplittableRandom random, String[] accounts, ZipfSampler popularity, int maxAmount, int pageSize) {
+        Op op = mixTable[random.nextInt(mixTable.length)];
+        String account = accounts[popularity.next(random)];
+        Money amount = Money.ofMinor(1 + random.nextInt(maxAmount * 100));
+
+        long t0 = System.nanoTime();
+        TransactionOutcome outcome = switch (op) {
+            case DEPOSIT -> service.deposit(account, amount);
+            case WITHDRAW -> service.withdraw(account, amount);
+            case TRANSFER -> {
+                String to = accounts[popularity.next(random)];
+                yield to.equals(account) ? service.deposit(account, amount) : service.transfer(account, to, amount);
+            }
+            case HISTORY -> {
+                try {
+                    service.getTransactionHistoryPage(account, null, pageSize);
+                    yield TransactionOutcome.SUCCESSFUL;
+                } catch (DataAccessException e) {
+                    yield TransactionOutcome.FAILED;
+                }
+            }
+            case REGISTER -> throw new IllegalStateException("register is not part of the mix");
+        };
+        long nanos = System.nanoTime() - t0;
+        if (recording) stats.get(op).record(nanos, outcome);
+    }
+
+    private void parseMix(String mix) {
+        Map<Op, Integer> weights = new EnumMap<>(Op.class);
+        int total = 0;
+        for (String part : mix.split(",")) {
+            String[] kv = part.trim().split(":");
+            Op op = Op.valueOf(kv[0].trim().toUpperCase());
+            if (op == Op.REGISTER) throw new IllegalArgumentException("register is not part of the mix");
+            int weight = Integer.parseInt(kv[1].trim());
+            weights.merge(op, weight, Integer::sum);
+            total += weight;
+        }
+        if (total <= 0) throw new IllegalArgumentException("mix weights must add up to more than 0");
+        // spread the ops over 100 slots in proportion to their weights
+        int slot = 0;
+        int cumulative = 0;
+        for (Map.Entry<Op, Integer> e : weights.entrySet()) {
+            cumulative += e.getValue();
+            int end = (int) Math.round(cumulative * 100.0 / total);
+            while (slot < end) mixTable[slot++] = e.getKey();
+        }
+    }
+
+    private static String outcomes(OpStats s) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<TransactionOutcome, LongAdder> e : s.outcomes.entrySet()) {
+            long n = e.getValue().sum();
+            if (n == 0) continue;
+            if (sb.length() > 0) sb.append(", ");
+            sb.append(e.getKey().name().toLowerCase()).append('=').append(n);
+        }
+        return sb.toString();
+    }
+
+    private String option(String key, String defaultValue) {
+        return options.getOrDefault(key, defaultValue);
+    }
+}
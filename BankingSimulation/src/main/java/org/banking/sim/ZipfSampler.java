@@ -0,0 +1,43 @@
+package org.banking.sim;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Draws indexes 0..n-1 with Zipf(s) popularity: rank k is chosen with probability proportional
+ * to 1/k^s, so a few accounts get most of the traffic (s=0 is uniform; ~1 is typical of real
+ * account activity). Ranks are shuffled onto indexes so hot accounts aren't all neighbours,
+ * which would otherwise land them in the same lock stripes and cache lines.
+ */
+public final class ZipfSampler {
+
+    private final double[] cdf;
+    private final int[] indexOfRank;
+
+    public ZipfSampler(int n, double exponent, long seed) {
+        if (n <= 0) throw new IllegalArgumentException("n must be > 0");
+        cdf = new double[n];
+        double sum = 0;
+        for (int k = 1; k <= n; k++) {
+            sum += 1.0 / Math.pow(k, exponent);
+            cdf[k - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) cdf[i] /= sum;
+
+        indexOfRank = new int[n];
+        for (int i = 0; i < n; i++) indexOfRank[i] = i;
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = indexOfRank[i];
+            indexOfRank[i] = indexOfRank[j];
+            indexOfRank[j] = t;
+        }
+    }
+
+    public int next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cdf, random.nextDouble());
+        if (rank < 0) rank = -rank - 1;
+        return indexOfRank[Math.min(rank, cdf.length - 1)];
+    }
+}
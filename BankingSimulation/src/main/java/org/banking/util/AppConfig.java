@@ -0,0 +1,58 @@
+package org.banking.util;
+
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Shared, read-only view of src/main/resources/config.properties.
+ * Typed getters fall back to the supplied default when a key is missing or malformed.
+ */
+public final class AppConfig {
+
+    private static final Properties properties = new Properties();
+
+    static {
+        try (InputStream input = AppConfig.class.getClassLoader().getResourceAsStream("config.properties")) {
+            if (input == null) {
+                System.err.println("Sorry, unable to find config.properties");
+                throw new RuntimeException("config.properties not found");
+            }
+            properties.load(input);
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Error loading config.properties");
+        }
+    }
+
+    private AppConfig() {
+    }
+
+    public static String get(String key) {
+        return properties.getProperty(key);
+    }
+
+    public static String get(String key, String defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null ? defaultValue : value.trim();
+    }
+
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static long getLong(String key, long defaultValue) {
+        try {
+            return Long.parseLong(get(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(get(key, String.valueOf(defaultValue)));
+    }
+}
@@ -1,16 +1,26 @@
 package org.banking.util;
 
+import org.banking.dao.JobCheckpointRepository;
+import org.banking.dao.MoneyColumns;
+import org.banking.metrics.Metrics;
+import org.banking.model.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.InputStream;
-import java.math.BigDecimal;
 import java.sql.*;
-import java.util.HashSet;
-import java.util.Properties;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.*;
 
+/**
+ * Periodically alerts on accounts whose balance dropped below their minimum threshold.
+ * - Only rows changed since the last scan are read: accounts.updated_at (maintained by MySQL)
+ *   is compared against a watermark persisted in job_checkpoints, and the
+ *   balance < min_balance_threshold predicate is evaluated by the database.
+ * - The set of already-alerted accounts lives in balance_alert_state, so a restart neither
+ *   re-scans everything nor re-alerts accounts that are still below threshold.
+ */
 public class BalanceAlertMonitor {
 
     private static final Logger logger = LoggerFactory.getLogger(BalanceAlertMonitor.class);
@@ -20,22 +30,23 @@ public class BalanceAlertMonitor {
         return t;
     });
 
-    // accounts currently below threshold that we already alerted for
+    private static final String JOB_NAME = "balance-alert-monitor";
+
+    // accounts currently below threshold that we already alerted for (mirrors balance_alert_state)
     private static final Set<String> alerted = ConcurrentHashMap.newKeySet();
+    private static final JobCheckpointRepository checkpoints = new JobCheckpointRepository();
 
-    private static int intervalSeconds = 60; // default
+    private static final int intervalSeconds = AppConfig.getInt("alert.check.interval", 60);
+    // re-read this much before the watermark so rows committed late by long transactions aren't missed
+    private static final long overlapMillis = AppConfig.getLong("alert.watermark.overlapSeconds", 5) * 1000;
 
-    static {
-        try (InputStream in = BalanceAlertMonitor.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (in != null) {
-                Properties p = new Properties();
-                p.load(in);
-                intervalSeconds = Integer.parseInt(p.getProperty("alert.check.interval", "60").trim());
-            }
-        } catch (Exception e) {
-            logger.warn("Could not load alert.check.interval; using default {}s", intervalSeconds, e);
-        }
-    }
+    private static final Metrics.Timer SCAN_OK = scanTimer("ok");
+    private static final Metrics.Timer SCAN_ERROR = scanTimer("error");
+    private static final Metrics.Counter ALERTS_SENT = Metrics.counter("balance_alerts_total",
+            "Low-balance alerts raised by BalanceAlertMonitor");
+
+    private static volatile boolean initialized;
+    private static Timestamp watermark;
 
     public static void start() {
         logger.info("Starting BalanceAlertMonitor (interval={}s)…", intervalSeconds);
@@ -52,50 +63,153 @@ public class BalanceAlertMonitor {
     }
 
     private static void scanOnce() {
+        long started = System.nanoTime();
+        boolean ok = false;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (!initialized) initialize(conn);
+
+            Timestamp scanStart = databaseNow(conn);
+            Timestamp since = watermark == null
+                    ? new Timestamp(0)
+                    : new Timestamp(watermark.getTime() - overlapMillis);
+
+            int alertsSent = alertNewlyBelow(conn, since);
+            int recovered = alerted.isEmpty() ? 0 : clearRecovered(conn, since);
+
+            watermark = scanStart;
+            checkpoints.save(conn, JOB_NAME, String.valueOf(scanStart.getTime()));
+
+            logger.info("Balance scan since {} done in {}ms (alerts={}, recovered={}, tracked={})",
+                    since, (System.nanoTime() - started) / 1_000_000, alertsSent, recovered, alerted.size());
+            ALERTS_SENT.add(alertsSent);
+            ok = true;
+
+        } catch (SQLException e) {
+            logger.error("BalanceAlertMonitor SQL error", e);
+        } catch (Exception e) {
+            logger.error("BalanceAlertMonitor error", e);
+        } finally {
+            (ok ? SCAN_OK : SCAN_ERROR).recordSince(started);
+        }
+    }
+
+    private static Metrics.Timer scanTimer(String result) {
+        return Metrics.timer("balance_alert_scan_duration_seconds", "Duration of one BalanceAlertMonitor scan", "result", result);
+    }
+
+    // ----------------- SCAN STEPS -----------------
+
+    private static int alertNewlyBelow(Connection conn, Timestamp since) throws SQLException {
         String sql = """
             SELECT a.account_number, a.balance, a.min_balance_threshold,
                    c.first_name, c.last_name, c.email
             FROM accounts a
             JOIN customers c ON a.customer_id = c.customer_id
+            WHERE a.updated_at >= ?
+              AND a.balance < a.min_balance_threshold
             """;
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql);
-             ResultSet rs = ps.executeQuery()) {
+        List<String> newlyAlerted = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String acc = rs.getString("account_number");
+                    // only alert once while it remains below threshold
+                    if (alerted.contains(acc)) continue;
 
-            Set<String> stillBelow = new HashSet<>();
+                    Money bal = MoneyColumns.get(rs, "balance");
+                    Money thr = MoneyColumns.get(rs, "min_balance_threshold");
+                    String email   = rs.getString("email");
+                    String name    = rs.getString("first_name") + " " + rs.getString("last_name");
 
-            while (rs.next()) {
-                String acc = rs.getString("account_number");
-                BigDecimal bal = rs.getBigDecimal("balance");
-                BigDecimal thr = rs.getBigDecimal("min_balance_threshold");
-                String email   = rs.getString("email");
-                String name    = rs.getString("first_name") + " " + rs.getString("last_name");
+                    logger.warn("Low balance detected (acc={}, bal={}, thr={}) — sending alert", acc, bal, thr);
+                    ReportGenerator.alertLowBalance(name, acc, bal, thr);
+                    if (email != null && !email.isBlank()) {
+                        EmailService.sendLowBalance(email, acc, bal, thr);
+                    }
+                    alerted.add(acc);
+                    newlyAlerted.add(acc);
+                }
+            }
+        }
 
-                if (bal == null || thr == null) continue;
+        if (!newlyAlerted.isEmpty()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "INSERT IGNORE INTO balance_alert_state (account_number) VALUES (?)")) {
+                for (String acc : newlyAlerted) {
+                    ps.setString(1, acc);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        return newlyAlerted.size();
+    }
 
-                if (bal.compareTo(thr) < 0) {
-                    stillBelow.add(acc);
+    // remove recovered accounts from the alerted set
+    private static int clearRecovered(Connection conn, Timestamp since) throws SQLException {
+        String sql = """
+            SELECT s.account_number
+            FROM balance_alert_state s
+            JOIN accounts a ON a.account_number = s.account_number
+            WHERE a.updated_at >= ?
+              AND a.balance >= a.min_balance_threshold
+            """;
 
-                    // only alert once while it remains below threshold
-                    if (!alerted.contains(acc)) {
-                        logger.warn("Low balance detected (acc={}, bal={}, thr={}) — sending alert", acc, bal, thr);
-                        ReportGenerator.alertLowBalance(name, acc, bal, thr);
-                        if (email != null && !email.isBlank()) {
-                            EmailService.sendLowBalance(email, acc, bal, thr);
-                        }
-                        alerted.add(acc);
-                    }
+        List<String> recovered = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, since);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) recovered.add(rs.getString(1));
+            }
+        }
+
+        if (!recovered.isEmpty()) {
+            try (PreparedStatement ps = conn.prepareStatement(
+                    "DELETE FROM balance_alert_state WHERE account_number = ?")) {
+                for (String acc : recovered) {
+                    ps.setString(1, acc);
+                    ps.addBatch();
                 }
+                ps.executeBatch();
             }
+            recovered.forEach(alerted::remove);
+        }
+        return recovered.size();
+    }
 
-            // remove recovered accounts from alerted set
-            alerted.removeIf(acc -> !stillBelow.contains(acc));
+    // ----------------- STARTUP -----------------
+
+    private static void initialize(Connection conn) throws SQLException {
+        SchemaSupport.ensureColumn(conn, "accounts", "updated_at",
+                "TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3) ON UPDATE CURRENT_TIMESTAMP(3)");
+        SchemaSupport.ensureIndex(conn, "accounts", "idx_accounts_updated_at", "updated_at");
+        SchemaSupport.ensureTable(conn, """
+            CREATE TABLE IF NOT EXISTS balance_alert_state (
+                account_number VARCHAR(20)  NOT NULL PRIMARY KEY,
+                alerted_at     TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP(3)
+            )
+            """);
+        checkpoints.ensureSchema();
+
+        try (PreparedStatement ps = conn.prepareStatement("SELECT account_number FROM balance_alert_state");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) alerted.add(rs.getString(1));
+        }
+        watermark = checkpoints.load(conn, JOB_NAME)
+                .map(v -> new Timestamp(Long.parseLong(v)))
+                .orElse(null);
 
-        } catch (SQLException e) {
-            logger.error("BalanceAlertMonitor SQL error", e);
-        } catch (Exception e) {
-            logger.error("BalanceAlertMonitor error", e);
+        initialized = true;
+        logger.info("BalanceAlertMonitor resumed (watermark={}, alerted={})", watermark, alerted.size());
+    }
+
+    private static Timestamp databaseNow(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT CURRENT_TIMESTAMP(3)");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1);
         }
     }
 }
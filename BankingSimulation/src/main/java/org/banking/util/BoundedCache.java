@@ -0,0 +1,279 @@
+package org.banking.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Thread-safe, size-bounded cache with TinyLFU admission over segmented LRU eviction.
+ * - Entries are spread over lock-striped segments, each an access-ordered LinkedHashMap.
+ * - When a segment is full, a new key only replaces the segment's LRU victim if it has been
+ *   requested more often (per a 4-bit count-min sketch), so one-off scans can't flush hot entries.
+ * - The removal listener is called outside the segment lock for every evicted or removed entry.
+ */
+public class BoundedCache<K, V> {
+
+    /** Notified when an entry leaves the cache because of eviction or explicit removal. */
+    @FunctionalInterface
+    public interface RemovalListener<K, V> {
+        void onRemoval(K key, V value);
+    }
+
+    /** Point-in-time cache metrics. */
+    public record Stats(long size, long hits, long misses, long evictions, long rejections) {
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Cache{size=%d, hits=%d, misses=%d, hitRate=%.2f%%, evictions=%d, rejections=%d}",
+                    size, hits, misses, hitRate() * 100, evictions, rejections);
+        }
+    }
+
+    private final Segment<K, V>[] segments;
+    private final int segmentMask;
+    private final FrequencySketch sketch;
+    private final RemovalListener<K, V> listener;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    public BoundedCache(int maximumSize) {
+        this(maximumSize, (k, v) -> { });
+    }
+
+    public BoundedCache(int maximumSize, RemovalListener<K, V> listener) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be > 0");
+        int segmentCount = Math.min(64, ceilingPowerOfTwo(Math.max(1, maximumSize / 16)));
+        int perSegment = Math.max(1, (maximumSize + segmentCount - 1) / segmentCount);
+
+        @SuppressWarnings("unchecked") // generic arrays can't be created directly; every slot is filled below
+        Segment<K, V>[] s = (Segment<K, V>[]) new Segment<?, ?>[segmentCount];
+        for (int i = 0; i < segmentCount; i++) s[i] = new Segment<>(perSegment);
+        this.segments = s;
+        this.segmentMask = segmentCount - 1;
+        this.sketch = new FrequencySketch(maximumSize);
+        this.listener = listener;
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Returns the cached value (recording the access) or null. */
+    public V get(K key) {
+        int h = spread(key.hashCode());
+        sketch.increment(h);
+        Segment<K, V> seg = segmentFor(h);
+        V value;
+        seg.lock.lock();
+        try {
+            value = seg.map.get(key);
+        } finally {
+            seg.lock.unlock();
+        }
+        if (value != null) hits.increment();
+        else misses.increment();
+        return value;
+    }
+
+    /** Returns the cached value without touching frequency or hit counters. */
+    public V peek(K key) {
+        Segment<K, V> seg = segmentFor(spread(key.hashCode()));
+        seg.lock.lock();
+        try {
+            return seg.map.get(key);
+        } finally {
+            seg.lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts or replaces an entry. Returns false if the admission policy rejected the key
+     * because the entry it would displace is used more frequently.
+     */
+    public boolean put(K key, V value) {
+        int h = spread(key.hashCode());
+        Segment<K, V> seg = segmentFor(h);
+        K evictedKey = null;
+        V evictedValue = null;
+
+        seg.lock.lock();
+        try {
+            if (seg.map.containsKey(key) || seg.map.size() < seg.capacity) {
+                seg.map.put(key, value);
+                return true;
+            }
+            Map.Entry<K, V> victim = seg.map.entrySet().iterator().next(); // LRU end
+            if (sketch.frequency(h) <= sketch.frequency(spread(victim.getKey().hashCode()))) {
+                rejections.increment();
+                return false;
+            }
+            evictedKey = victim.getKey();
+            evictedValue = victim.getValue();
+            seg.map.remove(evictedKey);
+            seg.map.put(key, value);
+        } finally {
+            seg.lock.unlock();
+            if (evictedKey != null) {
+                evictions.increment();
+                listener.onRemoval(evictedKey, evictedValue);
+            }
+        }
+        return true;
+    }
+
+    public V remove(K key) {
+        Segment<K, V> seg = segmentFor(spread(key.hashCode()));
+        V removed;
+        seg.lock.lock();
+        try {
+            removed = seg.map.remove(key);
+        } finally {
+            seg.lock.unlock();
+        }
+        if (removed != null) listener.onRemoval(key, removed);
+        return removed;
+    }
+
+    /** Removes the entry only if it is still mapped to the given value. */
+    public boolean remove(K key, V value) {
+        Segment<K, V> seg = segmentFor(spread(key.hashCode()));
+        boolean removed;
+        seg.lock.lock();
+        try {
+            removed = seg.map.remove(key, value);
+        } finally {
+            seg.lock.unlock();
+        }
+        if (removed) listener.onRemoval(key, value);
+        return removed;
+    }
+
+    public void clear() {
+        for (Segment<K, V> seg : segments) {
+            List<Map.Entry<K, V>> dropped;
+            seg.lock.lock();
+            try {
+                dropped = new ArrayList<>(seg.map.entrySet());
+                seg.map.clear();
+            } finally {
+                seg.lock.unlock();
+            }
+            for (Map.Entry<K, V> e : dropped) listener.onRemoval(e.getKey(), e.getValue());
+        }
+    }
+
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> seg : segments) {
+            seg.lock.lock();
+            try {
+                size += seg.map.size();
+            } finally {
+                seg.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    public Stats stats() {
+        return new Stats(size(), hits.sum(), misses.sum(), evictions.sum(), rejections.sum());
+    }
+
+    // ----------------- INTERNALS -----------------
+
+    private Segment<K, V> segmentFor(int hash) {
+        return segments[(hash >>> 16) & segmentMask];
+    }
+
+    private static int spread(int h) {
+        h ^= h >>> 17;
+        h *= 0xed5ad4bb;
+        h ^= h >>> 11;
+        h *= 0xac4c1b51;
+        h ^= h >>> 15;
+        return h;
+    }
+
+    private static int ceilingPowerOfTwo(int x) {
+        return x <= 1 ? 1 : Integer.highestOneBit(x - 1) << 1;
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, 0.75f, true);
+        private final int capacity;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    /**
+     * Count-min sketch of 4-bit counters packed 16 per long. Counters are halved every
+     * 10 x capacity increments so the popularity estimate follows recent traffic.
+     * Updates are deliberately unsynchronized: a lost increment only skews an estimate.
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+        private static final long RESET_MASK = 0x7777777777777777L;
+
+        private final long[] table;
+        private final int counterMask;
+        private final int sampleSize;
+        private int additions;
+
+        private FrequencySketch(int capacity) {
+            int words = ceilingPowerOfTwo(Math.max(16, capacity));
+            this.table = new long[words];
+            this.counterMask = words * 16 - 1;
+            this.sampleSize = Math.max(160, capacity * 10);
+        }
+
+        private void increment(int hash) {
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int idx = indexOf(hash, i);
+                int word = idx >>> 4;
+                int shift = (idx & 15) << 2;
+                if (((table[word] >>> shift) & 0xfL) != 0xfL) {
+                    table[word] += 1L << shift;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) reset();
+        }
+
+        private int frequency(int hash) {
+            int min = 15;
+            for (int i = 0; i < 4; i++) {
+                int idx = indexOf(hash, i);
+                int count = (int) ((table[idx >>> 4] >>> ((idx & 15) << 2)) & 0xfL);
+                min = Math.min(min, count);
+            }
+            return min;
+        }
+
+        private synchronized void reset() {
+            if (additions < sampleSize) return;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions = additions / 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            long h = (hash + SEEDS[row]) * SEEDS[row];
+            h += h >>> 32;
+            return (int) h & counterMask;
+        }
+    }
+}
@@ -0,0 +1,504 @@
+package org.banking.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded JDBC connection pool used behind {@link DatabaseConnection}.
+ * - Connections handed out are proxies: close() returns the physical connection to the pool.
+ * - Each physical connection keeps a small LRU cache of prepared statements, so repeated
+ *   conn.prepareStatement(sql) calls with the same SQL reuse the server-side statement
+ *   (with the cache on, the driver is told to prepare on the server: useServerPrepStmts).
+ * - A housekeeping thread keeps min.size connections warm, retires idle extras and reports leaks;
+ *   the borrower's stack trace is captured only when leak traces are switched on.
+ */
+public class ConnectionPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPool.class);
+
+    /** Pool settings, normally read from the db.pool.* keys in config.properties. */
+    public record Settings(String url, String user, String password,
+                           int minSize, int maxSize,
+                           long acquireTimeoutMillis,
+                           boolean validateOnBorrow, int validationTimeoutSeconds,
+                           long idleTimeoutMillis, long leakDetectionThresholdMillis,
+                           boolean leakDetectionTraces, int statementCacheSize) {
+
+        public static Settings fromConfig() {
+            int max = Math.max(1, AppConfig.getInt("db.pool.maxSize", 10));
+            return new Settings(
+                    AppConfig.get("db.url"),
+                    AppConfig.get("db.user"),
+                    AppConfig.get("db.password"),
+                    Math.min(max, Math.max(0, AppConfig.getInt("db.pool.minSize", 2))),
+                    max,
+                    AppConfig.getLong("db.pool.acquireTimeoutMs", 5000),
+                    AppConfig.getBoolean("db.pool.validateOnBorrow", true),
+                    AppConfig.getInt("db.pool.validationTimeoutSeconds", 2),
+                    AppConfig.getLong("db.pool.idleTimeoutMs", 300_000),
+                    AppConfig.getLong("db.pool.leakDetectionThresholdMs", 30_000),
+                    AppConfig.getBoolean("db.pool.leakDetectionTraces", false),
+                    Math.max(0, AppConfig.getInt("db.pool.statementCacheSize", 64)));
+        }
+    }
+
+    /** Point-in-time pool metrics. */
+    public record Stats(int total, int active, int idle, int waiting,
+                        long borrows, long timeouts, double avgWaitMillis, double maxWaitMillis,
+                        long created, long invalidated, long leaksDetected,
+                        long statementCacheHits, long statementCacheMisses) {
+        @Override
+        public String toString() {
+            return String.format("Pool{total=%d, active=%d, idle=%d, waiting=%d, borrows=%d, timeouts=%d, "
+                            + "avgWait=%.3fms, maxWait=%.3fms, created=%d, invalidated=%d, leaks=%d, "
+                            + "stmtCache(hit=%d, miss=%d)}",
+                    total, active, idle, waiting, borrows, timeouts, avgWaitMillis, maxWaitMillis,
+                    created, invalidated, leaksDetected, statementCacheHits, statementCacheMisses);
+        }
+    }
+
+    private final Settings settings;
+    private final Properties connectionProperties = new Properties();
+
+    private final Semaphore permits;
+    private final BlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> borrowed = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    // metrics
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder waitNanosTotal = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder createdCount = new LongAdder();
+    private final LongAdder invalidatedCount = new LongAdder();
+    private final LongAdder leakCount = new LongAdder();
+    private final LongAdder stmtCacheHits = new LongAdder();
+    private final LongAdder stmtCacheMisses = new LongAdder();
+
+    public ConnectionPool(Settings settings) {
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        if (settings.user() != null) connectionProperties.setProperty("user", settings.user());
+        if (settings.password() != null) connectionProperties.setProperty("password", settings.password());
+        // JDBC batches are sent as multi-row INSERTs / multi-statement UPDATEs instead of one round trip per row
+        connectionProperties.setProperty("rewriteBatchedStatements", "true");
+        // a server-side prepare costs an extra round trip, which only pays off when the statement is cached
+        if (settings.statementCacheSize() > 0) connectionProperties.setProperty("useServerPrepStmts", "true");
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        // Warm-up happens off the caller thread so a missing DB doesn't break class initialization.
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, 5, TimeUnit.SECONDS);
+
+        logger.info("ConnectionPool initialized (min={}, max={}, acquireTimeout={}ms, stmtCache={})",
+                settings.minSize(), settings.maxSize(), settings.acquireTimeoutMillis(), settings.statementCacheSize());
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeoutCount.increment();
+                throw new SQLTimeoutException("Timed out after " + settings.acquireTimeoutMillis()
+                        + "ms waiting for a database connection (active=" + borrowed.size()
+                        + ", max=" + settings.maxSize() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pc = takeIdleOrCreate();
+            recordWait(System.nanoTime() - start);
+            pc.borrowedAt = System.currentTimeMillis();
+            pc.borrowThread = Thread.currentThread().getName();
+            // filling in a stack trace on every borrow is costly, so it is opt-in for hunting a known leak
+            pc.borrowSite = settings.leakDetectionTraces() && settings.leakDetectionThresholdMillis() > 0
+                    ? new Throwable("Connection acquired here") : null;
+            pc.leakReported = false;
+            borrowed.add(pc);
+            return pc.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public Stats getStats() {
+        long borrows = borrowCount.sum();
+        return new Stats(
+                totalConnections.get(),
+                borrowed.size(),
+                idle.size(),
+                permits.getQueueLength(),
+                borrows,
+                timeoutCount.sum(),
+                borrows == 0 ? 0.0 : waitNanosTotal.sum() / (double) borrows / 1_000_000.0,
+                maxWaitNanos.get() / 1_000_000.0,
+                createdCount.sum(),
+                invalidatedCount.sum(),
+                leakCount.sum(),
+                stmtCacheHits.sum(),
+                stmtCacheMisses.sum());
+    }
+
+    public void close() {
+        if (closed) return;
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pc;
+        while ((pc = idle.pollFirst()) != null) {
+            destroy(pc);
+        }
+        logger.info("ConnectionPool closed: {}", getStats());
+    }
+
+    // ----------------- INTERNALS -----------------
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pc;
+        // LIFO: the most recently returned connection is the least likely to have gone stale
+        while ((pc = idle.pollFirst()) != null) {
+            if (!settings.validateOnBorrow() || pc.isValid(settings.validationTimeoutSeconds())) {
+                return pc;
+            }
+            invalidatedCount.increment();
+            logger.warn("Discarding invalid pooled connection");
+            destroy(pc);
+        }
+        return create();
+    }
+
+    private PooledConnection create() throws SQLException {
+        Connection raw = DriverManager.getConnection(settings.url(), connectionProperties);
+        totalConnections.incrementAndGet();
+        createdCount.increment();
+        return new PooledConnection(raw);
+    }
+
+    private void release(PooledConnection pc) {
+        borrowed.remove(pc);
+        pc.borrowSite = null;
+        try {
+            if (closed || !pc.reset() || totalConnections.get() > settings.maxSize()) {
+                destroy(pc);
+            } else {
+                pc.lastReturnedAt = System.currentTimeMillis();
+                idle.offerFirst(pc);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pc) {
+        totalConnections.decrementAndGet();
+        pc.closePhysical();
+    }
+
+    private void recordWait(long nanos) {
+        borrowCount.increment();
+        waitNanosTotal.add(nanos);
+        long prev;
+        while (nanos > (prev = maxWaitNanos.get())) {
+            if (maxWaitNanos.compareAndSet(prev, nanos)) break;
+        }
+    }
+
+    private void housekeep() {
+        if (closed) return;
+        try {
+            long now = System.currentTimeMillis();
+
+            // retire connections idle for too long, but never below min.size
+            if (settings.idleTimeoutMillis() > 0) {
+                for (PooledConnection pc : idle) {
+                    if (totalConnections.get() <= settings.minSize()) break;
+                    if (now - pc.lastReturnedAt > settings.idleTimeoutMillis() && idle.remove(pc)) {
+                        destroy(pc);
+                    }
+                }
+            }
+
+            // top up to min.size
+            while (totalConnections.get() < settings.minSize() && !closed) {
+                PooledConnection pc = create();
+                pc.lastReturnedAt = now;
+                idle.offerLast(pc);
+            }
+
+            // leak detection: report each over-held connection once per borrow
+            long threshold = settings.leakDetectionThresholdMillis();
+            if (threshold > 0) {
+                for (PooledConnection pc : borrowed) {
+                    if (!pc.leakReported && now - pc.borrowedAt > threshold) {
+                        pc.leakReported = true;
+                        leakCount.increment();
+                        logger.warn("Possible connection leak: held for {}ms by {} (threshold {}ms)",
+                                now - pc.borrowedAt, pc.borrowThread, threshold, pc.borrowSite);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            logger.warn("ConnectionPool housekeeping could not open a connection: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("ConnectionPool housekeeping error", e);
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    // ----------------- POOLED CONNECTION -----------------
+
+    private final class PooledConnection {
+        private final Connection raw;
+        private final Map<String, CachedStatement> statements;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile String borrowThread;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        private PooledConnection(Connection raw) {
+            this.raw = raw;
+            // Only touched by the single borrower of this connection, so no locking needed.
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                    if (size() <= settings.statementCacheSize()) return false;
+                    CachedStatement victim = eldest.getValue();
+                    victim.evicted = true;
+                    if (!victim.inUse) victim.closePhysical();
+                    return true;
+                }
+            };
+        }
+
+        private Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandle(this));
+        }
+
+        private PreparedStatement prepare(String sql, int autoGeneratedKeys) throws SQLException {
+            if (settings.statementCacheSize() == 0) {
+                return raw.prepareStatement(sql, autoGeneratedKeys);
+            }
+            String key = autoGeneratedKeys + "|" + sql;
+            CachedStatement cached = statements.get(key);
+            if (cached != null && !cached.inUse && !cached.statement.isClosed()) {
+                stmtCacheHits.increment();
+                cached.inUse = true;
+                return cached.newHandle();
+            }
+            stmtCacheMisses.increment();
+            PreparedStatement ps = raw.prepareStatement(sql, autoGeneratedKeys);
+            if (cached != null && cached.inUse) {
+                // same SQL already open on this connection (nested use): hand out an uncached one
+                return ps;
+            }
+            CachedStatement fresh = new CachedStatement(ps);
+            fresh.inUse = true;
+            statements.put(key, fresh);
+            return fresh.newHandle();
+        }
+
+        private boolean isValid(int timeoutSeconds) {
+            try {
+                return raw.isValid(timeoutSeconds);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+
+        /** Restores connection defaults before reuse; false means the connection should be discarded. */
+        private boolean reset() {
+            try {
+                if (raw.isClosed()) return false;
+                if (!raw.getAutoCommit()) {
+                    raw.rollback();
+                    raw.setAutoCommit(true);
+                }
+                raw.clearWarnings();
+                return true;
+            } catch (SQLException e) {
+                logger.warn("Could not reset pooled connection; discarding it: {}", e.getMessage());
+                return false;
+            }
+        }
+
+        private void closePhysical() {
+            for (CachedStatement cs : statements.values()) cs.closePhysical();
+            statements.clear();
+            try {
+                raw.close();
+            } catch (SQLException e) {
+                logger.debug("Error closing physical connection", e);
+            }
+        }
+    }
+
+    /** Logical connection handed to callers; invalid once closed. */
+    private final class ConnectionHandle implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean handleClosed;
+
+        private ConnectionHandle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return handleClosed || pooled.raw.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "PooledConnection[" + pooled.raw + (handleClosed ? ", closed]" : "]");
+                }
+                default -> {
+                }
+            }
+            if (handleClosed) throw new SQLException("Connection is closed");
+
+            if (method.getName().equals("prepareStatement")) {
+                Class<?>[] params = method.getParameterTypes();
+                if (params.length == 1) {
+                    return pooled.prepare((String) args[0], java.sql.Statement.NO_GENERATED_KEYS);
+                }
+                if (params.length == 2 && params[1] == int.class) {
+                    return pooled.prepare((String) args[0], (Integer) args[1]);
+                }
+            }
+            return invokeOn(pooled.raw, method, args);
+        }
+    }
+
+    /** Prepared statement kept open across borrows of its physical connection. */
+    private static final class CachedStatement {
+        private final PreparedStatement statement;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(PreparedStatement statement) {
+            this.statement = statement;
+        }
+
+        private PreparedStatement newHandle() {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandle(this));
+        }
+
+        /** Called when a handle is closed: reset for the next borrower instead of closing. */
+        private void checkIn() {
+            inUse = false;
+            if (evicted) {
+                closePhysical();
+                return;
+            }
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.setFetchSize(0);
+            } catch (SQLException e) {
+                closePhysical();
+            }
+        }
+
+        private void closePhysical() {
+            try {
+                statement.close();
+            } catch (SQLException ignored) {
+            }
+        }
+    }
+
+    /** Logical statement handed to callers; close() checks the cached statement back in. */
+    private static final class StatementHandle implements InvocationHandler {
+        private final CachedStatement cached;
+        private boolean handleClosed;
+
+        private StatementHandle(CachedStatement cached) {
+            this.cached = cached;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!handleClosed) {
+                        handleClosed = true;
+                        cached.checkIn();
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return handleClosed || cached.statement.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            if (handleClosed) throw new SQLException("Statement is closed");
+            return invokeOn(cached.statement, method, args);
+        }
+    }
+}
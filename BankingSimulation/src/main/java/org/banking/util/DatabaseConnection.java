@@ -1,41 +1,46 @@
 package org.banking.util;
 
-import java.io.InputStream;
+import org.banking.metrics.Metrics;
+
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
-import java.util.Properties;
 
+/**
+ * Entry point for all JDBC access. Connections come from a bounded {@link ConnectionPool}
+ * configured by the db.pool.* keys in config.properties; closing a connection returns it to the pool.
+ */
 public class DatabaseConnection {
 
-    private static final Properties properties = new Properties();
+    private static final ConnectionPool pool = new ConnectionPool(ConnectionPool.Settings.fromConfig());
+    private static final Metrics.Timer ACQUIRE = Metrics.timer("db_connection_acquire_duration_seconds",
+            "Time to borrow a pooled JDBC connection, including waiting for a free one");
+    private static final Metrics.Counter ACQUIRE_FAILURES = Metrics.counter("db_connection_acquire_failures_total",
+            "Connection requests that timed out or failed to connect");
 
     static {
-        try (InputStream input = DatabaseConnection.class.getClassLoader().getResourceAsStream("config.properties")) {
-            if (input == null) {
-                System.err.println("Sorry, unable to find config.properties");
-                throw new RuntimeException("config.properties not found");
-            }
-            // Load the properties file
-            properties.load(input);
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Error loading config.properties");
-        }
+        Runtime.getRuntime().addShutdownHook(new Thread(pool::close, "db-pool-shutdown"));
+        Metrics.gauge("db_pool_connections", "Pooled JDBC connections by state", () -> pool.getStats().active(), "state", "active");
+        Metrics.gauge("db_pool_connections", "Pooled JDBC connections by state", () -> pool.getStats().idle(), "state", "idle");
+        Metrics.gauge("db_pool_waiting_threads", "Threads waiting for a pooled connection", () -> pool.getStats().waiting());
     }
 
     public static Connection getConnection() throws SQLException {
+        long started = System.nanoTime();
         try {
-            // Load the driver (optional for modern JDBC, but good practice)
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
+            return pool.getConnection();
+        } catch (SQLException | RuntimeException e) {
+            ACQUIRE_FAILURES.increment();
+            throw e;
+        } finally {
+            ACQUIRE.recordSince(started);
         }
-        
-        return DriverManager.getConnection(
-                properties.getProperty("db.url"),
-                properties.getProperty("db.user"),
-                properties.getProperty("db.password")
-        );
     }
-}
\ No newline at end of file
+
+    public static ConnectionPool.Stats getPoolStats() {
+        return pool.getStats();
+    }
+
+    public static void shutdown() {
+        pool.close();
+    }
+}
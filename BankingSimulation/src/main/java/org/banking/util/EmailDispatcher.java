@@ -0,0 +1,303 @@
+package org.banking.util;
+
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.banking.metrics.Metrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background SMTP delivery for {@link EmailService}.
+ * - Callers only enqueue; a single worker thread drains the bounded queue in batches and sends
+ *   them over one long-lived Transport connection instead of reconnecting per message.
+ * - When the queue is full, submit() waits at most mail.queue.offerTimeoutMs and then drops
+ *   the email, so a slow relay can never stall a banking transaction.
+ * - Failed sends are retried with exponential backoff; consecutive failures open a circuit
+ *   breaker that pauses delivery until the relay has had time to recover.
+ * The Session is injected, so the dispatcher can be pointed at a local in-process SMTP stand-in.
+ */
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+    private static final Metrics.Timer SEND_OK = sendTimer("ok");
+    private static final Metrics.Timer SEND_ERROR = sendTimer("error");
+
+    /** A queued email; the MIME message is only built on the worker thread. */
+    public record OutboundEmail(String to, String subject, String html) {
+    }
+
+    /** Dispatcher settings, normally read from the mail.queue.* / mail.retry.* / mail.circuit.* keys. */
+    public record Settings(int queueCapacity, int batchSize, long offerTimeoutMillis,
+                           int maxAttempts, long initialBackoffMillis, long maxBackoffMillis,
+                           int circuitFailureThreshold, long circuitOpenMillis,
+                           long idleDisconnectMillis) {
+
+        public static Settings fromConfig() {
+            return new Settings(
+                    Math.max(1, AppConfig.getInt("mail.queue.capacity", 1000)),
+                    Math.max(1, AppConfig.getInt("mail.queue.batchSize", 20)),
+                    AppConfig.getLong("mail.queue.offerTimeoutMs", 50),
+                    Math.max(1, AppConfig.getInt("mail.retry.maxAttempts", 3)),
+                    AppConfig.getLong("mail.retry.initialBackoffMs", 500),
+                    AppConfig.getLong("mail.retry.maxBackoffMs", 10_000),
+                    Math.max(1, AppConfig.getInt("mail.circuit.failureThreshold", 5)),
+                    AppConfig.getLong("mail.circuit.openMs", 30_000),
+                    AppConfig.getLong("mail.transport.idleDisconnectMs", 30_000));
+        }
+    }
+
+    /** Point-in-time dispatcher metrics. */
+    public record Stats(int queueDepth, long enqueued, long sent, long failed, long dropped, long retries,
+                        double avgSendMillis, double maxSendMillis, String circuitState) {
+        @Override
+        public String toString() {
+            return String.format("Mail{queue=%d, enqueued=%d, sent=%d, failed=%d, dropped=%d, retries=%d, "
+                            + "avgSend=%.1fms, maxSend=%.1fms, circuit=%s}",
+                    queueDepth, enqueued, sent, failed, dropped, retries, avgSendMillis, maxSendMillis, circuitState);
+        }
+    }
+
+    private enum CircuitState { CLOSED, OPEN, HALF_OPEN }
+
+    private final Session session;
+    private final String fromAddr;
+    private final Settings settings;
+    private final BlockingQueue<OutboundEmail> queue;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // worker-thread state
+    private Transport transport;
+    private int consecutiveFailures;
+    private long circuitOpenedAt;
+    private volatile CircuitState circuit = CircuitState.CLOSED;
+
+    // metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder sendAttempts = new LongAdder();
+    private final LongAdder sendNanosTotal = new LongAdder();
+    private final AtomicLong maxSendNanos = new AtomicLong();
+
+    public EmailDispatcher(Session session, String fromAddr, Settings settings) {
+        this.session = session;
+        this.fromAddr = fromAddr;
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        this.worker = new Thread(this::runLoop, "email-dispatcher");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        registerMetrics();
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Enqueues an email; returns false if it was dropped because the queue stayed full. */
+    public boolean submit(OutboundEmail email) {
+        if (!running) {
+            dropped.increment();
+            return false;
+        }
+        try {
+            if (queue.offer(email, settings.offerTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                enqueued.increment();
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        dropped.increment();
+        logger.warn("Email queue full ({}); dropping email to {}: {}", settings.queueCapacity(), email.to(), email.subject());
+        return false;
+    }
+
+    /** Stops accepting emails, gives the worker up to the timeout to drain the queue, then closes the transport. */
+    public void shutdown(long timeout, TimeUnit unit) {
+        running = false;
+        try {
+            worker.join(unit.toMillis(timeout));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            worker.interrupt();
+            logger.warn("Email dispatcher stopped with {} emails still queued", queue.size());
+        }
+    }
+
+    public Stats getStats() {
+        long count = sendAttempts.sum();
+        return new Stats(queue.size(), enqueued.sum(), sent.sum(), failed.sum(), dropped.sum(), retries.sum(),
+                count == 0 ? 0.0 : sendNanosTotal.sum() / (double) count / 1_000_000.0,
+                maxSendNanos.get() / 1_000_000.0,
+                circuit.name());
+    }
+
+    // ----------------- WORKER -----------------
+
+    private void runLoop() {
+        List<OutboundEmail> batch = new ArrayList<>(settings.batchSize());
+        long lastActivity = System.currentTimeMillis();
+        while (running || !queue.isEmpty()) {
+            try {
+                OutboundEmail first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    // relay connections shouldn't be held open while idle
+                    if (System.currentTimeMillis() - lastActivity >= settings.idleDisconnectMillis()) closeTransport();
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, settings.batchSize() - 1);
+                for (OutboundEmail email : batch) {
+                    deliver(email);
+                }
+                lastActivity = System.currentTimeMillis();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (RuntimeException e) {
+                logger.error("Email dispatcher error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        closeTransport();
+    }
+
+    private void deliver(OutboundEmail email) throws InterruptedException {
+        long backoff = settings.initialBackoffMillis();
+        for (int attempt = 1; attempt <= settings.maxAttempts(); attempt++) {
+            awaitCircuit();
+            long start = System.nanoTime();
+            try {
+                MimeMessage msg = new MimeMessage(session);
+                msg.setFrom(new InternetAddress(fromAddr));
+                msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(email.to(), false));
+                msg.setSubject(email.subject());
+                msg.setContent(email.html(), "text/html; charset=UTF-8");
+                msg.saveChanges();
+
+                connectedTransport().sendMessage(msg, msg.getAllRecipients());
+                recordSend(System.nanoTime() - start);
+                SEND_OK.recordSince(start);
+                sent.increment();
+                onSuccess();
+                logger.info("Email sent to {}: {}", email.to(), email.subject());
+                return;
+            } catch (AddressException e) {
+                // permanent: retrying a malformed address can't help and says nothing about the relay
+                failed.increment();
+                logger.error("Invalid recipient {}; email not sent: {}", email.to(), email.subject(), e);
+                return;
+            } catch (MessagingException e) {
+                recordSend(System.nanoTime() - start);
+                SEND_ERROR.recordSince(start);
+                closeTransport();
+                onFailure();
+                if (attempt == settings.maxAttempts()) {
+                    failed.increment();
+                    logger.error("Failed to send email to {} after {} attempts: {}", email.to(), attempt, email.subject(), e);
+                    return;
+                }
+                retries.increment();
+                logger.warn("Email to {} failed (attempt {}/{}), retrying in {}ms: {}",
+                        email.to(), attempt, settings.maxAttempts(), backoff, e.getMessage());
+                Thread.sleep(backoff);
+                backoff = Math.min(backoff * 2, settings.maxBackoffMillis());
+            }
+        }
+    }
+
+    private Transport connectedTransport() throws MessagingException {
+        if (transport == null || !transport.isConnected()) {
+            closeTransport();
+            transport = session.getTransport("smtp");
+            transport.connect();
+        }
+        return transport;
+    }
+
+    private void closeTransport() {
+        if (transport == null) return;
+        try {
+            transport.close();
+        } catch (MessagingException e) {
+            logger.debug("Error closing SMTP transport", e);
+        }
+        transport = null;
+    }
+
+    // ----------------- CIRCUIT BREAKER -----------------
+
+    private void awaitCircuit() throws InterruptedException {
+        if (circuit != CircuitState.OPEN) return;
+        long wait = circuitOpenedAt + settings.circuitOpenMillis() - System.currentTimeMillis();
+        if (wait > 0) {
+            logger.warn("Mail relay circuit open; pausing delivery for {}ms ({} queued)", wait, queue.size());
+            Thread.sleep(wait);
+        }
+        circuit = CircuitState.HALF_OPEN; // next send is the probe
+    }
+
+    private void onSuccess() {
+        consecutiveFailures = 0;
+        if (circuit != CircuitState.CLOSED) {
+            logger.info("Mail relay healthy again; circuit closed");
+            circuit = CircuitState.CLOSED;
+        }
+    }
+
+    private void onFailure() {
+        consecutiveFailures++;
+        if (circuit == CircuitState.HALF_OPEN || consecutiveFailures >= settings.circuitFailureThreshold()) {
+            if (circuit != CircuitState.OPEN) {
+                logger.error("Mail relay unhealthy after {} consecutive failures; opening circuit for {}ms",
+                        consecutiveFailures, settings.circuitOpenMillis());
+            }
+            circuit = CircuitState.OPEN;
+            circuitOpenedAt = System.currentTimeMillis();
+        }
+    }
+
+    // the most recently created dispatcher is the one exported
+    private void registerMetrics() {
+        String help = "Emails by delivery state";
+        Metrics.functionCounter("mail_messages_total", help, enqueued::sum, "state", "enqueued");
+        Metrics.functionCounter("mail_messages_total", help, sent::sum, "state", "sent");
+        Metrics.functionCounter("mail_messages_total", help, failed::sum, "state", "failed");
+        Metrics.functionCounter("mail_messages_total", help, dropped::sum, "state", "dropped");
+        Metrics.functionCounter("mail_send_retries_total", "SMTP sends retried after a relay error", retries::sum);
+        Metrics.gauge("mail_queue_depth", "Emails waiting for the dispatcher", queue::size);
+        Metrics.gauge("mail_circuit_open", "1 while the mail relay circuit breaker is open",
+                () -> circuit == CircuitState.OPEN ? 1 : 0);
+    }
+
+    private static Metrics.Timer sendTimer(String result) {
+        return Metrics.timer("mail_send_duration_seconds", "Time for one SMTP send attempt", "result", result);
+    }
+
+    private void recordSend(long nanos) {
+        sendAttempts.increment();
+        sendNanosTotal.add(nanos);
+        long prev;
+        while (nanos > (prev = maxSendNanos.get())) {
+            if (maxSendNanos.compareAndSet(prev, nanos)) break;
+        }
+    }
+}
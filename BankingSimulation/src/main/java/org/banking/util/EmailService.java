@@ -1,27 +1,28 @@
 package org.banking.util;
 
 import jakarta.mail.*;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeMessage;
+import org.banking.model.Money;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.InputStream;
-import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Sends HTML emails via SMTP configured in src/main/resources/config.properties.
  * - sendLowBalance(...)           : triggered when balance < threshold
  * - sendInsufficientFunds(...)    : triggered when a transaction is denied due to min-balance rule
+ * Both only build the body and enqueue it; delivery happens on the {@link EmailDispatcher} thread.
  */
 public class EmailService {
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
 
     private static final Properties cfg = new Properties();
     private static Session session;
+    private static EmailDispatcher dispatcher;
     private static boolean enabled = false;
     private static String fromAddr = "";
 
@@ -33,13 +34,18 @@ public class EmailService {
             fromAddr = cfg.getProperty("mail.from", "");
 
             Properties p = new Properties();
-            p.put("mail.smtp.auth", "true");
+            p.put("mail.smtp.auth", cfg.getProperty("mail.smtp.auth", "true"));
             p.put("mail.smtp.starttls.enable", cfg.getProperty("mail.starttls", "true"));
             p.put("mail.smtp.host", cfg.getProperty("mail.smtp.host", "sandbox.smtp.mailtrap.io"));
             p.put("mail.smtp.port", cfg.getProperty("mail.smtp.port", "587"));
             // extra compatibility
             p.put("mail.smtp.ssl.protocols", "TLSv1.2");
             p.put("mail.smtp.ssl.trust", cfg.getProperty("mail.smtp.host", "sandbox.smtp.mailtrap.io"));
+            // never let a hung relay block the dispatcher forever
+            String timeout = cfg.getProperty("mail.smtp.timeoutMs", "10000");
+            p.put("mail.smtp.connectiontimeout", timeout);
+            p.put("mail.smtp.timeout", timeout);
+            p.put("mail.smtp.writetimeout", timeout);
 
             final String user = cfg.getProperty("mail.username", "");
             final String pass = cfg.getProperty("mail.password", "");
@@ -50,6 +56,12 @@ public class EmailService {
                 }
             });
 
+            if (enabled) {
+                dispatcher = new EmailDispatcher(session, fromAddr, EmailDispatcher.Settings.fromConfig());
+                Runtime.getRuntime().addShutdownHook(new Thread(
+                        () -> dispatcher.shutdown(5, TimeUnit.SECONDS), "email-dispatcher-shutdown"));
+            }
+
             logger.info("EmailService initialized (enabled={}, host={}, from={})",
                     enabled, p.getProperty("mail.smtp.host"), fromAddr);
 
@@ -61,44 +73,48 @@ public class EmailService {
     // ----------------- PUBLIC API -----------------
 
     public static void sendLowBalance(String toEmail, String accountNo,
-                                      BigDecimal balance, BigDecimal threshold) {
-        if (!enabled) {
+                                      Money balance, Money threshold) {
+        if (!enabled || dispatcher == null) {
             logger.info("Email disabled; skipping low-balance email for acc {}", accountNo);
             return;
         }
-        try {
-            Message msg = new MimeMessage(session);
-            msg.setFrom(new InternetAddress(fromAddr));
-            msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail, false));
-            msg.setSubject("Low Balance Alert — Account " + maskAccount(accountNo));
-            msg.setContent(buildLowBalanceHtml(maskAccount(accountNo), balance, threshold), "text/html; charset=UTF-8");
-            Transport.send(msg);
-            logger.info("Low-balance email sent to {} for account {}", toEmail, accountNo);
-        } catch (Exception e) {
-            logger.error("Failed to send low-balance email for acc {}", accountNo, e);
+        String subject = "Low Balance Alert — Account " + maskAccount(accountNo);
+        String html = lowBalanceHtml(accountNo, balance, threshold);
+        if (dispatcher.submit(new EmailDispatcher.OutboundEmail(toEmail, subject, html))) {
+            logger.info("Low-balance email queued for {} (account {})", toEmail, accountNo);
         }
     }
 
     public static void sendInsufficientFunds(String toEmail, String accountNo,
-                                             BigDecimal currentBalance, BigDecimal threshold,
-                                             BigDecimal attemptedAmount) {
-        if (!enabled) {
+                                             Money currentBalance, Money threshold,
+                                             Money attemptedAmount) {
+        if (!enabled || dispatcher == null) {
             logger.info("Email disabled; skipping insufficient-funds email for acc {}", accountNo);
             return;
         }
-        try {
-            Message msg = new MimeMessage(session);
-            msg.setFrom(new InternetAddress(fromAddr));
-            msg.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail, false));
-            msg.setSubject("Transaction Denied — Minimum Balance Policy (" + maskAccount(accountNo) + ")");
-            msg.setContent(buildDeniedHtml(maskAccount(accountNo), currentBalance, threshold, attemptedAmount), "text/html; charset=UTF-8");
-            Transport.send(msg);
-            logger.info("Insufficient-funds email sent to {} for account {}", toEmail, accountNo);
-        } catch (Exception e) {
-            logger.error("Failed to send insufficient-funds email for acc {}", accountNo, e);
+        String subject = "Transaction Denied — Minimum Balance Policy (" + maskAccount(accountNo) + ")";
+        String html = insufficientFundsHtml(accountNo, currentBalance, threshold, attemptedAmount);
+        if (dispatcher.submit(new EmailDispatcher.OutboundEmail(toEmail, subject, html))) {
+            logger.info("Insufficient-funds email queued for {} (account {})", toEmail, accountNo);
         }
     }
 
+    /** The HTML body sendLowBalance queues, without sending anything (previews, benchmarks). */
+    public static String lowBalanceHtml(String accountNo, Money balance, Money threshold) {
+        return buildLowBalanceHtml(maskAccount(accountNo), balance, threshold);
+    }
+
+    /** The HTML body sendInsufficientFunds queues, without sending anything. */
+    public static String insufficientFundsHtml(String accountNo, Money currentBalance, Money threshold,
+                                               Money attemptedAmount) {
+        return buildDeniedHtml(maskAccount(accountNo), currentBalance, threshold, attemptedAmount);
+    }
+
+    /** Queue depth, send latency and failure metrics; null when email is disabled. */
+    public static EmailDispatcher.Stats getDispatcherStats() {
+        return dispatcher == null ? null : dispatcher.getStats();
+    }
+
     // ----------------- HELPERS -----------------
 
     private static String maskAccount(String acc) {
@@ -106,10 +122,10 @@ public class EmailService {
         return "XXXX-" + acc.substring(Math.max(0, acc.length() - 4));
     }
 
-    private static String buildLowBalanceHtml(String maskedAcc, BigDecimal bal, BigDecimal thr) {
+    private static String buildLowBalanceHtml(String maskedAcc, Money bal, Money thr) {
         NumberFormat nf = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        String sbal = nf.format(bal);
-        String sthr = nf.format(thr);
+        String sbal = nf.format(bal.toBigDecimal());
+        String sthr = nf.format(thr.toBigDecimal());
 
         return """
             <div style="font-family:Segoe UI,Arial,sans-serif;max-width:560px;margin:0 auto;border:1px solid #e5e7eb;border-radius:12px;overflow:hidden">
@@ -144,11 +160,11 @@ public class EmailService {
             """.formatted(maskedAcc, sbal, sthr, maskedAcc, sbal, sthr, String.valueOf(java.time.Year.now()));
     }
 
-    private static String buildDeniedHtml(String maskedAcc, BigDecimal bal, BigDecimal thr, BigDecimal attempted) {
+    private static String buildDeniedHtml(String maskedAcc, Money bal, Money thr, Money attempted) {
         NumberFormat nf = NumberFormat.getCurrencyInstance(new Locale("en", "IN"));
-        String sbal = nf.format(bal);
-        String sthr = nf.format(thr);
-        String satt = nf.format(attempted);
+        String sbal = nf.format(bal.toBigDecimal());
+        String sthr = nf.format(thr.toBigDecimal());
+        String satt = nf.format(attempted.toBigDecimal());
 
         return """
             <div style="font-family:Segoe UI,Arial,sans-serif;max-width:560px;margin:0 auto;border:1px solid #fde68a;border-radius:12px;overflow:hidden">
@@ -1,48 +1,80 @@
 package org.banking.util;
 
+import org.banking.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.*;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Account reports.
+ * - Transactions go to the shared, group-committed {@link ReportLog} instead of one file per account.
+ * - Summaries are kept in memory and written to report_dir/<acct>_summary.txt by a background
+ *   flusher every report.summary.flushIntervalSeconds, not rewritten on every transaction.
+ */
 public class ReportGenerator {
 
-    private static final String TRANSACTION_LOG_DIR = "bank_reports/";
+    private static final Logger logger = LoggerFactory.getLogger(ReportGenerator.class);
+
+    private static final String TRANSACTION_LOG_DIR = AppConfig.get("report.dir", "bank_reports") + "/";
+
+    private record Summary(String name, String accountNumber, Money balance) {
+    }
+
+    // latest summary per account, waiting to be flushed to disk
+    private static final Map<String, Summary> pendingSummaries = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService summaryFlusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "report-summary-flusher");
+        t.setDaemon(true);
+        return t;
+    });
+    private static final ReportLog reportLog;
 
     static {
         File dir = new File(TRANSACTION_LOG_DIR);
         if (!dir.exists()) dir.mkdirs();
-    }
 
-    // Log a deposit/withdrawal/transfer transaction
-    public static void logTransaction(String accountNumber, String type, BigDecimal amount, BigDecimal balance) {
-        String filePath = TRANSACTION_LOG_DIR + accountNumber + "_transactions.txt";
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath, true))) {
-            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
-            writer.printf("%s\t%-15s\t%12.2f\t%12.2f%n", timestamp, type, amount, balance);
+        try {
+            reportLog = new ReportLog(ReportLog.Settings.fromConfig());
         } catch (IOException e) {
-            e.printStackTrace();
+            throw new UncheckedIOException("Could not open report log", e);
         }
+
+        int interval = Math.max(1, AppConfig.getInt("report.summary.flushIntervalSeconds", 5));
+        summaryFlusher.scheduleWithFixedDelay(ReportGenerator::flushSummaries, interval, interval, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(ReportGenerator::shutdown, "report-shutdown"));
     }
 
-    // Generate/update account summary
-    public static void generateAccountSummary(String name, String accountNumber, BigDecimal balance) {
-        String filePath = TRANSACTION_LOG_DIR + accountNumber + "_summary.txt";
-        try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
-            writer.println("========== ACCOUNT SUMMARY ==========");
-            writer.printf("Holder Name : %s%n", name);
-            writer.printf("Account No  : %s%n", accountNumber);
-            writer.printf("Balance     : %.2f%n", balance);
-            writer.println("=====================================");
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    // Log a deposit/withdrawal/transfer transaction
+    public static void logTransaction(String accountNumber, String type, Money amount, Money balance) {
+        reportLog.append(accountNumber, type, amount, balance);
+    }
+
+    // Generate/update account summary (written out by the background flusher)
+    public static void generateAccountSummary(String name, String accountNumber, Money balance) {
+        pendingSummaries.put(accountNumber, new Summary(name, accountNumber, balance));
     }
 
     // Print account summary in a formatted table
     public static void printAccountSummary(String accountNumber) {
+        Summary pending = pendingSummaries.get(accountNumber);
+        if (pending != null) {
+            // not flushed yet: build it on demand
+            StringWriter out = new StringWriter();
+            writeSummary(new PrintWriter(out), pending);
+            System.out.println("\n===== ACCOUNT SUMMARY =====");
+            System.out.print(out);
+            System.out.println("===========================\n");
+            return;
+        }
+
         String filePath = TRANSACTION_LOG_DIR + accountNumber + "_summary.txt";
         File file = new File(filePath);
         if (!file.exists()) {
@@ -63,23 +95,13 @@ public class ReportGenerator {
 
     // Print transaction log as a formatted table
     public static void printTransactionLog(String accountNumber) {
-        String filePath = TRANSACTION_LOG_DIR + accountNumber + "_transactions.txt";
-        File file = new File(filePath);
-        if (!file.exists()) {
+        List<String[]> rows = new ArrayList<>(readLegacyLog(accountNumber));
+        rows.addAll(reportLog.read(accountNumber));
+        if (rows.isEmpty()) {
             System.out.println("No transactions found.");
             return;
         }
 
-        List<String[]> rows = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                rows.add(line.split("\t"));
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
         // Print table header
         System.out.printf("%-20s | %-15s | %12s | %12s%n", "Timestamp", "Type", "Amount", "Balance");
         System.out.println("-------------------------------------------------------------------");
@@ -93,11 +115,60 @@ public class ReportGenerator {
     }
 
     // Low balance alert
-    public static void alertLowBalance(String name, String accountNumber, BigDecimal balance, BigDecimal threshold) {
+    public static void alertLowBalance(String name, String accountNumber, Money balance, Money threshold) {
         System.out.println("\n!!! LOW BALANCE ALERT !!!");
         System.out.printf("Account Holder: %s%n", name);
         System.out.printf("Account Number: %s%n", accountNumber);
-        System.out.printf("Current Balance: %.2f (Threshold: %.2f)%n", balance, threshold);
+        System.out.printf("Current Balance: %s (Threshold: %s)%n", balance, threshold);
         System.out.println("Please top-up your account or contact support.\n");
     }
+
+    // Flush queued log records and pending summaries (also run on JVM shutdown)
+    public static void shutdown() {
+        summaryFlusher.shutdown();
+        flushSummaries();
+        reportLog.close();
+    }
+
+    // ----------------- PRIVATE HELPERS -----------------
+
+    private static void flushSummaries() {
+        for (Summary summary : pendingSummaries.values()) {
+            String filePath = TRANSACTION_LOG_DIR + summary.accountNumber() + "_summary.txt";
+            try (PrintWriter writer = new PrintWriter(new FileWriter(filePath))) {
+                writeSummary(writer, summary);
+            } catch (IOException e) {
+                logger.error("Could not write summary for {}", summary.accountNumber(), e);
+                continue;
+            }
+            // keep it pending if a newer balance arrived while we were writing
+            pendingSummaries.remove(summary.accountNumber(), summary);
+        }
+    }
+
+    private static void writeSummary(PrintWriter writer, Summary summary) {
+        writer.println("========== ACCOUNT SUMMARY ==========");
+        writer.printf("Holder Name : %s%n", summary.name());
+        writer.printf("Account No  : %s%n", summary.accountNumber());
+        writer.printf("Balance     : %s%n", summary.balance());
+        writer.println("=====================================");
+        writer.flush();
+    }
+
+    // Per-account files written before the shared report log existed
+    private static List<String[]> readLegacyLog(String accountNumber) {
+        File file = new File(TRANSACTION_LOG_DIR + accountNumber + "_transactions.txt");
+        if (!file.exists()) return List.of();
+
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                rows.add(line.split("\t"));
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
 }
@@ -0,0 +1,475 @@
+package org.banking.util;
+
+import org.banking.model.Money;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only transaction report log shared by all accounts.
+ * - Records are text lines "account \t timestamp \t type \t amount \t balance" written to
+ *   fixed-size segments (report_dir/log/segment-NNNNNNNN.log, at most 2 GiB each).
+ * - Callers only enqueue; one writer thread drains the queue and appends each batch with a
+ *   single write (+ optional fsync), i.e. group commit.
+ * - Only the active segment's per-account record offsets are kept on the heap. Sealing a segment
+ *   writes them next to it (segment-NNNNNNNN.idx: accounts in byte order, each with its offsets);
+ *   sealed segments and their indexes are mapped once and read by binary search, so heap use and
+ *   startup time follow the active segment, not the whole history.
+ * - Startup scans only the active segment, plus any sealed one whose index is missing or stale.
+ */
+public class ReportLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportLog.class);
+    private static final DateTimeFormatter TS_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // .idx layout: header (magic, size of the segment it indexes, account count), then one fixed-width
+    // entry per account (key position, key length, offsets position, offset count), keys, offsets
+    private static final int INDEX_MAGIC = 0x52494458; // "RIDX"
+    private static final int INDEX_HEADER_BYTES = 16;
+    private static final int INDEX_ENTRY_BYTES = 16;
+
+    /** Report log settings, normally read from the report.log.* keys. */
+    public record Settings(Path dir, long segmentBytes, int queueCapacity, int batchSize, boolean fsync) {
+        public static Settings fromConfig() {
+            return new Settings(
+                    Path.of(AppConfig.get("report.dir", "bank_reports"), "log"),
+                    Math.min(Integer.MAX_VALUE, AppConfig.getLong("report.log.segmentSizeMb", 64) * 1024 * 1024),
+                    Math.max(1, AppConfig.getInt("report.log.queueCapacity", 10_000)),
+                    Math.max(1, AppConfig.getInt("report.log.batchSize", 512)),
+                    AppConfig.getBoolean("report.log.fsync", false));
+        }
+    }
+
+    private record Entry(String accountNumber, long epochMillis, String type, Money amount,
+                         Money balance, CountDownLatch flushed) {
+    }
+
+    /** The segment being appended to and its in-memory offsets; replaced as a whole when it is sealed. */
+    private record Active(int segment, Map<String, OffsetList> offsets) {
+    }
+
+    /** A sealed segment and its index, both mapped read-only once; neither changes again. */
+    private record Sealed(int segment, MappedByteBuffer log, MappedByteBuffer index) {
+    }
+
+    private final Settings settings;
+    private final BlockingQueue<Entry> queue;
+    private final List<Sealed> sealed = new CopyOnWriteArrayList<>(); // ascending segment order
+    private volatile Active active;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // writer-thread state
+    private FileChannel activeChannel;
+    private long activeSize;
+
+    public ReportLog(Settings settings) throws IOException {
+        this.settings = settings;
+        this.queue = new ArrayBlockingQueue<>(settings.queueCapacity());
+        Files.createDirectories(settings.dir());
+        recover();
+        this.writer = new Thread(this::runLoop, "report-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    // ----------------- PUBLIC API -----------------
+
+    /** Queues a record; blocks only when the writer has fallen queueCapacity records behind. */
+    public void append(String accountNumber, String type, Money amount, Money balance) {
+        enqueue(new Entry(accountNumber, System.currentTimeMillis(), type, amount, balance, null));
+    }
+
+    /** Waits until every record queued so far has been written. */
+    public void flush(long timeout, TimeUnit unit) throws InterruptedException {
+        if (!running) return;
+        CountDownLatch latch = new CountDownLatch(1);
+        enqueue(new Entry(null, 0, null, null, null, latch));
+        latch.await(timeout, unit);
+    }
+
+    /** Formatted records for an account, oldest first. */
+    public List<String[]> read(String accountNumber) {
+        Active current = active; // before the sealed list, so a segment sealed meanwhile is read only once
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        List<String[]> rows = new ArrayList<>();
+        for (Sealed s : sealed) {
+            if (s.segment() >= current.segment()) break;
+            int[] offsets = offsetsIn(s.index(), key);
+            if (offsets == null) continue;
+            for (int offset : offsets) addRow(rows, lineAt(s.log(), offset));
+        }
+        OffsetList offsets = current.offsets().get(accountNumber);
+        if (offsets != null) readActive(current.segment(), offsets.snapshot(), rows);
+        return rows;
+    }
+
+    public boolean hasRecords(String accountNumber) {
+        Active current = active;
+        if (current.offsets().containsKey(accountNumber)) return true;
+        byte[] key = accountNumber.getBytes(StandardCharsets.UTF_8);
+        for (Sealed s : sealed) {
+            if (s.segment() < current.segment() && offsetsIn(s.index(), key) != null) return true;
+        }
+        return false;
+    }
+
+    public int pendingRecords() {
+        return queue.size();
+    }
+
+    public void close() {
+        if (!running) return;
+        try {
+            flush(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        running = false;
+        writer.interrupt();
+    }
+
+    // ----------------- WRITER -----------------
+
+    private void enqueue(Entry entry) {
+        try {
+            queue.put(entry);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while queueing report record for {}", entry.accountNumber());
+        }
+    }
+
+    private void runLoop() {
+        List<Entry> batch = new ArrayList<>(settings.batchSize());
+        while (running) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, settings.batchSize() - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                break;
+            } catch (IOException e) {
+                logger.error("Report log write failed; {} records lost", batch.size(), e);
+            } finally {
+                for (Entry e : batch) {
+                    if (e.flushed() != null) e.flushed().countDown();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<Entry> batch) throws IOException {
+        StringBuilder sb = new StringBuilder(batch.size() * 80);
+        List<String> accounts = new ArrayList<>(batch.size());
+        int[] lineEnds = new int[batch.size()];
+        int count = 0;
+        for (Entry e : batch) {
+            if (e.accountNumber() == null) continue; // flush marker
+            String timestamp = LocalDateTime.ofInstant(Instant.ofEpochMilli(e.epochMillis()), ZoneId.systemDefault())
+                    .format(TS_FORMAT);
+            sb.append(e.accountNumber()).append('\t')
+              .append(String.format("%s\t%-15s\t%12s\t%12s", timestamp, e.type(), e.amount(), e.balance()))
+              .append('\n');
+            accounts.add(e.accountNumber());
+            lineEnds[count++] = sb.length();
+        }
+        if (count == 0) return;
+
+        byte[] bytes = sb.toString().getBytes(StandardCharsets.UTF_8);
+        // also right after startup: recover() reopened the last segment, which may already be full
+        if (activeSize > 0 && activeSize + bytes.length > settings.segmentBytes()) {
+            rollSegment();
+        }
+        long base = activeSize;
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        while (buf.hasRemaining()) {
+            activeChannel.write(buf, base + buf.position());
+        }
+        if (settings.fsync()) activeChannel.force(false);
+        activeSize = base + bytes.length;
+
+        // publish offsets only after the bytes are in the file (lines are ASCII)
+        Map<String, OffsetList> offsets = active.offsets();
+        int lineStart = 0;
+        for (int i = 0; i < count; i++) {
+            offsets.computeIfAbsent(accounts.get(i), k -> new OffsetList()).add((int) (base + lineStart));
+            lineStart = lineEnds[i];
+        }
+    }
+
+    // Seals the active segment (data, then its index) and starts the next one.
+    private void rollSegment() throws IOException {
+        Active sealing = active;
+        activeChannel.force(true);
+        activeChannel.close();
+        try {
+            writeIndex(sealing.segment(), activeSize, sealing.offsets());
+            sealed.add(mapSealed(sealing.segment()));
+        } catch (IOException e) {
+            logger.error("Could not index report log segment {}; its records are unreadable until restart",
+                    sealing.segment(), e);
+        }
+        openActive(sealing.segment() + 1, new ConcurrentHashMap<>());
+    }
+
+    private void openActive(int segment, Map<String, OffsetList> offsets) throws IOException {
+        activeChannel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        activeSize = activeChannel.size();
+        active = new Active(segment, offsets);
+    }
+
+    // ----------------- SEGMENT INDEX -----------------
+
+    private void writeIndex(int segment, long segmentSize, Map<String, OffsetList> offsets) throws IOException {
+        List<byte[]> keys = new ArrayList<>(offsets.size());
+        List<int[]> lists = new ArrayList<>(offsets.size());
+        long keyBytes = 0, offsetCount = 0;
+        List<Map.Entry<String, OffsetList>> entries = new ArrayList<>(offsets.entrySet());
+        List<byte[]> encoded = new ArrayList<>(entries.size());
+        for (Map.Entry<String, OffsetList> e : entries) encoded.add(e.getKey().getBytes(StandardCharsets.UTF_8));
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded.get(a), encoded.get(b)));
+        for (int i : order) {
+            int[] list = entries.get(i).getValue().snapshot();
+            keys.add(encoded.get(i));
+            lists.add(list);
+            keyBytes += encoded.get(i).length;
+            offsetCount += list.length;
+        }
+
+        long total = INDEX_HEADER_BYTES + (long) INDEX_ENTRY_BYTES * keys.size() + keyBytes + 4 * offsetCount;
+        if (total > Integer.MAX_VALUE) throw new IOException("Report log index for segment " + segment + " is too large");
+        ByteBuffer buf = ByteBuffer.allocate((int) total);
+        buf.putInt(INDEX_MAGIC).putLong(segmentSize).putInt(keys.size());
+        int keyPos = INDEX_HEADER_BYTES + INDEX_ENTRY_BYTES * keys.size();
+        int offsetPos = (int) (keyPos + keyBytes);
+        for (int i = 0; i < keys.size(); i++) {
+            buf.putInt(keyPos).putInt(keys.get(i).length).putInt(offsetPos).putInt(lists.get(i).length);
+            keyPos += keys.get(i).length;
+            offsetPos += 4 * lists.get(i).length;
+        }
+        for (byte[] key : keys) buf.put(key);
+        for (int[] list : lists) {
+            for (int offset : list) buf.putInt(offset);
+        }
+        buf.flip();
+
+        Path tmp = settings.dir().resolve(indexPath(segment).getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, indexPath(segment), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Binary search of a mapped .idx for the key; null when the account has no records in the segment.
+    private static int[] offsetsIn(ByteBuffer index, byte[] key) {
+        int lo = 0;
+        int hi = index.getInt(12) - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int entry = INDEX_HEADER_BYTES + mid * INDEX_ENTRY_BYTES;
+            int cmp = compareKey(index, index.getInt(entry), index.getInt(entry + 4), key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                int pos = index.getInt(entry + 8);
+                int[] offsets = new int[index.getInt(entry + 12)];
+                for (int i = 0; i < offsets.length; i++) offsets[i] = index.getInt(pos + 4 * i);
+                return offsets;
+            }
+        }
+        return null;
+    }
+
+    private static int compareKey(ByteBuffer index, int pos, int length, byte[] key) {
+        int n = Math.min(length, key.length);
+        for (int i = 0; i < n; i++) {
+            int cmp = Integer.compare(index.get(pos + i) & 0xff, key[i] & 0xff);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    // ----------------- READ PATH -----------------
+
+    private static String lineAt(MappedByteBuffer log, int start) {
+        int end = start;
+        while (end < log.limit() && log.get(end) != '\n') end++;
+        byte[] line = new byte[end - start];
+        log.get(start, line);
+        return new String(line, StandardCharsets.UTF_8);
+    }
+
+    // The active segment is still growing, so it is read with positional reads rather than mapped.
+    private void readActive(int segment, int[] offsets, List<String[]> rows) {
+        try (FileChannel ch = FileChannel.open(segmentPath(segment), StandardOpenOption.READ)) {
+            for (int offset : offsets) addRow(rows, lineAt(ch, offset));
+        } catch (IOException e) {
+            logger.error("Could not read report log segment {}", segment, e);
+        }
+    }
+
+    private static String lineAt(FileChannel ch, long start) throws IOException {
+        for (int capacity = 256; ; capacity *= 2) {
+            ByteBuffer buf = ByteBuffer.allocate(capacity);
+            while (buf.hasRemaining() && ch.read(buf, start + buf.position()) >= 0) {
+                // keep reading until the buffer is full or the file ends
+            }
+            byte[] bytes = buf.array();
+            for (int i = 0; i < buf.position(); i++) {
+                if (bytes[i] == '\n') return new String(bytes, 0, i, StandardCharsets.UTF_8);
+            }
+            if (buf.hasRemaining()) return new String(bytes, 0, buf.position(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void addRow(List<String[]> rows, String line) {
+        String[] fields = line.split("\t");
+        rows.add(Arrays.copyOfRange(fields, 1, fields.length)); // drop the account column
+    }
+
+    private Path segmentPath(int segment) {
+        return settings.dir().resolve(String.format("segment-%08d.log", segment));
+    }
+
+    private Path indexPath(int segment) {
+        return settings.dir().resolve(String.format("segment-%08d.idx", segment));
+    }
+
+    // ----------------- RECOVERY -----------------
+
+    /** Maps the sealed segments, rebuilds the active one's offsets and truncates a torn final record. */
+    private void recover() throws IOException {
+        List<Integer> segments;
+        try (Stream<Path> files = Files.list(settings.dir())) {
+            segments = files.map(p -> p.getFileName().toString())
+                    .filter(name -> name.matches("segment-\\d{8}\\.log"))
+                    .map(name -> Integer.parseInt(name.substring(8, 16)))
+                    .sorted()
+                    .toList();
+        }
+        if (segments.isEmpty()) {
+            openActive(0, new ConcurrentHashMap<>());
+            return;
+        }
+        int last = segments.get(segments.size() - 1);
+        for (int segment : segments) {
+            if (segment != last) sealed.add(recoverSealed(segment));
+        }
+        Map<String, OffsetList> offsets;
+        try (FileChannel ch = FileChannel.open(segmentPath(last), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            offsets = scan(ch, segmentPath(last));
+        }
+        openActive(last, offsets);
+        logger.info("Report log recovered: {} sealed segments, active segment {} with {} accounts",
+                sealed.size(), last, offsets.size());
+    }
+
+    private Sealed recoverSealed(int segment) throws IOException {
+        Path log = segmentPath(segment);
+        if (!indexMatches(segment, Files.size(log))) {
+            logger.warn("Rebuilding report log index for {}", log.getFileName());
+            try (FileChannel ch = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                Map<String, OffsetList> offsets = scan(ch, log);
+                writeIndex(segment, ch.size(), offsets);
+            }
+        }
+        return mapSealed(segment);
+    }
+
+    private boolean indexMatches(int segment, long segmentSize) throws IOException {
+        Path index = indexPath(segment);
+        if (!Files.exists(index)) return false;
+        try (FileChannel ch = FileChannel.open(index, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(INDEX_HEADER_BYTES);
+            while (header.hasRemaining() && ch.read(header, header.position()) >= 0) {
+                // read the whole header unless the file is shorter
+            }
+            return !header.hasRemaining() && header.getInt(0) == INDEX_MAGIC && header.getLong(4) == segmentSize;
+        }
+    }
+
+    private Sealed mapSealed(int segment) throws IOException {
+        try (FileChannel log = FileChannel.open(segmentPath(segment), StandardOpenOption.READ);
+             FileChannel index = FileChannel.open(indexPath(segment), StandardOpenOption.READ)) {
+            return new Sealed(segment, log.map(FileChannel.MapMode.READ_ONLY, 0, log.size()),
+                    index.map(FileChannel.MapMode.READ_ONLY, 0, index.size()));
+        }
+    }
+
+    // Offsets of every complete record in the segment; a torn final record is cut off.
+    private static Map<String, OffsetList> scan(FileChannel ch, Path path) throws IOException {
+        Map<String, OffsetList> offsets = new ConcurrentHashMap<>();
+        long size = ch.size();
+        if (size == 0) return offsets;
+        MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        int lineStart = 0;
+        int tab = -1;
+        for (int i = 0; i < size; i++) {
+            byte b = buf.get(i);
+            if (b == '\t' && tab < 0) {
+                tab = i;
+            } else if (b == '\n') {
+                if (tab > lineStart) {
+                    byte[] acct = new byte[tab - lineStart];
+                    buf.get(lineStart, acct);
+                    offsets.computeIfAbsent(new String(acct, StandardCharsets.UTF_8), k -> new OffsetList()).add(lineStart);
+                }
+                lineStart = i + 1;
+                tab = -1;
+            }
+        }
+        if (lineStart < size) {
+            logger.warn("Truncating torn record at end of {}", path.getFileName());
+            ch.truncate(lineStart);
+        }
+        return offsets;
+    }
+
+    /** Growable list of record offsets in one segment; appended by the writer, copied by readers. */
+    private static final class OffsetList {
+        private int[] offsets = new int[4];
+        private int size;
+
+        synchronized void add(int offset) {
+            if (size == offsets.length) offsets = Arrays.copyOf(offsets, size * 2);
+            offsets[size++] = offset;
+        }
+
+        synchronized int[] snapshot() {
+            return Arrays.copyOf(offsets, size);
+        }
+    }
+}
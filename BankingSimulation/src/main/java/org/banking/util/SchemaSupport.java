@@ -0,0 +1,63 @@
+package org.banking.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Idempotent schema helpers for features that need extra tables, columns or indexes.
+ * Each call checks information_schema first, so it is safe to run on every startup.
+ */
+public final class SchemaSupport {
+
+    private static final Logger logger = LoggerFactory.getLogger(SchemaSupport.class);
+
+    private SchemaSupport() {
+    }
+
+    /** Runs a CREATE TABLE IF NOT EXISTS statement. */
+    public static void ensureTable(Connection conn, String createTableDdl) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute(createTableDdl);
+        }
+    }
+
+    /** Adds a column if missing, e.g. ensureColumn(conn, "accounts", "updated_at", "TIMESTAMP(3) NOT NULL ..."). */
+    public static void ensureColumn(Connection conn, String table, String column, String definition) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.columns "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND column_name = ?";
+        if (exists(conn, sql, table, column)) return;
+
+        logger.info("Adding column {}.{}", table, column);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE " + table + " ADD COLUMN " + column + " " + definition);
+        }
+    }
+
+    /** Adds a (non-unique) index if missing; columns is the column list, e.g. "account_number, timestamp". */
+    public static void ensureIndex(Connection conn, String table, String index, String columns) throws SQLException {
+        String sql = "SELECT COUNT(*) FROM information_schema.statistics "
+                + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ?";
+        if (exists(conn, sql, table, index)) return;
+
+        logger.info("Creating index {} on {}({})", index, table, columns);
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + index + " ON " + table + " (" + columns + ")");
+        }
+    }
+
+    private static boolean exists(Connection conn, String sql, String table, String name) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table);
+            ps.setString(2, name);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getInt(1) > 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.slf4j.impl;
+
+import org.banking.logging.AsyncLoggerFactory;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.spi.LoggerFactoryBinder;
+
+/**
+ * SLF4J 1.7 binding: LoggerFactory finds this class on the classpath and routes every logger
+ * to AsyncLoggerFactory (replaces slf4j-simple).
+ */
+public class StaticLoggerBinder implements LoggerFactoryBinder {
+
+    private static final StaticLoggerBinder SINGLETON = new StaticLoggerBinder();
+
+    // read by LoggerFactory's version check; must not be final, or javac would inline it
+    public static String REQUESTED_API_VERSION = "1.7.36";
+
+    private final ILoggerFactory loggerFactory = new AsyncLoggerFactory();
+
+    private StaticLoggerBinder() {
+    }
+
+    public static StaticLoggerBinder getSingleton() {
+        return SINGLETON;
+    }
+
+    @Override
+    public ILoggerFactory getLoggerFactory() {
+        return loggerFactory;
+    }
+
+    @Override
+    public String getLoggerFactoryClassStr() {
+        return AsyncLoggerFactory.class.getName();
+    }
+}
@@ -0,0 +1,84 @@
+package org.banking.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonTest {
+
+    @Test
+    void parseObjectReturnsValuesAsText() {
+        Map<String, String> fields = Json.parseObject(" {\"user\" : \"alice\", \"amount\":12.50, \"n\":-3e2, \"ok\":true, \"memo\":null} ");
+        assertEquals(List.of("user", "amount", "n", "ok", "memo"), List.copyOf(fields.keySet()));
+        assertEquals("alice", fields.get("user"));
+        assertEquals("12.50", fields.get("amount"));
+        assertEquals("-3e2", fields.get("n"));
+        assertEquals("true", fields.get("ok"));
+        assertNull(fields.get("memo"));
+        assertTrue(fields.containsKey("memo"));
+
+        assertEquals(Map.of(), Json.parseObject("{}"));
+        assertEquals(Map.of(), Json.parseObject("\n{ }\n"));
+    }
+
+    @Test
+    void parseObjectDecodesEscapes() {
+        Map<String, String> fields = Json.parseObject(
+                "{\"q\":\"say \\\"hi\\\"\", \"path\":\"a\\\\b\\/c\", \"ws\":\"1\\n2\\t3\\r\\b\\f\","
+                        + " \"u\":\"caf\\u00e9\", \"pair\":\"\\ud83d\\ude00\", \"k\\u0065y\":\"v\"}");
+        assertEquals("say \"hi\"", fields.get("q"));
+        assertEquals("a\\b/c", fields.get("path"));
+        assertEquals("1\n2\t3\r\b\f", fields.get("ws"));
+        assertEquals("café", fields.get("u"));
+        assertEquals("😀", fields.get("pair"));
+        assertEquals("v", fields.get("key"));
+    }
+
+    @Test
+    void parseObjectRejectsBadEscapes() {
+        assertRejected("{\"a\":\"\\x\"}", "Bad escape");
+        assertRejected("{\"a\":\"\\u12\"}", "Bad unicode escape");
+        assertRejected("{\"a\":\"\\u00zz\"}", "Bad unicode escape");
+        assertRejected("{\"a\":\"\\u+041\"}", "Bad unicode escape");
+        assertRejected("{\"a\":\"unterminated}", "Unexpected end of input");
+    }
+
+    @Test
+    void parseObjectRejectsTrailingInput() {
+        assertEquals(Map.of("a", "1"), Json.parseObject("{\"a\":1}  \r\n"));
+        assertRejected("{\"a\":1} x", "Trailing characters");
+        assertRejected("{\"a\":1}{}", "Trailing characters");
+        assertRejected("{\"a\":1},", "Trailing characters");
+        assertRejected("{\"a\":1", "Unexpected end of input");
+    }
+
+    @Test
+    void parseObjectRejectsWhatItDoesNotSupport() {
+        assertRejected("[1]", "Expected '{'");
+        assertRejected("{\"a\":1 \"b\":2}", "Expected ',' or '}'");
+        assertRejected("{\"a\":abc}", "Unsupported value");
+        assertRejected("{\"a\":1x}", "Unsupported value");
+        assertRejected("{\"a\":{\"b\":1}}", "Unsupported value");
+        assertRejected("{a:1}", "Expected '\"'");
+    }
+
+    @Test
+    void writtenStringsParseBack() {
+        String tricky = "quote\" slash\\ nl\n tab\t ctl\u0001 é";
+        Json json = Json.object().put("s", tricky).put("nothing", null).put("n", 42);
+
+        Map<String, String> parsed = Json.parseObject(json.toString());
+        assertEquals(tricky, parsed.get("s"));
+        assertNull(parsed.get("nothing"));
+        assertEquals("42", parsed.get("n"));
+        assertEquals(List.of("s", "nothing", "n"), List.copyOf(parsed.keySet()));
+    }
+
+    private static void assertRejected(String text, String reason) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> Json.parseObject(text), text);
+        assertTrue(e.getMessage().startsWith(reason), e.getMessage());
+    }
+}
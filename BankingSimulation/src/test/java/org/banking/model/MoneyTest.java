@@ -0,0 +1,49 @@
+package org.banking.model;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void parseReadsSignAndDecimals() {
+        assertEquals(1200, Money.parse("12").minorUnits());
+        assertEquals(1250, Money.parse("12.5").minorUnits());
+        assertEquals(1205, Money.parse("12.05").minorUnits());
+        assertEquals(-1250, Money.parse("-12.50").minorUnits());
+        assertEquals(1200, Money.parse("+12").minorUnits());
+        assertEquals(50, Money.parse(".5").minorUnits());
+        assertEquals(1200, Money.parse("12.").minorUnits());
+        assertEquals(-5, Money.parse("-0.05").minorUnits());
+        assertEquals(705, Money.parse("  7.05 ").minorUnits());
+        assertSame(Money.ZERO, Money.parse("-0.00"));
+    }
+
+    @Test
+    void parseRejectsAnythingButAPlainAmount() {
+        for (String text : new String[] {"", "-", "+", ".", "-.", "1.234", "1,50", "1e3", "--1", "+-1", "1.-5", "1.5.0", "12a", "0x10", " 1 2"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), "\"" + text + "\"");
+        }
+    }
+
+    @Test
+    void parseReportsOverflowAsOutOfRange() {
+        assertEquals(Long.MAX_VALUE, Money.parse("92233720368547758.07").minorUnits());
+        assertEquals(-Long.MAX_VALUE, Money.parse("-92233720368547758.07").minorUnits());
+
+        for (String text : new String[] {"92233720368547758.08", "92233720368547759", "-92233720368547758.08", "99999999999999999999"}) {
+            NumberFormatException e = assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+            assertTrue(e.getMessage().startsWith("amount out of range"), e.getMessage());
+        }
+    }
+
+    @Test
+    void toStringRoundTripsThroughParse() {
+        for (long minor : new long[] {0, 5, -5, 50, -50, 1234, -1234, Long.MAX_VALUE, -Long.MAX_VALUE}) {
+            Money m = Money.ofMinor(minor);
+            assertEquals(m, Money.parse(m.toString()), m.toString());
+        }
+        assertEquals("-0.50", Money.ofMinor(-50).toString());
+    }
+}
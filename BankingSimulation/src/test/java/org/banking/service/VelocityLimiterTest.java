@@ -0,0 +1,141 @@
+package org.banking.service;
+
+import org.banking.service.VelocityLimiter.Limit;
+import org.banking.service.VelocityLimiter.Settings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VelocityLimiterTest {
+
+    private static final long DAY = 86_400_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void windowSpansTheEpochWraparound() {
+        VelocityLimiter limiter = limiter("count:3/12s"); // 12 buckets of one second
+        long wrap = (1L << 24) * 1000; // bucket epochs are stored in 24 bits and wrap to 0 here
+
+        assertNull(limiter.tryAcquire("A", 1, wrap - 2000));
+        assertNull(limiter.tryAcquire("A", 1, wrap - 2000));
+        assertNull(limiter.tryAcquire("A", 1, wrap + 1000));
+        assertEquals("count:3/12s", limiter.tryAcquire("A", 1, wrap + 1000).spec(), "buckets before the wrap still count");
+
+        // ten seconds on, the two debits from before the wrap have left the window
+        assertNull(limiter.tryAcquire("A", 1, wrap + 10_000));
+        assertNull(limiter.tryAcquire("A", 1, wrap + 10_000));
+        assertNotNull(limiter.tryAcquire("A", 1, wrap + 10_000));
+    }
+
+    @Test
+    void largeTotalsDoNotSpillIntoTheEpoch() {
+        // totals around 2^39 use the top bits a bucket total has, next to the 24-bit epoch
+        VelocityLimiter limiter = limiter("amount:5000000000.00/1m");
+        long now = 5 * DAY;
+
+        assertNull(limiter.tryAcquire("A", 300_000_000_000L, now));
+        assertNotNull(limiter.tryAcquire("A", 300_000_000_000L, now));
+        assertNull(limiter.tryAcquire("A", 200_000_000_000L, now));
+        assertNotNull(limiter.tryAcquire("A", 1, now + 1000), "a later bucket still sees the full total");
+        assertNull(limiter.tryAcquire("A", 500_000_000_000L, now + 60_000));
+    }
+
+    @Test
+    void breachUndoesEveryLimitAlreadyCounted() {
+        VelocityLimiter limiter = limiter("count:5/1m", "amount:100.00/1m");
+        long now = DAY;
+
+        assertNull(limiter.tryAcquire("A", 6000, now));
+        Limit breached = limiter.tryAcquire("A", 5000, now);
+        assertEquals(Limit.Kind.AMOUNT, breached.kind());
+
+        // had the refused debit stayed in the count limit, the fourth of these would be the sixth debit
+        for (int i = 0; i < 4; i++) assertNull(limiter.tryAcquire("A", 1000, now), "debit " + i);
+        assertEquals(Limit.Kind.COUNT, limiter.tryAcquire("A", 1, now).kind());
+    }
+
+    @Test
+    void releaseTakesBackAnAdmittedDebit() {
+        VelocityLimiter limiter = limiter("count:1/1m");
+        long now = DAY;
+
+        assertNull(limiter.tryAcquire("A", 1, now));
+        assertNotNull(limiter.tryAcquire("A", 1, now));
+        limiter.release("A", 1, now);
+        assertNull(limiter.tryAcquire("A", 1, now));
+    }
+
+    @Test
+    void sweepDropsOnlyIdleAccounts() {
+        VelocityLimiter limiter = limiter("count:1/1m", "count:10/1h");
+        long now = DAY;
+        clock.set(now);
+        limiter.tryAcquire("old", 1, now - 3_600_001);
+        limiter.tryAcquire("recent", 1, now - 3_599_000);
+
+        limiter.sweep();
+        assertEquals(1, limiter.trackedAccounts());
+        assertNotNull(limiter.tryAcquire("recent", 1, now - 3_599_000), "a surviving account keeps its counts");
+    }
+
+    @Test
+    void sweepRacingFirstDebitsNeverLosesACount() throws Exception {
+        VelocityLimiter limiter = limiter("count:3/1d");
+        long now = 10 * DAY;
+        clock.set(now); // a brand new account looks idle to the sweeper until its first debit lands
+
+        int threads = 8;
+        int accountsPerThread = 500;
+        AtomicBoolean done = new AtomicBoolean();
+        Thread sweeper = new Thread(() -> {
+            while (!done.get()) limiter.sweep();
+        });
+        sweeper.start();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                results.add(pool.submit(() -> {
+                    List<String> wrong = new ArrayList<>();
+                    for (int a = 0; a < accountsPerThread; a++) {
+                        String account = thread + "-" + a;
+                        int admitted = 0;
+                        for (int d = 0; d < 4; d++) {
+                            if (limiter.tryAcquire(account, 1, now) == null) admitted++;
+                        }
+                        if (admitted != 3) wrong.add(account + " admitted " + admitted);
+                    }
+                    return wrong;
+                }));
+            }
+            for (Future<List<String>> result : results) assertEquals(List.of(), result.get(30, TimeUnit.SECONDS));
+        } finally {
+            done.set(true);
+            sweeper.join();
+            pool.shutdownNow();
+        }
+
+        assertEquals(threads * accountsPerThread, limiter.trackedAccounts());
+        clock.set(now + DAY + 1);
+        limiter.sweep();
+        assertEquals(0, limiter.trackedAccounts());
+    }
+
+    private VelocityLimiter limiter(String... specs) {
+        List<Limit> limits = new ArrayList<>();
+        for (String spec : specs) limits.add(Limit.parse(spec));
+        return new VelocityLimiter(new Settings(true, limits, 12, 3600), clock::get);
+    }
+}
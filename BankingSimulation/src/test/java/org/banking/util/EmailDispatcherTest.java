@@ -0,0 +1,154 @@
+package org.banking.util;
+
+import org.banking.util.EmailDispatcher.OutboundEmail;
+import org.banking.util.FakeSmtpTransport.Relay;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailDispatcherTest {
+
+    private final Relay relay = new Relay();
+    private EmailDispatcher dispatcher;
+
+    @AfterEach
+    void stop() {
+        relay.open();
+        if (dispatcher != null) dispatcher.shutdown(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void queuedEmailsShareOneConnection() throws Exception {
+        dispatcher = start(settings(100, 20, 3, 10, 10));
+        relay.hold();
+        assertTrue(dispatcher.submit(email("m0")));
+        relay.awaitStalled(); // the rest queue up behind m0 and go out as one batch
+        List<String> expected = new ArrayList<>(List.of("m0"));
+        for (int i = 1; i < 10; i++) {
+            assertTrue(dispatcher.submit(email("m" + i)));
+            expected.add("m" + i);
+        }
+        relay.open();
+
+        relay.await(a -> a.size() == 10);
+        assertEquals(expected, relay.delivered());
+        assertEquals(1, relay.connects());
+        assertEquals(10, dispatcher.getStats().sent());
+    }
+
+    @Test
+    void failedSendIsRetriedWithExponentialBackoff() throws Exception {
+        dispatcher = start(settings(100, 20, 3, 100, 10));
+        relay.failNext(2);
+        dispatcher.submit(email("retry"));
+
+        List<Relay.Attempt> attempts = relay.await(a -> a.size() == 3);
+        assertEquals(List.of(false, false, true), attempts.stream().map(Relay.Attempt::delivered).toList());
+        assertTrue(attempts.get(1).atMillis() - attempts.get(0).atMillis() >= 95, "first backoff " + attempts);
+        assertTrue(attempts.get(2).atMillis() - attempts.get(1).atMillis() >= 195, "second backoff doubles " + attempts);
+        assertEquals(3, relay.connects()); // a failed send drops the connection
+
+        EmailDispatcher.Stats stats = dispatcher.getStats();
+        assertEquals(2, stats.retries());
+        assertEquals(1, stats.sent());
+        assertEquals(0, stats.failed());
+    }
+
+    @Test
+    void emailIsFailedAfterMaxAttempts() throws Exception {
+        dispatcher = start(settings(100, 20, 2, 10, 10));
+        relay.failNext(2);
+        dispatcher.submit(email("lost"));
+        dispatcher.submit(email("next"));
+
+        relay.await(a -> a.size() == 3);
+        assertEquals(List.of("next"), relay.delivered());
+        awaitStats(s -> s.failed() == 1 && s.sent() == 1);
+    }
+
+    @Test
+    void circuitOpensAfterConsecutiveFailuresAndClosesOnSuccessfulProbe() throws Exception {
+        dispatcher = start(settings(100, 20, 1, 10, 2, 400));
+        relay.failNext(2);
+        dispatcher.submit(email("a"));
+        dispatcher.submit(email("b"));
+        relay.await(a -> a.size() == 2);
+        awaitStats(s -> s.circuitState().equals("OPEN"));
+
+        dispatcher.submit(email("probe"));
+        List<Relay.Attempt> attempts = relay.await(a -> a.size() == 3);
+        assertEquals(List.of("probe"), relay.delivered());
+        assertTrue(attempts.get(2).atMillis() - attempts.get(1).atMillis() >= 390, "delivery paused while open " + attempts);
+        awaitStats(s -> s.circuitState().equals("CLOSED") && s.failed() == 2 && s.sent() == 1);
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws Exception {
+        dispatcher = start(settings(100, 20, 1, 10, 2, 300));
+        relay.failNext(3);
+        dispatcher.submit(email("a"));
+        dispatcher.submit(email("b"));
+        dispatcher.submit(email("probe"));
+        dispatcher.submit(email("c"));
+
+        List<Relay.Attempt> attempts = relay.await(a -> a.size() == 4);
+        assertEquals(List.of("c"), relay.delivered());
+        assertTrue(attempts.get(2).atMillis() - attempts.get(1).atMillis() >= 290, "first pause " + attempts);
+        assertTrue(attempts.get(3).atMillis() - attempts.get(2).atMillis() >= 290, "a failed probe pauses again " + attempts);
+        awaitStats(s -> s.circuitState().equals("CLOSED"));
+    }
+
+    @Test
+    void emailIsDroppedWhenQueueStaysFull() throws Exception {
+        dispatcher = start(settings(2, 20, 3, 10, 10));
+        relay.hold();
+        assertTrue(dispatcher.submit(email("m0")));
+        relay.awaitStalled(); // the worker holds m0, so the queue's two slots are free
+        assertTrue(dispatcher.submit(email("m1")));
+        assertTrue(dispatcher.submit(email("m2")));
+
+        long start = System.nanoTime();
+        assertFalse(dispatcher.submit(email("m3")));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2), "submit must not block past its timeout");
+        EmailDispatcher.Stats stats = dispatcher.getStats();
+        assertEquals(1, stats.dropped());
+        assertEquals(3, stats.enqueued());
+
+        relay.open();
+        relay.await(a -> a.size() == 3);
+        assertEquals(List.of("m0", "m1", "m2"), relay.delivered());
+    }
+
+    private EmailDispatcher start(EmailDispatcher.Settings settings) {
+        return new EmailDispatcher(FakeSmtpTransport.session(relay), "bank@example.com", settings);
+    }
+
+    private static EmailDispatcher.Settings settings(int capacity, int batchSize, int maxAttempts, long backoffMillis,
+                                                     int circuitThreshold) {
+        return settings(capacity, batchSize, maxAttempts, backoffMillis, circuitThreshold, 30_000);
+    }
+
+    private static EmailDispatcher.Settings settings(int capacity, int batchSize, int maxAttempts, long backoffMillis,
+                                                     int circuitThreshold, long circuitOpenMillis) {
+        return new EmailDispatcher.Settings(capacity, batchSize, 20, maxAttempts, backoffMillis, backoffMillis * 4,
+                circuitThreshold, circuitOpenMillis, 30_000);
+    }
+
+    private static OutboundEmail email(String subject) {
+        return new OutboundEmail("customer@example.com", subject, "<p>" + subject + "</p>");
+    }
+
+    private void awaitStats(Predicate<EmailDispatcher.Stats> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.test(dispatcher.getStats())) {
+            if (System.currentTimeMillis() > deadline) fail("dispatcher never reached the expected state: " + dispatcher.getStats());
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.banking.util;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Provider;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * In-process stand-in for the "smtp" transport: a Session from {@link #session(Relay)} hands out
+ * FakeSmtpTransport instances that deliver into a scripted {@link Relay} instead of the network.
+ */
+public class FakeSmtpTransport extends Transport {
+
+    private final int connection;
+
+    public FakeSmtpTransport(Session session, URLName urlname) {
+        super(session, urlname);
+        this.connection = relay().connects.incrementAndGet();
+    }
+
+    /** A Session whose "smtp" transport is this class, delivering into the relay. */
+    public static Session session(Relay relay) {
+        Properties props = new Properties();
+        props.put(Relay.class.getName(), relay);
+        Session session = Session.getInstance(props);
+        try {
+            session.setProvider(new Provider(Provider.Type.TRANSPORT, "smtp", FakeSmtpTransport.class.getName(),
+                    "org.banking", "test"));
+        } catch (MessagingException e) {
+            throw new IllegalStateException(e);
+        }
+        return session;
+    }
+
+    @Override
+    protected boolean protocolConnect(String host, int port, String user, String password) {
+        return true;
+    }
+
+    @Override
+    public void sendMessage(Message msg, Address[] addresses) throws MessagingException {
+        if (!isConnected()) throw new IllegalStateException("sendMessage on a closed transport");
+        relay().receive(msg.getSubject(), connection);
+    }
+
+    private Relay relay() {
+        return (Relay) session.getProperties().get(Relay.class.getName());
+    }
+
+    /** The fake mail server: records every send attempt and can be told to fail or to stall. */
+    public static final class Relay {
+
+        /** One sendMessage call; connection numbers the Transport it came in on, from 1. */
+        public record Attempt(String subject, int connection, long atMillis, boolean delivered) {
+        }
+
+        private final List<Attempt> attempts = new ArrayList<>();
+        private final AtomicInteger connects = new AtomicInteger();
+        private int failuresLeft;
+        private CountDownLatch gate;
+        private final CountDownLatch stalled = new CountDownLatch(1);
+
+        /** The next n sends fail with a MessagingException, as from a relay that is down. */
+        public synchronized Relay failNext(int n) {
+            failuresLeft = n;
+            return this;
+        }
+
+        /** Sends block until {@link #open()}, so the dispatcher's worker stays busy. */
+        public synchronized Relay hold() {
+            gate = new CountDownLatch(1);
+            return this;
+        }
+
+        public void open() {
+            CountDownLatch g;
+            synchronized (this) {
+                g = gate;
+                gate = null;
+            }
+            if (g != null) g.countDown();
+        }
+
+        /** Waits until a send is blocked in {@link #hold()}. */
+        public void awaitStalled() throws InterruptedException {
+            if (!stalled.await(5, TimeUnit.SECONDS)) throw new AssertionError("no send reached the relay");
+        }
+
+        public int connects() {
+            return connects.get();
+        }
+
+        public synchronized List<Attempt> attempts() {
+            return List.copyOf(attempts);
+        }
+
+        public List<String> delivered() {
+            List<String> subjects = new ArrayList<>();
+            for (Attempt a : attempts()) {
+                if (a.delivered()) subjects.add(a.subject());
+            }
+            return subjects;
+        }
+
+        /** Polls until the attempts satisfy the condition; fails the test after five seconds. */
+        public List<Attempt> await(Predicate<List<Attempt>> condition) throws InterruptedException {
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (System.currentTimeMillis() < deadline) {
+                List<Attempt> seen = attempts();
+                if (condition.test(seen)) return seen;
+                Thread.sleep(10);
+            }
+            throw new AssertionError("relay never reached the expected state: " + attempts());
+        }
+
+        private void receive(String subject, int connection) throws MessagingException {
+            CountDownLatch g;
+            synchronized (this) {
+                g = gate;
+            }
+            if (g != null) {
+                stalled.countDown();
+                try {
+                    g.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MessagingException("interrupted");
+                }
+            }
+            synchronized (this) {
+                boolean fail = failuresLeft > 0;
+                if (fail) failuresLeft--;
+                attempts.add(new Attempt(subject, connection, System.currentTimeMillis(), !fail));
+                if (fail) throw new MessagingException("421 service not available");
+            }
+        }
+    }
+}
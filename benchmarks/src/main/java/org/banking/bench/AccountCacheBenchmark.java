@@ -0,0 +1,59 @@
+package org.banking.bench;
+
+import org.banking.model.Account;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountRepositoryHybrid lookups. The cache holds cache.account.maxSize (benchmark config: 1000)
+ * of the accounts; "hit" reads a pre-warmed hot set, "miss" reads across all accounts, so nearly
+ * every call goes to the backing store and through TinyLFU admission.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AccountCacheBenchmark {
+
+    private static final int HOT_SET = 500;
+
+    @Param({"100000"})
+    public int accounts;
+
+    private BenchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new BenchFixture(accounts);
+        for (int round = 0; round < 3; round++) {
+            for (int i = 0; i < HOT_SET; i++) fixture.accounts.findAccountByNumber(BenchFixture.accountNumber(i));
+        }
+    }
+
+    @Benchmark
+    public Optional<Account> hit() {
+        return fixture.accounts.findAccountByNumber(BenchFixture.accountNumber(ThreadLocalRandom.current().nextInt(HOT_SET)));
+    }
+
+    @Benchmark
+    public Optional<Account> miss() {
+        return fixture.accounts.findAccountByNumber(BenchFixture.accountNumber(ThreadLocalRandom.current().nextInt(accounts)));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Account> hit_4threads() {
+        return hit();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Optional<Account> miss_4threads() {
+        return miss();
+    }
+}
@@ -0,0 +1,71 @@
+package org.banking.bench;
+
+import org.banking.model.Money;
+import org.banking.service.TransactionOutcome;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of BankingService postings over the in-memory repositories: striped locks,
+ * account cache, posting rules and report logging, without MySQL round trips.
+ * The 4-thread variants pick random accounts, so they mostly touch disjoint lock stripes.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BankingServiceBenchmark {
+
+    private static final Money AMOUNT = Money.of(1);
+
+    @Param({"10000"})
+    public int accounts;
+
+    private BenchFixture fixture;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = new BenchFixture(accounts);
+    }
+
+    @Benchmark
+    public TransactionOutcome deposit() {
+        return fixture.service.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionOutcome withdraw() {
+        return fixture.service.withdraw(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionOutcome transfer() {
+        return fixture.service.transfer(randomAccount(), randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TransactionOutcome deposit_4threads() {
+        return deposit();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TransactionOutcome withdraw_4threads() {
+        return withdraw();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public TransactionOutcome transfer_4threads() {
+        return transfer();
+    }
+
+    private String randomAccount() {
+        return BenchFixture.accountNumber(ThreadLocalRandom.current().nextInt(accounts));
+    }
+}
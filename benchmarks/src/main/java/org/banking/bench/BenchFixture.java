@@ -0,0 +1,60 @@
+package org.banking.bench;
+
+import org.banking.dao.AccountRepositoryHybrid;
+import org.banking.dao.CustomerRepositoryCached;
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.service.BankingService;
+
+/**
+ * Wires the production service and caching layers over the in-memory stand-ins, the same way
+ * Main wires them over MySQL, and seeds accountCount funded accounts.
+ * Balances start far above the threshold so benchmarks never hit the low-balance/email paths.
+ */
+public final class BenchFixture {
+
+    public static final long FIRST_ACCOUNT = 1000000001L;
+    public static final Money OPENING_BALANCE = Money.of(1_000_000_000);
+
+    public final InMemoryAccountRepository accountStore;
+    public final InMemoryCustomerRepository customerStore;
+    public final InMemoryTransactionRepository transactionStore;
+    public final AccountRepositoryHybrid accounts;
+    public final CustomerRepositoryCached customers;
+    public final BankingService service;
+    public final int accountCount;
+
+    public BenchFixture(int accountCount) {
+        this.accountCount = accountCount;
+        this.transactionStore = new InMemoryTransactionRepository(64);
+        this.accountStore = new InMemoryAccountRepository(transactionStore);
+        this.customerStore = new InMemoryCustomerRepository();
+        this.accounts = new AccountRepositoryHybrid(accountStore);
+        this.customers = new CustomerRepositoryCached(customerStore);
+        this.service = new BankingService(customers, accounts, transactionStore);
+
+        for (int i = 0; i < accountCount; i++) {
+            Customer c = new Customer();
+            c.setUsername("user" + i);
+            c.setFirstName("Bench");
+            c.setLastName("User" + i);
+            c.setEmail("user" + i + "@bench.invalid");
+            c.setPhoneNumber(String.valueOf(9000000000L + i));
+            int customerId = customerStore.createCustomer(c);
+
+            Account a = new Account();
+            a.setAccountNumber(accountNumber(i));
+            a.setCustomerId(customerId);
+            a.setAccountType("savings");
+            a.setStatus("ACTIVE");
+            a.setBalance(OPENING_BALANCE);
+            a.setMinBalanceThreshold(Money.of(500));
+            accountStore.createAccount(a);
+        }
+    }
+
+    public static String accountNumber(int index) {
+        return String.valueOf(FIRST_ACCOUNT + index);
+    }
+}
@@ -0,0 +1,40 @@
+package org.banking.bench;
+
+import org.banking.model.Money;
+import org.banking.util.EmailService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * EmailService HTML bodies (account masking, currency formatting + text block formatting), which
+ * are built on the caller's thread for every alert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private static final Money BALANCE = Money.parse("420.50");
+    private static final Money THRESHOLD = Money.of(500);
+    private static final Money ATTEMPTED = Money.of(1000);
+
+    @Benchmark
+    public String lowBalanceHtml() {
+        return EmailService.lowBalanceHtml("1000000042", BALANCE, THRESHOLD);
+    }
+
+    @Benchmark
+    public String deniedHtml() {
+        return EmailService.insufficientFundsHtml("1000000042", BALANCE, THRESHOLD, ATTEMPTED);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String lowBalanceHtml_4threads() {
+        return lowBalanceHtml();
+    }
+}
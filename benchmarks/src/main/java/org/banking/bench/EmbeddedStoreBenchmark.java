@@ -0,0 +1,110 @@
+package org.banking.bench;
+
+import org.banking.dao.PostingResult;
+import org.banking.dao.embedded.EmbeddedAccountRepository;
+import org.banking.dao.embedded.EmbeddedCustomerRepository;
+import org.banking.dao.embedded.EmbeddedStore;
+import org.banking.dao.embedded.EmbeddedTransactionRepository;
+import org.banking.model.Account;
+import org.banking.model.Customer;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+import org.banking.service.BankingService;
+import org.banking.service.TransactionOutcome;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Postings over the embedded storage engine (storage.engine=embedded) in a temp directory.
+ * - deposit/transfer go through BankingService, so they include report logging; compare with
+ *   BankingServiceBenchmark, which has no storage I/O at all.
+ * - postDeposit* call the repository directly. With fsync=true each posting waits for its journal
+ *   record to reach the disk; the 16-thread variant shows group commit sharing one fsync.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EmbeddedStoreBenchmark {
+
+    private static final Money AMOUNT = Money.of(1);
+
+    @Param({"10000"})
+    public int accounts;
+
+    @Param({"true", "false"})
+    public boolean fsync;
+
+    private Path dir;
+    private EmbeddedStore store;
+    private EmbeddedAccountRepository accountRepo;
+    private BankingService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("embedded-bench");
+        store = EmbeddedStore.open(new EmbeddedStore.Settings(dir, fsync, 0, 8192, 256));
+        EmbeddedCustomerRepository customers = new EmbeddedCustomerRepository(store);
+        accountRepo = new EmbeddedAccountRepository(store);
+        service = new BankingService(customers, accountRepo, new EmbeddedTransactionRepository(store));
+
+        for (int i = 0; i < accounts; i++) {
+            Customer c = new Customer();
+            c.setUsername("user" + i);
+            c.setEmail("user" + i + "@bench.invalid");
+            c.setPhoneNumber(String.valueOf(9000000000L + i));
+            Account a = new Account();
+            a.setAccountNumber(BenchFixture.accountNumber(i));
+            a.setCustomerId(customers.createCustomer(c));
+            a.setAccountType("savings");
+            a.setBalance(BenchFixture.OPENING_BALANCE);
+            a.setMinBalanceThreshold(Money.of(500));
+            accountRepo.createAccount(a);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        store.close();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Benchmark
+    public TransactionOutcome deposit() {
+        return service.deposit(randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public TransactionOutcome transfer() {
+        return service.transfer(randomAccount(), randomAccount(), AMOUNT);
+    }
+
+    @Benchmark
+    public PostingResult postDeposit() {
+        String account = randomAccount();
+        return accountRepo.postDeposit(account, AMOUNT, new Transaction(account, "DEPOSIT", AMOUNT,
+                new Timestamp(System.currentTimeMillis()), "Deposit"));
+    }
+
+    @Benchmark
+    @Threads(16)
+    public PostingResult postDeposit_16threads() {
+        return postDeposit();
+    }
+
+    private String randomAccount() {
+        return BenchFixture.accountNumber(ThreadLocalRandom.current().nextInt(accounts));
+    }
+}
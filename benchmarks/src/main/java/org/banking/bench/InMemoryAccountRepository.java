@@ -0,0 +1,147 @@
+package org.banking.bench;
+
+import org.banking.dao.AccountRepository;
+import org.banking.dao.Posting;
+import org.banking.dao.PostingResult;
+import org.banking.model.Account;
+import org.banking.model.Money;
+import org.banking.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for AccountRepositoryImpl: same posting rules, no MySQL.
+ * Each account's Account object is its own monitor; transfers lock both in account-number
+ * order, mirroring the row-lock order of the JDBC implementation.
+ */
+public class InMemoryAccountRepository implements AccountRepository {
+
+    private final Map<String, Account> accounts = new ConcurrentHashMap<>();
+    private final Map<Integer, String> byCustomer = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong(1000000001L);
+    private final TransactionSink ledger;
+
+    /** Receives the transactions rows a posting would have inserted. */
+    @FunctionalInterface
+    public interface TransactionSink {
+        void accept(List<Transaction> entries);
+    }
+
+    public InMemoryAccountRepository(TransactionSink ledger) {
+        this.ledger = ledger;
+    }
+
+    @Override
+    public void createAccount(Account account) {
+        accounts.put(account.getAccountNumber(), copy(account));
+        byCustomer.put(account.getCustomerId(), account.getAccountNumber());
+    }
+
+    @Override
+    public PostingResult openAccount(Account account, Transaction openingEntry) {
+        Account stored = copy(account);
+        if (openingEntry == null) stored.setBalance(Money.ZERO);
+        accounts.put(stored.getAccountNumber(), stored);
+        byCustomer.put(stored.getCustomerId(), stored.getAccountNumber());
+        if (openingEntry != null) ledger.accept(List.of(openingEntry));
+        return PostingResult.applied(null, stored.getBalance());
+    }
+
+    @Override
+    public Optional<Account> findAccountByNumber(String accountNumber) {
+        Account a = accounts.get(accountNumber);
+        return a == null ? Optional.empty() : Optional.of(copy(a)); // callers get a snapshot, as from a ResultSet
+    }
+
+    @Override
+    public Optional<Account> findAccountByCustomerId(int customerId) {
+        String accountNumber = byCustomer.get(customerId);
+        return accountNumber == null ? Optional.empty() : findAccountByNumber(accountNumber);
+    }
+
+    @Override
+    public void updateAccountBalance(String accountNumber, Money newBalance) {
+        Account a = accounts.get(accountNumber);
+        if (a == null) return;
+        synchronized (a) {
+            a.setBalance(newBalance);
+        }
+    }
+
+    @Override
+    public Optional<Long> findLastAccountNumber() {
+        return Optional.of(sequence.get() - 1);
+    }
+
+    @Override
+    public Optional<Long> nextAccountNumber() {
+        return Optional.of(sequence.getAndIncrement());
+    }
+
+    @Override
+    public PostingResult postDeposit(String accountNumber, Money amount, Transaction entry) {
+        return applyPostings(List.of(Posting.deposit(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postWithdrawal(String accountNumber, Money amount, Transaction entry) {
+        return applyPostings(List.of(Posting.withdrawal(accountNumber, amount, entry))).get(0);
+    }
+
+    @Override
+    public PostingResult postTransfer(String fromAccount, String toAccount, Money amount,
+                                      Transaction debitEntry, Transaction creditEntry) {
+        return applyPostings(List.of(Posting.transfer(fromAccount, toAccount, amount, debitEntry, creditEntry))).get(0);
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<Posting> postings) {
+        List<PostingResult> results = new ArrayList<>(postings.size());
+        for (Posting p : postings) results.add(apply(p));
+        return results;
+    }
+
+    private PostingResult apply(Posting p) {
+        Account debit = p.debitAccount() == null ? null : accounts.get(p.debitAccount());
+        Account credit = p.creditAccount() == null ? null : accounts.get(p.creditAccount());
+        if ((p.debitAccount() != null && debit == null) || (p.creditAccount() != null && credit == null)) {
+            return PostingResult.notFound();
+        }
+
+        Account first = debit == null ? credit : credit == null ? debit
+                : debit.getAccountNumber().compareTo(credit.getAccountNumber()) <= 0 ? debit : credit;
+        Account second = first == debit ? credit : debit;
+        synchronized (first) {
+            if (second == null || second == first) return applyLocked(p, debit, credit);
+            synchronized (second) {
+                return applyLocked(p, debit, credit);
+            }
+        }
+    }
+
+    private PostingResult applyLocked(Posting p, Account debit, Account credit) {
+        if (debit != null && debit.getBalance().subtract(p.amount()).isLessThan(debit.getMinBalanceThreshold())) {
+            return PostingResult.insufficientFunds(debit.getBalance());
+        }
+        if (debit != null) debit.setBalance(debit.getBalance().subtract(p.amount()));
+        if (credit != null) credit.setBalance(credit.getBalance().add(p.amount()));
+        ledger.accept(p.entries());
+        return PostingResult.applied(debit == null ? null : debit.getBalance(), credit == null ? null : credit.getBalance());
+    }
+
+    private static Account copy(Account a) {
+        Account c = new Account();
+        c.setAccountNumber(a.getAccountNumber());
+        c.setCustomerId(a.getCustomerId());
+        c.setAccountType(a.getAccountType());
+        c.setStatus(a.getStatus());
+        c.setBalance(a.getBalance());
+        c.setMinBalanceThreshold(a.getMinBalanceThreshold());
+        return c;
+    }
+}
@@ -0,0 +1,73 @@
+package org.banking.bench;
+
+import org.banking.dao.CustomerRepository;
+import org.banking.model.Customer;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/** Stand-in for CustomerRepositoryImpl backed by hash maps. */
+public class InMemoryCustomerRepository implements CustomerRepository {
+
+    private final Map<Integer, Customer> byId = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byUsername = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byEmail = new ConcurrentHashMap<>();
+    private final Map<String, Integer> byPhone = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+
+    @Override
+    public int createCustomer(Customer customer) {
+        int id = ids.incrementAndGet();
+        customer.setCustomerId(id);
+        byId.put(id, customer);
+        if (customer.getUsername() != null) byUsername.put(customer.getUsername(), id);
+        if (customer.getEmail() != null) byEmail.put(customer.getEmail(), id);
+        if (customer.getPhoneNumber() != null) byPhone.put(customer.getPhoneNumber(), id);
+        return id;
+    }
+
+    @Override
+    public Optional<Customer> findCustomerById(int customerId) {
+        return Optional.ofNullable(byId.get(customerId));
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByUsername(String username) {
+        return byKey(byUsername, username);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByEmail(String email) {
+        return byKey(byEmail, email);
+    }
+
+    @Override
+    public Optional<Customer> findCustomerByPhoneNumber(String phoneNumber) {
+        return byKey(byPhone, phoneNumber);
+    }
+
+    @Override
+    public boolean updatePasswordHash(int customerId, String passwordHash) {
+        Customer c = byId.get(customerId);
+        if (c == null) return false;
+        c.setPasswordHash(passwordHash);
+        return true;
+    }
+
+    @Override
+    public boolean deleteCustomer(int customerId) {
+        Customer c = byId.remove(customerId);
+        if (c == null) return false;
+        if (c.getUsername() != null) byUsername.remove(c.getUsername(), customerId);
+        if (c.getEmail() != null) byEmail.remove(c.getEmail(), customerId);
+        if (c.getPhoneNumber() != null) byPhone.remove(c.getPhoneNumber(), customerId);
+        return true;
+    }
+
+    private Optional<Customer> byKey(Map<String, Integer> index, String key) {
+        Integer id = index.get(key);
+        return id == null ? Optional.empty() : findCustomerById(id);
+    }
+}
@@ -0,0 +1,91 @@
+package org.banking.bench;
+
+import org.banking.dao.TransactionPage;
+import org.banking.dao.TransactionRepository;
+import org.banking.model.Transaction;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Stand-in for TransactionRepositoryImpl. Keeps only the newest maxPerAccount rows per account,
+ * so long benchmark runs don't measure heap growth instead of the code under test.
+ */
+public class InMemoryTransactionRepository implements TransactionRepository, InMemoryAccountRepository.TransactionSink {
+
+    private static final Comparator<Transaction> NEWEST_FIRST =
+            Comparator.comparing(Transaction::getTimestamp).thenComparingInt(Transaction::getTransactionId).reversed();
+
+    private final Map<String, Deque<Transaction>> byAccount = new ConcurrentHashMap<>();
+    private final AtomicInteger ids = new AtomicInteger();
+    private final int maxPerAccount;
+
+    public InMemoryTransactionRepository(int maxPerAccount) {
+        this.maxPerAccount = maxPerAccount;
+    }
+
+    @Override
+    public void accept(List<Transaction> entries) {
+        for (Transaction t : entries) saveTransaction(t);
+    }
+
+    @Override
+    public void saveTransaction(Transaction transaction) {
+        transaction.setTransactionId(ids.incrementAndGet());
+        Deque<Transaction> rows = byAccount.computeIfAbsent(transaction.getAccountNumber(), k -> new ConcurrentLinkedDeque<>());
+        rows.addFirst(transaction);
+        if (rows.size() > maxPerAccount) rows.pollLast();
+    }
+
+    @Override
+    public List<Transaction> getTransactionsForAccount(String accountNumber) {
+        List<Transaction> list = new ArrayList<>(byAccount.getOrDefault(accountNumber, new ConcurrentLinkedDeque<>()));
+        list.sort(NEWEST_FIRST);
+        return list;
+    }
+
+    @Override
+    public TransactionPage getTransactionPage(String accountNumber, TransactionPage.Cursor after, int pageSize) {
+        List<Transaction> items = new ArrayList<>(pageSize);
+        TransactionPage.Cursor next = null;
+        for (Transaction t : getTransactionsForAccount(accountNumber)) {
+            if (after != null && NEWEST_FIRST.compare(t, cursorRow(after)) <= 0) continue;
+            if (items.size() == pageSize) {
+                next = TransactionPage.Cursor.after(items.get(items.size() - 1));
+                break;
+            }
+            items.add(t);
+        }
+        return new TransactionPage(items, next);
+    }
+
+    @Override
+    public List<Transaction> getTransactionsSince(String accountNumber, int afterTransactionId, int limit) {
+        List<Transaction> list = new ArrayList<>();
+        for (Transaction t : getTransactionsForAccount(accountNumber).reversed()) {
+            if (t.getTransactionId() > afterTransactionId && list.size() < limit) list.add(t);
+        }
+        return list;
+    }
+
+    @Override
+    public long forEachTransaction(String accountNumber, Consumer<Transaction> consumer) {
+        List<Transaction> rows = getTransactionsForAccount(accountNumber);
+        rows.forEach(consumer);
+        return rows.size();
+    }
+
+    private static Transaction cursorRow(TransactionPage.Cursor c) {
+        Transaction t = new Transaction();
+        t.setTimestamp(c.timestamp());
+        t.setTransactionId(c.transactionId());
+        return t;
+    }
+}
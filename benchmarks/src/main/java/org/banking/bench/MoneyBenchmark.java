@@ -0,0 +1,81 @@
+package org.banking.bench;
+
+import org.banking.model.Money;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amount arithmetic on the posting path, BigDecimal (what the model used before Money) vs Money.
+ * - "posting": the withdrawal check and balance update, balance - amount >= threshold
+ * - "statement": summing a page of 64 transaction amounts
+ * Run with -prof gc to see the allocation per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+
+    private static final int SIZE = 1024;     // power of two, indexed with a mask
+    private static final int PAGE = 64;
+
+    private final BigDecimal[] decimalBalances = new BigDecimal[SIZE];
+    private final BigDecimal[] decimalAmounts = new BigDecimal[SIZE];
+    private final Money[] moneyBalances = new Money[SIZE];
+    private final Money[] moneyAmounts = new Money[SIZE];
+    private final BigDecimal decimalThreshold = new BigDecimal("500.00");
+    private final Money moneyThreshold = Money.of(500);
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < SIZE; i++) {
+            long balance = 50_000 + random.nextLong(10_000_000);
+            long amount = 1 + random.nextInt(100_000);
+            decimalBalances[i] = BigDecimal.valueOf(balance, 2);
+            decimalAmounts[i] = BigDecimal.valueOf(amount, 2);
+            moneyBalances[i] = Money.ofMinor(balance);
+            moneyAmounts[i] = Money.ofMinor(amount);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal posting_bigDecimal() {
+        int i = next++ & (SIZE - 1);
+        BigDecimal after = decimalBalances[i].subtract(decimalAmounts[i]);
+        if (after.compareTo(decimalThreshold) < 0) after = decimalBalances[i].add(decimalAmounts[i]);
+        decimalBalances[i] = after;
+        return after;
+    }
+
+    @Benchmark
+    public Money posting_money() {
+        int i = next++ & (SIZE - 1);
+        Money after = moneyBalances[i].subtract(moneyAmounts[i]);
+        if (after.isLessThan(moneyThreshold)) after = moneyBalances[i].add(moneyAmounts[i]);
+        moneyBalances[i] = after;
+        return after;
+    }
+
+    @Benchmark
+    public BigDecimal statement_bigDecimal() {
+        int from = (next++ * PAGE) & (SIZE - 1);
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = from; i < from + PAGE; i++) total = total.add(decimalAmounts[i]);
+        return total;
+    }
+
+    @Benchmark
+    public Money statement_money() {
+        int from = (next++ * PAGE) & (SIZE - 1);
+        Money total = Money.ZERO;
+        for (int i = from; i < from + PAGE; i++) total = total.add(moneyAmounts[i]);
+        return total;
+    }
+}
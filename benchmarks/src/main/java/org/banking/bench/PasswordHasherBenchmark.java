@@ -0,0 +1,57 @@
+package org.banking.bench;
+
+import org.banking.service.PasswordHasher;
+import org.openjdk.jmh.annotations.*;
+
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of hashing and verifying one password per PBKDF2 iteration count, plus the legacy
+ * SHA-256 check for comparison. For logins through the verifier pool see PasswordVerifierBenchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordHasherBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"10000", "210000"})
+    public int iterations;
+
+    private String stored;
+    private String legacy;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        stored = PasswordHasher.hashPassword(PASSWORD, iterations);
+        // pre-PBKDF2 format: Base64(SHA-256(password)), no salt
+        legacy = Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(PASSWORD.getBytes()));
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordHasher.hashPassword(PASSWORD, iterations);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordHasher.checkPassword(PASSWORD, stored);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public boolean verify_4threads() {
+        return verify();
+    }
+
+    @Benchmark
+    public boolean verifyLegacy() {
+        return PasswordHasher.checkPassword(PASSWORD, legacy);
+    }
+}
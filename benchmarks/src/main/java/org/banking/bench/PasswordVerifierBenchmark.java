@@ -0,0 +1,51 @@
+package org.banking.bench;
+
+import org.banking.service.PasswordHasher;
+import org.banking.service.PasswordVerifier;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login verification through the bounded PasswordVerifier pool, per PBKDF2 cost. More client threads
+ * than verifier threads keep the pool saturated, as in a login storm, so the sampled latencies include
+ * queueing. Pick the highest cost whose p99 and throughput still meet the deployment's login SLO, then
+ * set security.password.iterations accordingly.
+ */
+@BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordVerifierBenchmark {
+
+    private static final String PASSWORD = "correct horse battery staple";
+
+    @Param({"50000", "210000", "600000"})
+    public int iterations;
+
+    @Param({"4"})
+    public int verifyThreads;
+
+    private PasswordVerifier verifier;
+    private String stored;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stored = PasswordHasher.hashPassword(PASSWORD, iterations);
+        // queue and timeout large enough that no login is refused: this measures cost, not shedding
+        verifier = new PasswordVerifier(verifyThreads, 1024, 60_000, iterations);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public PasswordVerifier.Verification verify_8clients() {
+        return verifier.verify(PASSWORD, stored);
+    }
+}
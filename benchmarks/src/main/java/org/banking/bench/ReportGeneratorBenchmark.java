@@ -0,0 +1,59 @@
+package org.banking.bench;
+
+import org.banking.model.Money;
+import org.banking.util.ReportGenerator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caller-side cost of ReportGenerator writes (report.dir is target/bench-reports in the
+ * benchmark config). logTransaction enqueues into the group-committed ReportLog;
+ * generateAccountSummary replaces the account's pending summary.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportGeneratorBenchmark {
+
+    private static final Money AMOUNT = Money.of(125);
+    private static final Money BALANCE = Money.parse("98765.43");
+
+    @Param({"10000"})
+    public int accounts;
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ReportGenerator.shutdown();
+    }
+
+    @Benchmark
+    public void logTransaction() {
+        ReportGenerator.logTransaction(randomAccount(), "DEPOSIT", AMOUNT, BALANCE);
+    }
+
+    @Benchmark
+    public void generateAccountSummary() {
+        ReportGenerator.generateAccountSummary("Bench User", randomAccount(), BALANCE);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void logTransaction_4threads() {
+        logTransaction();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void generateAccountSummary_4threads() {
+        generateAccountSummary();
+    }
+
+    private String randomAccount() {
+        return BenchFixture.accountNumber(ThreadLocalRandom.current().nextInt(accounts));
+    }
+}
@@ -0,0 +1,67 @@
+package org.banking.bench;
+
+import org.banking.service.VelocityLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one VelocityLimiter check: a count, an hourly and a daily amount limit, 12 buckets each.
+ * Limits are high enough that every debit is admitted, so each call does the full add-and-sum.
+ * "hot" hits a few accounts (CAS contention on the same slots across threads); "spread" picks
+ * from all of them, so the per-account arrays mostly miss the CPU caches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VelocityLimiterBenchmark {
+
+    private static final int HOT_SET = 8;
+
+    @Param({"100000"})
+    public int accounts;
+
+    private VelocityLimiter limiter;
+    private String[] accountNumbers;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<VelocityLimiter.Limit> limits = List.of(
+                VelocityLimiter.Limit.parse("count:1000000000/1m"),
+                VelocityLimiter.Limit.parse("amount:1000000000/1h"),
+                VelocityLimiter.Limit.parse("amount:1000000000/1d"));
+        limiter = new VelocityLimiter(new VelocityLimiter.Settings(true, limits, 12, 60), System::currentTimeMillis);
+        accountNumbers = new String[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountNumbers[i] = BenchFixture.accountNumber(i);
+            limiter.tryAcquire(accountNumbers[i], 100, System.currentTimeMillis());
+        }
+    }
+
+    @Benchmark
+    public VelocityLimiter.Limit hot() {
+        return limiter.tryAcquire(accountNumbers[ThreadLocalRandom.current().nextInt(HOT_SET)], 100, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    public VelocityLimiter.Limit spread() {
+        return limiter.tryAcquire(accountNumbers[ThreadLocalRandom.current().nextInt(accounts)], 100, System.currentTimeMillis());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public VelocityLimiter.Limit hot_4threads() {
+        return hot();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public VelocityLimiter.Limit spread_4threads() {
+        return spread();
+    }
+}